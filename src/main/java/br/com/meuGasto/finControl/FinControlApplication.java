@@ -5,11 +5,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.retry.annotation.EnableRetry;
 
 @SpringBootApplication
 @EnableScheduling
-@EnableRetry
 @EnableConfigurationProperties
 @EnableCaching
 public class FinControlApplication {
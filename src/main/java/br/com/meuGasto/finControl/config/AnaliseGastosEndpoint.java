@@ -0,0 +1,40 @@
+package br.com.meuGasto.finControl.config;
+
+import br.com.meuGasto.finControl.service.AnaliseGastos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manutenção das colunas de gastos em memória via Actuator:
+ * GET /actuator/analise mostra o tamanho e compara com a tabela de gastos e POST /actuator/analise as recarrega.
+ */
+@Component
+@Endpoint(id = "analise")
+@RequiredArgsConstructor
+public class AnaliseGastosEndpoint {
+
+    private final AnaliseGastos analiseGastos;
+
+    @ReadOperation
+    public Map<String, Object> verificar() {
+        List<String> divergencias = analiseGastos.verificarConsistencia();
+        return Map.of("disponivel", analiseGastos.disponivel(),
+                "usuarios", analiseGastos.usuarios(),
+                "gastos", analiseGastos.linhas(),
+                "bytes", analiseGastos.bytes(),
+                "consistente", divergencias.isEmpty(),
+                "divergencias", divergencias);
+    }
+
+    @WriteOperation
+    public Map<String, Object> recarregar() {
+        analiseGastos.recarregar();
+        return verificar();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.meuGasto.finControl.config;
+
+import br.com.meuGasto.finControl.exception.HashSenhaIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa o hash e a verificação de senhas (BCrypt, ~100 ms de CPU cada) num pool próprio de tamanho fixo
+ * com fila limitada, em vez de nas threads do Tomcat. Uma rajada de logins ocupa no máximo
+ * {@code threads + fila} requisições; as demais falham na hora com {@link HashSenhaIndisponivelException}
+ * (503 com Retry-After), e o restante da API mantém suas threads e sua latência.
+ * Métricas: executor.*{name="senhaHash"} (incluindo executor.queued) e senha.hash.rejeicoes.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSegundos;
+    private final Counter rejeicoes;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegado, int threads, int capacidadeFila, long retryAfterSegundos,
+                                  MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.retryAfterSegundos = retryAfterSegundos;
+        AtomicInteger contadorThreads = new AtomicInteger();
+        int tamanho = Math.max(threads, 1);
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(capacidadeFila, 1)), tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-hash-" + contadorThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "senhaHash");
+        this.rejeicoes = Counter.builder("senha.hash.rejeicoes")
+                .description("Hashes/verificações de senha recusados com o executor saturado")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            rejeicoes.increment();
+            throw new HashSenhaIndisponivelException(retryAfterSegundos);
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashSenhaIndisponivelException(retryAfterSegundos);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
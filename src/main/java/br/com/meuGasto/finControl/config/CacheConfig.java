@@ -1,27 +1,145 @@
 package br.com.meuGasto.finControl.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
-import java.time.Duration;
-import java.util.Objects;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Caches do Spring em Caffeine, cada um com a própria especificação (formato de
+ * {@link com.github.benmanes.caffeine.cache.CaffeineSpec}) lida de app.cache.specs.&lt;nome&gt;, ou
+ * app.cache.padrao quando ausente. maximumWeight usa o número de elementos do valor como peso e
+ * refreshAfterWrite recalcula em segundo plano, pelo {@link RecalculoCache} do cache, as entradas lidas
+ * depois do intervalo, sem bloquear a leitura. Todos os caches publicam cache.* no MeterRegistry.
+ */
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfig {
 
+    static final List<String> CACHES = List.of("tendencias", "estatisticasPorCategoria", "estatisticasMensais",
+            "contagemGastos", "previsoes");
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("gastos", "usuarios","tendencias","estatisticasPorCategoria","estatisticasMensais");
-        Caffeine<Object, Object> caffeineSpec = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(10))
-                .maximumSize(1000)
-                .recordStats();
-        cacheManager.setCaffeine(Objects.requireNonNull(caffeineSpec));
+    public CacheManager cacheManager(Environment environment,
+                                     MeterRegistry meterRegistry,
+                                     ObjectProvider<RecalculoCache> recalculos,
+                                     @Value("${app.cache.padrao:maximumSize=1000,expireAfterWrite=10m}") String specPadrao,
+                                     ThreadsRecarga threadsRecarga) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // lista vazia: nomes fora de CACHES não criam caches sob demanda
+        cacheManager.setCacheNames(List.of());
+        for (String nome : CACHES) {
+            String spec = environment.getProperty("app.cache.specs." + nome, specPadrao);
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = criar(nome, spec, recalculos, threadsRecarga::executar);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, nome);
+            cacheManager.registerCustomCache(nome, cache);
+        }
         return cacheManager;
     }
+
+    static com.github.benmanes.caffeine.cache.Cache<Object, Object> criar(String nome, String spec,
+                                                                         ObjectProvider<RecalculoCache> recalculos,
+                                                                         Executor recarga) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec).executor(recarga);
+        if (spec.contains("maximumWeight")) {
+            builder.weigher((chave, valor) -> peso(valor));
+        }
+        if (!spec.contains("recordStats")) {
+            builder.recordStats();
+        }
+        log.info("Cache {}: {}", nome, spec);
+        if (!spec.contains("refreshAfterWrite")) {
+            return builder.build();
+        }
+        return builder.build(new CacheLoader<>() {
+            @Override
+            public Object load(Object chave) {
+                // falta: o valor é calculado pelo método @Cacheable e gravado com put
+                return null;
+            }
+
+            @Override
+            public Object reload(Object chave, Object anterior) {
+                RecalculoCache recalculo = recalculos.orderedStream()
+                        .filter(r -> r.caches().contains(nome))
+                        .findFirst()
+                        .orElse(null);
+                // sem recálculo conhecido a entrada é descartada e a próxima leitura recalcula
+                return recalculo != null ? recalculo.recalcular(nome, chave) : null;
+            }
+        });
+    }
+
+    /**
+     * Peso de um valor em cache: um por objeto, somando os elementos de mapas e coleções
+     */
+    static int peso(Object valor) {
+        if (valor instanceof Map<?, ?> mapa) {
+            int peso = 1;
+            for (Object item : mapa.values()) {
+                peso += peso(item);
+            }
+            return peso;
+        }
+        if (valor instanceof Collection<?> colecao) {
+            int peso = 1;
+            for (Object item : colecao) {
+                peso += peso(item);
+            }
+            return peso;
+        }
+        return 1;
+    }
+
+    /**
+     * Threads das recargas em segundo plano (refreshAfterWrite), encerradas junto com o contexto
+     */
+    @Bean(destroyMethod = "encerrar")
+    public ThreadsRecarga threadsRecarga(@Value("${app.cache.recarga.threads:2}") int threads) {
+        return new ThreadsRecarga(threads);
+    }
+
+    /**
+     * Pool fixo das recargas. Não é um bean do tipo Executor para não tomar o lugar do executor de tarefas
+     * padrão do Spring Boot (usado pelas respostas assíncronas do MVC).
+     */
+    public static final class ThreadsRecarga {
+
+        private final ExecutorService executor;
+
+        ThreadsRecarga(int threads) {
+            AtomicInteger contador = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, tarefa -> {
+                Thread thread = new Thread(tarefa, "cache-recarga-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void executar(Runnable tarefa) {
+            executor.execute(tarefa);
+        }
+
+        public void encerrar() {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package br.com.meuGasto.finControl.config;
+
+import br.com.meuGasto.finControl.service.UsuarioService;
+import br.com.meuGasto.finControl.service.VersaoDados;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * GET condicional das consultas de leitura: a ETag é a {@link VersaoDados} do usuário logado, calculada
+ * antes do controller. Com If-None-Match igual à versão atual a resposta é 304 sem chegar à camada de
+ * serviço; caso contrário a ETag acompanha a resposta e o cliente é orientado a revalidar.
+ */
+@Component
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final VersaoDados versaoDados;
+    private final UsuarioService usuarioService;
+
+    public DataVersionEtagInterceptor(VersaoDados versaoDados, UsuarioService usuarioService) {
+        this.versaoDados = versaoDados;
+        this.usuarioService = usuarioService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null || !autenticacao.isAuthenticated() || autenticacao instanceof AnonymousAuthenticationToken) {
+            return true;
+        }
+        Long usuarioId;
+        try {
+            usuarioId = usuarioService.getIdUsuarioLogado();
+        } catch (IllegalStateException e) {
+            return true;
+        }
+
+        // sem no-store (padrão do Spring Security) o navegador guarda a resposta e revalida com If-None-Match
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(versaoDados.etag(usuarioId));
+    }
+}
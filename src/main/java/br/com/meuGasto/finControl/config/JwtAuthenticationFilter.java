@@ -9,19 +9,24 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
-import br.com.meuGasto.finControl.service.CustomUserDetailsService;
+import br.com.meuGasto.finControl.service.CacheUsuariosAutenticados;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // ativos estáticos são públicos: não há por que ler o token nem resolver o usuário
+    private static final List<String> PREFIXOS_ESTATICOS = List.of("/css/", "/js/", "/images/", "/webjars/");
+
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final CacheUsuariosAutenticados usuariosAutenticados;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CacheUsuariosAutenticados usuariosAutenticados) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.usuariosAutenticados = usuariosAutenticados;
     }
 
     private String extractToken(HttpServletRequest request) {
@@ -41,15 +46,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getServletPath();
+        for (String prefixo : PREFIXOS_ESTATICOS) {
+            if (caminho.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws IOException, jakarta.servlet.ServletException {
         try {
             String token = extractToken(request);
-            if (token != null && jwtUtil.validateToken(token)) {
-                String username = jwtUtil.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<String> usuario = token != null ? jwtUtil.validarEObterUsuario(token) : Optional.empty();
+            if (usuario.isPresent()) {
+                String username = usuario.get();
+                // em cache: requisições autenticadas não consultam a tabela de usuários
+                UserDetails userDetails = usuariosAutenticados.buscar(username);
+                if (!userDetails.isEnabled()) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
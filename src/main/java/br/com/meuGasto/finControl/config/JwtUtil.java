@@ -1,24 +1,57 @@
 package br.com.meuGasto.finControl.config;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
 
+/**
+ * Emissão e validação de JWT. O parser é criado uma vez (é imutável e thread-safe) e cada token é
+ * verificado uma única vez: o resultado (usuário e expiração) fica em cache pelo SHA-256 do token,
+ * de modo que requisições seguintes com o mesmo token não repetem o parse nem a verificação HMAC.
+ */
 @Component
 public class JwtUtil {
 
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, TokenValidado> tokensValidados;
+
+    /**
+     * Usuário e instante de expiração de um token com assinatura já verificada
+     */
+    record TokenValidado(String usuario, long expiraEmMillis) {
+    }
 
     public JwtUtil(@Value("${jwt.secret}") String secret,
-                   @Value("${jwt.expiration-ms}") long expirationMs) {
+                   @Value("${jwt.expiration-ms}") long expirationMs,
+                   @Value("${app.seguranca.cache-tokens.ttl:10m}") Duration ttlCache,
+                   @Value("${app.seguranca.cache-tokens.tamanho-maximo:10000}") long tamanhoMaximoCache,
+                   MeterRegistry meterRegistry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.tokensValidados = Caffeine.newBuilder()
+                .expireAfterWrite(ttlCache)
+                .maximumSize(tamanhoMaximoCache)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensValidados, "tokensJwt");
     }
 
     public String generateToken(String username) {
@@ -33,20 +66,41 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Valida o token e retorna o usuário (subject); vazio se a assinatura não confere ou o token expirou
+     */
+    public Optional<String> validarEObterUsuario(String token) {
+        ByteBuffer chave = resumo(token);
+        TokenValidado validado = tokensValidados.getIfPresent(chave);
+        if (validado == null) {
+            validado = verificar(token);
+            if (validado == null) {
+                return Optional.empty();
+            }
+            tokensValidados.put(chave, validado);
+        }
+        if (validado.expiraEmMillis() <= System.currentTimeMillis()) {
+            tokensValidados.invalidate(chave);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(validado.usuario());
+    }
+
+    private TokenValidado verificar(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiracao = claims.getExpiration();
+            return new TokenValidado(claims.getSubject(), expiracao != null ? expiracao.getTime() : Long.MAX_VALUE);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    private static ByteBuffer resumo(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 }
-
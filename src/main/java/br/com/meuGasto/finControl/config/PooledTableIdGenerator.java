@@ -0,0 +1,85 @@
+package br.com.meuGasto.finControl.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Gerador de ids em blocos sobre a tabela sequencias_id, para bancos sem sequências (SQLite).
+ *
+ * Diferente de {@code IDENTITY}, o id é conhecido antes do insert e o Hibernate pode agrupar os
+ * inserts em lotes JDBC. Cada reserva avança a sequência em {@code tamanho_bloco} ids e os ids do
+ * bloco são entregues em memória.
+ *
+ * A reserva roda na própria conexão da transação, pois o {@code TableGenerator} do Hibernate
+ * precisaria de uma segunda conexão de escrita, que não existe no modo WAL. Para que uma reserva
+ * desfeita por rollback não gere ids repetidos, cada bloco começa sempre depois do maior id
+ * já gravado na tabela da entidade.
+ */
+public class PooledTableIdGenerator implements IdentifierGenerator {
+
+    public static final String SEQUENCIA = "sequencia";
+    public static final String TAMANHO_BLOCO = "tamanho_bloco";
+
+    private static final String RESERVA =
+            "INSERT INTO sequencias_id (nome, proximo_valor) "
+                    + "SELECT ?, COALESCE(MAX(%2$s), 0) + 1 + ? FROM %1$s WHERE true "
+                    + "ON CONFLICT (nome) DO UPDATE SET proximo_valor = MAX(proximo_valor + ?, excluded.proximo_valor) "
+                    + "RETURNING proximo_valor";
+
+    private String sequencia;
+    private int tamanhoBloco;
+    private String sqlReserva;
+
+    private long proximo;
+    private long limite;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
+        String tabela = params.getProperty(PersistentIdentifierGenerator.TABLE);
+        String coluna = params.getProperty(PersistentIdentifierGenerator.PK);
+        sequencia = ConfigurationHelper.getString(SEQUENCIA, params, tabela);
+        tamanhoBloco = ConfigurationHelper.getInt(TAMANHO_BLOCO, params, 50);
+        sqlReserva = String.format(RESERVA, tabela, coluna);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        // a conexão é obtida antes do lock: com uma única conexão de escrita, quem espera por ela
+        // não pode segurar o gerador
+        Connection conexao = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        synchronized (this) {
+            if (proximo >= limite) {
+                limite = reservar(conexao);
+                proximo = limite - tamanhoBloco;
+            }
+            return proximo++;
+        }
+    }
+
+    private long reservar(Connection conexao) {
+        try (PreparedStatement ps = conexao.prepareStatement(sqlReserva)) {
+            ps.setString(1, sequencia);
+            ps.setInt(2, tamanhoBloco);
+            ps.setInt(3, tamanhoBloco);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new HibernateException("Sequência " + sequencia + " não retornou valor");
+                }
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Erro ao reservar ids da sequência " + sequencia, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.meuGasto.finControl.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Encaminha a conexão para o pool de leitura quando a transação corrente é
+ * {@code readOnly} e para a conexão de escrita em qualquer outro caso.
+ *
+ * Deve ser usado atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * pois a flag de somente leitura só é publicada depois que a transação começa.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Rota {
+        LEITURA,
+        ESCRITA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Rota.LEITURA : Rota.ESCRITA;
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.meuGasto.finControl.config;
+
+import java.util.Set;
+
+/**
+ * Recalcula entradas de cache a partir da chave, usado pelo refreshAfterWrite dos caches configurados
+ * em {@link CacheConfig}: a entrada vencida continua sendo servida enquanto o novo valor é calculado
+ * em segundo plano.
+ */
+public interface RecalculoCache {
+
+    /**
+     * Caches cujas chaves este bean sabe recalcular
+     */
+    Set<String> caches();
+
+    /**
+     * Valor atual da chave no cache informado (sem passar pelo cache)
+     */
+    Object recalcular(String cache, Object chave);
+}
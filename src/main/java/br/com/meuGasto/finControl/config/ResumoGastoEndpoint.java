@@ -0,0 +1,35 @@
+package br.com.meuGasto.finControl.config;
+
+import br.com.meuGasto.finControl.service.ResumoGastoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manutenção dos consolidados de gastos via Actuator:
+ * GET /actuator/resumos verifica a consistência e POST /actuator/resumos os reconstrói.
+ */
+@Component
+@Endpoint(id = "resumos")
+@RequiredArgsConstructor
+public class ResumoGastoEndpoint {
+
+    private final ResumoGastoService resumoGastoService;
+
+    @ReadOperation
+    public Map<String, Object> verificar() {
+        List<String> divergencias = resumoGastoService.verificarConsistencia();
+        return Map.of("consistente", divergencias.isEmpty(), "divergencias", divergencias);
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconstruir() {
+        resumoGastoService.reconstruir();
+        return verificar();
+    }
+}
@@ -1,10 +1,17 @@
 package br.com.meuGasto.finControl.config;
 
+import br.com.meuGasto.finControl.exception.HashSenhaIndisponivelException;
+import br.com.meuGasto.finControl.service.CacheUsuariosAutenticados;
 import br.com.meuGasto.finControl.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -13,6 +20,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -23,14 +32,22 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final CacheUsuariosAutenticados usuariosAutenticados;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil,
+                          CacheUsuariosAutenticados usuariosAutenticados) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.usuariosAutenticados = usuariosAutenticados;
     }
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.seguranca.senha.threads:0}") int threads,
+                                           @Value("${app.seguranca.senha.fila:32}") int capacidadeFila,
+                                           @Value("${app.seguranca.senha.retry-after-segundos:2}") long retryAfterSegundos) {
+        // BCrypt fora das threads do Tomcat, num pool limitado (0 = número de núcleos)
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), tamanho, capacidadeFila, retryAfterSegundos, meterRegistry);
     }
 
     @Bean
@@ -51,13 +68,15 @@ public class SecurityConfig {
                                            DaoAuthenticationProvider authProvider,
                                            @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfig) throws Exception {
 
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, usuariosAutenticados);
 
         http
                 .cors(cors -> cors.configurationSource(corsConfig))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // respostas em streaming terminam num dispatch ASYNC; a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Permitir a página de login (GET) e o processamento do formulário (POST /login)
                         // além de endpoints de API públicos e ativos estáticos
                         .requestMatchers(
@@ -72,7 +91,7 @@ public class SecurityConfig {
                         .loginPage("/login")
                         .loginProcessingUrl("/login")
                         .defaultSuccessUrl("/dashboard", true)
-                        .failureUrl("/login?error=true")
+                        .failureHandler(falhaLoginFormulario())
                         .permitAll()
                 )
                 .httpBasic(basic -> basic.disable())
@@ -90,4 +109,20 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * Falha do login por formulário: com o executor de senhas saturado responde 503 + Retry-After;
+     * nos demais casos volta para /login?error=true
+     */
+    private AuthenticationFailureHandler falhaLoginFormulario() {
+        SimpleUrlAuthenticationFailureHandler padrao = new SimpleUrlAuthenticationFailureHandler("/login?error=true");
+        return (request, response, exception) -> {
+            if (exception instanceof HashSenhaIndisponivelException ocupado) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ocupado.getRetryAfterSegundos()));
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), ocupado.getMessage());
+            } else {
+                padrao.onAuthenticationFailure(request, response, exception);
+            }
+        };
+    }
 }
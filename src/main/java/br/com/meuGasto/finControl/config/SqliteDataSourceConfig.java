@@ -0,0 +1,126 @@
+package br.com.meuGasto.finControl.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Modo de persistência SQLite com journaling WAL.
+ *
+ * Métodos {@code @Transactional(readOnly = true)} usam um pool de conexões somente leitura
+ * (dimensionado pelo número de núcleos) e todas as escritas passam por uma única conexão,
+ * mantendo as escritas serializadas sem bloquear os relatórios.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.wal.enabled", havingValue = "true")
+public class SqliteDataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+
+    private final String url;
+    private final int readerPoolSize;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final int busyTimeoutMs;
+    private final long connectionTimeoutMs;
+
+    public SqliteDataSourceConfig(@Value("${spring.datasource.url}") String url,
+                                  @Value("${app.datasource.wal.reader-pool-size:0}") int readerPoolSize,
+                                  @Value("${app.datasource.sqlite.synchronous:NORMAL}") String synchronous,
+                                  @Value("${app.datasource.sqlite.mmap-size:268435456}") long mmapSize,
+                                  @Value("${app.datasource.sqlite.cache-size:-20000}") int cacheSize,
+                                  @Value("${app.datasource.sqlite.busy-timeout:5000}") int busyTimeoutMs,
+                                  @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        this.url = url;
+        this.readerPoolSize = readerPoolSize > 0 ? readerPoolSize : Runtime.getRuntime().availableProcessors();
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    /**
+     * Conexão única de escrita. É criada primeiro porque é ela quem coloca o banco em modo WAL
+     * (a configuração é persistida no arquivo e vale para as conexões de leitura).
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writerDataSource() {
+        SQLiteConfig config = pragmasComuns();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-escrita");
+        hikari.setDataSource(sqliteDataSource(config));
+        hikari.setMaximumPoolSize(1);
+        hikari.setMinimumIdle(1);
+        hikari.setConnectionTimeout(connectionTimeoutMs);
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Pool de conexões abertas em modo somente leitura.
+     */
+    @Bean(destroyMethod = "close")
+    @DependsOn("writerDataSource")
+    public HikariDataSource readerDataSource() {
+        SQLiteConfig config = pragmasComuns();
+        config.setReadOnly(true);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-leitura");
+        hikari.setDataSource(sqliteDataSource(config));
+        hikari.setMaximumPoolSize(readerPoolSize);
+        hikari.setMinimumIdle(1);
+        hikari.setReadOnly(true);
+        hikari.setConnectionTimeout(connectionTimeoutMs);
+        return new HikariDataSource(hikari);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writerDataSource,
+                                 @Qualifier("readerDataSource") DataSource readerDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.<Object, Object>of(
+                ReadWriteRoutingDataSource.Rota.ESCRITA, writerDataSource,
+                ReadWriteRoutingDataSource.Rota.LEITURA, readerDataSource));
+        routing.setDefaultTargetDataSource(writerDataSource);
+        routing.afterPropertiesSet();
+
+        log.info("SQLite em modo WAL: 1 conexão de escrita e até {} conexões de leitura", readerPoolSize);
+        // a conexão real só é obtida no primeiro comando, quando a flag readOnly da transação já está definida
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private SQLiteConfig pragmasComuns() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous.toUpperCase(Locale.ROOT)));
+        config.setCacheSize(cacheSize);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        config.setBusyTimeout(busyTimeoutMs);
+        return config;
+    }
+
+    private SQLiteDataSource sqliteDataSource(SQLiteConfig config) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(url);
+        return dataSource;
+    }
+}
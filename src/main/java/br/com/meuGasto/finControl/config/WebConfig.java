@@ -2,6 +2,7 @@ package br.com.meuGasto.finControl.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.text.ParseException;
@@ -11,6 +12,21 @@ import java.util.Locale;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final DataVersionEtagInterceptor dataVersionEtagInterceptor;
+
+    public WebConfig(DataVersionEtagInterceptor dataVersionEtagInterceptor) {
+        this.dataVersionEtagInterceptor = dataVersionEtagInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // consultas que dependem apenas dos dados do usuário (e do dia atual); as exportações ficam de fora
+        registry.addInterceptor(dataVersionEtagInterceptor)
+                .addPathPatterns("/api/movimentacoes", "/api/movimentacoes/**", "/api/gastos", "/api/gastos/**",
+                        "/api/relatorios/**")
+                .excludePathPatterns("/api/movimentacoes/export", "/api/relatorios/exportar/**");
+    }
+
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addFormatter(new org.springframework.format.Formatter<YearMonth>() {
@@ -0,0 +1,48 @@
+package br.com.meuGasto.finControl.controller;
+
+import java.util.Locale;
+
+/**
+ * Negociação de gzip pelo cabeçalho Accept-Encoding (RFC 9110, seção 12.5.3), respeitando os valores q:
+ * "gzip;q=0" recusa gzip, e "*" vale para gzip quando ele não aparece explicitamente.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double curinga = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = qualidade(partes);
+            if (codificacao.equals("gzip") || codificacao.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (codificacao.equals("*")) {
+                curinga = q;
+            }
+        }
+        Double escolhido = gzip != null ? gzip : curinga;
+        return escolhido != null && escolhido > 0;
+    }
+
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() > 1 && (parametro.charAt(0) == 'q' || parametro.charAt(0) == 'Q')
+                    && parametro.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -3,6 +3,7 @@ package br.com.meuGasto.finControl.controller;
 import br.com.meuGasto.finControl.dto.LoginRequest;
 import br.com.meuGasto.finControl.dto.LoginResponse;
 import br.com.meuGasto.finControl.config.JwtUtil;
+import br.com.meuGasto.finControl.exception.HashSenhaIndisponivelException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -61,6 +62,9 @@ public class ApiLoginController {
                             authentication.getName()
                     ));
 
+        } catch (HashSenhaIndisponivelException e) {
+            // executor de senhas saturado: 503 + Retry-After pelo GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
                     "message", "Credenciais inválidas",
@@ -3,6 +3,7 @@ package br.com.meuGasto.finControl.controller;
 import br.com.meuGasto.finControl.dto.LoginRequest;
 import br.com.meuGasto.finControl.dto.LoginResponse;
 import br.com.meuGasto.finControl.config.JwtUtil;
+import br.com.meuGasto.finControl.exception.HashSenhaIndisponivelException;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
@@ -50,6 +51,9 @@ public class AuthController {
                     .header(HttpHeaders.SET_COOKIE, cookie.toString())
                     .body(new LoginResponse("Login realizado com sucesso", token, authentication.getName()));
 
+        } catch (HashSenhaIndisponivelException e) {
+            // executor de senhas saturado: 503 + Retry-After pelo GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(401).body(Map.of("message", "Credenciais inválidas"));
         }
@@ -1,13 +1,24 @@
 package br.com.meuGasto.finControl.controller;
 
+import br.com.meuGasto.finControl.dto.PaginaCursorDTO;
 import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.FiltroGasto;
+import br.com.meuGasto.finControl.repository.OrdenacaoGasto;
+import br.com.meuGasto.finControl.repository.ResultadoBuscaTexto;
 import br.com.meuGasto.finControl.service.GastoService;
+import br.com.meuGasto.finControl.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,8 +29,16 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class GastoController {
     
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     @Autowired
     private GastoService gastoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     // Endpoints CRUD básicos
     
@@ -43,12 +62,18 @@ public class GastoController {
     }
     
     /**
-     * GET /api/gastos - Listar todos os gastos
+     * GET /api/gastos?cursor={cursor}&size={size}&total={true|false} - Listar gastos (mais recentes primeiro)
      */
     @GetMapping
-    public ResponseEntity<List<Gasto>> listarTodos() {
-        List<Gasto> gastos = gastoService.listarTodos();
-        return ResponseEntity.ok(gastos);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        PaginaCursorDTO<Gasto> pagina = gastoService.listarPagina(cursor, size);
+        if (total) {
+            pagina.setTotalElements(gastoService.contarGastosAproximado());
+        }
+        return ResponseEntity.ok(pagina);
     }
     
     /**
@@ -109,68 +134,162 @@ public class GastoController {
         }
     }
     
+    // Busca combinada
+
+    /**
+     * GET /api/gastos/search?categoria=&tipo=&valorMinimo=&valorMaximo=&inicio=&fim=&texto=&ordem={DATA|VALOR|CATEGORIA}&cursor=&size=
+     * - Buscar combinando quaisquer critérios, paginado por cursor (size limitado a app.gastos.tamanho-maximo-pagina)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscar(
+            FiltroGasto filtro,
+            @RequestParam(defaultValue = "DATA") OrdenacaoGasto ordem,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(gastoService.buscar(filtro, ordem, cursor, size));
+    }
+
+    /**
+     * GET /api/gastos/search/stream?{mesmos critérios} - Todos os resultados da busca em NDJSON (um gasto por linha),
+     * lidos do banco em fatias e escritos à medida que chegam
+     */
+    @GetMapping(value = "/search/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> buscarEmFluxo(
+            FiltroGasto filtro,
+            @RequestParam(defaultValue = "DATA") OrdenacaoGasto ordem) {
+        // resolvido aqui: o corpo é escrito em outra thread
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        ObjectWriter escritor = objectMapper.writerFor(Gasto.class);
+        StreamingResponseBody corpo = saida -> gastoService.percorrer(usuarioId, filtro, ordem, gasto -> {
+            try {
+                saida.write(escritor.writeValueAsBytes(gasto));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(corpo);
+    }
+
+    /**
+     * GET /api/gastos/texto?q=&pagina=&size= - Busca de texto completo em descrição e observações, por prefixo
+     * e sem acentos, dos resultados mais relevantes para os menos relevantes, com os termos marcados nos trechos.
+     * pagina vai de 0 a app.gastos.texto.pagina-maxima; além disso a resposta é uma lista vazia
+     */
+    @GetMapping("/texto")
+    public ResponseEntity<List<ResultadoBuscaTexto>> buscarTexto(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(gastoService.buscarTexto(q, pagina, size));
+    }
+
     // Endpoints de busca específica
     
     /**
      * GET /api/gastos/categoria/{categoria} - Buscar por categoria
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<Gasto>> buscarPorCategoria(@PathVariable String categoria) {
-        List<Gasto> gastos = gastoService.buscarPorCategoria(categoria);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorCategoria(
+            @PathVariable String categoria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorCategoria(categoria, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/descricao?q={descricao} - Buscar por descrição
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/descricao")
-    public ResponseEntity<List<Gasto>> buscarPorDescricao(@RequestParam String q) {
-        List<Gasto> gastos = gastoService.buscarPorDescricao(q);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorDescricao(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorDescricao(q, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/valor-maior?valor={valor} - Buscar por valor maior que
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/valor-maior")
-    public ResponseEntity<List<Gasto>> buscarPorValorMaiorQue(@RequestParam BigDecimal valor) {
-        List<Gasto> gastos = gastoService.buscarPorValorMaiorQue(valor);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorValorMaiorQue(
+            @RequestParam BigDecimal valor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorValorMaiorQue(valor, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/valor-menor?valor={valor} - Buscar por valor menor que
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/valor-menor")
-    public ResponseEntity<List<Gasto>> buscarPorValorMenorQue(@RequestParam BigDecimal valor) {
-        List<Gasto> gastos = gastoService.buscarPorValorMenorQue(valor);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorValorMenorQue(
+            @RequestParam BigDecimal valor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorValorMenorQue(valor, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/valor-faixa?min={min}&max={max} - Buscar por faixa de valor
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/valor-faixa")
-    public ResponseEntity<List<Gasto>> buscarPorFaixaValor(@RequestParam BigDecimal min, @RequestParam BigDecimal max) {
-        List<Gasto> gastos = gastoService.buscarPorFaixaValor(min, max);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorFaixaValor(
+            @RequestParam BigDecimal min, @RequestParam BigDecimal max,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorFaixaValor(min, max, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/periodo?inicio={inicio}&fim={fim} - Buscar por período
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/periodo")
-    public ResponseEntity<List<Gasto>> buscarPorPeriodo(@RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim) {
-        List<Gasto> gastos = gastoService.buscarPorPeriodo(inicio, fim);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorPeriodo(
+            @RequestParam LocalDateTime inicio, @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorPeriodo(inicio, fim, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/palavra-chave?q={palavra} - Buscar por palavra-chave
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/palavra-chave")
-    public ResponseEntity<List<Gasto>> buscarPorPalavraChave(@RequestParam String q) {
-        List<Gasto> gastos = gastoService.buscarPorPalavraChave(q);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorPalavraChave(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorPalavraChave(q, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
@@ -178,28 +297,43 @@ public class GastoController {
     
     /**
      * GET /api/gastos/ordenados/data - Buscar ordenados por data
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/ordenados/data")
-    public ResponseEntity<List<Gasto>> buscarOrdenadosPorData() {
-        List<Gasto> gastos = gastoService.buscarOrdenadosPorData();
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarOrdenadosPorData(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarOrdenadosPorData(cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/ordenados/valor - Buscar ordenados por valor
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/ordenados/valor")
-    public ResponseEntity<List<Gasto>> buscarOrdenadosPorValor() {
-        List<Gasto> gastos = gastoService.buscarOrdenadosPorValor();
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarOrdenadosPorValor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarOrdenadosPorValor(cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/ordenados/categoria - Buscar ordenados por categoria
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/ordenados/categoria")
-    public ResponseEntity<List<Gasto>> buscarOrdenadosPorCategoria() {
-        List<Gasto> gastos = gastoService.buscarOrdenadosPorCategoria();
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarOrdenadosPorCategoria(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarOrdenadosPorCategoria(cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
@@ -236,11 +370,22 @@ public class GastoController {
      * GET /api/gastos/estatisticas/acima-media - Gastos acima da média
      */
     @GetMapping("/estatisticas/acima-media")
-    public ResponseEntity<List<Gasto>> buscarGastosAcimaDaMedia() {
-        List<Gasto> gastos = gastoService.buscarGastosAcimaDaMedia();
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarGastosAcimaDaMedia(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarGastosAcimaDaMedia(cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
+    /**
+     * GET /api/gastos/estatisticas/top?k=&categoria=&inicio=&fim=&{demais critérios de /search}
+     * - Os k gastos mais caros que atendem aos critérios (k limitado a app.gastos.top-k.maximo)
+     */
+    @GetMapping("/estatisticas/top")
+    public ResponseEntity<List<Gasto>> buscarMaisCaros(FiltroGasto filtro, @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(gastoService.buscarMaisCaros(filtro, k));
+    }
+
     /**
      * GET /api/gastos/estatisticas/top5 - Top 5 gastos mais caros
      */
@@ -254,24 +399,32 @@ public class GastoController {
     
     /**
      * GET /api/gastos/categoria/{categoria}/periodo?inicio={inicio}&fim={fim} - Buscar por categoria e período
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/categoria/{categoria}/periodo")
-    public ResponseEntity<List<Gasto>> buscarPorCategoriaEPeriodo(
-            @PathVariable String categoria,
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorCategoriaEPeriodo(@PathVariable String categoria,
             @RequestParam LocalDateTime inicio,
-            @RequestParam LocalDateTime fim) {
-        List<Gasto> gastos = gastoService.buscarPorCategoriaEPeriodo(categoria, inicio, fim);
+            @RequestParam LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorCategoriaEPeriodo(categoria, inicio, fim, cursor, size);
         return ResponseEntity.ok(gastos);
     }
     
     /**
      * GET /api/gastos/categoria/{categoria}/valor?valor={valor} - Buscar por categoria e valor
+     *
+     * @deprecated use GET /api/gastos/search, que combina os mesmos critérios
      */
+    @Deprecated
     @GetMapping("/categoria/{categoria}/valor")
-    public ResponseEntity<List<Gasto>> buscarPorCategoriaEValor(
-            @PathVariable String categoria,
-            @RequestParam BigDecimal valor) {
-        List<Gasto> gastos = gastoService.buscarPorCategoriaEValor(categoria, valor);
+    public ResponseEntity<PaginaCursorDTO<Gasto>> buscarPorCategoriaEValor(@PathVariable String categoria,
+            @RequestParam BigDecimal valor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        PaginaCursorDTO<Gasto> gastos = gastoService.buscarPorCategoriaEValor(categoria, valor, cursor, size);
         return ResponseEntity.ok(gastos);
     }
 }
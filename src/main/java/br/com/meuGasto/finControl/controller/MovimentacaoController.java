@@ -1,7 +1,10 @@
 package br.com.meuGasto.finControl.controller;
 
 import br.com.meuGasto.finControl.dto.*;
+import br.com.meuGasto.finControl.exception.LoteInvalidoException;
 import br.com.meuGasto.finControl.service.MovimentacaoService;
+import br.com.meuGasto.finControl.service.PrevisaoLinear;
+import br.com.meuGasto.finControl.service.PrevisaoMonteCarloService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -9,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,23 +23,25 @@ import java.util.List;
 public class MovimentacaoController {
 
     private final MovimentacaoService movimentacaoService;
+    private final PrevisaoMonteCarloService previsaoMonteCarloService;
 
     /**
-     * GET /api/movimentacoes - Listar todas as movimentações com paginação
-     * @param page número da página (padrão: 0)
-     * @param size tamanho da página (padrão: 10)
+     * GET /api/movimentacoes - Listar todas as movimentações com paginação por cursor
+     * @param cursor token retornado em nextCursor pela página anterior (ausente na primeira página)
+     * @param size tamanho da página (padrão: 10; limitado a app.movimentacoes.tamanho-maximo-pagina)
+     * @param total quando true, inclui o total aproximado de movimentações
      * @return MovimentacaoResponse com lista paginada
      */
     @GetMapping
     public ResponseEntity<MovimentacaoResponseDTO> listarMovimentacoes(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        try {
-            MovimentacaoResponseDTO response = movimentacaoService.listarMovimentacoes(page, size);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        MovimentacaoResponseDTO response = movimentacaoService.listarMovimentacoes(cursor, size);
+        if (total) {
+            response.setTotalElements(movimentacaoService.contarMovimentacoesAproximado());
         }
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -72,6 +78,24 @@ public class MovimentacaoController {
         }
     }
 
+    /**
+     * POST /api/movimentacoes/batch - Criar várias movimentações em uma única transação
+     * @param dtos Lista de movimentações (todas são validadas antes de qualquer gravação)
+     * @return Movimentações criadas, na ordem recebida
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> criarMovimentacoesEmLote(@RequestBody List<MovimentacaoDTO> dtos) {
+        try {
+            List<MovimentacaoDTO> created = movimentacaoService.criarMovimentacoesEmLote(dtos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (LoteInvalidoException e) {
+            return ResponseEntity.badRequest().body(e.getErros());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro ao criar movimentações: " + e.getMessage());
+        }
+    }
+
     /**
      * PUT /api/movimentacoes/{id} - Atualizar uma movimentação existente
      * @param id ID da movimentação
@@ -166,36 +190,61 @@ public class MovimentacaoController {
 
     /**
      * GET /api/movimentacoes/previsao - Obter previsão financeira
+     * @param modelo modelo de projeção: linear (padrão), dia-da-semana ou suavizacao-exponencial
      * @return PrevisaoFinanceira com previsões do mês
      */
     @GetMapping("/previsao")
-    public ResponseEntity<?> obterPrevisaoFinanceira() {
+    public ResponseEntity<?> obterPrevisaoFinanceira(@RequestParam(defaultValue = PrevisaoLinear.NOME) String modelo) {
         try {
-            PrevisaoFinanceiraDTO previsao = movimentacaoService.obterPrevisaoFinanceira();
+            PrevisaoFinanceiraDTO previsao = movimentacaoService.obterPrevisaoFinanceira(modelo);
             return ResponseEntity.ok(previsao);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erro ao obter previsão financeira: " + e.getMessage());
         }
     }
 
+    /**
+     * GET /api/movimentacoes/previsao/monte-carlo - Previsão probabilística do saldo
+     * @param meses Número de meses a simular, o atual incluído (padrão: 1; limitado a app.previsao.monte-carlo.meses-maximo)
+     * @param caminhos Número de caminhos simulados (padrão e limite em app.previsao.monte-carlo.*)
+     * @param semente Semente dos sorteios; a mesma semente reproduz as faixas
+     * @return PrevisaoMonteCarlo com P10, P50 e P90 do saldo ao fim de cada mês
+     */
+    @GetMapping("/previsao/monte-carlo")
+    public ResponseEntity<?> obterPrevisaoMonteCarlo(
+            @RequestParam(defaultValue = "1") int meses,
+            @RequestParam(required = false) Integer caminhos,
+            @RequestParam(required = false) Long semente) {
+        try {
+            PrevisaoMonteCarloDTO previsao = previsaoMonteCarloService.prever(meses, caminhos, semente);
+            return ResponseEntity.ok(previsao);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro ao obter previsão de Monte Carlo: " + e.getMessage());
+        }
+    }
+
     /**
      * GET /api/movimentacoes/export - Exportar movimentações em CSV
      * @return Arquivo CSV com dados das movimentações
      */
     @GetMapping("/export")
-    public ResponseEntity<?> exportarMovimentacoes() {
-        try {
-            byte[] csvData = movimentacaoService.exportarMovimentacoes();
+    public ResponseEntity<StreamingResponseBody> exportarMovimentacoes(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = AcceptEncoding.aceitaGzip(acceptEncoding);
+        StreamingResponseBody corpo = saida -> movimentacaoService.exportarMovimentacoes(saida, gzip);
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=movimentacoes.csv")
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .body(csvData);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Erro ao exportar movimentações: " + e.getMessage());
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=movimentacoes.csv")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return resposta.body(corpo);
     }
 
     /**
@@ -1,7 +1,6 @@
 package br.com.meuGasto.finControl.controller;
 
 import br.com.meuGasto.finControl.entity.PlanejamentoMensal;
-import br.com.meuGasto.finControl.repository.PlanejamentoMensalRepository;
 import br.com.meuGasto.finControl.service.PlanejamentoService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,19 +12,17 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/planejamentos")
 public class PlanejamentoController {
 
-    private final PlanejamentoMensalRepository repo;
     private final PlanejamentoService service;
 
 
-    public PlanejamentoController(PlanejamentoMensalRepository repo, PlanejamentoService service) {
-        this.repo = repo;
+    public PlanejamentoController(PlanejamentoService service) {
         this.service = service;
     }
 
 
     @GetMapping
     public String listar(Model model) {
-        model.addAttribute("planejamentos", repo.findAll());
+        model.addAttribute("planejamentos", service.listar());
         return "planejamentos/listar";
     }
 
@@ -37,14 +34,14 @@ public class PlanejamentoController {
 
     @PostMapping("/salvar")
     public String salvar(@ModelAttribute PlanejamentoMensal planejamento) {
-        repo.save(planejamento);
+        service.salvar(planejamento);
         return "redirect:/planejamentos";
     }
 
     @GetMapping("/{id}/resumo")
     public String resumo(@PathVariable Long id, Model model) {
         // carregamos o planejamento por id (único) e calculamos o resumo a partir do objeto carregado
-        var planejamento = repo.findById(id).orElseThrow();
+        var planejamento = service.buscarPorId(id).orElseThrow();
         var resumo = service.getResumo(planejamento);
         model.addAttribute("resumo", resumo);
         return "planejamentos/resumo";
@@ -52,8 +49,7 @@ public class PlanejamentoController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletar(@PathVariable Long id) {
-        if (repo.existsById(id)) {
-            repo.deleteById(id);
+        if (service.excluir(id)) {
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Planejamento não encontrado");
@@ -62,7 +58,7 @@ public class PlanejamentoController {
 
     @GetMapping("/{id}/editar")
     public String editarPlanejamento(@PathVariable Long id, Model model) {
-        PlanejamentoMensal planejamento = repo.findById(id)
+        PlanejamentoMensal planejamento = service.buscarPorId(id)
                 .orElseThrow(() -> new RuntimeException("Planejamento não encontrado"));
         model.addAttribute("planejamento", planejamento);
         return "planejamentos/form"; // Reutiliza o formulário para edição
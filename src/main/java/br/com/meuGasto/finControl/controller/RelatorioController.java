@@ -2,6 +2,7 @@ package br.com.meuGasto.finControl.controller;
 
 import br.com.meuGasto.finControl.service.ExportacaoService;
 import br.com.meuGasto.finControl.service.RelatorioService;
+import br.com.meuGasto.finControl.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -11,8 +12,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,6 +28,7 @@ public class RelatorioController {
 
     private final RelatorioService relatorioService;
     private final ExportacaoService exportacaoService;
+    private final UsuarioService usuarioService;
 
     @GetMapping("/categoria")
     @Operation(summary = "Obtém gastos por categoria em um período")
@@ -30,7 +36,7 @@ public class RelatorioController {
     public ResponseEntity<Map<String, Object>> getGastosPorCategoria(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
-        return ResponseEntity.ok(Map.of("gastosPorCategoria", relatorioService.getGastosPorCategoria(inicio, fim)));
+        return ResponseEntity.ok(Map.of("gastosPorCategoria", relatorioService.getGastosPorCategoria(usuarioService.getIdUsuarioLogado(), inicio, fim)));
     }
 
     @GetMapping("/mensal")
@@ -38,7 +44,7 @@ public class RelatorioController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Map<String, Object>> getEstatisticasMensais(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime mes) {
-        return ResponseEntity.ok(relatorioService.getEstatisticasMensais(mes));
+        return ResponseEntity.ok(relatorioService.getEstatisticasMensais(usuarioService.getIdUsuarioLogado(), YearMonth.from(mes)));
     }
 
     @GetMapping("/tendencias")
@@ -46,23 +52,31 @@ public class RelatorioController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Map<String, Object>> getTendencias(
             @RequestParam(defaultValue = "6") int mesesAnteriores) {
-        return ResponseEntity.ok(relatorioService.analisarTendencias(mesesAnteriores));
+        return ResponseEntity.ok(relatorioService.analisarTendencias(usuarioService.getIdUsuarioLogado(), mesesAnteriores));
     }
 
     @GetMapping("/exportar/csv")
     @Operation(summary = "Exporta gastos em formato CSV")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<String> exportarGastosCSV(
+    public ResponseEntity<StreamingResponseBody> exportarGastosCSV(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
-        String csvContent = exportacaoService.exportarGastosCSV(inicio, fim);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = AcceptEncoding.aceitaGzip(acceptEncoding);
+        // resolvido aqui: o corpo é escrito em outra thread
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarGastosCSV(usuarioId, inicio, fim, saida, gzip);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
         headers.setContentDispositionFormData("attachment", "gastos.csv");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvContent);
+                .body(corpo);
     }
 }
@@ -1,6 +1,8 @@
 package br.com.meuGasto.finControl.controller;
 
 import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.service.AgregadorCentavos;
+import br.com.meuGasto.finControl.service.AnaliseGastos;
 import br.com.meuGasto.finControl.service.GastoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -9,13 +11,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.time.temporal.ChronoUnit;
 
 @Controller
 @RequestMapping("/relatorios")
@@ -29,51 +26,35 @@ public class RelatoriosController {
     @GetMapping
     public String mostrarRelatorios(Model model) {
         try {
-            List<Gasto> todosGastos = gastoService.listarTodos();
+            // Somas sobre as colunas em memória: nenhum gasto é carregado além dos últimos
+            AnaliseGastos.Panorama panorama = gastoService.obterPanorama();
 
-            if (todosGastos.isEmpty()) {
+            if (panorama.centavosPorMes().length == 0) {
                 preencherModelVazio(model);
                 return "relatorios";
             }
 
-            // Total de gastos
-            BigDecimal totalGastos = todosGastos.stream()
-                    .map(Gasto::getValor)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Total de gastos e gastos por categoria, somados em centavos
+            AgregadorCentavos porCategoria = panorama.porCategoria();
+            BigDecimal totalGastos = porCategoria.getTotal();
 
-            // Média mensal
-            BigDecimal mediaMensal = calcularMediaMensal(todosGastos);
+            // Média mensal, do primeiro ao último mês com gastos
+            BigDecimal mediaMensal = AgregadorCentavos.dividir(porCategoria.getTotalCentavos(), panorama.centavosPorMes().length);
 
             // Maior e menor gasto
-            BigDecimal maiorGasto = todosGastos.stream()
-                    .map(Gasto::getValor)
-                    .max(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
-
-            BigDecimal menorGasto = todosGastos.stream()
-                    .map(Gasto::getValor)
-                    .filter(valor -> valor.compareTo(BigDecimal.ZERO) > 0)
-                    .min(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
+            BigDecimal maiorGasto = panorama.maiorCentavos() != null
+                    ? AgregadorCentavos.reais(panorama.maiorCentavos()) : BigDecimal.ZERO;
+            BigDecimal menorGasto = panorama.menorPositivoCentavos() != null
+                    ? AgregadorCentavos.reais(panorama.menorPositivoCentavos()) : BigDecimal.ZERO;
 
             // Gastos por categoria
-            Map<String, BigDecimal> gastosPorCategoria = todosGastos.stream()
-                    .collect(Collectors.groupingBy(
-                            Gasto::getCategoria,
-                            TreeMap::new,
-                            Collectors.reducing(BigDecimal.ZERO,
-                                    Gasto::getValor,
-                                    BigDecimal::add)
-                    ));
+            Map<String, BigDecimal> gastosPorCategoria = porCategoria.totaisEmReais(TreeMap::new);
 
             // Gastos por mês
-            Map<String, BigDecimal> gastosPorMes = calcularGastosPorMes(todosGastos);
+            Map<String, BigDecimal> gastosPorMes = formatarGastosPorMes(panorama);
 
             // Últimos gastos (limitado a 10)
-            List<Gasto> ultimosGastos = todosGastos.stream()
-                    .sorted(Comparator.comparing(Gasto::getDataGasto).reversed())
-                    .limit(10)
-                    .collect(Collectors.toList());
+            List<Gasto> ultimosGastos = gastoService.listarPagina(null, 10).getContent();
 
             // Adicionar dados ao modelo
             model.addAttribute("totalGastos", totalGastos);
@@ -101,73 +82,13 @@ public class RelatoriosController {
         model.addAttribute("ultimosGastos", new ArrayList<Gasto>());
     }
 
-    private BigDecimal calcularMediaMensal(List<Gasto> gastos) {
-        if (gastos.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        // Encontrar o primeiro e último mês
-        LocalDateTime dataInicial = gastos.stream()
-                .map(Gasto::getDataGasto)
-                .min(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now());
-
-        LocalDateTime dataFinal = gastos.stream()
-                .map(Gasto::getDataGasto)
-                .max(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now());
-
-        // Calcular número de meses entre as datas usando YearMonth
-        YearMonth mesInicial = YearMonth.from(dataInicial);
-        YearMonth mesFinal = YearMonth.from(dataFinal);
-
-        // Diferença em meses
-        long meses = ChronoUnit.MONTHS.between(mesInicial, mesFinal) + 1; // +1 para incluir o mês atual
-
-        // Calcular média
-        BigDecimal totalGastos = gastos.stream()
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return totalGastos.divide(BigDecimal.valueOf(meses), 2, RoundingMode.HALF_UP);
-    }
-
-    private Map<String, BigDecimal> calcularGastosPorMes(List<Gasto> gastos) {
-        // Criar mapa ordenado por data
-        TreeMap<YearMonth, BigDecimal> gastosPorMes = new TreeMap<>();
-
-        // Preencher meses sem gastos com zero
-        if (!gastos.isEmpty()) {
-            YearMonth inicio = YearMonth.from(gastos.stream()
-                    .map(Gasto::getDataGasto)
-                    .min(LocalDateTime::compareTo)
-                    .orElse(LocalDateTime.now()));
-
-            YearMonth fim = YearMonth.from(gastos.stream()
-                    .map(Gasto::getDataGasto)
-                    .max(LocalDateTime::compareTo)
-                    .orElse(LocalDateTime.now()));
-
-            YearMonth atual = inicio;
-            while (!atual.isAfter(fim)) {
-                gastosPorMes.put(atual, BigDecimal.ZERO);
-                atual = atual.plusMonths(1);
-            }
+    private Map<String, BigDecimal> formatarGastosPorMes(AnaliseGastos.Panorama panorama) {
+        // Criar mapa ordenado por data (meses sem gastos ficam com zero)
+        TreeMap<String, BigDecimal> gastosPorMes = new TreeMap<>();
+        long[] centavosPorMes = panorama.centavosPorMes();
+        for (int i = 0; i < centavosPorMes.length; i++) {
+            gastosPorMes.putIfAbsent(panorama.primeiroMes().plusMonths(i).format(MONTH_FORMATTER), AgregadorCentavos.reais(centavosPorMes[i]));
         }
-
-        // Somar os gastos por mês
-        gastos.forEach(gasto -> {
-            YearMonth mes = YearMonth.from(gasto.getDataGasto());
-            gastosPorMes.merge(mes, gasto.getValor(), BigDecimal::add);
-        });
-
-        // Converter para o formato de exibição
-        return gastosPorMes.entrySet().stream()
-                .collect(Collectors.toMap(
-                        entry -> entry.getKey().format(MONTH_FORMATTER),
-                        Map.Entry::getValue,
-                        (v1, v2) -> v1,
-                        TreeMap::new
-                ));
+        return gastosPorMes;
     }
 }
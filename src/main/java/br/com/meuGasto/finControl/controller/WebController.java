@@ -4,6 +4,7 @@ import br.com.meuGasto.finControl.entity.Usuario;
 import br.com.meuGasto.finControl.service.GastoService;
 import br.com.meuGasto.finControl.service.PlanejamentoService;
 import br.com.meuGasto.finControl.dto.PlanejamentoResumoDTO;
+import br.com.meuGasto.finControl.dto.ResumoDashboardDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -44,10 +45,11 @@ public class WebController {
 
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
-        model.addAttribute("totalGastos", gastoService.calcularTotalGastos());
-        model.addAttribute("quantidadeGastos", gastoService.contarGastos());
-        model.addAttribute("quantidadeCategorias", gastoService.contarCategorias());
-        model.addAttribute("gastosMes", gastoService.calcularTotalGastosMes());
+        ResumoDashboardDTO resumoGastos = gastoService.obterResumoDashboard();
+        model.addAttribute("totalGastos", resumoGastos.getTotalGastos());
+        model.addAttribute("quantidadeGastos", resumoGastos.getQuantidadeGastos());
+        model.addAttribute("quantidadeCategorias", resumoGastos.getQuantidadeCategorias());
+        model.addAttribute("gastosMes", resumoGastos.getTotalGastosMes());
 
         // Planejamento mensal do mês atual (se existir) ou último existente
         YearMonth mesAtual = YearMonth.now();
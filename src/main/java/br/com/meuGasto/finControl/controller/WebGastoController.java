@@ -1,6 +1,7 @@
 package br.com.meuGasto.finControl.controller;
 
 import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.service.AgregadorCentavos;
 import br.com.meuGasto.finControl.service.GastoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -11,8 +12,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,19 +29,19 @@ public class WebGastoController {
         List<Gasto> gastos = gastoService.listarTodos();
 
         // Calculando estatísticas
-        BigDecimal totalGastos = gastos.stream()
-            .map(Gasto::getValor)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal gastosMes = gastos.stream()
-            .filter(gasto -> {
-                LocalDate dataGasto = gasto.getDataGasto().toLocalDate();
-                LocalDate hoje = LocalDate.now();
-                return dataGasto.getMonth() == hoje.getMonth() &&
-                       dataGasto.getYear() == hoje.getYear();
-            })
-            .map(Gasto::getValor)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // somados em centavos
+        YearMonth mesAtual = YearMonth.now();
+        long totalCentavos = 0;
+        long mesCentavos = 0;
+        for (Gasto gasto : gastos) {
+            long centavos = AgregadorCentavos.centavos(gasto.getValor());
+            totalCentavos += centavos;
+            if (YearMonth.from(gasto.getDataGasto()).equals(mesAtual)) {
+                mesCentavos += centavos;
+            }
+        }
+        BigDecimal totalGastos = AgregadorCentavos.reais(totalCentavos);
+        BigDecimal gastosMes = AgregadorCentavos.reais(mesCentavos);
 
         List<String> categorias = gastos.stream()
             .map(Gasto::getCategoria)
@@ -0,0 +1,19 @@
+package br.com.meuGasto.finControl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FaixaSaldoDTO {
+    private String mes;
+    private BigDecimal p10;
+    private BigDecimal p50;
+    private BigDecimal p90;
+}
@@ -12,10 +12,9 @@ import java.util.List;
 @Builder
 public class MovimentacaoResponseDTO {
     private List<MovimentacaoDTO> content;
-    private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private String nextCursor;
     private boolean last;
+    // total aproximado (mantido em cache), preenchido apenas quando solicitado
+    private Long totalElements;
 }
-
@@ -0,0 +1,25 @@
+package br.com.meuGasto.finControl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados navegada por cursor: o cliente repassa {@code nextCursor}
+ * para obter a página seguinte.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaCursorDTO<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor;
+    private boolean last;
+    // total aproximado (mantido em cache), preenchido apenas quando solicitado
+    private Long totalElements;
+}
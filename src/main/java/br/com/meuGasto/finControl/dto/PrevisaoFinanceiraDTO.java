@@ -26,5 +26,8 @@ public class PrevisaoFinanceiraDTO {
     // Evolução diária (lista de pontos)
     private List<EvolucaoDiariaDTO> evolucaoDiaria;
 
+    // Modelo de projeção usado (linear, dia-da-semana ou suavizacao-exponencial)
+    private String modelo;
+
     private String periodo;
 }
@@ -0,0 +1,28 @@
+package br.com.meuGasto.finControl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrevisaoMonteCarloDTO {
+    // Saldo do mês atual até ontem (receitas menos despesas); hoje entra na simulação
+    private BigDecimal saldoRealizado;
+
+    // Faixas do saldo acumulado desde o início do mês atual ao fim de cada mês simulado
+    private List<FaixaSaldoDTO> faixas;
+
+    // Parâmetros da simulação: repetir a semente com os mesmos dados reproduz as faixas
+    private int caminhos;
+    private long semente;
+    private int diasHistorico;
+
+    private String periodo;
+}
@@ -0,0 +1,19 @@
+package br.com.meuGasto.finControl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoDashboardDTO {
+    private BigDecimal totalGastos;
+    private BigDecimal totalGastosMes;
+    private long quantidadeCategorias;
+    private long quantidadeGastos;
+}
@@ -1,7 +1,11 @@
 package br.com.meuGasto.finControl.entity;
 
+import br.com.meuGasto.finControl.config.PooledTableIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -10,7 +14,11 @@ import java.time.LocalDateTime;
 public class Gasto {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "gastos_id")
+    @GenericGenerator(name = "gastos_id", type = PooledTableIdGenerator.class, parameters = {
+            @Parameter(name = PooledTableIdGenerator.SEQUENCIA, value = "gastos"),
+            @Parameter(name = PooledTableIdGenerator.TAMANHO_BLOCO, value = "50")
+    })
     private Long id;
     
     @NotBlank(message = "Descrição é obrigatória")
@@ -40,6 +48,10 @@ public class Gasto {
     @Column(length = 500)
     private String observacoes;
     
+    // dono do gasto: preenchido pelo serviço a partir do usuário logado
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
     
@@ -117,6 +129,14 @@ public class Gasto {
         this.observacoes = observacoes;
     }
     
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+    
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+    
     public LocalDateTime getDataCriacao() {
         return dataCriacao;
     }
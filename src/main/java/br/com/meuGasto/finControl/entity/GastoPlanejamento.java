@@ -20,6 +20,9 @@ public class GastoPlanejamento {
 
     private LocalDate data;
 
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
     public GastoPlanejamento() {
     }
 
@@ -70,4 +73,12 @@ public class GastoPlanejamento {
     public void setData(LocalDate data) {
         this.data = data;
     }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
 }
@@ -39,6 +39,9 @@ public class Meta {
     @Size(max = 100)
     private String tipo;
 
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
 
@@ -76,6 +79,9 @@ public class Meta {
     public String getTipo() { return tipo; }
     public void setTipo(String tipo) { this.tipo = tipo; }
 
+    public Long getUsuarioId() { return usuarioId; }
+    public void setUsuarioId(Long usuarioId) { this.usuarioId = usuarioId; }
+
     public LocalDateTime getDataCriacao() { return dataCriacao; }
     public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
 
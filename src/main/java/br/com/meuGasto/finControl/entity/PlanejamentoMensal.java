@@ -22,6 +22,10 @@ public class PlanejamentoMensal {
     @Setter
     private BigDecimal valorPlanejadoTotal;
 
+    @Setter
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
     @OneToMany(mappedBy = "planejamento", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PlanejamentoCategoria> categorias = new ArrayList<>();
 
@@ -31,5 +35,7 @@ public class PlanejamentoMensal {
 
     public BigDecimal getValorPlanejadoTotal() { return valorPlanejadoTotal; }
 
+    public Long getUsuarioId() { return usuarioId; }
+
     public List<PlanejamentoCategoria> getCategorias() { return categorias; }
 }
@@ -0,0 +1,7 @@
+package br.com.meuGasto.finControl.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +0,0 @@
-package br.com.meuGasto.finControl.exception;
-
-public class EmailSendException extends RuntimeException {
-    public EmailSendException(String message) {
-        super(message);
-    }
-
-    public EmailSendException(String message, Throwable cause) {
-        super(message, cause);
-    }
-}
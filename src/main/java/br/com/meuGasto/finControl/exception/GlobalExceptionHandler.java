@@ -57,6 +57,22 @@ public class GlobalExceptionHandler {
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(CursorInvalidoException.class)
+    protected ResponseEntity<Object> handleCursorInvalido(CursorInvalidoException ex) {
+        ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(HashSenhaIndisponivelException.class)
+    protected ResponseEntity<Object> handleHashSenhaIndisponivel(HashSenhaIndisponivelException ex) {
+        ApiError apiError = new ApiError(HttpStatus.SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()));
+        return new ResponseEntity<>(apiError, headers, apiError.getStatus());
+    }
+
     @ExceptionHandler(Exception.class)
     protected ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         log.error("Erro não tratado", ex);
@@ -0,0 +1,21 @@
+package br.com.meuGasto.finControl.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * O executor de hash de senhas está saturado; o cliente deve tentar de novo após {@link #getRetryAfterSegundos()}.
+ * É uma AuthenticationException para atravessar o AuthenticationManager sem virar "credenciais inválidas".
+ */
+public class HashSenhaIndisponivelException extends AuthenticationServiceException {
+
+    private final long retryAfterSegundos;
+
+    public HashSenhaIndisponivelException(long retryAfterSegundos) {
+        super("Serviço de autenticação ocupado, tente novamente em " + retryAfterSegundos + "s");
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.meuGasto.finControl.exception;
+
+import java.util.List;
+
+public class LoteInvalidoException extends RuntimeException {
+
+    private final List<String> erros;
+
+    public LoteInvalidoException(List<String> erros) {
+        super("Lote inválido: " + erros.size() + " erro(s)");
+        this.erros = List.copyOf(erros);
+    }
+
+    public List<String> getErros() {
+        return erros;
+    }
+}
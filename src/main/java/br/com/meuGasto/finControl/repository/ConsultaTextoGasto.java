@@ -0,0 +1,54 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Converte o texto digitado na busca em uma expressão FTS5 sobre gastos_fts. Cada palavra vira um termo
+ * entre aspas com prefixo ("fei"* encontra "feira"), todos obrigatórios e restritos às colunas de texto.
+ * Operadores e aspas do texto original são descartados, então nenhuma entrada produz uma expressão inválida.
+ */
+public final class ConsultaTextoGasto {
+
+    static final int MAXIMO_TERMOS = 8;
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ConsultaTextoGasto() {
+    }
+
+    /**
+     * Expressão MATCH para o texto, ou null se ele não tiver nenhuma palavra
+     */
+    public static String expressao(String texto) {
+        return expressao("{descricao observacoes}", texto);
+    }
+
+    /**
+     * Expressão MATCH restrita à descrição, ou null se o texto não tiver nenhuma palavra
+     */
+    public static String expressaoDescricao(String texto) {
+        return expressao("descricao", texto);
+    }
+
+    /**
+     * Expressão MATCH restrita também aos gastos do usuário (coluna usuario_id do índice)
+     */
+    public static String expressao(long usuarioId, String texto) {
+        String termos = expressao(texto);
+        return termos == null ? null : "usuario_id : \"" + usuarioId + "\" AND " + termos;
+    }
+
+    private static String expressao(String colunas, String texto) {
+        if (texto == null) {
+            return null;
+        }
+        List<String> termos = new ArrayList<>();
+        for (String palavra : SEPARADOR.split(texto.strip())) {
+            if (!palavra.isEmpty() && termos.size() < MAXIMO_TERMOS) {
+                termos.add("\"" + palavra + "\"*");
+            }
+        }
+        return termos.isEmpty() ? null : colunas + " : (" + String.join(" AND ", termos) + ")";
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de continuação da paginação por cursor: a chave de ordenação e o id do
+ * último registro entregue. É trafegado para o cliente como um token opaco.
+ */
+public record CursorGasto(OrdenacaoGasto ordem, Comparable<?> chave, long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static CursorGasto apos(Gasto gasto, OrdenacaoGasto ordem) {
+        Comparable<?> chave = switch (ordem) {
+            case DATA -> gasto.getDataGasto();
+            case VALOR -> gasto.getValor();
+            case CATEGORIA -> gasto.getCategoria();
+        };
+        return new CursorGasto(ordem, chave, gasto.getId());
+    }
+
+    public String codificar() {
+        String conteudo = ordem.name() + SEPARADOR + id + SEPARADOR + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token recebido do cliente; o token precisa ter sido gerado para a mesma ordenação
+     */
+    public static CursorGasto decodificar(String token, OrdenacaoGasto ordemEsperada) {
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = conteudo.split("\\" + SEPARADOR, 3);
+            OrdenacaoGasto ordem = OrdenacaoGasto.valueOf(partes[0]);
+            if (ordem != ordemEsperada) {
+                throw new CursorInvalidoException("Cursor gerado para outra ordenação: " + ordem);
+            }
+            return new CursorGasto(ordem, ordem.converterChave(partes[2]), Long.parseLong(partes[1]));
+        } catch (CursorInvalidoException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new CursorInvalidoException("Cursor de paginação inválido");
+        }
+    }
+}
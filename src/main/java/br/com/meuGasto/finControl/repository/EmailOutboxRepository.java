@@ -0,0 +1,29 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Mensagens pendentes cuja próxima tentativa já venceu, das mais antigas para as mais novas
+     */
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.proximaTentativa <= :agora ORDER BY e.proximaTentativa, e.id")
+    List<EmailOutbox> buscarVencidas(EmailOutbox.Status status, LocalDateTime agora, Pageable pagina);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.dataEnvio < :limite")
+    int excluirEnviadosAntesDe(EmailOutbox.Status status, LocalDateTime limite);
+}
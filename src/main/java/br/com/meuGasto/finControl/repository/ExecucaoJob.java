@@ -0,0 +1,12 @@
+package br.com.meuGasto.finControl.repository;
+
+/**
+ * Progresso de um job paginado para uma referência (ex.: o mês do relatório)
+ */
+public record ExecucaoJob(String job, String referencia, Status status, long ultimoId, long processados, long falhas) {
+
+    public enum Status {
+        EM_ANDAMENTO,
+        CONCLUIDO
+    }
+}
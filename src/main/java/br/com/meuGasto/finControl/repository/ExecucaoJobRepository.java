@@ -0,0 +1,67 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checkpoints dos jobs agendados (tabela execucoes_job).
+ */
+@Repository
+public class ExecucaoJobRepository {
+
+    private static final String COLUNAS = "job, referencia, status, ultimo_id, processados, falhas";
+
+    private static final RowMapper<ExecucaoJob> MAPEADOR = (rs, linha) -> new ExecucaoJob(
+            rs.getString("job"),
+            rs.getString("referencia"),
+            ExecucaoJob.Status.valueOf(rs.getString("status")),
+            rs.getLong("ultimo_id"),
+            rs.getLong("processados"),
+            rs.getLong("falhas"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExecucaoJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<ExecucaoJob> buscar(String job, String referencia) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM execucoes_job WHERE job = ? AND referencia = ?",
+                MAPEADOR, job, referencia).stream().findFirst();
+    }
+
+    public List<ExecucaoJob> buscarEmAndamento(String job) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM execucoes_job WHERE job = ? AND status = ? ORDER BY referencia",
+                MAPEADOR, job, ExecucaoJob.Status.EM_ANDAMENTO.name());
+    }
+
+    /**
+     * Registra o início da execução; se ela já existir, devolve o progresso gravado
+     */
+    public ExecucaoJob iniciar(String job, String referencia) {
+        jdbcTemplate.update("INSERT INTO execucoes_job (job, referencia, status, inicio) VALUES (?, ?, ?, ?) " +
+                        "ON CONFLICT (job, referencia) DO NOTHING",
+                job, referencia, ExecucaoJob.Status.EM_ANDAMENTO.name(), Timestamp.valueOf(LocalDateTime.now()));
+        return buscar(job, referencia).orElseThrow();
+    }
+
+    /**
+     * Avança o checkpoint depois de uma página; deve rodar na transação do trabalho da página
+     */
+    public void avancar(String job, String referencia, long ultimoId, int processados, int falhas) {
+        jdbcTemplate.update("UPDATE execucoes_job SET ultimo_id = ?, processados = processados + ?, falhas = falhas + ? " +
+                        "WHERE job = ? AND referencia = ?",
+                ultimoId, processados, falhas, job, referencia);
+    }
+
+    public void concluir(String job, String referencia) {
+        jdbcTemplate.update("UPDATE execucoes_job SET status = ?, fim = ? WHERE job = ? AND referencia = ?",
+                ExecucaoJob.Status.CONCLUIDO.name(), Timestamp.valueOf(LocalDateTime.now()), job, referencia);
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critérios combináveis da busca de gastos; campos nulos (ou texto em branco) não filtram. Os limites
+ * de valor e de data são inclusivos e comparados diretamente com as colunas, de modo que usuário +
+ * categoria + período usam os índices (usuario_id, categoria, data_gasto) e (usuario_id, data_gasto).
+ */
+public record FiltroGasto(String categoria,
+                          String tipo,
+                          BigDecimal valorMinimo,
+                          BigDecimal valorMaximo,
+                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+                          String texto) {
+
+    /**
+     * Especificação com todos os critérios informados (null se nenhum)
+     */
+    public Specification<Gasto> especificacao() {
+        List<Specification<Gasto>> criterios = new ArrayList<>();
+        if (categoria != null && !categoria.isBlank()) {
+            criterios.add(GastoSpecifications.categoria(categoria));
+        }
+        if (tipo != null && !tipo.isBlank()) {
+            criterios.add(GastoSpecifications.tipo(tipo));
+        }
+        if (valorMinimo != null) {
+            criterios.add(GastoSpecifications.valorAPartirDe(valorMinimo));
+        }
+        if (valorMaximo != null) {
+            criterios.add(GastoSpecifications.valorAte(valorMaximo));
+        }
+        if (inicio != null) {
+            criterios.add(GastoSpecifications.dataAPartirDe(inicio));
+        }
+        if (fim != null) {
+            criterios.add(GastoSpecifications.dataAte(fim));
+        }
+        if (texto != null && !texto.isBlank()) {
+            criterios.add(GastoSpecifications.textoContem(texto.trim()));
+        }
+        return criterios.isEmpty() ? null : Specification.allOf(criterios);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate a função gastos_texto(id, expressao), verdadeira quando o gasto do id atende à
+ * expressão FTS5 em gastos_fts. Permite usar o índice de texto completo em Specifications (ver
+ * {@link GastoSpecifications#textoContem}). Carregada via META-INF/services.
+ */
+public class FuncoesBuscaTexto implements FunctionContributor {
+
+    static final String GASTOS_TEXTO = "gastos_texto";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(GASTOS_TEXTO, "(?1 in (select rowid from gastos_fts where gastos_fts match ?2))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -7,17 +7,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Optional;
 
-public interface GastoPlanejamentoRepository extends JpaRepository<GastoPlanejamento, Long> {
+public interface GastoPlanejamentoRepository extends JpaRepository<GastoPlanejamento, Long>, GastoPlanejamentoRepositoryCustom {
 
     @Query("SELECT COALESCE(SUM(g.valor), 0) " +
             "FROM GastoPlanejamento g " +
-            "WHERE g.data BETWEEN :inicio AND :fim")
-    BigDecimal sumByPeriodo(LocalDate inicio, LocalDate fim);
-
-    Optional<GastoPlanejamento> findByGastoId(Long gastoId);
-
-    void deleteByGastoId(Long gastoId);
+            "WHERE g.usuarioId = :usuarioId AND g.data BETWEEN :inicio AND :fim")
+    BigDecimal sumByPeriodo(Long usuarioId, LocalDate inicio, LocalDate fim);
 
 }
@@ -0,0 +1,15 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+
+import java.util.Collection;
+
+public interface GastoPlanejamentoRepositoryCustom {
+
+    /**
+     * Cria ou atualiza o GastoPlanejamento vinculado a cada gasto com um único
+     * INSERT ... ON CONFLICT(gasto_id) DO UPDATE, enviado em lote quando há vários gastos.
+     * O índice único em gasto_id garante um registro por gasto mesmo com escritas concorrentes.
+     */
+    void sincronizarComGastos(Collection<Gasto> gastos);
+}
@@ -0,0 +1,41 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GastoPlanejamentoRepositoryImpl implements GastoPlanejamentoRepositoryCustom {
+
+    private static final String UPSERT =
+            "INSERT INTO gasto_planejamento (gasto_id, usuario_id, descricao, categoria, valor, data) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (gasto_id) DO UPDATE SET usuario_id = excluded.usuario_id, descricao = excluded.descricao, " +
+            "categoria = excluded.categoria, valor = excluded.valor, data = excluded.data";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GastoPlanejamentoRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void sincronizarComGastos(Collection<Gasto> gastos) {
+        List<Object[]> parametros = gastos.stream()
+                .map(gasto -> new Object[]{
+                        gasto.getId(),
+                        gasto.getUsuarioId(),
+                        gasto.getDescricao(),
+                        gasto.getCategoria(),
+                        gasto.getValor(),
+                        // data é gravada como java.sql.Date, igual ao mapeamento LocalDate da entidade
+                        Date.valueOf(gasto.getDataGasto() != null ? gasto.getDataGasto().toLocalDate() : LocalDate.now())})
+                .collect(Collectors.toList());
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, parametros);
+        }
+    }
+}
@@ -9,56 +9,47 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Todas as consultas são do usuário informado e usam os índices que começam por usuario_id.
+ */
 @Repository
-public interface GastoRepository extends JpaRepository<Gasto, Long> {
+public interface GastoRepository extends JpaRepository<Gasto, Long>, GastoRepositoryCustom {
 
-    List<Gasto> findByDataGastoBetween(LocalDateTime inicio, LocalDateTime fim);
-    List<Gasto> findByCategoria(String categoria);
-    List<Gasto> findByDescricaoContainingIgnoreCase(String descricao);
-    List<Gasto> findByValorGreaterThan(BigDecimal valor);
-    List<Gasto> findByValorLessThan(BigDecimal valor);
-    List<Gasto> findByValorBetween(BigDecimal minimo, BigDecimal maximo);
-    List<Gasto> findByCategoriaAndValorGreaterThan(String categoria, BigDecimal valor);
-    List<Gasto> findByOrderByDataGastoDesc();
-    List<Gasto> findByOrderByValorDesc();
-    List<Gasto> findByOrderByCategoriaAsc();
+    List<Gasto> findByUsuarioId(Long usuarioId);
 
-    @Query("SELECT g FROM Gasto g WHERE LOWER(g.descricao) LIKE LOWER(CONCAT('%', :palavraChave, '%'))")
-    List<Gasto> findByPalavraChave(@Param("palavraChave") String palavraChave);
+    Optional<Gasto> findByIdAndUsuarioId(Long id, Long usuarioId);
 
-    Long countByCategoria(String categoria);
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
 
-    @Query("SELECT SUM(g.valor) FROM Gasto g WHERE g.categoria = :categoria")
-    BigDecimal sumValorByCategoria(@Param("categoria") String categoria);
+    long countByUsuarioId(Long usuarioId);
 
-    @Query("SELECT SUM(g.valor) FROM Gasto g")
-    BigDecimal sumTotalValor();
+    List<Gasto> findByUsuarioIdAndDataGastoBetween(Long usuarioId, LocalDateTime inicio, LocalDateTime fim);
 
-    @Query("SELECT g FROM Gasto g WHERE g.valor > (SELECT AVG(g2.valor) FROM Gasto g2)")
-    List<Gasto> findGastosAcimaDaMedia();
+    Long countByUsuarioIdAndCategoria(Long usuarioId, String categoria);
 
-    @Query("SELECT g FROM Gasto g ORDER BY g.valor DESC")
-    List<Gasto> findTop5GastosMaisCaros();
+    @Query("SELECT SUM(g.valor) FROM Gasto g WHERE g.usuarioId = :usuarioId AND g.categoria = :categoria")
+    BigDecimal sumValorByCategoria(@Param("usuarioId") Long usuarioId, @Param("categoria") String categoria);
 
-    List<Gasto> findByCategoriaAndDataGastoBetween(String categoria, LocalDateTime inicio, LocalDateTime fim);
+    @Query("SELECT SUM(g.valor) FROM Gasto g WHERE g.usuarioId = :usuarioId")
+    BigDecimal sumTotalValor(@Param("usuarioId") Long usuarioId);
 
-    @Query("SELECT g FROM Gasto g WHERE g.categoria = :categoria AND g.dataGasto BETWEEN :inicio AND :fim")
-    List<Gasto> findByCategoriaAndPeriodo(@Param("categoria") String categoria,
-                                         @Param("inicio") LocalDateTime inicio,
-                                         @Param("fim") LocalDateTime fim);
-
-    @Query("SELECT SUM(g.valor) FROM Gasto g WHERE g.dataGasto BETWEEN :inicio AND :fim")
-    BigDecimal calcularTotalGastoNoPeriodo(@Param("inicio") LocalDateTime inicio,
-                                          @Param("fim") LocalDateTime fim);
-
-    @Query("SELECT g.categoria, COUNT(g) as quantidade, SUM(g.valor) as total " +
-           "FROM Gasto g " +
-           "WHERE g.dataGasto BETWEEN :inicio AND :fim " +
-           "GROUP BY g.categoria " +
-           "ORDER BY total DESC")
-    List<Object[]> findCategoriasSumarioPorPeriodo(@Param("inicio") LocalDateTime inicio,
-                                                  @Param("fim") LocalDateTime fim);
+    // soma no intervalo semiaberto [inicio, fim)
+    @Query("SELECT SUM(g.valor) FROM Gasto g WHERE g.usuarioId = :usuarioId AND g.dataGasto >= :inicio AND g.dataGasto < :fim")
+    BigDecimal sumValorNoPeriodo(@Param("usuarioId") Long usuarioId, @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
 
+    @Query("SELECT COUNT(DISTINCT g.categoria) FROM Gasto g WHERE g.usuarioId = :usuarioId")
+    long countCategoriasDistintas(@Param("usuarioId") Long usuarioId);
 
+    /**
+     * Total geral, total do mês [inicioMes, fimMes), categorias distintas e quantidade em uma única ida ao banco
+     */
+    @Query("SELECT COALESCE(SUM(g.valor), 0) AS total, " +
+           "COALESCE(SUM(CASE WHEN g.dataGasto >= :inicioMes AND g.dataGasto < :fimMes THEN g.valor ELSE 0 END), 0) AS totalMes, " +
+           "COUNT(DISTINCT g.categoria) AS quantidadeCategorias, " +
+           "COUNT(g) AS quantidade " +
+           "FROM Gasto g WHERE g.usuarioId = :usuarioId")
+    ResumoGastos resumir(@Param("usuarioId") Long usuarioId,
+                         @Param("inicioMes") LocalDateTime inicioMes, @Param("fimMes") LocalDateTime fimMes);
 }
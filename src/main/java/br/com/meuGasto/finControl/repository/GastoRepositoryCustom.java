@@ -0,0 +1,55 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface GastoRepositoryCustom {
+
+    /**
+     * Busca uma fatia de gastos do usuário posicionada logo após o cursor (paginação keyset),
+     * sem OFFSET e sem consulta de contagem.
+     *
+     * @param filtro critérios opcionais (pode ser null)
+     * @param apos   posição do último registro da página anterior (null para a primeira página)
+     */
+    Slice<Gasto> buscarFatia(Long usuarioId, Specification<Gasto> filtro, OrdenacaoGasto ordem, CursorGasto apos, int tamanho);
+
+    /**
+     * Percorre todos os gastos do usuário que atendem ao filtro, na ordem informada, em fatias keyset
+     * de {@code tamanhoLote}; o contexto de persistência é esvaziado a cada fatia, então a memória
+     * usada não depende da quantidade de registros.
+     */
+    void percorrer(Long usuarioId, Specification<Gasto> filtro, OrdenacaoGasto ordem, int tamanhoLote, Consumer<Gasto> consumidor);
+
+    /**
+     * Percorre os gastos do usuário no período em ordem de data com um cursor JDBC somente-avanço,
+     * entregando uma linha por vez ao consumidor. Nenhuma lista é materializada, então o
+     * consumo de memória não depende da quantidade de registros.
+     */
+    void percorrerPorPeriodo(Long usuarioId, LocalDateTime inicio, LocalDateTime fim, Consumer<LinhaExportacaoGasto> consumidor);
+
+    /**
+     * Percorre os gastos de todos os usuários (com dono, data e valor) em ordem de usuário, data e id,
+     * com um cursor JDBC somente-avanço, entregando os valores já em centavos
+     */
+    void percorrerLancamentos(Consumer<LancamentoGasto> consumidor);
+
+    /**
+     * Busca de texto completo em descrição e observações pelo índice FTS5 gastos_fts: prefixos, todas as
+     * palavras obrigatórias, resultados do mais para o menos relevante (BM25, descrição pesando mais).
+     *
+     * @param texto texto digitado pelo usuário (convertido por {@link ConsultaTextoGasto})
+     */
+    List<ResultadoBuscaTexto> buscarTexto(Long usuarioId, String texto, int limite, int deslocamento);
+
+    /**
+     * Insere os gastos em lotes JDBC do tamanho de hibernate.jdbc.batch_size, esvaziando o contexto de
+     * persistência a cada lote. Os ids são atribuídos aos objetos recebidos, que ficam desanexados.
+     */
+    void inserirEmLote(List<Gasto> gastos);
+}
@@ -0,0 +1,209 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.util.HtmlUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class GastoRepositoryImpl implements GastoRepositoryCustom {
+
+    private static final String SQL_EXPORTACAO =
+            "SELECT id, descricao, valor, categoria, data_gasto, observacoes FROM gastos " +
+            "WHERE usuario_id = ? AND data_gasto BETWEEN ? AND ? ORDER BY data_gasto, id";
+    private static final String SQL_LANCAMENTOS =
+            "SELECT id, usuario_id, data_gasto, categoria, tipo, valor FROM gastos " +
+            "WHERE usuario_id IS NOT NULL AND data_gasto IS NOT NULL AND valor IS NOT NULL " +
+            "ORDER BY usuario_id, data_gasto, id";
+    private static final int TAMANHO_LOTE_CURSOR = 500;
+    // marcadores dos termos encontrados: caracteres de controle, trocados por <mark> depois de escapar o HTML
+    private static final String INICIO_DESTAQUE = "\u0002";
+    private static final String FIM_DESTAQUE = "\u0003";
+    private static final String SQL_BUSCA_TEXTO =
+            "SELECT g.id, g.descricao, g.valor, g.categoria, g.tipo, g.data_gasto, " +
+            "highlight(gastos_fts, 1, ?, ?), snippet(gastos_fts, 2, ?, ?, '…', 16), " +
+            "bm25(gastos_fts, 0.0, 10.0, 4.0) AS ordem " +
+            "FROM gastos_fts JOIN gastos g ON g.id = gastos_fts.rowid " +
+            "WHERE gastos_fts MATCH ? AND g.usuario_id = ? " +
+            "ORDER BY ordem LIMIT ? OFFSET ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLoteJdbc;
+
+    public GastoRepositoryImpl(JdbcTemplate jdbcTemplate,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int tamanhoLoteJdbc) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLoteJdbc = Math.max(tamanhoLoteJdbc, 1);
+    }
+
+    @Override
+    public Slice<Gasto> buscarFatia(Long usuarioId, Specification<Gasto> filtro, OrdenacaoGasto ordem, CursorGasto apos, int tamanho) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Gasto> query = cb.createQuery(Gasto.class);
+        Root<Gasto> root = query.from(Gasto.class);
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal(root.get("usuarioId"), usuarioId));
+        if (filtro != null) {
+            Predicate predicado = filtro.toPredicate(root, query, cb);
+            if (predicado != null) {
+                predicados.add(predicado);
+            }
+        }
+        if (apos != null) {
+            predicados.add(depoisDe(cb, root, ordem, apos));
+        }
+        query.where(predicados.toArray(new Predicate[0]));
+
+        Path<?> chave = root.get(ordem.getAtributo());
+        Path<?> id = root.get("id");
+        query.orderBy(ordem.isDecrescente()
+                ? List.of(cb.desc(chave), cb.desc(id))
+                : List.of(cb.asc(chave), cb.asc(id)));
+
+        // um registro a mais indica se existe próxima página
+        List<Gasto> resultado = entityManager.createQuery(query)
+                .setMaxResults(tamanho + 1)
+                .getResultList();
+        boolean temProxima = resultado.size() > tamanho;
+        List<Gasto> conteudo = temProxima ? resultado.subList(0, tamanho) : resultado;
+        return new SliceImpl<>(conteudo, PageRequest.of(0, tamanho), temProxima);
+    }
+
+    @Override
+    public void percorrer(Long usuarioId, Specification<Gasto> filtro, OrdenacaoGasto ordem, int tamanhoLote, Consumer<Gasto> consumidor) {
+        CursorGasto apos = null;
+        Slice<Gasto> fatia;
+        do {
+            fatia = buscarFatia(usuarioId, filtro, ordem, apos, tamanhoLote);
+            List<Gasto> conteudo = fatia.getContent();
+            conteudo.forEach(consumidor);
+            if (!conteudo.isEmpty()) {
+                apos = CursorGasto.apos(conteudo.get(conteudo.size() - 1), ordem);
+            }
+            entityManager.clear();
+        } while (fatia.hasNext());
+    }
+
+    @Override
+    public void inserirEmLote(List<Gasto> gastos) {
+        for (int i = 0; i < gastos.size(); i++) {
+            entityManager.persist(gastos.get(i));
+            if ((i + 1) % tamanhoLoteJdbc == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public void percorrerPorPeriodo(Long usuarioId, LocalDateTime inicio, LocalDateTime fim, Consumer<LinhaExportacaoGasto> consumidor) {
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_EXPORTACAO, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(TAMANHO_LOTE_CURSOR);
+            ps.setLong(1, usuarioId);
+            ps.setTimestamp(2, Timestamp.valueOf(inicio));
+            ps.setTimestamp(3, Timestamp.valueOf(fim));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp dataGasto = rs.getTimestamp(5);
+            consumidor.accept(new LinhaExportacaoGasto(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getBigDecimal(3),
+                    rs.getString(4),
+                    dataGasto != null ? dataGasto.toLocalDateTime() : null,
+                    rs.getString(6)));
+        });
+    }
+
+    @Override
+    public void percorrerLancamentos(Consumer<LancamentoGasto> consumidor) {
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(SQL_LANCAMENTOS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(TAMANHO_LOTE_CURSOR);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(new LancamentoGasto(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getTimestamp(3).toLocalDateTime(),
+                rs.getString(4),
+                rs.getString(5),
+                ResumoGastoRepository.paraCentavos(rs.getBigDecimal(6)))));
+    }
+
+    @Override
+    public List<ResultadoBuscaTexto> buscarTexto(Long usuarioId, String texto, int limite, int deslocamento) {
+        String expressao = ConsultaTextoGasto.expressao(usuarioId, texto);
+        if (expressao == null) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SQL_BUSCA_TEXTO, (rs, linha) -> {
+            Timestamp dataGasto = rs.getTimestamp(6);
+            return new ResultadoBuscaTexto(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getBigDecimal(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    dataGasto != null ? dataGasto.toLocalDateTime() : null,
+                    destacar(rs.getString(7)),
+                    destacar(rs.getString(8)),
+                    -rs.getDouble(9));
+        }, INICIO_DESTAQUE, FIM_DESTAQUE, INICIO_DESTAQUE, FIM_DESTAQUE, expressao, usuarioId, limite, deslocamento);
+    }
+
+    private static String destacar(String trecho) {
+        if (trecho == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(trecho, "UTF-8")
+                .replace(INICIO_DESTAQUE, "<mark>")
+                .replace(FIM_DESTAQUE, "</mark>");
+    }
+
+    /**
+     * Escrito como "chave <= x AND (chave < x OR id < y)" (e o inverso para ordem crescente)
+     * para que o SQLite use o índice da chave como faixa em vez de varrer desde o início.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate depoisDe(CriteriaBuilder cb, Root<Gasto> root, OrdenacaoGasto ordem, CursorGasto apos) {
+        Expression<Comparable> chave = root.get(ordem.getAtributo());
+        Expression<Long> id = root.get("id");
+        Comparable valor = apos.chave();
+
+        if (ordem.isDecrescente()) {
+            return cb.and(
+                    cb.lessThanOrEqualTo(chave, valor),
+                    cb.or(cb.lessThan(chave, valor), cb.lessThan(id, apos.id())));
+        }
+        return cb.and(
+                cb.greaterThanOrEqualTo(chave, valor),
+                cb.or(cb.greaterThan(chave, valor), cb.greaterThan(id, apos.id())));
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Critérios de filtro de {@link Gasto} usados pela paginação por cursor. O filtro por usuário é
+ * aplicado pelo próprio {@link GastoRepositoryCustom#buscarFatia}.
+ */
+public final class GastoSpecifications {
+
+    private GastoSpecifications() {
+    }
+
+    public static Specification<Gasto> categoria(String categoria) {
+        return (root, query, cb) -> cb.equal(root.get("categoria"), categoria);
+    }
+
+    /**
+     * Descrição com palavras começando por cada palavra do texto, pelo índice FTS5 (sem diferenciar
+     * maiúsculas nem acentos); um texto sem palavras não restringe nada
+     */
+    public static Specification<Gasto> descricaoContem(String texto) {
+        return correspondeA(ConsultaTextoGasto.expressaoDescricao(texto));
+    }
+
+    public static Specification<Gasto> tipo(String tipo) {
+        return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+    }
+
+    /**
+     * Descrição ou observações com palavras começando por cada palavra do texto, pelo índice FTS5
+     * (sem diferenciar maiúsculas nem acentos); um texto sem palavras não restringe nada
+     */
+    public static Specification<Gasto> textoContem(String texto) {
+        return correspondeA(ConsultaTextoGasto.expressao(texto));
+    }
+
+    public static Specification<Gasto> valorMaiorQue(BigDecimal valor) {
+        return (root, query, cb) -> cb.greaterThan(root.get("valor"), valor);
+    }
+
+    public static Specification<Gasto> valorMenorQue(BigDecimal valor) {
+        return (root, query, cb) -> cb.lessThan(root.get("valor"), valor);
+    }
+
+    public static Specification<Gasto> valorEntre(BigDecimal minimo, BigDecimal maximo) {
+        return (root, query, cb) -> cb.between(root.get("valor"), minimo, maximo);
+    }
+
+    public static Specification<Gasto> valorAPartirDe(BigDecimal minimo) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("valor"), minimo);
+    }
+
+    public static Specification<Gasto> valorAte(BigDecimal maximo) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("valor"), maximo);
+    }
+
+    public static Specification<Gasto> dataAPartirDe(LocalDateTime inicio) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataGasto"), inicio);
+    }
+
+    public static Specification<Gasto> dataAte(LocalDateTime fim) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dataGasto"), fim);
+    }
+
+    public static Specification<Gasto> periodo(LocalDateTime inicio, LocalDateTime fim) {
+        return (root, query, cb) -> cb.between(root.get("dataGasto"), inicio, fim);
+    }
+
+    /**
+     * Gastos acima da média dos gastos do mesmo usuário
+     */
+    public static Specification<Gasto> acimaDaMedia(Long usuarioId) {
+        return (root, query, cb) -> {
+            Subquery<Double> media = query.subquery(Double.class);
+            Root<Gasto> todos = media.from(Gasto.class);
+            media.select(cb.avg(todos.get("valor")))
+                    .where(cb.equal(todos.get("usuarioId"), usuarioId));
+            return cb.gt(root.get("valor"), media);
+        };
+    }
+
+    private static Specification<Gasto> correspondeA(String expressao) {
+        if (expressao == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> cb.isTrue(cb.function(FuncoesBuscaTexto.GASTOS_TEXTO, Boolean.class,
+                root.get("id"), cb.literal(expressao)));
+    }
+}
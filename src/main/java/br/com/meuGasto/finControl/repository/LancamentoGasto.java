@@ -0,0 +1,14 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colunas de um gasto usadas pelas análises em memória, lidas diretamente do cursor JDBC
+ */
+public record LancamentoGasto(long id,
+                              long usuarioId,
+                              LocalDateTime dataGasto,
+                              String categoria,
+                              String tipo,
+                              long centavos) {
+}
@@ -0,0 +1,15 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Colunas de um gasto lidas diretamente do cursor JDBC para exportação, sem passar pelo contexto de persistência
+ */
+public record LinhaExportacaoGasto(long id,
+                                   String descricao,
+                                   BigDecimal valor,
+                                   String categoria,
+                                   LocalDateTime dataGasto,
+                                   String observacoes) {
+}
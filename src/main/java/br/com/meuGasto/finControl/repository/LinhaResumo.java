@@ -0,0 +1,16 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Soma e quantidade de gastos de um usuário, categoria e tipo em um período consolidado.
+ *
+ * @param periodo dia do consolidado diário ou primeiro dia do mês no consolidado mensal
+ */
+public record LinhaResumo(long usuarioId, LocalDate periodo, String categoria, String tipo, long totalCentavos, long quantidade) {
+
+    public BigDecimal total() {
+        return BigDecimal.valueOf(totalCentavos, 2);
+    }
+}
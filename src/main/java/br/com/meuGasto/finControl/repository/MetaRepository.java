@@ -4,8 +4,15 @@ import br.com.meuGasto.finControl.entity.Meta;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MetaRepository extends JpaRepository<Meta, Long> {
 
-}
+    List<Meta> findByUsuarioIdOrderByDataInicioDesc(Long usuarioId);
 
+    Optional<Meta> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+}
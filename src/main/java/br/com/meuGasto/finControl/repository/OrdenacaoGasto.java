@@ -0,0 +1,42 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ordenações suportadas pela paginação por cursor (keyset). O id é sempre usado
+ * como critério de desempate, no mesmo sentido da chave.
+ */
+public enum OrdenacaoGasto {
+
+    DATA("dataGasto", true),
+    VALOR("valor", true),
+    CATEGORIA("categoria", false);
+
+    private final String atributo;
+    private final boolean decrescente;
+
+    OrdenacaoGasto(String atributo, boolean decrescente) {
+        this.atributo = atributo;
+        this.decrescente = decrescente;
+    }
+
+    public String getAtributo() {
+        return atributo;
+    }
+
+    public boolean isDecrescente() {
+        return decrescente;
+    }
+
+    /**
+     * Converte a chave serializada no cursor para o tipo do atributo
+     */
+    Comparable<?> converterChave(String chave) {
+        return switch (this) {
+            case DATA -> LocalDateTime.parse(chave);
+            case VALOR -> new BigDecimal(chave);
+            case CATEGORIA -> chave;
+        };
+    }
+}
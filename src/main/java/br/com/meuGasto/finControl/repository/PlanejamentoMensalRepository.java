@@ -9,11 +9,17 @@ import java.util.List;
 import java.util.Optional;
 
 public interface PlanejamentoMensalRepository extends JpaRepository<PlanejamentoMensal, Long> {
-    Optional<PlanejamentoMensal> findByMesAno(YearMonth mesAno);
+    Optional<PlanejamentoMensal> findByUsuarioIdAndMesAno(Long usuarioId, YearMonth mesAno);
 
-    // Retorna todos os planejamentos para um dado mes/ano (pode haver duplicatas no DB)
-    List<PlanejamentoMensal> findAllByMesAno(YearMonth mesAno);
+    // Retorna todos os planejamentos do usuário para um dado mes/ano (pode haver duplicatas no DB)
+    List<PlanejamentoMensal> findAllByUsuarioIdAndMesAno(Long usuarioId, YearMonth mesAno);
 
-    // Retorna o planejamento mais recente (maior mesAno) — usado como fallback
-    Optional<PlanejamentoMensal> findTopByOrderByMesAnoDesc();
+    // Retorna o planejamento mais recente (maior mesAno) do usuário — usado como fallback
+    Optional<PlanejamentoMensal> findTopByUsuarioIdOrderByMesAnoDesc(Long usuarioId);
+
+    List<PlanejamentoMensal> findByUsuarioId(Long usuarioId);
+
+    Optional<PlanejamentoMensal> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
 }
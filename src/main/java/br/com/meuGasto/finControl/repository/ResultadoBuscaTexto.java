@@ -0,0 +1,19 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Gasto encontrado pela busca de texto completo. Os trechos vêm com o HTML escapado e os termos
+ * encontrados entre &lt;mark&gt; e &lt;/mark&gt;; a relevância é o BM25 com sinal invertido (maior é melhor).
+ */
+public record ResultadoBuscaTexto(long id,
+                                  String descricao,
+                                  BigDecimal valor,
+                                  String categoria,
+                                  String tipo,
+                                  LocalDateTime dataGasto,
+                                  String trechoDescricao,
+                                  String trechoObservacoes,
+                                  double relevancia) {
+}
@@ -0,0 +1,161 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso às tabelas de consolidados (gastos_resumo_diario e gastos_resumo_mensal), por usuário.
+ */
+@Repository
+public class ResumoGastoRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO %s (usuario_id, %s, categoria, tipo, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (usuario_id, %2$s, categoria, tipo) DO UPDATE SET " +
+            "total_centavos = total_centavos + excluded.total_centavos, quantidade = quantidade + excluded.quantidade";
+    private static final String LIMPA_VAZIO =
+            "DELETE FROM %s WHERE usuario_id = ? AND %s = ? AND categoria = ? AND tipo = ? AND quantidade <= 0";
+
+    private static final String DIARIO = "gastos_resumo_diario";
+    private static final String MENSAL = "gastos_resumo_mensal";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResumoGastoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Soma um delta (positivo ou negativo) aos consolidados diário e mensal do gasto
+     */
+    public void aplicar(long usuarioId, LocalDate dia, String categoria, String tipo, long centavos, int quantidade) {
+        String anoMes = YearMonth.from(dia).toString();
+        jdbcTemplate.update(String.format(UPSERT, DIARIO, "dia"), usuarioId, dia.toString(), categoria, tipo, centavos, quantidade);
+        jdbcTemplate.update(String.format(UPSERT, MENSAL, "ano_mes"), usuarioId, anoMes, categoria, tipo, centavos, quantidade);
+        if (quantidade < 0) {
+            jdbcTemplate.update(String.format(LIMPA_VAZIO, DIARIO, "dia"), usuarioId, dia.toString(), categoria, tipo);
+            jdbcTemplate.update(String.format(LIMPA_VAZIO, MENSAL, "ano_mes"), usuarioId, anoMes, categoria, tipo);
+        }
+    }
+
+    /**
+     * Consolidados diários do usuário entre os dias informados (inclusive)
+     */
+    public List<LinhaResumo> buscarDias(long usuarioId, LocalDate inicio, LocalDate fim) {
+        return jdbcTemplate.query(
+                "SELECT usuario_id, dia, categoria, tipo, total_centavos, quantidade FROM gastos_resumo_diario " +
+                "WHERE usuario_id = ? AND dia BETWEEN ? AND ?",
+                (rs, i) -> new LinhaResumo(rs.getLong(1), LocalDate.parse(rs.getString(2)), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)),
+                usuarioId, inicio.toString(), fim.toString());
+    }
+
+    /**
+     * Consolidados mensais do usuário entre os meses informados (inclusive)
+     */
+    public List<LinhaResumo> buscarMeses(long usuarioId, YearMonth inicio, YearMonth fim) {
+        return jdbcTemplate.query(
+                "SELECT usuario_id, ano_mes, categoria, tipo, total_centavos, quantidade FROM gastos_resumo_mensal " +
+                "WHERE usuario_id = ? AND ano_mes BETWEEN ? AND ?",
+                (rs, i) -> new LinhaResumo(rs.getLong(1), YearMonth.parse(rs.getString(2)).atDay(1), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)),
+                usuarioId, inicio.toString(), fim.toString());
+    }
+
+    /**
+     * Agrega por dia, categoria e tipo os gastos brutos do usuário no intervalo (inclusive). Usado
+     * apenas para as pontas de um período que não cobrem um dia inteiro.
+     */
+    public List<LinhaResumo> somarGastos(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        Map<ChaveDiaria, long[]> acumulado = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT usuario_id, data_gasto, categoria, tipo, valor FROM gastos WHERE usuario_id = ? AND data_gasto BETWEEN ? AND ?",
+                acumulador(acumulado), usuarioId, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+        return paraLinhas(acumulado);
+    }
+
+    /**
+     * Recalcula os consolidados diários a partir de todos os gastos com dono, sem gravar nada
+     */
+    public List<LinhaResumo> calcularDiasAPartirDosGastos() {
+        Map<ChaveDiaria, long[]> acumulado = new HashMap<>();
+        jdbcTemplate.query("SELECT usuario_id, data_gasto, categoria, tipo, valor FROM gastos " +
+                        "WHERE usuario_id IS NOT NULL AND data_gasto IS NOT NULL",
+                acumulador(acumulado));
+        return paraLinhas(acumulado);
+    }
+
+    public List<LinhaResumo> buscarTodosDias() {
+        return jdbcTemplate.query(
+                "SELECT usuario_id, dia, categoria, tipo, total_centavos, quantidade FROM gastos_resumo_diario",
+                (rs, i) -> new LinhaResumo(rs.getLong(1), LocalDate.parse(rs.getString(2)), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)));
+    }
+
+    public List<LinhaResumo> buscarTodosMeses() {
+        return jdbcTemplate.query(
+                "SELECT usuario_id, ano_mes, categoria, tipo, total_centavos, quantidade FROM gastos_resumo_mensal",
+                (rs, i) -> new LinhaResumo(rs.getLong(1), YearMonth.parse(rs.getString(2)).atDay(1), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)));
+    }
+
+    /**
+     * Apaga e recalcula os dois consolidados a partir da tabela de gastos
+     */
+    public void reconstruir() {
+        List<LinhaResumo> dias = calcularDiasAPartirDosGastos();
+
+        Map<ChaveDiaria, long[]> meses = new HashMap<>();
+        for (LinhaResumo dia : dias) {
+            long[] soma = meses.computeIfAbsent(
+                    new ChaveDiaria(dia.usuarioId(), dia.periodo().withDayOfMonth(1), dia.categoria(), dia.tipo()), k -> new long[2]);
+            soma[0] += dia.totalCentavos();
+            soma[1] += dia.quantidade();
+        }
+
+        jdbcTemplate.update("DELETE FROM " + DIARIO);
+        jdbcTemplate.update("DELETE FROM " + MENSAL);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + DIARIO + " (usuario_id, dia, categoria, tipo, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?, ?)",
+                dias.stream().map(l -> new Object[]{l.usuarioId(), l.periodo().toString(), l.categoria(), l.tipo(), l.totalCentavos(), l.quantidade()}).toList());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + MENSAL + " (usuario_id, ano_mes, categoria, tipo, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?, ?)",
+                paraLinhas(meses).stream().map(l -> new Object[]{l.usuarioId(), YearMonth.from(l.periodo()).toString(), l.categoria(), l.tipo(), l.totalCentavos(), l.quantidade()}).toList());
+    }
+
+    public static long paraCentavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static RowCallbackHandler acumulador(Map<ChaveDiaria, long[]> acumulado) {
+        return rs -> {
+            Timestamp data = rs.getTimestamp(2);
+            BigDecimal valor = rs.getBigDecimal(5);
+            if (data == null || valor == null) {
+                return;
+            }
+            long[] soma = acumulado.computeIfAbsent(
+                    new ChaveDiaria(rs.getLong(1), data.toLocalDateTime().toLocalDate(), rs.getString(3), rs.getString(4)), k -> new long[2]);
+            soma[0] += paraCentavos(valor);
+            soma[1]++;
+        };
+    }
+
+    private static List<LinhaResumo> paraLinhas(Map<ChaveDiaria, long[]> acumulado) {
+        List<LinhaResumo> linhas = new ArrayList<>(acumulado.size());
+        acumulado.forEach((chave, soma) -> linhas.add(
+                new LinhaResumo(chave.usuarioId(), chave.dia(), chave.categoria(), chave.tipo(), soma[0], soma[1])));
+        return linhas;
+    }
+
+    private record ChaveDiaria(long usuarioId, LocalDate dia, String categoria, String tipo) {
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.meuGasto.finControl.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregados dos gastos calculados pelo banco em uma única consulta
+ */
+public interface ResumoGastos {
+
+    BigDecimal getTotal();
+
+    BigDecimal getTotalMes();
+
+    long getQuantidadeCategorias();
+
+    long getQuantidade();
+}
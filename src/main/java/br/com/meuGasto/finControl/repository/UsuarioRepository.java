@@ -1,9 +1,11 @@
 package br.com.meuGasto.finControl.repository;
 
 import br.com.meuGasto.finControl.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +19,7 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     
     // Buscar usuário ativo por email
     Optional<Usuario> findByEmailAndAtivoTrue(String email);
+
+    // Página de usuários ativos após o id informado (percurso por keyset)
+    List<Usuario> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,39 +1,162 @@
 package br.com.meuGasto.finControl.service;
 
-import lombok.RequiredArgsConstructor;
+import br.com.meuGasto.finControl.entity.Usuario;
+import br.com.meuGasto.finControl.repository.ExecucaoJob;
+import br.com.meuGasto.finControl.repository.ExecucaoJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Jobs agendados. O relatório mensal percorre os usuários ativos em páginas por id. Os relatórios da página
+ * são montados antes da transação (um usuário com erro só é contado como falha) e depois enfileirados em
+ * email_outbox na mesma transação que avança o checkpoint em execucoes_job, então uma execução interrompida
+ * continua do último usuário atendido sem reenviar para os anteriores.
+ * O envio SMTP (concorrente e com limite de taxa) fica a cargo do {@link EmailOutboxDispatcher}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AgendamentoService {
 
+    static final String JOB_RELATORIO_MENSAL = "relatorio-mensal";
+
     private final RelatorioService relatorioService;
     private final NotificacaoService notificacaoService;
     private final UsuarioService usuarioService;
+    private final ExecucaoJobRepository execucaoJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoPagina;
+    private final Timer duracaoRelatorio;
+    private final Counter usuariosEnfileirados;
+    private final Counter usuariosComFalha;
+
+    public AgendamentoService(RelatorioService relatorioService,
+                              NotificacaoService notificacaoService,
+                              UsuarioService usuarioService,
+                              ExecucaoJobRepository execucaoJobRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.relatorio.mensal.tamanho-pagina:200}") int tamanhoPagina) {
+        this.relatorioService = relatorioService;
+        this.notificacaoService = notificacaoService;
+        this.usuarioService = usuarioService;
+        this.execucaoJobRepository = execucaoJobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoPagina = tamanhoPagina;
+        this.duracaoRelatorio = Timer.builder("relatorio.mensal.duracao")
+                .description("Duração do job de relatório mensal")
+                .register(meterRegistry);
+        this.usuariosEnfileirados = Counter.builder("relatorio.mensal.usuarios")
+                .description("Usuários atendidos pelo job de relatório mensal")
+                .tag("resultado", "enfileirado")
+                .register(meterRegistry);
+        this.usuariosComFalha = Counter.builder("relatorio.mensal.usuarios")
+                .description("Usuários atendidos pelo job de relatório mensal")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+    }
 
     @Scheduled(cron = "0 0 7 1 * *") // Executa às 7h do primeiro dia de cada mês
     public void enviarRelatorioMensal() {
-        log.info("Iniciando envio de relatórios mensais");
+        enviarRelatorioMensal(YearMonth.now().minusMonths(1));
+    }
 
-        usuarioService.listarTodos().forEach(usuario -> {
+    /**
+     * Retoma, na subida da aplicação, execuções do relatório mensal interrompidas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarRelatoriosInterrompidos() {
+        for (ExecucaoJob execucao : execucaoJobRepository.buscarEmAndamento(JOB_RELATORIO_MENSAL)) {
+            log.info("Retomando relatório mensal de {} após o usuário id={}", execucao.referencia(), execucao.ultimoId());
             try {
-                LocalDateTime mesAnterior = LocalDateTime.now().minusMonths(1);
-                Map<String, Object> estatisticas = relatorioService.getEstatisticasMensais(mesAnterior);
+                enviarRelatorioMensal(YearMonth.parse(execucao.referencia()));
+            } catch (Exception e) {
+                log.error("Erro ao retomar relatório mensal de " + execucao.referencia(), e);
+            }
+        }
+    }
 
-                String conteudoRelatorio = gerarConteudoRelatorio(estatisticas);
-                notificacaoService.enviarRelatorioMensal(usuario.getEmail(), conteudoRelatorio);
+    /**
+     * Enfileira o relatório do mês informado para todos os usuários ativos; um mês já concluído é ignorado
+     */
+    public synchronized void enviarRelatorioMensal(YearMonth mes) {
+        String referencia = mes.toString();
+        ExecucaoJob execucao = execucaoJobRepository.iniciar(JOB_RELATORIO_MENSAL, referencia);
+        if (execucao.status() == ExecucaoJob.Status.CONCLUIDO) {
+            log.info("Relatório mensal de {} já foi enviado", referencia);
+            return;
+        }
 
-                log.info("Relatório mensal enviado para: {}", usuario.getEmail());
+        log.info("Iniciando envio de relatórios mensais de {}", referencia);
+        long inicio = System.nanoTime();
+
+        long ultimoId = execucao.ultimoId();
+        long atendidos = 0;
+        List<Usuario> pagina;
+        while (!(pagina = usuarioService.listarAtivosAposId(ultimoId, tamanhoPagina)).isEmpty()) {
+            long fimPagina = pagina.get(pagina.size() - 1).getId();
+            List<RelatorioUsuario> relatorios = montarRelatorios(pagina, mes);
+            int falhasPagina = pagina.size() - relatorios.size();
+            // só gravações na transação da página: uma falha aqui desfaz a página e o checkpoint juntos,
+            // e a próxima execução recomeça desta página
+            transactionTemplate.executeWithoutResult(status -> {
+                for (RelatorioUsuario relatorio : relatorios) {
+                    notificacaoService.enviarRelatorioMensal(relatorio.email(), relatorio.conteudo());
+                }
+                execucaoJobRepository.avancar(JOB_RELATORIO_MENSAL, referencia, fimPagina,
+                        relatorios.size(), falhasPagina);
+            });
+            usuariosEnfileirados.increment(relatorios.size());
+            usuariosComFalha.increment(falhasPagina);
+            atendidos += pagina.size();
+            ultimoId = fimPagina;
+        }
+
+        execucaoJobRepository.concluir(JOB_RELATORIO_MENSAL, referencia);
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        duracaoRelatorio.record(duracao);
+        log.info("Relatórios mensais de {} enfileirados para {} usuários em {} ms ({} usuários/s)",
+                referencia, atendidos, duracao.toMillis(),
+                atendidos * 1000 / Math.max(duracao.toMillis(), 1));
+    }
+
+    /**
+     * Monta e valida, fora da transação da página, o relatório de cada usuário; quem falha aqui é contado
+     * como falha sem afetar os demais nem marcar a transação de gravação para rollback
+     */
+    private List<RelatorioUsuario> montarRelatorios(List<Usuario> usuarios, YearMonth mes) {
+        List<RelatorioUsuario> relatorios = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            try {
+                if (usuario.getEmail() == null || usuario.getEmail().isBlank()) {
+                    throw new IllegalArgumentException("Usuário id=" + usuario.getId() + " sem email");
+                }
+                // Cada usuário recebe as estatísticas dos próprios gastos (lidas dos resumos mensais dele)
+                Map<String, Object> estatisticas =
+                        relatorioService.getEstatisticasMensais(usuario.getId(), mes);
+                relatorios.add(new RelatorioUsuario(usuario.getEmail(), gerarConteudoRelatorio(estatisticas)));
             } catch (Exception e) {
-                log.error("Erro ao enviar relatório para: " + usuario.getEmail(), e);
+                log.error("Erro ao montar relatório para: " + usuario.getEmail(), e);
             }
-        });
+        }
+        return relatorios;
+    }
+
+    private record RelatorioUsuario(String email, String conteudo) {
     }
 
     private String gerarConteudoRelatorio(Map<String, Object> estatisticas) {
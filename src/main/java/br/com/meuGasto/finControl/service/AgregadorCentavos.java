@@ -0,0 +1,132 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.repository.ResumoGastoRepository;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Soma de valores por chave (categoria, mês...) em centavos. Cada chave recebe um índice na primeira
+ * vez que aparece e os totais e quantidades ficam em arrays de long indexados por ele, então somar um
+ * lançamento não aloca nada; a conversão para BigDecimal (com 2 casas) acontece só na saída.
+ * Os valores são convertidos para centavos como nos consolidados ({@link ResumoGastoRepository#paraCentavos}).
+ * Não é thread-safe.
+ */
+public final class AgregadorCentavos {
+
+    private static final long CEM = 100;
+
+    private final Map<String, Integer> indices = new HashMap<>();
+    private long[] totais = new long[16];
+    private long[] quantidades = new long[16];
+    private long totalCentavos;
+    private long quantidade;
+
+    public void somar(String chave, BigDecimal valor) {
+        somar(chave, centavos(valor), 1);
+    }
+
+    public void somar(String chave, long centavos) {
+        somar(chave, centavos, 1);
+    }
+
+    public void somar(String chave, long centavos, long quantidadeLancamentos) {
+        int indice = indice(chave);
+        totais[indice] += centavos;
+        quantidades[indice] += quantidadeLancamentos;
+        totalCentavos += centavos;
+        quantidade += quantidadeLancamentos;
+    }
+
+    public long getTotalCentavos() {
+        return totalCentavos;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Total de todas as chaves; sem nenhum lançamento, BigDecimal.ZERO (como a redução a partir de ZERO)
+     */
+    public BigDecimal getTotal() {
+        return indices.isEmpty() ? BigDecimal.ZERO : reais(totalCentavos);
+    }
+
+    /**
+     * Total em centavos da chave (zero se ela nunca apareceu)
+     */
+    public long centavos(String chave) {
+        Integer indice = indices.get(chave);
+        return indice != null ? totais[indice] : 0;
+    }
+
+    public Map<String, BigDecimal> totaisEmReais() {
+        return totaisEmReais(HashMap::new);
+    }
+
+    public <M extends Map<String, BigDecimal>> M totaisEmReais(Supplier<M> fabrica) {
+        M resultado = fabrica.get();
+        indices.forEach((chave, indice) -> resultado.put(chave, reais(totais[indice])));
+        return resultado;
+    }
+
+    public Map<String, Long> quantidades() {
+        Map<String, Long> resultado = new HashMap<>();
+        indices.forEach((chave, indice) -> resultado.put(chave, quantidades[indice]));
+        return resultado;
+    }
+
+    private int indice(String chave) {
+        Integer indice = indices.get(chave);
+        if (indice != null) {
+            return indice;
+        }
+        int novo = indices.size();
+        if (novo == totais.length) {
+            totais = Arrays.copyOf(totais, novo * 2);
+            quantidades = Arrays.copyOf(quantidades, novo * 2);
+        }
+        indices.put(chave, novo);
+        return novo;
+    }
+
+    public static long centavos(BigDecimal valor) {
+        return ResumoGastoRepository.paraCentavos(valor);
+    }
+
+    public static BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * centavos / divisor arredondado para centavos com HALF_UP, igual a
+     * {@code reais(centavos).divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP)}
+     */
+    public static BigDecimal dividir(long centavos, long divisor) {
+        return reais(arredondar(centavos, divisor));
+    }
+
+    /**
+     * Percentual da parte no todo, igual a
+     * {@code reais(parte).divide(reais(todo), 2, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))}
+     */
+    public static BigDecimal percentual(long parte, long todo) {
+        return BigDecimal.valueOf(arredondar(Math.multiplyExact(parte, CEM), todo) * CEM, 2);
+    }
+
+    /**
+     * Quociente inteiro arredondado com HALF_UP (metade se afasta do zero)
+     */
+    private static long arredondar(long dividendo, long divisor) {
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) * 2 >= Math.abs(divisor)) {
+            quociente += Long.signum(dividendo) * Long.signum(divisor);
+        }
+        return quociente;
+    }
+}
@@ -0,0 +1,438 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LancamentoGasto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Cópia em memória dos gastos em colunas de tipos primitivos ({@link ColunasGastos}), uma por usuário,
+ * para que os relatórios somem laços sobre arrays em vez de consultar e materializar entidades.
+ *
+ * É carregada na subida da aplicação e mantida pelas escritas que passam pelo {@link ResumoGastoService},
+ * aplicadas depois do commit. Cada alteração troca as colunas do usuário por uma nova instância, então as
+ * leituras não usam trava. Com app.analise.colunas.habilitada=false nada é carregado e os relatórios
+ * continuam lendo os consolidados.
+ */
+@Component
+public class AnaliseGastos implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliseGastos.class);
+
+    private final GastoRepository gastoRepository;
+    private final boolean habilitada;
+    private final int limiteParalelo;
+
+    // escritas (carga, alterações e novas categorias) são serializadas; leituras não travam
+    private final Object escrita = new Object();
+    private volatile Map<Long, ColunasGastos> porUsuario = new ConcurrentHashMap<>();
+    // nome de cada categoria pelo código; o código 0 é a categoria nula. O dicionário só cresce, inclusive
+    // nas recargas, e é publicado antes das colunas que usam os novos códigos: quem lê as colunas e depois o
+    // dicionário sempre encontra o nome de todos os códigos delas
+    private volatile String[] categorias = {null};
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private volatile boolean carregada;
+
+    public AnaliseGastos(GastoRepository gastoRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.analise.colunas.habilitada:true}") boolean habilitada,
+                         @Value("${app.analise.colunas.limite-paralelo:50000}") int limiteParalelo) {
+        this.gastoRepository = gastoRepository;
+        this.habilitada = habilitada;
+        this.limiteParalelo = limiteParalelo;
+        Gauge.builder("analise.gastos.linhas", this, AnaliseGastos::linhas)
+                .description("Gastos carregados nas colunas em memória")
+                .register(meterRegistry);
+        Gauge.builder("analise.gastos.memoria", this, AnaliseGastos::bytes)
+                .description("Memória estimada das colunas de gastos")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analise.gastos.usuarios", this, analise -> analise.porUsuario.size())
+                .description("Usuários com gastos nas colunas em memória")
+                .register(meterRegistry);
+        Gauge.builder("analise.gastos.categorias", this, analise -> analise.categorias.length)
+                .description("Categorias distintas no dicionário das colunas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Períodos e totais de todos os gastos de um usuário, base da página de relatórios
+     */
+    public record Panorama(AgregadorCentavos porCategoria, YearMonth primeiroMes, long[] centavosPorMes,
+                           Long maiorCentavos, Long menorPositivoCentavos) {
+
+        /**
+         * O mesmo panorama somado sobre entidades já carregadas, para quando as colunas estão desabilitadas
+         */
+        public static Panorama de(List<Gasto> gastos) {
+            AgregadorCentavos porCategoria = new AgregadorCentavos();
+            List<Gasto> comData = gastos.stream().filter(gasto -> gasto.getDataGasto() != null && gasto.getValor() != null).toList();
+            if (comData.isEmpty()) {
+                return new Panorama(porCategoria, null, new long[0], null, null);
+            }
+            YearMonth primeiroMes = comData.stream().map(gasto -> YearMonth.from(gasto.getDataGasto())).min(YearMonth::compareTo).get();
+            YearMonth ultimoMes = comData.stream().map(gasto -> YearMonth.from(gasto.getDataGasto())).max(YearMonth::compareTo).get();
+            long[] centavosPorMes = new long[(int) ChronoUnit.MONTHS.between(primeiroMes, ultimoMes) + 1];
+            Long maior = null;
+            Long menorPositivo = null;
+            for (Gasto gasto : comData) {
+                long centavos = AgregadorCentavos.centavos(gasto.getValor());
+                porCategoria.somar(gasto.getCategoria(), centavos);
+                centavosPorMes[(int) ChronoUnit.MONTHS.between(primeiroMes, YearMonth.from(gasto.getDataGasto()))] += centavos;
+                maior = maior == null ? centavos : Math.max(maior, centavos);
+                if (centavos > 0) {
+                    menorPositivo = menorPositivo == null ? centavos : Math.min(menorPositivo, centavos);
+                }
+            }
+            return new Panorama(porCategoria, primeiroMes, centavosPorMes, maior, menorPositivo);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (habilitada) {
+            recarregar();
+        }
+    }
+
+    /**
+     * Se as colunas estão carregadas; quando não, os relatórios usam os consolidados
+     */
+    public boolean disponivel() {
+        return carregada;
+    }
+
+    /**
+     * Recarrega todas as colunas a partir da tabela de gastos; dentro de uma transação, só depois do commit
+     */
+    public void recarregar() {
+        if (habilitada) {
+            aposCommit(this::carregar);
+        }
+    }
+
+    /**
+     * Inclui (ou substitui, pelo id) os gastos nas colunas dos seus usuários depois do commit
+     */
+    public void incluir(Collection<Gasto> gastos) {
+        Map<Long, List<LancamentoGasto>> porDono = new HashMap<>();
+        for (Gasto gasto : gastos) {
+            LancamentoGasto lancamento = lancamento(gasto);
+            if (lancamento != null) {
+                porDono.computeIfAbsent(lancamento.usuarioId(), k -> new ArrayList<>()).add(lancamento);
+            }
+        }
+        if (carregada && !porDono.isEmpty()) {
+            aposCommit(() -> porDono.forEach((usuarioId, lancamentos) -> aplicar(usuarioId, new long[0], lancamentos)));
+        }
+    }
+
+    /**
+     * Retira o gasto excluído das colunas depois do commit
+     */
+    public void remover(ResumoGastoService.Lancamento anterior) {
+        if (carregada && anterior != null && anterior.id() != null) {
+            long[] removidos = {anterior.id()};
+            aposCommit(() -> aplicar(anterior.usuarioId(), removidos, List.of()));
+        }
+    }
+
+    /**
+     * Troca os valores anteriores de um gasto pelos atuais depois do commit (inclusive a hora, que os
+     * consolidados diários não guardam)
+     */
+    public void substituir(ResumoGastoService.Lancamento anterior, Gasto atual) {
+        LancamentoGasto novo = lancamento(atual);
+        if (!carregada || (anterior == null && novo == null)) {
+            return;
+        }
+        aposCommit(() -> {
+            if (anterior != null && anterior.id() != null && (novo == null || novo.usuarioId() != anterior.usuarioId())) {
+                aplicar(anterior.usuarioId(), new long[]{anterior.id()}, List.of());
+            }
+            if (novo != null) {
+                aplicar(novo.usuarioId(), new long[0], List.of(novo));
+            }
+        });
+    }
+
+    /**
+     * Centavos e quantidades por categoria dos gastos (de qualquer tipo) no intervalo [inicio, fim]
+     */
+    public AgregadorCentavos porCategoria(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        ColunasGastos colunas = colunas(usuarioId);
+        String[] nomes = categorias;
+        int[] codigos = colunas.categorias;
+        ColunasGastos.Somas somas = colunas.somar(colunas.inicio(inicio), colunas.fim(fim), ColunasGastos.TODOS,
+                nomes.length, i -> codigos[i], limiteParalelo);
+        return agregador(nomes, somas);
+    }
+
+    /**
+     * Centavos e quantidades pelo mês do ano (nome do {@link Month}) dos gastos no intervalo
+     * [inicio, fim]
+     */
+    public AgregadorCentavos porMesDoAno(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        ColunasGastos colunas = colunas(usuarioId);
+        int de = colunas.inicio(inicio);
+        int ate = colunas.fim(fim);
+        AgregadorCentavos porMes = new AgregadorCentavos();
+        if (de >= ate) {
+            return porMes;
+        }
+        int primeiroDia = colunas.dias[de];
+        int[] mesDoDia = new int[colunas.dias[ate - 1] - primeiroDia + 1];
+        for (int i = 0; i < mesDoDia.length; i++) {
+            mesDoDia[i] = LocalDate.ofEpochDay(primeiroDia + i).getMonthValue() - 1;
+        }
+        int[] dias = colunas.dias;
+        ColunasGastos.Somas somas = colunas.somar(de, ate, ColunasGastos.TODOS, 12,
+                i -> mesDoDia[dias[i] - primeiroDia], limiteParalelo);
+        for (int mes = 0; mes < 12; mes++) {
+            if (somas.quantidades()[mes] > 0) {
+                porMes.somar(Month.of(mes + 1).toString(), somas.centavos()[mes], somas.quantidades()[mes]);
+            }
+        }
+        return porMes;
+    }
+
+    /**
+     * Centavos dos gastos no intervalo [inicio, fim] por tipo, indexados por {@link ColunasGastos#DESPESA},
+     * {@link ColunasGastos#RECEITA} e {@link ColunasGastos#OUTRO}; os dias inteiros vêm das somas diárias
+     * em O(log d)
+     */
+    public long[] centavosPorTipo(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        return colunas(usuarioId).centavosPorTipo(inicio, fim);
+    }
+
+    /**
+     * Centavos dos gastos do tipo informado (ou {@link ColunasGastos#TODOS}) no intervalo [inicio, fim],
+     * indexados pelo dia a partir de inicio; cada dia inteiro é uma consulta O(log d) às somas diárias
+     */
+    public long[] centavosPorDia(long usuarioId, LocalDateTime inicio, LocalDateTime fim, byte tipo) {
+        return colunas(usuarioId).centavosPorDia(inicio, fim, tipo);
+    }
+
+    /**
+     * Centavos dos gastos no intervalo [inicio, fim] por tipo e por dia a partir de inicio, numa única
+     * passada pelas colunas
+     */
+    public long[][] centavosPorTipoEDia(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        return colunas(usuarioId).centavosPorTipoEDia(inicio, fim);
+    }
+
+    /**
+     * Saldo dos gastos no intervalo [inicio, fim] por categoria (uma linha por categoria movimentada) e por
+     * dia a partir de inicio, com as categorias em ordem pelo nome
+     */
+    public long[][] saldoPorCategoriaEDia(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        ColunasGastos colunas = colunas(usuarioId);
+        return colunas.saldoPorCategoriaEDia(inicio, fim, categorias);
+    }
+
+    /**
+     * Totais por categoria e por mês, do primeiro ao último mês com gastos, e os valores extremos de
+     * todos os gastos do usuário
+     */
+    public Panorama panorama(long usuarioId) {
+        ColunasGastos colunas = colunas(usuarioId);
+        int tamanho = colunas.tamanho();
+        String[] nomes = categorias;
+        int[] codigos = colunas.categorias;
+        AgregadorCentavos porCategoria = agregador(nomes,
+                colunas.somar(0, tamanho, ColunasGastos.TODOS, nomes.length, i -> codigos[i], limiteParalelo));
+        if (tamanho == 0) {
+            return new Panorama(porCategoria, null, new long[0], null, null);
+        }
+
+        YearMonth primeiroMes = YearMonth.from(LocalDate.ofEpochDay(colunas.dias[0]));
+        int primeiroDia = colunas.dias[0];
+        int[] indiceDoMes = new int[colunas.dias[tamanho - 1] - primeiroDia + 1];
+        for (int i = 0; i < indiceDoMes.length; i++) {
+            indiceDoMes[i] = (int) ChronoUnit.MONTHS.between(primeiroMes, YearMonth.from(LocalDate.ofEpochDay(primeiroDia + i)));
+        }
+        int[] dias = colunas.dias;
+        long[] centavosPorMes = colunas.somar(0, tamanho, ColunasGastos.TODOS, indiceDoMes[indiceDoMes.length - 1] + 1,
+                i -> indiceDoMes[dias[i] - primeiroDia], limiteParalelo).centavos();
+        return new Panorama(porCategoria, primeiroMes, centavosPorMes,
+                colunas.maiorCentavos(0, tamanho), colunas.menorPositivoCentavos(0, tamanho));
+    }
+
+    /**
+     * Compara as colunas com a tabela de gastos e devolve as divergências encontradas (lista vazia quando
+     * consistentes). As escritas confirmadas durante a verificação aguardam o fim dela para serem aplicadas.
+     */
+    public List<String> verificarConsistencia() {
+        List<String> divergencias = new ArrayList<>();
+        if (!carregada) {
+            return divergencias;
+        }
+        synchronized (escrita) {
+            comparar(divergencias);
+        }
+        if (!divergencias.isEmpty()) {
+            log.warn("Colunas de gastos com {} divergência(s)", divergencias.size());
+        }
+        return divergencias;
+    }
+
+    private void comparar(List<String> divergencias) {
+        Map<Long, ColunasGastos> atuais = porUsuario;
+        Set<Long> conferidos = new HashSet<>();
+        percorrerPorUsuario((usuarioId, lancamentos) -> {
+            conferidos.add(usuarioId);
+            ColunasGastos esperadas = ColunasGastos.de(lancamentos.stream().map(this::linhaExistente).toList());
+            ColunasGastos gravadas = atuais.getOrDefault(usuarioId, ColunasGastos.VAZIA);
+            int diferenca = gravadas.primeiraDiferenca(esperadas);
+            if (diferenca >= 0) {
+                divergencias.add(String.format("Colunas do usuário %d divergentes a partir da posição %d: %d gasto(s) em memória, %d na tabela",
+                        usuarioId, diferenca, gravadas.tamanho(), esperadas.tamanho()));
+            } else if (!gravadas.somasConferem()) {
+                divergencias.add(String.format("Somas diárias do usuário %d divergentes das colunas", usuarioId));
+            }
+        });
+        atuais.keySet().stream()
+                .filter(usuarioId -> !conferidos.contains(usuarioId))
+                .forEach(usuarioId -> divergencias.add(String.format("Colunas do usuário %d sem gastos correspondentes: %d gasto(s) em memória",
+                        usuarioId, atuais.get(usuarioId).tamanho())));
+    }
+
+    public long linhas() {
+        return porUsuario.values().stream().mapToLong(ColunasGastos::tamanho).sum();
+    }
+
+    /**
+     * Memória estimada dos arrays das colunas, sem o dicionário de categorias (que guarda também as
+     * categorias que deixaram de ser usadas desde a subida)
+     */
+    public long bytes() {
+        return porUsuario.values().stream().mapToLong(ColunasGastos::bytes).sum();
+    }
+
+    public int usuarios() {
+        return porUsuario.size();
+    }
+
+    private void carregar() {
+        synchronized (escrita) {
+            long inicio = System.nanoTime();
+            // o dicionário é mantido: leituras em curso ainda podem somar as colunas anteriores
+            Map<Long, ColunasGastos> novas = new ConcurrentHashMap<>();
+            percorrerPorUsuario((usuarioId, lancamentos) ->
+                    novas.put(usuarioId, ColunasGastos.de(lancamentos.stream().map(this::linha).toList())));
+            porUsuario = novas;
+            carregada = true;
+            log.info("Colunas de gastos carregadas: {} gasto(s) de {} usuário(s), ~{} KB em {} ms",
+                    linhas(), novas.size(), bytes() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private void percorrerPorUsuario(BiConsumer<Long, List<LancamentoGasto>> consumidor) {
+        List<LancamentoGasto> doUsuario = new ArrayList<>();
+        gastoRepository.percorrerLancamentos(lancamento -> {
+            if (!doUsuario.isEmpty() && doUsuario.get(0).usuarioId() != lancamento.usuarioId()) {
+                consumidor.accept(doUsuario.get(0).usuarioId(), doUsuario);
+                doUsuario.clear();
+            }
+            doUsuario.add(lancamento);
+        });
+        if (!doUsuario.isEmpty()) {
+            consumidor.accept(doUsuario.get(0).usuarioId(), doUsuario);
+        }
+    }
+
+    private void aplicar(long usuarioId, long[] removidos, List<LancamentoGasto> incluidos) {
+        synchronized (escrita) {
+            // incluir é idempotente: um id já presente (por exemplo, lido por uma carga concorrente) é substituído
+            long[] retirados = Arrays.copyOf(removidos, removidos.length + incluidos.size());
+            for (int i = 0; i < incluidos.size(); i++) {
+                retirados[removidos.length + i] = incluidos.get(i).id();
+            }
+            Arrays.sort(retirados);
+            ColunasGastos novas = porUsuario.getOrDefault(usuarioId, ColunasGastos.VAZIA)
+                    .alterar(retirados, incluidos.stream().map(this::linha).toList());
+            if (novas.tamanho() == 0) {
+                porUsuario.remove(usuarioId);
+            } else {
+                porUsuario.put(usuarioId, novas);
+            }
+        }
+    }
+
+    private ColunasGastos colunas(long usuarioId) {
+        return porUsuario.getOrDefault(usuarioId, ColunasGastos.VAZIA);
+    }
+
+    // chamado com a trava de escrita: registra categorias novas no dicionário
+    private ColunasGastos.Linha linha(LancamentoGasto lancamento) {
+        int codigo = lancamento.categoria() == null ? 0 : codigos.computeIfAbsent(lancamento.categoria(), categoria -> {
+            String[] ampliadas = Arrays.copyOf(categorias, categorias.length + 1);
+            ampliadas[categorias.length] = categoria;
+            categorias = ampliadas;
+            return categorias.length - 1;
+        });
+        return ColunasGastos.Linha.de(lancamento.id(), lancamento.dataGasto(), lancamento.centavos(), codigo, lancamento.tipo());
+    }
+
+    // sem alterar o dicionário: uma categoria desconhecida recebe um código inválido e aparece como divergência
+    private ColunasGastos.Linha linhaExistente(LancamentoGasto lancamento) {
+        int codigo = lancamento.categoria() == null ? 0 : codigos.getOrDefault(lancamento.categoria(), -1);
+        return ColunasGastos.Linha.de(lancamento.id(), lancamento.dataGasto(), lancamento.centavos(), codigo, lancamento.tipo());
+    }
+
+    private static AgregadorCentavos agregador(String[] nomes, ColunasGastos.Somas somas) {
+        AgregadorCentavos agregador = new AgregadorCentavos();
+        for (int codigo = 0; codigo < nomes.length; codigo++) {
+            if (somas.quantidades()[codigo] > 0) {
+                agregador.somar(nomes[codigo], somas.centavos()[codigo], somas.quantidades()[codigo]);
+            }
+        }
+        return agregador;
+    }
+
+    private static LancamentoGasto lancamento(Gasto gasto) {
+        if (gasto == null || gasto.getId() == null || gasto.getUsuarioId() == null || gasto.getDataGasto() == null
+                || gasto.getValor() == null) {
+            return null;
+        }
+        return new LancamentoGasto(gasto.getId(), gasto.getUsuarioId(), gasto.getDataGasto(), gasto.getCategoria(),
+                gasto.getTipo(), AgregadorCentavos.centavos(gasto.getValor()));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Chaves e invalidação dos caches de relatório e previsão. Cada entrada é guardada sob o {@link Periodo} que
+ * ela consolida (mês, intervalo pedido ou últimos meses a partir de hoje), nunca sob o instante da
+ * chamada, e uma escrita de gasto descarta apenas as entradas do mesmo usuário cujo período contém
+ * o dia alterado, depois do commit da transação.
+ */
+@Component
+public class CacheRelatorios {
+
+    // caches recalculados por RelatorioService
+    static final List<String> RELATORIOS = List.of("estatisticasMensais", "estatisticasPorCategoria", "tendencias");
+    static final List<String> CACHES = Stream.concat(RELATORIOS.stream(), Stream.of(PrevisaoService.CACHE)).toList();
+
+    private final CacheManager cacheManager;
+
+    public CacheRelatorios(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Período [inicio, fim] de um usuário consolidado por uma entrada de cache
+     */
+    public record Periodo(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+
+        boolean contem(long usuario, LocalDate dia) {
+            return usuarioId == usuario
+                    && !dia.isBefore(inicio.toLocalDate())
+                    && !dia.isAfter(fim.toLocalDate());
+        }
+    }
+
+    /**
+     * Lançamentos de um usuário que alteraram os consolidados dos dias informados
+     */
+    public record Alteracao(long usuarioId, Set<LocalDate> dias) {
+    }
+
+    public Periodo doMes(long usuarioId, YearMonth mes) {
+        return new Periodo(usuarioId, mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Do início do mês até o fim do dia informado
+     */
+    public Periodo doMesAte(long usuarioId, YearMonth mes, LocalDate dia) {
+        return new Periodo(usuarioId, mes.atDay(1).atStartOfDay(), dia.atTime(LocalTime.MAX));
+    }
+
+    public Periodo doIntervalo(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        return new Periodo(usuarioId, inicio, fim);
+    }
+
+    /**
+     * Do início do dia de hoje menos os meses informados até o fim do dia de hoje
+     */
+    public Periodo ultimosMeses(long usuarioId, int meses) {
+        LocalDate hoje = LocalDate.now();
+        return new Periodo(usuarioId, hoje.minusMonths(meses).atStartOfDay(), hoje.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * Descarta os relatórios do usuário que incluem algum dos dias; dentro de uma transação, só depois
+     * do commit, para que uma leitura concorrente não volte a guardar os valores anteriores
+     */
+    public void invalidar(Collection<Alteracao> alteracoes) {
+        if (!alteracoes.isEmpty()) {
+            aposCommit(() -> descartar(alteracoes));
+        }
+    }
+
+    /**
+     * Descarta todos os relatórios (após uma reconstrução dos consolidados)
+     */
+    public void limpar() {
+        aposCommit(() -> CACHES.forEach(nome -> {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null) {
+                cache.clear();
+            }
+        }));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void descartar(Collection<Alteracao> alteracoes) {
+        for (String nome : CACHES) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache instanceof CaffeineCache caffeine) {
+                caffeine.getNativeCache().asMap().keySet().removeIf(chave -> chave instanceof Periodo periodo
+                        && alteracoes.stream().anyMatch(alteracao -> alteracao.dias().stream()
+                        .anyMatch(dia -> periodo.contem(alteracao.usuarioId(), dia))));
+            } else if (cache != null) {
+                // sem acesso às chaves: descarta o cache inteiro
+                cache.clear();
+            }
+        }
+    }
+}
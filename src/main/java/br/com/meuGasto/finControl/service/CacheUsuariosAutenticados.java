@@ -0,0 +1,75 @@
+package br.com.meuGasto.finControl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Usuários autenticados por email, usados pelo filtro JWT para não consultar a tabela de usuários a cada
+ * requisição. As entradas não guardam a senha e expiram após o TTL; alterações feitas pelo
+ * {@link UsuarioService} invalidam a entrada do email assim que a transação é confirmada.
+ * Acertos e faltas são publicados como cache.gets{cache="usuariosAutenticados"}.
+ */
+@Component
+public class CacheUsuariosAutenticados {
+
+    static final String NOME = "usuariosAutenticados";
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, UsuarioAutenticado> cache;
+
+    public CacheUsuariosAutenticados(CustomUserDetailsService userDetailsService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.seguranca.cache-usuarios.ttl:5m}") Duration ttl,
+                                     @Value("${app.seguranca.cache-usuarios.tamanho-maximo:10000}") long tamanhoMaximo) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOME);
+    }
+
+    /**
+     * Retorna o usuário do email, carregando-o do banco apenas na primeira vez (ou após expirar)
+     *
+     * @throws UsernameNotFoundException se o email não pertencer a nenhum usuário (a falta não é guardada)
+     */
+    public UsuarioAutenticado buscar(String email) {
+        return cache.get(email, this::carregar);
+    }
+
+    /**
+     * Descarta o usuário do email; dentro de uma transação, só depois do commit, para que uma requisição
+     * concorrente não volte a guardar os dados anteriores
+     */
+    public void invalidar(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        } else {
+            cache.invalidate(email);
+        }
+    }
+
+    private UsuarioAutenticado carregar(String email) {
+        UsuarioAutenticado usuario = (UsuarioAutenticado) userDetailsService.loadUserByUsername(email);
+        return new UsuarioAutenticado(usuario.getId(), usuario.getUsername(), "", usuario.isEnabled(), usuario.getAuthorities());
+    }
+}
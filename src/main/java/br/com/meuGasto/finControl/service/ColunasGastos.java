@@ -0,0 +1,478 @@
+package br.com.meuGasto.finControl.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Gastos de um usuário em colunas de tipos primitivos (centavos, dia, milissegundo do dia, categoria e
+ * tipo), ordenados por data e id, com os totais diários por tipo em {@link SomasDiarias}. Imutável: cada
+ * alteração produz uma nova instância, então quem lê sempre vê um estado completo sem precisar de trava.
+ */
+final class ColunasGastos {
+
+    static final byte DESPESA = 0;
+    static final byte RECEITA = 1;
+    static final byte OUTRO = 2;
+    // filtro de tipo que aceita todos
+    static final byte TODOS = -1;
+
+    static final ColunasGastos VAZIA = new ColunasGastos(new long[0], new long[0], new int[0], new int[0], new int[0], new byte[0],
+            SomasDiarias.VAZIA);
+
+    private static final long MILISSEGUNDOS_DIA = 86_400_000L;
+    // bytes por linha somando as seis colunas
+    private static final int BYTES_POR_LINHA = 8 + 8 + 4 + 4 + 4 + 1;
+    // cabeçalho aproximado de cada array
+    private static final int BYTES_CABECALHO = 16;
+    // dias a mais cobertos pelas somas diárias além do último gasto (no mínimo um mês), para que os
+    // lançamentos seguintes não exijam reconstruí-las
+    private static final int FOLGA_MINIMA_DIAS = 31;
+
+    final long[] ids;
+    final long[] centavos;
+    final int[] dias;
+    final int[] milissegundos;
+    final int[] categorias;
+    final byte[] tipos;
+    final SomasDiarias somas;
+
+    /**
+     * Um gasto já convertido para as colunas
+     */
+    record Linha(long id, long centavos, int dia, int milissegundo, int categoria, byte tipo) {
+
+        static Linha de(long id, LocalDateTime data, long centavos, int categoria, String tipo) {
+            return new Linha(id, centavos, (int) data.toLocalDate().toEpochDay(),
+                    (int) (data.toLocalTime().toNanoOfDay() / 1_000_000), categoria, ColunasGastos.tipo(tipo));
+        }
+
+        long instante() {
+            return dia * MILISSEGUNDOS_DIA + milissegundo;
+        }
+    }
+
+    /**
+     * Centavos e quantidades somados por chave
+     */
+    record Somas(long[] centavos, long[] quantidades) {
+
+        Somas(int chaves) {
+            this(new long[chaves], new long[chaves]);
+        }
+
+        Somas juntar(Somas outra) {
+            for (int i = 0; i < centavos.length; i++) {
+                centavos[i] += outra.centavos[i];
+                quantidades[i] += outra.quantidades[i];
+            }
+            return this;
+        }
+    }
+
+    private ColunasGastos(long[] ids, long[] centavos, int[] dias, int[] milissegundos, int[] categorias, byte[] tipos,
+                          SomasDiarias somas) {
+        this.ids = ids;
+        this.centavos = centavos;
+        this.dias = dias;
+        this.milissegundos = milissegundos;
+        this.categorias = categorias;
+        this.tipos = tipos;
+        this.somas = somas;
+    }
+
+    static byte tipo(String tipo) {
+        if ("DESPESA".equalsIgnoreCase(tipo)) {
+            return DESPESA;
+        }
+        return "RECEITA".equalsIgnoreCase(tipo) ? RECEITA : OUTRO;
+    }
+
+    /**
+     * Colunas com as linhas informadas, em qualquer ordem
+     */
+    static ColunasGastos de(List<Linha> linhas) {
+        return VAZIA.alterar(new long[0], linhas);
+    }
+
+    int tamanho() {
+        return ids.length;
+    }
+
+    long bytes() {
+        return (long) BYTES_POR_LINHA * ids.length + 6L * BYTES_CABECALHO + somas.bytes();
+    }
+
+    /**
+     * Primeiro índice com data maior ou igual ao instante
+     */
+    int inicio(LocalDateTime instante) {
+        return primeiroAPartirDe(instante(instante));
+    }
+
+    /**
+     * Primeiro índice com data posterior ao instante (fim exclusivo de um intervalo fechado)
+     */
+    int fim(LocalDateTime instante) {
+        return primeiroAPartirDe(instante(instante) + 1);
+    }
+
+    /**
+     * Nova instância sem as linhas dos ids removidos (ordenados) e com as linhas incluídas; um id
+     * removido e incluído na mesma chamada é substituído. As somas diárias recebem só os deltas das
+     * linhas alteradas, a menos que algum dia caia fora da faixa que cobrem.
+     */
+    ColunasGastos alterar(long[] removidos, List<Linha> incluidas) {
+        List<Linha> novas = new ArrayList<>(incluidas);
+        novas.sort(Comparator.comparingLong(Linha::instante).thenComparingLong(Linha::id));
+
+        int capacidade = ids.length + novas.size();
+        long[] novosIds = new long[capacidade];
+        long[] novosCentavos = new long[capacidade];
+        int[] novosDias = new int[capacidade];
+        int[] novosMilissegundos = new int[capacidade];
+        int[] novasCategorias = new int[capacidade];
+        byte[] novosTipos = new byte[capacidade];
+
+        // deltas das somas diárias: linhas retiradas com sinal negativo, seguidas das incluídas
+        int alteradas = 0;
+        int[] diasAlterados = new int[novas.size()];
+        byte[] tiposAlterados = new byte[novas.size()];
+        long[] deltas = new long[novas.size()];
+
+        int atual = 0;
+        int nova = 0;
+        int destino = 0;
+        while (atual < ids.length || nova < novas.size()) {
+            if (atual < ids.length && Arrays.binarySearch(removidos, ids[atual]) >= 0) {
+                if (alteradas == deltas.length) {
+                    diasAlterados = Arrays.copyOf(diasAlterados, alteradas * 2 + 1);
+                    tiposAlterados = Arrays.copyOf(tiposAlterados, alteradas * 2 + 1);
+                    deltas = Arrays.copyOf(deltas, alteradas * 2 + 1);
+                }
+                diasAlterados[alteradas] = dias[atual];
+                tiposAlterados[alteradas] = tipos[atual];
+                deltas[alteradas++] = -centavos[atual];
+                atual++;
+                continue;
+            }
+            boolean usarNova = atual == ids.length
+                    || (nova < novas.size() && comparar(novas.get(nova), atual) < 0);
+            if (usarNova) {
+                Linha linha = novas.get(nova++);
+                novosIds[destino] = linha.id();
+                novosCentavos[destino] = linha.centavos();
+                novosDias[destino] = linha.dia();
+                novosMilissegundos[destino] = linha.milissegundo();
+                novasCategorias[destino] = linha.categoria();
+                novosTipos[destino] = linha.tipo();
+            } else {
+                novosIds[destino] = ids[atual];
+                novosCentavos[destino] = centavos[atual];
+                novosDias[destino] = dias[atual];
+                novosMilissegundos[destino] = milissegundos[atual];
+                novasCategorias[destino] = categorias[atual];
+                novosTipos[destino] = tipos[atual];
+                atual++;
+            }
+            destino++;
+        }
+        novosDias = Arrays.copyOf(novosDias, destino);
+        novosCentavos = Arrays.copyOf(novosCentavos, destino);
+        novosTipos = Arrays.copyOf(novosTipos, destino);
+
+        boolean cobertas = ids.length > 0;
+        for (Linha linha : novas) {
+            if (alteradas == deltas.length) {
+                diasAlterados = Arrays.copyOf(diasAlterados, alteradas * 2 + 1);
+                tiposAlterados = Arrays.copyOf(tiposAlterados, alteradas * 2 + 1);
+                deltas = Arrays.copyOf(deltas, alteradas * 2 + 1);
+            }
+            cobertas &= somas.cobre(linha.dia());
+            diasAlterados[alteradas] = linha.dia();
+            tiposAlterados[alteradas] = linha.tipo();
+            deltas[alteradas++] = linha.centavos();
+        }
+        SomasDiarias novasSomas = cobertas
+                ? somas.com(diasAlterados, tiposAlterados, deltas, alteradas)
+                : construirSomas(novosDias, novosCentavos, novosTipos);
+        return new ColunasGastos(Arrays.copyOf(novosIds, destino), novosCentavos, novosDias,
+                Arrays.copyOf(novosMilissegundos, destino), Arrays.copyOf(novasCategorias, destino), novosTipos, novasSomas);
+    }
+
+    /**
+     * Centavos das linhas no intervalo [inicio, fim] por tipo ({@link #DESPESA}, {@link #RECEITA} e
+     * {@link #OUTRO}): os dias inteiros vêm das somas diárias e só as frações de dia nas pontas são
+     * somadas percorrendo as linhas
+     */
+    long[] centavosPorTipo(LocalDateTime inicio, LocalDateTime fim) {
+        long[] porTipo = new long[SomasDiarias.TIPOS];
+        int diaInicio = (int) inicio.toLocalDate().toEpochDay();
+        int diaFim = (int) fim.toLocalDate().toEpochDay();
+        if (diaInicio >= diaFim) {
+            somarPorTipo(inicio(inicio), fim(fim), porTipo);
+            return porTipo;
+        }
+        somarPorTipo(inicio(inicio), primeiroAPartirDe((diaInicio + 1) * MILISSEGUNDOS_DIA), porTipo);
+        for (int tipo = 0; tipo < SomasDiarias.TIPOS; tipo++) {
+            porTipo[tipo] += somas.total(tipo, diaInicio + 1, diaFim - 1);
+        }
+        somarPorTipo(primeiroAPartirDe(diaFim * MILISSEGUNDOS_DIA), fim(fim), porTipo);
+        return porTipo;
+    }
+
+    /**
+     * Centavos do tipo (ou de todos) das linhas no intervalo [inicio, fim], indexados pelo dia a partir de
+     * inicio: cada dia inteiro é uma consulta às somas diárias e só os dias das pontas percorrem as linhas
+     */
+    long[] centavosPorDia(LocalDateTime inicio, LocalDateTime fim, byte tipo) {
+        int diaInicio = (int) inicio.toLocalDate().toEpochDay();
+        int diaFim = (int) fim.toLocalDate().toEpochDay();
+        if (diaFim < diaInicio) {
+            return new long[0];
+        }
+        long[] porDia = new long[diaFim - diaInicio + 1];
+        for (int dia = diaInicio + 1; dia < diaFim; dia++) {
+            porDia[dia - diaInicio] = somas.total(tipo, dia, dia);
+        }
+        int ateFimDoPrimeiroDia = diaInicio == diaFim ? fim(fim) : primeiroAPartirDe((diaInicio + 1) * MILISSEGUNDOS_DIA);
+        porDia[0] = somarDoTipo(inicio(inicio), ateFimDoPrimeiroDia, tipo);
+        if (diaFim > diaInicio) {
+            porDia[porDia.length - 1] = somarDoTipo(primeiroAPartirDe(diaFim * MILISSEGUNDOS_DIA), fim(fim), tipo);
+        }
+        return porDia;
+    }
+
+    /**
+     * Centavos das linhas no intervalo [inicio, fim] por tipo e por dia a partir de inicio, numa única
+     * passada pelas linhas
+     */
+    long[][] centavosPorTipoEDia(LocalDateTime inicio, LocalDateTime fim) {
+        int diaInicio = (int) inicio.toLocalDate().toEpochDay();
+        int diaFim = (int) fim.toLocalDate().toEpochDay();
+        long[][] porTipoEDia = new long[SomasDiarias.TIPOS][Math.max(diaFim - diaInicio + 1, 0)];
+        for (int i = inicio(inicio), ate = fim(fim); i < ate; i++) {
+            porTipoEDia[tipos[i]][dias[i] - diaInicio] += centavos[i];
+        }
+        return porTipoEDia;
+    }
+
+    /**
+     * Saldo (receitas menos despesas, em centavos) das linhas em [inicio, fim] por categoria e por dia a
+     * partir de inicio; cada categoria com receita ou despesa no intervalo ganha uma linha, em ordem pelo
+     * nome (String.valueOf, então a categoria nula como "null"), para que a ordem não dependa dos códigos
+     *
+     * @param nomes dicionário com o nome de todos os códigos destas colunas
+     */
+    long[][] saldoPorCategoriaEDia(LocalDateTime inicio, LocalDateTime fim, String[] nomes) {
+        int diaInicio = (int) inicio.toLocalDate().toEpochDay();
+        int quantidadeDias = Math.max((int) fim.toLocalDate().toEpochDay() - diaInicio + 1, 0);
+        int de = inicio(inicio);
+        int ate = fim(fim);
+        boolean[] movimentada = new boolean[nomes.length];
+        for (int i = de; i < ate; i++) {
+            if (tipos[i] != OUTRO) {
+                movimentada[categorias[i]] = true;
+            }
+        }
+        List<Integer> codigos = new ArrayList<>();
+        for (int codigo = 0; codigo < nomes.length; codigo++) {
+            if (movimentada[codigo]) {
+                codigos.add(codigo);
+            }
+        }
+        codigos.sort(Comparator.comparing(codigo -> String.valueOf(nomes[codigo])));
+        int[] linhaDe = new int[nomes.length];
+        for (int linha = 0; linha < codigos.size(); linha++) {
+            linhaDe[codigos.get(linha)] = linha;
+        }
+        long[][] saldos = new long[codigos.size()][quantidadeDias];
+        for (int i = de; i < ate; i++) {
+            if (tipos[i] != OUTRO) {
+                saldos[linhaDe[categorias[i]]][dias[i] - diaInicio] += tipos[i] == RECEITA ? centavos[i] : -centavos[i];
+            }
+        }
+        return saldos;
+    }
+
+    /**
+     * Se as somas diárias conferem com as linhas: cada dia com gastos e o total de cada tipo
+     */
+    boolean somasConferem() {
+        long[] totais = new long[SomasDiarias.TIPOS];
+        int i = 0;
+        while (i < ids.length) {
+            int dia = dias[i];
+            long[] doDia = new long[SomasDiarias.TIPOS];
+            for (; i < ids.length && dias[i] == dia; i++) {
+                doDia[tipos[i]] += centavos[i];
+            }
+            for (int tipo = 0; tipo < SomasDiarias.TIPOS; tipo++) {
+                if (somas.total(tipo, dia, dia) != doDia[tipo]) {
+                    return false;
+                }
+                totais[tipo] += doDia[tipo];
+            }
+        }
+        for (int tipo = 0; tipo < SomasDiarias.TIPOS; tipo++) {
+            if (somas.total(tipo, Integer.MIN_VALUE, Integer.MAX_VALUE) != totais[tipo]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Soma centavos e quantidades das linhas em [de, ate) do tipo informado (ou de todos), agrupando pela
+     * chave de cada índice, que deve estar em [0, chaves). Acima do limite de linhas, o intervalo é
+     * dividido e somado em paralelo no pool comum de fork-join.
+     */
+    Somas somar(int de, int ate, byte tipo, int chaves, IntUnaryOperator chave, int limiteParalelo) {
+        if (ate - de <= limiteParalelo) {
+            return somarSequencial(de, ate, tipo, chaves, chave);
+        }
+        return ForkJoinPool.commonPool().invoke(new TarefaSoma(this, de, ate, tipo, chaves, chave, Math.max(limiteParalelo, 1)));
+    }
+
+    /**
+     * Maior valor em centavos das linhas em [de, ate), ou null se não houver nenhuma
+     */
+    Long maiorCentavos(int de, int ate) {
+        if (de >= ate) {
+            return null;
+        }
+        long maior = Long.MIN_VALUE;
+        for (int i = de; i < ate; i++) {
+            maior = Math.max(maior, centavos[i]);
+        }
+        return maior;
+    }
+
+    /**
+     * Menor valor positivo em centavos das linhas em [de, ate), ou null se não houver nenhum
+     */
+    Long menorPositivoCentavos(int de, int ate) {
+        long menor = Long.MAX_VALUE;
+        for (int i = de; i < ate; i++) {
+            if (centavos[i] > 0 && centavos[i] < menor) {
+                menor = centavos[i];
+            }
+        }
+        return menor == Long.MAX_VALUE ? null : menor;
+    }
+
+    /**
+     * Índice da primeira divergência entre as duas colunas, ou -1 se forem iguais
+     */
+    int primeiraDiferenca(ColunasGastos outras) {
+        int comum = Math.min(tamanho(), outras.tamanho());
+        for (int i = 0; i < comum; i++) {
+            if (ids[i] != outras.ids[i] || centavos[i] != outras.centavos[i] || dias[i] != outras.dias[i]
+                    || milissegundos[i] != outras.milissegundos[i] || categorias[i] != outras.categorias[i]
+                    || tipos[i] != outras.tipos[i]) {
+                return i;
+            }
+        }
+        return tamanho() == outras.tamanho() ? -1 : comum;
+    }
+
+    private Somas somarSequencial(int de, int ate, byte tipo, int chaves, IntUnaryOperator chave) {
+        Somas somas = new Somas(chaves);
+        long[] totais = somas.centavos();
+        long[] quantidades = somas.quantidades();
+        for (int i = de; i < ate; i++) {
+            if (tipo == TODOS || tipos[i] == tipo) {
+                int indice = chave.applyAsInt(i);
+                totais[indice] += centavos[i];
+                quantidades[indice]++;
+            }
+        }
+        return somas;
+    }
+
+    private void somarPorTipo(int de, int ate, long[] porTipo) {
+        for (int i = de; i < ate; i++) {
+            porTipo[tipos[i]] += centavos[i];
+        }
+    }
+
+    private long somarDoTipo(int de, int ate, byte tipo) {
+        long total = 0;
+        for (int i = de; i < ate; i++) {
+            if (tipo == TODOS || tipos[i] == tipo) {
+                total += centavos[i];
+            }
+        }
+        return total;
+    }
+
+    // somas cobrindo do primeiro ao último dia, com folga de um quarto da extensão (no mínimo um mês)
+    private static SomasDiarias construirSomas(int[] dias, long[] centavos, byte[] tipos) {
+        if (dias.length == 0) {
+            return SomasDiarias.VAZIA;
+        }
+        int extensao = dias[dias.length - 1] - dias[0] + 1;
+        return SomasDiarias.de(dias[0], extensao + Math.max(FOLGA_MINIMA_DIAS, extensao / 4), dias, centavos, tipos, dias.length);
+    }
+
+    private int comparar(Linha linha, int indice) {
+        int porData = Long.compare(linha.instante(), dias[indice] * MILISSEGUNDOS_DIA + milissegundos[indice]);
+        return porData != 0 ? porData : Long.compare(linha.id(), ids[indice]);
+    }
+
+    private int primeiroAPartirDe(long instante) {
+        int baixo = 0;
+        int alto = ids.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (dias[meio] * MILISSEGUNDOS_DIA + milissegundos[meio] < instante) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private static long instante(LocalDateTime data) {
+        return data.toLocalDate().toEpochDay() * MILISSEGUNDOS_DIA + data.toLocalTime().toNanoOfDay() / 1_000_000;
+    }
+
+    private static final class TarefaSoma extends RecursiveTask<Somas> {
+
+        private final ColunasGastos colunas;
+        private final int de;
+        private final int ate;
+        private final byte tipo;
+        private final int chaves;
+        private final IntUnaryOperator chave;
+        private final int limite;
+
+        TarefaSoma(ColunasGastos colunas, int de, int ate, byte tipo, int chaves, IntUnaryOperator chave, int limite) {
+            this.colunas = colunas;
+            this.de = de;
+            this.ate = ate;
+            this.tipo = tipo;
+            this.chaves = chaves;
+            this.chave = chave;
+            this.limite = limite;
+        }
+
+        @Override
+        protected Somas compute() {
+            if (ate - de <= limite) {
+                return colunas.somarSequencial(de, ate, tipo, chaves, chave);
+            }
+            int meio = (de + ate) >>> 1;
+            TarefaSoma esquerda = new TarefaSoma(colunas, de, meio, tipo, chaves, chave, limite);
+            esquerda.fork();
+            Somas direita = new TarefaSoma(colunas, meio, ate, tipo, chaves, chave, limite).compute();
+            return esquerda.join().juntar(direita);
+        }
+    }
+}
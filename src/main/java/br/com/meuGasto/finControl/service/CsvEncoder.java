@@ -0,0 +1,171 @@
+package br.com.meuGasto.finControl.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Escritor de CSV que codifica diretamente em UTF-8 num buffer de bytes reaproveitado,
+ * sem String.format nem Strings intermediárias por campo.
+ */
+final class CsvEncoder {
+
+    private static final byte SEPARADOR = ',';
+    private static final byte ASPAS = '"';
+    private static final byte FIM_LINHA = '\n';
+
+    private final OutputStream saida;
+    private final byte[] buffer;
+    private int posicao;
+    private boolean inicioLinha = true;
+
+    CsvEncoder(OutputStream saida, int tamanhoBuffer) {
+        this.saida = saida;
+        this.buffer = new byte[tamanhoBuffer];
+    }
+
+    /**
+     * Escreve o texto como está (sem aspas), para cabeçalhos e valores já seguros
+     */
+    CsvEncoder literal(String texto) throws IOException {
+        separar();
+        escreverUtf8(texto, false);
+        return this;
+    }
+
+    CsvEncoder numero(long valor) throws IOException {
+        separar();
+        if (valor < 0) {
+            escrever('-');
+            valor = -valor;
+        }
+        escreverDigitos(valor);
+        return this;
+    }
+
+    /**
+     * Valor monetário com duas casas decimais (arredondamento HALF_UP) e sempre com ponto decimal,
+     * qualquer que seja o locale da JVM: uma vírgula partiria o campo em dois
+     */
+    CsvEncoder decimal(BigDecimal valor) throws IOException {
+        separar();
+        if (valor != null) {
+            escreverUtf8(valor.setScale(2, RoundingMode.HALF_UP).toPlainString(), false);
+        }
+        return this;
+    }
+
+    /**
+     * Texto entre aspas, duplicando as aspas internas; null vira campo vazio entre aspas
+     */
+    CsvEncoder texto(String valor) throws IOException {
+        separar();
+        escrever(ASPAS);
+        if (valor != null) {
+            escreverUtf8(valor, true);
+        }
+        escrever(ASPAS);
+        return this;
+    }
+
+    /**
+     * Data no formato dd/MM/yyyy HH:mm
+     */
+    CsvEncoder dataHora(LocalDateTime data) throws IOException {
+        separar();
+        if (data != null) {
+            doisDigitos(data.getDayOfMonth());
+            escrever('/');
+            doisDigitos(data.getMonthValue());
+            escrever('/');
+            escreverDigitos(data.getYear());
+            escrever(' ');
+            doisDigitos(data.getHour());
+            escrever(':');
+            doisDigitos(data.getMinute());
+        }
+        return this;
+    }
+
+    void fimLinha() throws IOException {
+        escrever(FIM_LINHA);
+        inicioLinha = true;
+    }
+
+    void flush() throws IOException {
+        if (posicao > 0) {
+            saida.write(buffer, 0, posicao);
+            posicao = 0;
+        }
+        saida.flush();
+    }
+
+    private void separar() throws IOException {
+        if (!inicioLinha) {
+            escrever(SEPARADOR);
+        }
+        inicioLinha = false;
+    }
+
+    private void escreverUtf8(String texto, boolean duplicarAspas) throws IOException {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                if (duplicarAspas && c == '"') {
+                    escrever(ASPAS);
+                }
+                escrever(c);
+            } else if (c < 0x800) {
+                garantirEspaco(2);
+                buffer[posicao++] = (byte) (0xC0 | (c >> 6));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length() && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, texto.charAt(++i));
+                garantirEspaco(4);
+                buffer[posicao++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[posicao++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[posicao++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[posicao++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // surrogate sem par: mesmo substituto usado por String.getBytes
+                escrever('?');
+            } else {
+                garantirEspaco(3);
+                buffer[posicao++] = (byte) (0xE0 | (c >> 12));
+                buffer[posicao++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void escreverDigitos(long valor) throws IOException {
+        if (valor >= 10) {
+            escreverDigitos(valor / 10);
+        }
+        escrever((char) ('0' + (valor % 10)));
+    }
+
+    private void doisDigitos(int valor) throws IOException {
+        garantirEspaco(2);
+        buffer[posicao++] = (byte) ('0' + valor / 10);
+        buffer[posicao++] = (byte) ('0' + valor % 10);
+    }
+
+    private void escrever(char c) throws IOException {
+        escrever((byte) c);
+    }
+
+    private void escrever(byte b) throws IOException {
+        garantirEspaco(1);
+        buffer[posicao++] = b;
+    }
+
+    private void garantirEspaco(int bytes) throws IOException {
+        if (posicao + bytes > buffer.length) {
+            saida.write(buffer, 0, posicao);
+            posicao = 0;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package br.com.meuGasto.finControl.service;
 import br.com.meuGasto.finControl.entity.Usuario;
 import br.com.meuGasto.finControl.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,10 +21,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
-        return User.builder()
-                .username(usuario.getEmail())
-                .password(usuario.getSenha())
-                .authorities(Collections.emptyList())
-                .build();
+        // usuário desativado não entra: nem pelo formulário, nem com um JWT emitido antes da desativação
+        boolean ativo = !Boolean.FALSE.equals(usuario.getAtivo());
+        return new UsuarioAutenticado(usuario.getId(), usuario.getEmail(), usuario.getSenha(), ativo, Collections.emptyList());
     }
 }
@@ -0,0 +1,198 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.EmailOutbox;
+import br.com.meuGasto.finControl.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia em segundo plano os emails gravados em email_outbox.
+ *
+ * Cada mensagem é enviada fora de qualquer transação e só a atualização do seu status usa a conexão
+ * de escrita. Falhas são reagendadas com espera exponencial e, esgotadas as tentativas, a mensagem
+ * fica com status FALHOU. A entrega é "ao menos uma vez": se o status não puder ser gravado após
+ * um envio bem-sucedido, a mensagem é enviada de novo.
+ *
+ * As mensagens de um lote são enviadas em paralelo por um pool fixo de {@code concorrencia} threads,
+ * respeitando {@code taxa-maxima-por-segundo} para não estourar o limite do provedor SMTP.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "spring.mail.host")
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final String remetente;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final Duration intervaloInicial;
+    private final Duration intervaloMaximo;
+    private final int retencaoDias;
+    private final ExecutorService executor;
+    private final LimitadorTaxa limitadorTaxa;
+    private final Counter enviosSucesso;
+    private final Counter enviosFalha;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.mail.username:}") String remetente,
+                                 @Value("${app.notificacao.outbox.lote:50}") int tamanhoLote,
+                                 @Value("${app.notificacao.outbox.maximo-tentativas:6}") int maximoTentativas,
+                                 @Value("${app.notificacao.outbox.intervalo-inicial-ms:30000}") long intervaloInicialMs,
+                                 @Value("${app.notificacao.outbox.intervalo-maximo-ms:3600000}") long intervaloMaximoMs,
+                                 @Value("${app.notificacao.outbox.retencao-dias:30}") int retencaoDias,
+                                 @Value("${app.notificacao.outbox.concorrencia:4}") int concorrencia,
+                                 @Value("${app.notificacao.outbox.taxa-maxima-por-segundo:10}") double taxaMaximaPorSegundo) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.remetente = remetente;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.intervaloInicial = Duration.ofMillis(intervaloInicialMs);
+        this.intervaloMaximo = Duration.ofMillis(intervaloMaximoMs);
+        this.retencaoDias = retencaoDias;
+        AtomicInteger contadorThreads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(concorrencia, 1), tarefa -> {
+            Thread thread = new Thread(tarefa, "email-outbox-" + contadorThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.limitadorTaxa = new LimitadorTaxa(taxaMaximaPorSegundo);
+        this.enviosSucesso = Counter.builder("email.outbox.envios")
+                .description("Tentativas de envio de emails da fila")
+                .tag("resultado", "sucesso")
+                .register(meterRegistry);
+        this.enviosFalha = Counter.builder("email.outbox.envios")
+                .description("Tentativas de envio de emails da fila")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+
+        for (EmailOutbox.Status status : List.of(EmailOutbox.Status.PENDENTE, EmailOutbox.Status.FALHOU)) {
+            Gauge.builder("email.outbox.mensagens", emailOutboxRepository, repositorio -> repositorio.countByStatus(status))
+                    .description("Mensagens na fila de emails por status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Envia um lote de mensagens vencidas e retorna quantas foram entregues
+     */
+    @Scheduled(fixedDelayString = "${app.notificacao.outbox.intervalo-despacho-ms:5000}",
+            initialDelayString = "${app.notificacao.outbox.atraso-inicial-ms:10000}")
+    public int despachar() {
+        List<EmailOutbox> vencidas = emailOutboxRepository.buscarVencidas(
+                EmailOutbox.Status.PENDENTE, LocalDateTime.now(), PageRequest.of(0, tamanhoLote));
+
+        List<CompletableFuture<Boolean>> envios = new ArrayList<>(vencidas.size());
+        for (EmailOutbox email : vencidas) {
+            envios.add(CompletableFuture.supplyAsync(() -> {
+                limitadorTaxa.adquirir();
+                return enviar(email);
+            }, executor));
+        }
+        int enviadas = 0;
+        for (CompletableFuture<Boolean> envio : envios) {
+            if (envio.join()) {
+                enviadas++;
+            }
+        }
+        if (!vencidas.isEmpty()) {
+            log.info("Fila de emails: {} de {} mensagens enviadas", enviadas, vencidas.size());
+        }
+        return enviadas;
+    }
+
+    /**
+     * Remove as mensagens já enviadas há mais de retencao-dias
+     */
+    @Scheduled(cron = "${app.notificacao.outbox.limpeza-cron:0 30 3 * * *}")
+    public void limparEnviados() {
+        int removidas = emailOutboxRepository.excluirEnviadosAntesDe(
+                EmailOutbox.Status.ENVIADO, LocalDateTime.now().minusDays(retencaoDias));
+        log.debug("Fila de emails: {} mensagens enviadas removidas", removidas);
+    }
+
+    private boolean enviar(EmailOutbox email) {
+        email.setTentativas(email.getTentativas() + 1);
+        try {
+            mailSender.send(mensagem(email));
+            email.setStatus(EmailOutbox.Status.ENVIADO);
+            email.setDataEnvio(LocalDateTime.now());
+            email.setUltimoErro(null);
+            emailOutboxRepository.save(email);
+            enviosSucesso.increment();
+            return true;
+        } catch (MailException e) {
+            registrarFalha(email, e);
+            emailOutboxRepository.save(email);
+            enviosFalha.increment();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void registrarFalha(EmailOutbox email, MailException e) {
+        String erro = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        email.setUltimoErro(erro.length() > 1000 ? erro.substring(0, 1000) : erro);
+
+        if (email.getTentativas() >= maximoTentativas) {
+            email.setStatus(EmailOutbox.Status.FALHOU);
+            log.error("Email id={} para {} descartado após {} tentativas: {}",
+                    email.getId(), email.getDestinatario(), email.getTentativas(), erro);
+            return;
+        }
+        Duration espera = intervaloAntesDaTentativa(email.getTentativas());
+        email.setProximaTentativa(LocalDateTime.now().plus(espera));
+        log.warn("Tentativa {} de envio do email id={} falhou, nova tentativa em {}s: {}",
+                email.getTentativas(), email.getId(), espera.toSeconds(), erro);
+    }
+
+    /**
+     * Espera exponencial: intervalo-inicial, 2x, 4x... limitada a intervalo-maximo
+     */
+    Duration intervaloAntesDaTentativa(int tentativasFeitas) {
+        int expoente = Math.min(Math.max(tentativasFeitas - 1, 0), 30);
+        Duration espera = intervaloInicial.multipliedBy(1L << expoente);
+        return espera.compareTo(intervaloMaximo) > 0 ? intervaloMaximo : espera;
+    }
+
+    private SimpleMailMessage mensagem(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(remetente);
+        message.setTo(email.getDestinatario());
+        message.setSubject(email.getAssunto());
+        message.setText(email.getCorpo());
+        return message;
+    }
+}
@@ -1,47 +1,70 @@
 package br.com.meuGasto.finControl.service;
 
-import br.com.meuGasto.finControl.entity.Gasto;
 import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LinhaExportacaoGasto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 public class ExportacaoService {
 
+    private static final String CABECALHO = "ID,Descrição,Valor,Categoria,Data,Observações";
+    private static final int TAMANHO_BUFFER = 16 * 1024;
+
     private final GastoRepository gastoRepository;
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-    public String exportarGastosCSV(LocalDateTime inicio, LocalDateTime fim) {
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, fim);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter printWriter = new PrintWriter(stringWriter);
-
-        // Cabeçalho
-        printWriter.println("ID,Descrição,Valor,Categoria,Data,Observações");
-
-        // Dados
-        gastos.forEach(gasto -> printWriter.println(String.format("%d,\"%s\",%.2f,\"%s\",%s,\"%s\"",
-                gasto.getId(),
-                escapeCSV(gasto.getDescricao()),
-                gasto.getValor(),
-                escapeCSV(gasto.getCategoria()),
-                gasto.getDataGasto().format(DATE_FORMATTER),
-                escapeCSV(gasto.getObservacoes()))));
-
-        return stringWriter.toString();
+
+    /**
+     * Escreve os gastos do usuário no período em CSV diretamente na saída, linha a linha, à medida que
+     * são lidos do banco. A memória usada é a do buffer, independente do tamanho da exportação.
+     *
+     * @param gzip comprime a saída (o chamador deve anunciar Content-Encoding: gzip)
+     * @return quantidade de linhas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportarGastosCSV(Long usuarioId, LocalDateTime inicio, LocalDateTime fim, OutputStream saida, boolean gzip) throws IOException {
+        GZIPOutputStream compressor = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : null;
+        CsvEncoder csv = new CsvEncoder(compressor != null ? compressor : saida, TAMANHO_BUFFER);
+
+        csv.literal(CABECALHO).fimLinha();
+
+        long[] linhas = {0};
+        try {
+            gastoRepository.percorrerPorPeriodo(usuarioId, inicio, fim, gasto -> {
+                escreverLinha(csv, gasto);
+                linhas[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        csv.flush();
+        if (compressor != null) {
+            // não fecha a saída do chamador, apenas grava o trailer do gzip
+            compressor.finish();
+        }
+        return linhas[0];
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
+    private void escreverLinha(CsvEncoder csv, LinhaExportacaoGasto gasto) {
+        try {
+            csv.numero(gasto.id())
+                    .texto(gasto.descricao())
+                    .decimal(gasto.valor())
+                    .texto(gasto.categoria())
+                    .dataHora(gasto.dataGasto())
+                    .texto(gasto.observacoes())
+                    .fimLinha();
+        } catch (IOException e) {
+            // cliente desconectou: interrompe a leitura do cursor
+            throw new UncheckedIOException(e);
         }
-        return value.replace("\"", "\"\"");
     }
 }
@@ -1,34 +1,65 @@
 package br.com.meuGasto.finControl.service;
 
+import br.com.meuGasto.finControl.dto.PaginaCursorDTO;
+import br.com.meuGasto.finControl.dto.ResumoDashboardDTO;
 import br.com.meuGasto.finControl.entity.Gasto;
-import br.com.meuGasto.finControl.entity.GastoPlanejamento;
+import br.com.meuGasto.finControl.repository.CursorGasto;
+import br.com.meuGasto.finControl.repository.FiltroGasto;
 import br.com.meuGasto.finControl.repository.GastoPlanejamentoRepository;
 import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.GastoSpecifications;
+import br.com.meuGasto.finControl.repository.OrdenacaoGasto;
+import br.com.meuGasto.finControl.repository.ResultadoBuscaTexto;
+import br.com.meuGasto.finControl.repository.ResumoGastos;
 import lombok.RequiredArgsConstructor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * Gastos do usuário logado: toda leitura é filtrada pelo id dele e toda escrita grava ou confere o dono.
+ */
 @Service
 @Transactional
 @RequiredArgsConstructor
-
-
 public class GastoService {
     private static final Logger log = LoggerFactory.getLogger(GastoService.class);
 
+    static final int TAMANHO_MAXIMO_PAGINA = 100;
+    static final int TOP_K_MAXIMO = 100;
+    static final int PAGINA_MAXIMA_TEXTO = 10;
+    // chave das entradas de cache por usuário
+    static final String CHAVE_USUARIO = "@usuarioService.getIdUsuarioLogado()";
+
     private final GastoRepository gastoRepository;
     private final GastoPlanejamentoRepository gastoPlanejamentoRepository;
     private final NotificacaoService notificacaoService;
     private final UsuarioService usuarioService;
+    private final ResumoGastoService resumoGastoService;
+    private final AnaliseGastos analiseGastos;
+
+    @Value("${app.gastos.tamanho-maximo-pagina:" + TAMANHO_MAXIMO_PAGINA + "}")
+    private int tamanhoMaximoPagina = TAMANHO_MAXIMO_PAGINA;
+
+    @Value("${app.gastos.top-k.maximo:" + TOP_K_MAXIMO + "}")
+    private int topKMaximo = TOP_K_MAXIMO;
+
+    @Value("${app.gastos.texto.pagina-maxima:" + PAGINA_MAXIMA_TEXTO + "}")
+    private int paginaMaximaTexto = PAGINA_MAXIMA_TEXTO;
 
     // Operações CRUD básicas
 
@@ -36,26 +67,34 @@ public class GastoService {
     /**
      * Salva um novo gasto
      */
+    @CacheEvict(value = "contagemGastos", key = CHAVE_USUARIO)
     public Gasto salvar(Gasto gasto) {
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
         if (gasto.getDataGasto() == null) {
             gasto.setDataGasto(LocalDateTime.now());
         }
+        // um gasto do usuário com id já existente é regravado: os consolidados trocam os valores anteriores;
+        // um id de outro usuário (ou inexistente) é descartado e o gasto é incluído como novo
+        ResumoGastoService.Lancamento anterior = null;
+        if (gasto.getId() != null) {
+            anterior = gastoRepository.findByIdAndUsuarioId(gasto.getId(), usuarioId)
+                    .map(ResumoGastoService.Lancamento::de).orElse(null);
+            if (anterior == null) {
+                gasto.setId(null);
+            }
+        }
+        gasto.setUsuarioId(usuarioId);
         Gasto gastoSalvo = gastoRepository.save(gasto);
+        if (anterior != null) {
+            resumoGastoService.atualizar(anterior, gastoSalvo);
+        } else {
+            resumoGastoService.registrar(gastoSalvo);
+        }
 
         // Também criar/atualizar registro em GastoPlanejamento para contabilizar no planejamento mensal
         if (gastoPlanejamentoRepository != null) {
             try {
-                GastoPlanejamento gp = gastoPlanejamentoRepository.findByGastoId(gastoSalvo.getId()).orElseGet(GastoPlanejamento::new);
-                gp.setDescricao(gastoSalvo.getDescricao());
-                gp.setCategoria(gastoSalvo.getCategoria());
-                gp.setValor(gastoSalvo.getValor());
-                gp.setGastoId(gastoSalvo.getId());
-                if (gastoSalvo.getDataGasto() != null) {
-                    gp.setData(gastoSalvo.getDataGasto().toLocalDate());
-                } else {
-                    gp.setData(LocalDate.now());
-                }
-                gastoPlanejamentoRepository.save(gp);
+                gastoPlanejamentoRepository.sincronizarComGastos(List.of(gastoSalvo));
             } catch (Exception e) {
                 log.error("Erro ao sincronizar GastoPlanejamento para gasto id={}: {}", gastoSalvo.getId(), e.getMessage(), e);
             }
@@ -77,15 +116,27 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public List<Gasto> listarTodos() {
-        return gastoRepository.findAll();
+        return gastoRepository.findByUsuarioId(usuarioService.getIdUsuarioLogado());
     }
     
+    /**
+     * Totais por categoria e por mês e valores extremos de todos os gastos, somados sobre as colunas em
+     * memória (ou sobre as entidades, quando elas estão desabilitadas)
+     */
+    @Transactional(readOnly = true)
+    public AnaliseGastos.Panorama obterPanorama() {
+        if (analiseGastos.disponivel()) {
+            return analiseGastos.panorama(usuarioService.getIdUsuarioLogado());
+        }
+        return AnaliseGastos.Panorama.de(listarTodos());
+    }
+
     /**
      * Busca um gasto por ID
      */
     @Transactional(readOnly = true)
     public Optional<Gasto> buscarPorId(Long id) {
-        return gastoRepository.findById(id);
+        return gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado());
     }
 
     /**
@@ -93,9 +144,8 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalGastos() {
-        return gastoRepository.findAll().stream()
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal resultado = gastoRepository.sumTotalValor(usuarioService.getIdUsuarioLogado());
+        return resultado != null ? resultado : BigDecimal.ZERO;
     }
 
     /**
@@ -103,7 +153,7 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public long contarGastos() {
-        return gastoRepository.count();
+        return gastoRepository.countByUsuarioId(usuarioService.getIdUsuarioLogado());
     }
 
     /**
@@ -111,18 +161,9 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalGastosMes() {
-        LocalDateTime inicioMes = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime fimMes = LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay();
-
-        return gastoRepository.findAll().stream()
-                .filter(gasto -> {
-                    LocalDateTime dataGasto = gasto.getDataGasto();
-                    return dataGasto != null &&
-                           dataGasto.isAfter(inicioMes) &&
-                           dataGasto.isBefore(fimMes);
-                })
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        YearMonth mes = YearMonth.now();
+        BigDecimal resultado = gastoRepository.sumValorNoPeriodo(usuarioService.getIdUsuarioLogado(), mes.atDay(1).atStartOfDay(), mes.plusMonths(1).atDay(1).atStartOfDay());
+        return resultado != null ? resultado : BigDecimal.ZERO;
     }
 
     /**
@@ -130,18 +171,32 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public long contarCategorias() {
-        return gastoRepository.findAll().stream()
-                .map(Gasto::getCategoria)
-                .distinct()
-                .count();
+        return gastoRepository.countCategoriasDistintas(usuarioService.getIdUsuarioLogado());
+    }
+
+    /**
+     * Agregados exibidos no dashboard (total, total do mês atual, categorias e quantidade),
+     * calculados pelo banco em uma única consulta
+     */
+    @Transactional(readOnly = true)
+    public ResumoDashboardDTO obterResumoDashboard() {
+        YearMonth mes = YearMonth.now();
+        ResumoGastos resumo = gastoRepository.resumir(usuarioService.getIdUsuarioLogado(), mes.atDay(1).atStartOfDay(), mes.plusMonths(1).atDay(1).atStartOfDay());
+        return ResumoDashboardDTO.builder()
+                .totalGastos(resumo.getTotal())
+                .totalGastosMes(resumo.getTotalMes())
+                .quantidadeCategorias(resumo.getQuantidadeCategorias())
+                .quantidadeGastos(resumo.getQuantidade())
+                .build();
     }
 
     /**
      * Atualiza um gasto existente
      */
     public Gasto atualizar(Long id, Gasto gastoAtualizado) {
-        return gastoRepository.findById(id)
+        return gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado())
                 .map(gastoExistente -> {
+                    ResumoGastoService.Lancamento anterior = ResumoGastoService.Lancamento.de(gastoExistente);
                     gastoExistente.setDescricao(gastoAtualizado.getDescricao());
                     gastoExistente.setValor(gastoAtualizado.getValor());
                     gastoExistente.setCategoria(gastoAtualizado.getCategoria());
@@ -149,18 +204,12 @@ public class GastoService {
                     gastoExistente.setObservacoes(gastoAtualizado.getObservacoes());
                     gastoExistente.setDataAtualizacao(LocalDateTime.now());
                     Gasto salvo = gastoRepository.save(gastoExistente);
+                    resumoGastoService.atualizar(anterior, salvo);
 
                     // sincronizar GastoPlanejamento vinculado
                     if (gastoPlanejamentoRepository != null) {
                         try {
-                            GastoPlanejamento gp = gastoPlanejamentoRepository.findByGastoId(salvo.getId()).orElseGet(GastoPlanejamento::new);
-                            gp.setDescricao(salvo.getDescricao());
-                            gp.setCategoria(salvo.getCategoria());
-                            gp.setValor(salvo.getValor());
-                            gp.setGastoId(salvo.getId());
-                            if (salvo.getDataGasto() != null) gp.setData(salvo.getDataGasto().toLocalDate());
-                            else gp.setData(LocalDate.now());
-                            gastoPlanejamentoRepository.save(gp);
+                            gastoPlanejamentoRepository.sincronizarComGastos(List.of(salvo));
                         } catch (Exception e) {
                             log.error("Erro ao sincronizar atualização de GastoPlanejamento para gasto id={}: {}", salvo.getId(), e.getMessage(), e);
                         }
@@ -176,111 +225,191 @@ public class GastoService {
     /**
      * Exclui um gasto por ID
      */
+    @CacheEvict(value = "contagemGastos", key = CHAVE_USUARIO)
     public void excluir(Long id) {
-        if (!gastoRepository.existsById(id)) {
-            throw new RuntimeException("Gasto não encontrado com ID: " + id);
-        }
-        // primeiro remover vinculo no planejamento
-        if (gastoPlanejamentoRepository != null) {
-            try {
-                gastoPlanejamentoRepository.deleteByGastoId(id);
-            } catch (Exception e) {
-                log.warn("Falha ao remover GastoPlanejamento vinculado para gasto id={}: {}", id, e.getMessage());
-            }
-        } else {
-            log.debug("GastoPlanejamentoRepository não está disponível - exclusão de planejamento ignorada para gasto id={}", id);
-        }
-        gastoRepository.deleteById(id);
+        Gasto gasto = gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado())
+                .orElseThrow(() -> new RuntimeException("Gasto não encontrado com ID: " + id));
+        // o GastoPlanejamento vinculado é removido no mesmo DELETE pelo trigger trg_gastos_remove_planejamento
+        resumoGastoService.remover(ResumoGastoService.Lancamento.de(gasto));
+        gastoRepository.delete(gasto);
     }
     
-    // Operações de busca específicas
-    
+    // Operações de busca específicas (paginadas por cursor)
+
+    /**
+     * Lista os gastos mais recentes primeiro, página a página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Gasto> listarPagina(String cursor, int tamanho) {
+        return buscarPagina(null, OrdenacaoGasto.DATA, cursor, tamanho);
+    }
+
+    /**
+     * Busca combinando quaisquer critérios do filtro, na ordem informada e página a página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Gasto> buscar(FiltroGasto filtro, OrdenacaoGasto ordem, String cursor, int tamanho) {
+        return buscarPagina(filtro.especificacao(), ordem, cursor, tamanho);
+    }
+
+    /**
+     * Entrega ao consumidor, um a um, todos os gastos do usuário que atendem ao filtro, lidos em fatias do
+     * tamanho máximo de página. Recebe o id do usuário porque costuma rodar fora da thread da requisição.
+     */
+    @Transactional(readOnly = true)
+    public void percorrer(Long usuarioId, FiltroGasto filtro, OrdenacaoGasto ordem, Consumer<Gasto> consumidor) {
+        gastoRepository.percorrer(usuarioId, filtro.especificacao(), ordem, tamanhoMaximoPagina, consumidor);
+    }
+
+    /**
+     * Busca de texto completo em descrição e observações (índice FTS5): aceita prefixos e ignora acentos,
+     * com os resultados mais relevantes primeiro e os termos destacados nos trechos. A ordem é pela relevância,
+     * então as páginas são por deslocamento, que o SQLite percorre e descarta; páginas além de
+     * app.gastos.texto.pagina-maxima voltam vazias (refine a busca em vez de paginar mais fundo)
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBuscaTexto> buscarTexto(String texto, int pagina, int tamanho) {
+        if (pagina > paginaMaximaTexto) {
+            return List.of();
+        }
+        int tamanhoPagina = Math.min(Math.max(tamanho, 1), tamanhoMaximoPagina);
+        return gastoRepository.buscarTexto(usuarioService.getIdUsuarioLogado(), texto, tamanhoPagina,
+                Math.max(pagina, 0) * tamanhoPagina);
+    }
+
     /**
      * Busca gastos por categoria
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorCategoria(String categoria) {
-        return gastoRepository.findByCategoria(categoria);
+    public PaginaCursorDTO<Gasto> buscarPorCategoria(String categoria, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.categoria(categoria), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por descrição
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorDescricao(String descricao) {
-        return gastoRepository.findByDescricaoContainingIgnoreCase(descricao);
+    public PaginaCursorDTO<Gasto> buscarPorDescricao(String descricao, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.descricaoContem(descricao), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por valor maior que
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorValorMaiorQue(BigDecimal valor) {
-        return gastoRepository.findByValorGreaterThan(valor);
+    public PaginaCursorDTO<Gasto> buscarPorValorMaiorQue(BigDecimal valor, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.valorMaiorQue(valor), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por valor menor que
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorValorMenorQue(BigDecimal valor) {
-        return gastoRepository.findByValorLessThan(valor);
+    public PaginaCursorDTO<Gasto> buscarPorValorMenorQue(BigDecimal valor, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.valorMenorQue(valor), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por faixa de valor
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorFaixaValor(BigDecimal valorMin, BigDecimal valorMax) {
-        return gastoRepository.findByValorBetween(valorMin, valorMax);
+    public PaginaCursorDTO<Gasto> buscarPorFaixaValor(BigDecimal valorMin, BigDecimal valorMax, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.valorEntre(valorMin, valorMax), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por período
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim) {
-        return gastoRepository.findByDataGastoBetween(dataInicio, dataFim);
+    public PaginaCursorDTO<Gasto> buscarPorPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.periodo(dataInicio, dataFim), OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por categoria e valor
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorCategoriaEValor(String categoria, BigDecimal valor) {
-        return gastoRepository.findByCategoriaAndValorGreaterThan(categoria, valor);
+    public PaginaCursorDTO<Gasto> buscarPorCategoriaEValor(String categoria, BigDecimal valor, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.categoria(categoria).and(GastoSpecifications.valorMaiorQue(valor)),
+                OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos ordenados por data (mais recentes primeiro)
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarOrdenadosPorData() {
-        return gastoRepository.findByOrderByDataGastoDesc();
+    public PaginaCursorDTO<Gasto> buscarOrdenadosPorData(String cursor, int tamanho) {
+        return buscarPagina(null, OrdenacaoGasto.DATA, cursor, tamanho);
     }
     
     /**
      * Busca gastos ordenados por valor (maior primeiro)
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarOrdenadosPorValor() {
-        return gastoRepository.findByOrderByValorDesc();
+    public PaginaCursorDTO<Gasto> buscarOrdenadosPorValor(String cursor, int tamanho) {
+        return buscarPagina(null, OrdenacaoGasto.VALOR, cursor, tamanho);
     }
     
     /**
      * Busca gastos ordenados por categoria
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarOrdenadosPorCategoria() {
-        return gastoRepository.findByOrderByCategoriaAsc();
+    public PaginaCursorDTO<Gasto> buscarOrdenadosPorCategoria(String cursor, int tamanho) {
+        return buscarPagina(null, OrdenacaoGasto.CATEGORIA, cursor, tamanho);
     }
     
     /**
      * Busca gastos por palavra-chave
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarPorPalavraChave(String palavraChave) {
-        return gastoRepository.findByPalavraChave(palavraChave);
+    public PaginaCursorDTO<Gasto> buscarPorPalavraChave(String palavraChave, String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.descricaoContem(palavraChave), OrdenacaoGasto.DATA, cursor, tamanho);
+    }
+
+    /**
+     * Busca gastos acima da média
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Gasto> buscarGastosAcimaDaMedia(String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.acimaDaMedia(usuarioService.getIdUsuarioLogado()), OrdenacaoGasto.DATA, cursor, tamanho);
+    }
+
+    /**
+     * Busca gastos por categoria e período
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<Gasto> buscarPorCategoriaEPeriodo(String categoria, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                             String cursor, int tamanho) {
+        return buscarPagina(GastoSpecifications.categoria(categoria).and(GastoSpecifications.periodo(dataInicio, dataFim)),
+                OrdenacaoGasto.DATA, cursor, tamanho);
+    }
+
+    /**
+     * Total aproximado de gastos do usuário: mantido em cache por usuário e descartado a cada escrita
+     * dele, para não executar COUNT(*) a cada página.
+     */
+    @Cacheable(value = "contagemGastos", key = CHAVE_USUARIO)
+    @Transactional(readOnly = true)
+    public long contarGastosAproximado() {
+        return gastoRepository.countByUsuarioId(usuarioService.getIdUsuarioLogado());
+    }
+
+    private PaginaCursorDTO<Gasto> buscarPagina(Specification<Gasto> filtro, OrdenacaoGasto ordem, String cursor, int tamanho) {
+        int tamanhoPagina = Math.min(Math.max(tamanho, 1), tamanhoMaximoPagina);
+        CursorGasto apos = cursor == null || cursor.isBlank() ? null : CursorGasto.decodificar(cursor, ordem);
+
+        Slice<Gasto> fatia = gastoRepository.buscarFatia(usuarioService.getIdUsuarioLogado(), filtro, ordem, apos, tamanhoPagina);
+        List<Gasto> conteudo = fatia.getContent();
+        String proximoCursor = fatia.hasNext()
+                ? CursorGasto.apos(conteudo.get(conteudo.size() - 1), ordem).codificar()
+                : null;
+
+        return PaginaCursorDTO.<Gasto>builder()
+                .content(conteudo)
+                .pageSize(tamanhoPagina)
+                .nextCursor(proximoCursor)
+                .last(!fatia.hasNext())
+                .build();
     }
     
     // Operações estatísticas
@@ -290,7 +419,7 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public long contarPorCategoria(String categoria) {
-        return gastoRepository.countByCategoria(categoria);
+        return gastoRepository.countByUsuarioIdAndCategoria(usuarioService.getIdUsuarioLogado(), categoria);
     }
     
     /**
@@ -298,7 +427,7 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public BigDecimal somarValorPorCategoria(String categoria) {
-        BigDecimal resultado = gastoRepository.sumValorByCategoria(categoria);
+        BigDecimal resultado = gastoRepository.sumValorByCategoria(usuarioService.getIdUsuarioLogado(), categoria);
         return resultado != null ? resultado : BigDecimal.ZERO;
     }
     
@@ -307,32 +436,29 @@ public class GastoService {
      */
     @Transactional(readOnly = true)
     public BigDecimal somarTotalValor() {
-        BigDecimal resultado = gastoRepository.sumTotalValor();
+        BigDecimal resultado = gastoRepository.sumTotalValor(usuarioService.getIdUsuarioLogado());
         return resultado != null ? resultado : BigDecimal.ZERO;
     }
     
     /**
-     * Busca gastos acima da média
+     * Busca os k gastos mais caros que atendem ao filtro (categoria, período...), do maior para o menor.
+     * k é limitado a app.gastos.top-k.maximo; a consulta usa LIMIT sobre o índice (usuario_id, valor),
+     * então lê só as k primeiras linhas do índice em vez de ordenar todos os gastos.
      */
     @Transactional(readOnly = true)
-    public List<Gasto> buscarGastosAcimaDaMedia() {
-        return gastoRepository.findGastosAcimaDaMedia();
+    public List<Gasto> buscarMaisCaros(FiltroGasto filtro, int k) {
+        int limite = Math.min(Math.max(k, 1), topKMaximo);
+        Specification<Gasto> criterios = filtro != null ? filtro.especificacao() : null;
+        return gastoRepository.buscarFatia(usuarioService.getIdUsuarioLogado(), criterios, OrdenacaoGasto.VALOR, null, limite)
+                .getContent();
     }
-    
+
     /**
      * Busca top 5 gastos mais caros
      */
     @Transactional(readOnly = true)
     public List<Gasto> buscarTop5GastosMaisCaros() {
-        return gastoRepository.findTop5GastosMaisCaros();
-    }
-    
-    /**
-     * Busca gastos por categoria e período
-     */
-    @Transactional(readOnly = true)
-    public List<Gasto> buscarPorCategoriaEPeriodo(String categoria, LocalDateTime dataInicio, LocalDateTime dataFim) {
-        return gastoRepository.findByCategoriaAndDataGastoBetween(categoria, dataInicio, dataFim);
+        return buscarMaisCaros(null, 5);
     }
     
     // Validações de negócio
@@ -354,6 +480,6 @@ public class GastoService {
      * Verifica se existe gasto com o ID
      */
     public boolean existeGasto(Long id) {
-        return !gastoRepository.existsById(id);
+        return !gastoRepository.existsByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado());
     }
 }
@@ -0,0 +1,44 @@
+package br.com.meuGasto.finControl.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limitador de taxa simples (intervalo fixo entre permissões), compartilhado pelas threads de envio.
+ * Uma taxa menor ou igual a zero desliga o limite.
+ */
+class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private long proximaPermissao;
+
+    LimitadorTaxa(double permissoesPorSegundo) {
+        this.intervaloNanos = permissoesPorSegundo <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permissoesPorSegundo);
+        this.proximaPermissao = System.nanoTime();
+    }
+
+    /**
+     * Bloqueia até a próxima permissão estar disponível
+     */
+    void adquirir() {
+        if (intervaloNanos == 0) {
+            return;
+        }
+        long espera;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            long permissao = Math.max(proximaPermissao, agora);
+            proximaPermissao = permissao + intervaloNanos;
+            espera = permissao - agora;
+        }
+        while (espera > 0) {
+            long inicio = System.nanoTime();
+            LockSupport.parkNanos(espera);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            espera -= System.nanoTime() - inicio;
+        }
+    }
+}
@@ -20,8 +20,18 @@ public class MetaService {
     private static final Logger log = LoggerFactory.getLogger(MetaService.class);
 
     private final MetaRepository metaRepository;
+    private final UsuarioService usuarioService;
+    private final VersaoDados versaoDados;
 
+    /**
+     * Salva a meta do usuário logado; um id de meta de outro usuário é descartado e a meta é incluída como nova
+     */
     public Meta salvar(Meta meta) {
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        if (meta.getId() != null && !metaRepository.existsByIdAndUsuarioId(meta.getId(), usuarioId)) {
+            meta.setId(null);
+        }
+        meta.setUsuarioId(usuarioId);
         if (meta.getDataInicio() == null) {
             meta.setDataInicio(LocalDateTime.now());
         }
@@ -29,21 +39,23 @@ public class MetaService {
             meta.setValorAtual(BigDecimal.ZERO);
         }
         Meta salvo = metaRepository.save(meta);
+        versaoDados.incrementar(usuarioId);
         return salvo;
     }
 
     @Transactional(readOnly = true)
     public List<Meta> listarTodos() {
-        return metaRepository.findAll();
+        return metaRepository.findByUsuarioIdOrderByDataInicioDesc(usuarioService.getIdUsuarioLogado());
     }
 
     @Transactional(readOnly = true)
     public Optional<Meta> buscarPorId(Long id) {
-        return metaRepository.findById(id);
+        return metaRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado());
     }
 
     public Meta atualizar(Long id, Meta metaAtualizado) {
-        return metaRepository.findById(id)
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        return metaRepository.findByIdAndUsuarioId(id, usuarioId)
                 .map(metaExistente -> {
                     metaExistente.setDescricao(metaAtualizado.getDescricao());
                     metaExistente.setValorObjetivo(metaAtualizado.getValorObjetivo());
@@ -53,16 +65,19 @@ public class MetaService {
                     metaExistente.setRecorrente(metaAtualizado.isRecorrente());
                     metaExistente.setTipo(metaAtualizado.getTipo());
                     metaExistente.setDataAtualizacao(LocalDateTime.now());
+                    versaoDados.incrementar(usuarioId);
                     return metaRepository.save(metaExistente);
                 })
                 .orElseThrow(() -> new RuntimeException("Meta não encontrada com ID: " + id));
     }
 
     public void excluir(Long id) {
-        if (!metaRepository.existsById(id)) {
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        if (!metaRepository.existsByIdAndUsuarioId(id, usuarioId)) {
             throw new RuntimeException("Meta não encontrada com ID: " + id);
         }
         metaRepository.deleteById(id);
+        versaoDados.incrementar(usuarioId);
     }
 
     public boolean validarMeta(Meta meta) {
@@ -0,0 +1,34 @@
+package br.com.meuGasto.finControl.service;
+
+import java.time.YearMonth;
+
+/**
+ * Modelo de projeção do total de um mês a partir dos totais diários já realizados. Cada implementação
+ * registrada como bean fica disponível pelo {@link #nome()} em GET /api/movimentacoes/previsao?modelo=.
+ */
+public interface ModeloPrevisao {
+
+    String nome();
+
+    /**
+     * Projeção vazia do mês, a ser alimentada com os totais dos dias em ordem a partir do dia 1
+     */
+    Projecao iniciar(YearMonth mes);
+
+    /**
+     * Estado incremental de uma projeção: cada dia observado custa O(1) e a projeção pode ser lida a
+     * qualquer momento
+     */
+    interface Projecao {
+
+        /**
+         * Acrescenta o total, em centavos, do dia seguinte ao último observado
+         */
+        void observar(long centavos);
+
+        /**
+         * Total projetado para o mês inteiro, em centavos: o realizado mais a estimativa dos dias restantes
+         */
+        long projetarMes();
+    }
+}
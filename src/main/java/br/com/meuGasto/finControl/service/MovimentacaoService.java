@@ -2,23 +2,29 @@ package br.com.meuGasto.finControl.service;
 
 import br.com.meuGasto.finControl.dto.*;
 import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.exception.LoteInvalidoException;
+import br.com.meuGasto.finControl.repository.CursorGasto;
 import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LinhaResumo;
+import br.com.meuGasto.finControl.repository.OrdenacaoGasto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,35 +33,59 @@ public class MovimentacaoService {
 
     private final GastoRepository gastoRepository;
     private final ExportacaoService exportacaoService;
+    private final ResumoGastoService resumoGastoService;
+    private final AnaliseGastos analiseGastos;
+    private final PrevisaoService previsaoService;
+    private final UsuarioService usuarioService;
+    private final Validator validator;
+
+    static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    @Value("${app.movimentacoes.tamanho-maximo-pagina:" + TAMANHO_MAXIMO_PAGINA + "}")
+    private int tamanhoMaximoPagina = TAMANHO_MAXIMO_PAGINA;
+
+    @Value("${app.movimentacoes.lote.tamanho-maximo:5000}")
+    private int tamanhoMaximoLote;
 
     /**
-     * Listar movimentações com paginação
+     * Listar movimentações com paginação por cursor (mais recentes primeiro)
      */
     @Transactional(readOnly = true)
-    public MovimentacaoResponseDTO listarMovimentacoes(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("dataGasto").descending());
-        Page<Gasto> gastos = gastoRepository.findAll(pageable);
+    public MovimentacaoResponseDTO listarMovimentacoes(String cursor, int size) {
+        int tamanho = Math.min(Math.max(size, 1), tamanhoMaximoPagina);
+        CursorGasto apos = cursor == null || cursor.isBlank() ? null : CursorGasto.decodificar(cursor, OrdenacaoGasto.DATA);
 
+        Slice<Gasto> gastos = gastoRepository.buscarFatia(usuarioService.getIdUsuarioLogado(), null, OrdenacaoGasto.DATA, apos, tamanho);
         List<MovimentacaoDTO> content = gastos.getContent().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        String proximoCursor = gastos.hasNext()
+                ? CursorGasto.apos(gastos.getContent().get(gastos.getNumberOfElements() - 1), OrdenacaoGasto.DATA).codificar()
+                : null;
 
         return MovimentacaoResponseDTO.builder()
                 .content(content)
-                .pageNumber(gastos.getNumber())
-                .pageSize(gastos.getSize())
-                .totalElements(gastos.getTotalElements())
-                .totalPages(gastos.getTotalPages())
-                .last(gastos.isLast())
+                .pageSize(tamanho)
+                .nextCursor(proximoCursor)
+                .last(!gastos.hasNext())
                 .build();
     }
 
+    /**
+     * Total aproximado de movimentações (compartilha a entrada de cache com GastoService)
+     */
+    @Cacheable(value = "contagemGastos", key = GastoService.CHAVE_USUARIO)
+    @Transactional(readOnly = true)
+    public long contarMovimentacoesAproximado() {
+        return gastoRepository.countByUsuarioId(usuarioService.getIdUsuarioLogado());
+    }
+
     /**
      * Buscar uma movimentação por ID
      */
     @Transactional(readOnly = true)
     public MovimentacaoDTO buscarMovimentacao(Long id) {
-        return gastoRepository.findById(id)
+        return gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado())
                 .map(this::convertToDTO)
                 .orElseThrow(() -> new RuntimeException("Movimentação não encontrada com ID: " + id));
     }
@@ -63,8 +93,57 @@ public class MovimentacaoService {
     /**
      * Criar uma nova movimentação
      */
+    @CacheEvict(value = "contagemGastos", key = GastoService.CHAVE_USUARIO)
     public MovimentacaoDTO criarMovimentacao(MovimentacaoDTO dto) {
+        Gasto saved = gastoRepository.save(novoGasto(dto, usuarioService.getIdUsuarioLogado()));
+        resumoGastoService.registrar(saved);
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Criar várias movimentações em uma única transação.
+     *
+     * Todos os itens são validados antes de qualquer insert: se algum for inválido nada é gravado e
+     * a exceção lista os erros de cada item. Os inserts são enviados em lotes JDBC.
+     */
+    @CacheEvict(value = "contagemGastos", key = GastoService.CHAVE_USUARIO)
+    public List<MovimentacaoDTO> criarMovimentacoesEmLote(List<MovimentacaoDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new LoteInvalidoException(List.of("O lote deve conter ao menos uma movimentação"));
+        }
+        if (dtos.size() > tamanhoMaximoLote) {
+            throw new LoteInvalidoException(List.of("O lote deve conter no máximo " + tamanhoMaximoLote + " movimentações"));
+        }
+
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        List<Gasto> gastos = new ArrayList<>(dtos.size());
+        List<String> erros = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            MovimentacaoDTO dto = dtos.get(i);
+            if (dto == null) {
+                erros.add("[" + i + "] movimentação ausente");
+                continue;
+            }
+            Gasto gasto = novoGasto(dto, usuarioId);
+            for (ConstraintViolation<Gasto> violacao : validator.validate(gasto)) {
+                erros.add("[" + i + "] " + violacao.getPropertyPath() + ": " + violacao.getMessage());
+            }
+            gastos.add(gasto);
+        }
+        if (!erros.isEmpty()) {
+            throw new LoteInvalidoException(erros);
+        }
+
+        gastoRepository.inserirEmLote(gastos);
+        resumoGastoService.registrarTodos(gastos);
+        return gastos.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private Gasto novoGasto(MovimentacaoDTO dto, Long usuarioId) {
         Gasto gasto = new Gasto();
+        gasto.setUsuarioId(usuarioId);
         gasto.setDescricao(dto.getDescricao());
         gasto.setValor(dto.getValor());
         gasto.setCategoria(dto.getCategoria());
@@ -78,17 +157,16 @@ public class MovimentacaoService {
         gasto.setObservacoes(dto.getObservacoes());
         gasto.setDataCriacao(LocalDateTime.now());
         gasto.setDataAtualizacao(LocalDateTime.now());
-
-        Gasto saved = gastoRepository.save(gasto);
-        return convertToDTO(saved);
+        return gasto;
     }
 
     /**
      * Atualizar uma movimentação existente
      */
     public MovimentacaoDTO atualizarMovimentacao(Long id, MovimentacaoDTO dto) {
-        Gasto gasto = gastoRepository.findById(id)
+        Gasto gasto = gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado())
                 .orElseThrow(() -> new RuntimeException("Movimentação não encontrada com ID: " + id));
+        ResumoGastoService.Lancamento anterior = ResumoGastoService.Lancamento.de(gasto);
 
         gasto.setDescricao(dto.getDescricao());
         gasto.setValor(dto.getValor());
@@ -102,17 +180,19 @@ public class MovimentacaoService {
         gasto.setDataAtualizacao(LocalDateTime.now());
 
         Gasto updated = gastoRepository.save(gasto);
+        resumoGastoService.atualizar(anterior, updated);
         return convertToDTO(updated);
     }
 
     /**
      * Excluir uma movimentação
      */
+    @CacheEvict(value = "contagemGastos", key = GastoService.CHAVE_USUARIO)
     public void excluirMovimentacao(Long id) {
-        if (!gastoRepository.existsById(id)) {
-            throw new RuntimeException("Movimentação não encontrada com ID: " + id);
-        }
-        gastoRepository.deleteById(id);
+        Gasto gasto = gastoRepository.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado())
+                .orElseThrow(() -> new RuntimeException("Movimentação não encontrada com ID: " + id));
+        resumoGastoService.remover(ResumoGastoService.Lancamento.de(gasto));
+        gastoRepository.delete(gasto);
     }
 
     /**
@@ -123,22 +203,26 @@ public class MovimentacaoService {
         LocalDateTime inicio = LocalDateTime.now().minusDays(dias);
         LocalDateTime fim = LocalDateTime.now();
 
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, fim);
-
-        BigDecimal totalDespesas = gastos.stream()
-                .filter(gasto -> gasto.getTipo().equalsIgnoreCase("DESPESA"))
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Por enquanto, assumindo que todas as movimentações são despesas
-        // Você pode ajustar isso se tiver um campo de tipo (receita/despesa)
-        //BigDecimal totalReceitas = BigDecimal.ZERO;
-        BigDecimal totalReceitas = gastos.stream()
-                .filter(gasto -> gasto.getTipo().equalsIgnoreCase("RECEITA"))
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        long despesasCentavos = 0;
+        long receitasCentavos = 0;
+        if (analiseGastos.disponivel()) {
+            long[] porTipo = analiseGastos.centavosPorTipo(usuarioId, inicio, fim);
+            despesasCentavos = porTipo[ColunasGastos.DESPESA];
+            receitasCentavos = porTipo[ColunasGastos.RECEITA];
+        } else {
+            for (Gasto gasto : gastoRepository.findByUsuarioIdAndDataGastoBetween(usuarioId, inicio, fim)) {
+                if (gasto.getTipo().equalsIgnoreCase("DESPESA")) {
+                    despesasCentavos += AgregadorCentavos.centavos(gasto.getValor());
+                } else if (gasto.getTipo().equalsIgnoreCase("RECEITA")) {
+                    receitasCentavos += AgregadorCentavos.centavos(gasto.getValor());
+                }
+            }
+        }
+        BigDecimal totalDespesas = AgregadorCentavos.reais(despesasCentavos);
+        BigDecimal totalReceitas = AgregadorCentavos.reais(receitasCentavos);
 
-        BigDecimal saldoAtual = totalReceitas.subtract(totalDespesas);
+        BigDecimal saldoAtual = AgregadorCentavos.reais(receitasCentavos - despesasCentavos);
 
         return ResumoFinanceiroDTO.builder()
                 .totalReceitas(totalReceitas)
@@ -155,33 +239,43 @@ public class MovimentacaoService {
         LocalDateTime inicio = LocalDateTime.now().minusDays(dias);
         LocalDateTime fim = LocalDateTime.now();
 
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, fim);
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
 
-        // Agrupar por data
-        Map<LocalDate, List<Gasto>> gastosPorData = gastos.stream()
-                .collect(Collectors.groupingBy(g -> g.getDataGasto().toLocalDate()));
+        // Somar receitas e despesas por dia, em centavos, no índice do dia dentro do intervalo
+        LocalDate primeiroDia = inicio.toLocalDate();
+        long[] receitasPorDia;
+        long[] despesasPorDia;
+        if (analiseGastos.disponivel()) {
+            receitasPorDia = Arrays.copyOf(analiseGastos.centavosPorDia(usuarioId, inicio, fim, ColunasGastos.RECEITA), dias + 1);
+            despesasPorDia = Arrays.copyOf(analiseGastos.centavosPorDia(usuarioId, inicio, fim, ColunasGastos.DESPESA), dias + 1);
+        } else {
+            receitasPorDia = new long[dias + 1];
+            despesasPorDia = new long[dias + 1];
+            for (Gasto gasto : gastoRepository.findByUsuarioIdAndDataGastoBetween(usuarioId, inicio, fim)) {
+                long indice = gasto.getDataGasto().toLocalDate().toEpochDay() - primeiroDia.toEpochDay();
+                byte tipo = ColunasGastos.tipo(gasto.getTipo());
+                if (indice >= 0 && indice <= dias && tipo != ColunasGastos.OUTRO) {
+                    long[] porDia = tipo == ColunasGastos.RECEITA ? receitasPorDia : despesasPorDia;
+                    porDia[(int) indice] += AgregadorCentavos.centavos(gasto.getValor());
+                }
+            }
+        }
 
-        List<EvolucaoFinanceiraDTO> evolucao = new ArrayList<>();
-        BigDecimal saldoAcumulado = BigDecimal.ZERO;
+        List<EvolucaoFinanceiraDTO> evolucao = new ArrayList<>(dias + 1);
+        long saldoAcumulado = 0;
 
         // Preencher todas as datas do intervalo
-        for (int i = dias; i >= 0; i--) {
-            LocalDate data = LocalDate.now().minusDays(i);
-            List<Gasto> gastosDoDia = gastosPorData.getOrDefault(data, Collections.emptyList());
-
-            BigDecimal despesasDia = gastosDoDia.stream()
-                    .map(Gasto::getValor)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal receitasDia = BigDecimal.ZERO; // Ajustar se tiver receitas
+        for (int i = 0; i <= dias; i++) {
+            long receitasDia = receitasPorDia[i];
+            long despesasDia = despesasPorDia[i];
 
-            saldoAcumulado = saldoAcumulado.add(receitasDia).subtract(despesasDia);
+            saldoAcumulado += receitasDia - despesasDia;
 
             evolucao.add(EvolucaoFinanceiraDTO.builder()
-                    .data(data.toString())
-                    .receitas(receitasDia)
-                    .despesas(despesasDia)
-                    .saldo(saldoAcumulado)
+                    .data(primeiroDia.plusDays(i).toString())
+                    .receitas(AgregadorCentavos.reais(receitasDia))
+                    .despesas(AgregadorCentavos.reais(despesasDia))
+                    .saldo(AgregadorCentavos.reais(saldoAcumulado))
                     .build());
         }
 
@@ -196,108 +290,82 @@ public class MovimentacaoService {
         LocalDateTime inicio = LocalDateTime.now().minusDays(dias);
         LocalDateTime fim = LocalDateTime.now();
 
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, fim);
-
-        Map<String, BigDecimal> totalPorCategoria = gastos.stream()
-                .collect(Collectors.groupingBy(
-                        Gasto::getCategoria,
-                        Collectors.reducing(BigDecimal.ZERO, Gasto::getValor, BigDecimal::add)
-                ));
-
-        BigDecimal totalGeral = totalPorCategoria.values().stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal finalTotal = totalGeral.compareTo(BigDecimal.ZERO) > 0 ? totalGeral : BigDecimal.ONE;
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        AgregadorCentavos porCategoria;
+        if (analiseGastos.disponivel()) {
+            porCategoria = analiseGastos.porCategoria(usuarioId, inicio, fim);
+        } else {
+            porCategoria = new AgregadorCentavos();
+            for (LinhaResumo linha : resumoGastoService.resumir(usuarioId, inicio, fim)) {
+                porCategoria.somar(linha.categoria(), linha.totalCentavos(), linha.quantidade());
+            }
+        }
 
-        return totalPorCategoria.entrySet().stream()
-                .map(entry -> {
-                    BigDecimal percentual = entry.getValue()
-                            .divide(finalTotal, 2, java.math.RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"));
+        long totalGeral = porCategoria.getTotalCentavos();
+        long finalTotal = totalGeral > 0 ? totalGeral : 100;
 
-                    return DespesaCategoriaDTO.builder()
-                            .categoria(entry.getKey())
-                            .total(entry.getValue())
-                            .percentual(percentual)
-                            .build();
-                })
+        return porCategoria.totaisEmReais().entrySet().stream()
+                .map(entry -> DespesaCategoriaDTO.builder()
+                        .categoria(entry.getKey())
+                        .total(entry.getValue())
+                        .percentual(AgregadorCentavos.percentual(porCategoria.centavos(entry.getKey()), finalTotal))
+                        .build())
                 .sorted(Comparator.comparing(DespesaCategoriaDTO::getTotal).reversed())
                 .collect(Collectors.toList());
     }
 
     /**
-     * Obter previsão financeira
+     * Obter previsão financeira do mês atual pelo modelo informado (linear, dia-da-semana ou
+     * suavizacao-exponencial): receitas e despesas realizadas até hoje, separadas por tipo, e projetadas
+     * até o fim do mês
+     *
+     * @throws IllegalArgumentException se o modelo não existir
      */
     @Transactional(readOnly = true)
-    public PrevisaoFinanceiraDTO obterPrevisaoFinanceira() {
+    public PrevisaoFinanceiraDTO obterPrevisaoFinanceira(String modelo) {
         YearMonth mesAtual = YearMonth.now();
-        LocalDateTime inicioDoMes = mesAtual.atDay(1).atStartOfDay();
-        LocalDateTime fimDoMes = mesAtual.atEndOfMonth().atTime(23, 59, 59);
-
-        // Buscar gastos e receitas
-        List<Gasto> gastosDoMes = gastoRepository.findByDataGastoBetween(inicioDoMes, fimDoMes);
-        List<Gasto> receitasDoMes = gastoRepository.findByDataGastoBetween(inicioDoMes, fimDoMes);
-
-        BigDecimal despesaRealizada = gastosDoMes.stream()
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal receitaRealizada = receitasDoMes.stream()
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal saldoRealizado = receitaRealizada.subtract(despesaRealizada);
-
-        int diaAtual = LocalDate.now().getDayOfMonth();
-        int diasNoMes = mesAtual.atEndOfMonth().getDayOfMonth();
-
-        BigDecimal despesaPrevista = despesaRealizada.multiply(new BigDecimal(diasNoMes))
-                .divide(new BigDecimal(diaAtual), 2, RoundingMode.HALF_UP);
-
-        BigDecimal receitaPrevista = receitaRealizada.multiply(new BigDecimal(diasNoMes))
-                .divide(new BigDecimal(diaAtual), 2, RoundingMode.HALF_UP);
-
-        BigDecimal saldoPrevisto = receitaPrevista.subtract(despesaPrevista);
-
-        // Construir evolução diária
-        List<EvolucaoDiariaDTO> evolucaoDiaria = IntStream.rangeClosed(1, diaAtual)
-                .mapToObj(dia -> EvolucaoDiariaDTO.builder()
-                        .dia(dia)
-                        .receita(receitasDoMes.stream()
-                                .filter(r -> r.getDataGasto().getDayOfMonth() == dia)
-                                .map(Gasto::getValor)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add))
-                        .despesa(gastosDoMes.stream()
-                                .filter(g -> g.getDataGasto().getDayOfMonth() == dia)
-                                .map(Gasto::getValor)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add))
-                        .build())
-                .collect(Collectors.toList());
+        PrevisaoService.PrevisaoMensal previsao = previsaoService.prever(usuarioService.getIdUsuarioLogado(), mesAtual, LocalDate.now());
+        PrevisaoService.Projecao projecao = previsao.projecoes().get(modelo);
+        if (projecao == null) {
+            throw new IllegalArgumentException("Modelo de previsão desconhecido: " + modelo
+                    + " (disponíveis: " + String.join(", ", previsaoService.nomesModelos()) + ")");
+        }
+
+        long receitaRealizada = Arrays.stream(previsao.receitasPorDia()).sum();
+        long despesaRealizada = Arrays.stream(previsao.despesasPorDia()).sum();
+
+        // Evolução diária a partir dos totais por dia e tipo
+        List<EvolucaoDiariaDTO> evolucaoDiaria = new ArrayList<>(previsao.receitasPorDia().length);
+        for (int dia = 0; dia < previsao.receitasPorDia().length; dia++) {
+            evolucaoDiaria.add(EvolucaoDiariaDTO.builder()
+                    .dia(dia + 1)
+                    .receita(AgregadorCentavos.reais(previsao.receitasPorDia()[dia]))
+                    .despesa(AgregadorCentavos.reais(previsao.despesasPorDia()[dia]))
+                    .build());
+        }
 
         return PrevisaoFinanceiraDTO.builder()
-                .receitaRealizada(receitaRealizada)
-                .despesaRealizada(despesaRealizada)
-                .saldoRealizado(saldoRealizado)
-                .receitaPrevista(receitaPrevista)
-                .despesaPrevista(despesaPrevista)
-                .saldoPrevisto(saldoPrevisto)
+                .receitaRealizada(AgregadorCentavos.reais(receitaRealizada))
+                .despesaRealizada(AgregadorCentavos.reais(despesaRealizada))
+                .saldoRealizado(AgregadorCentavos.reais(receitaRealizada - despesaRealizada))
+                .receitaPrevista(AgregadorCentavos.reais(projecao.receitaCentavos()))
+                .despesaPrevista(AgregadorCentavos.reais(projecao.despesaCentavos()))
+                .saldoPrevisto(AgregadorCentavos.reais(projecao.receitaCentavos() - projecao.despesaCentavos()))
                 .evolucaoDiaria(evolucaoDiaria)
+                .modelo(modelo)
                 .periodo(mesAtual.toString())
                 .build();
     }
 
-
-
     /**
-     * Exportar movimentações em CSV
+     * Exportar movimentações dos últimos 12 meses em CSV, em streaming
      */
     @Transactional(readOnly = true)
-    public byte[] exportarMovimentacoes() {
+    public void exportarMovimentacoes(OutputStream saida, boolean gzip) throws IOException {
         LocalDateTime inicio = LocalDateTime.now().minusMonths(12);
         LocalDateTime fim = LocalDateTime.now();
 
-        String csv = exportacaoService.exportarGastosCSV(inicio, fim);
-        return csv.getBytes();
+        exportacaoService.exportarGastosCSV(usuarioService.getIdUsuarioLogado(), inicio, fim, saida, gzip);
     }
 
     /**
@@ -1,15 +1,11 @@
 package br.com.meuGasto.finControl.service;
 
+import br.com.meuGasto.finControl.entity.EmailOutbox;
 import br.com.meuGasto.finControl.entity.Gasto;
-import br.com.meuGasto.finControl.exception.EmailSendException;
-import lombok.RequiredArgsConstructor;
+import br.com.meuGasto.finControl.repository.EmailOutboxRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -17,13 +13,17 @@ import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
+/**
+ * Monta as notificações por email e as grava na fila email_outbox, na transação de quem as gera.
+ * O envio é feito em segundo plano por {@link EmailOutboxDispatcher}, de modo que um servidor SMTP
+ * lento não segura a conexão de escrita nem a resposta da requisição.
+ */
 @Service
 @Slf4j
 @ConditionalOnProperty(name = "spring.mail.host")
 public class NotificacaoService {
 
-    private final JavaMailSender mailSender;
-    private final RetryTemplate retryTemplate;
+    private final EmailOutboxRepository emailOutboxRepository;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final NumberFormat CURRENCY_FORMATTER = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
 
@@ -33,43 +33,22 @@ public class NotificacaoService {
     @Value("${spring.mail.username:}")
     private String remetente;
 
-    @Value("${spring.mail.host:}")
-    private String mailHost;
-
-    public NotificacaoService(JavaMailSender mailSender, RetryTemplate retryTemplate) {
-        this.mailSender = mailSender;
-        this.retryTemplate = retryTemplate;
+    public NotificacaoService(EmailOutboxRepository emailOutboxRepository) {
+        this.emailOutboxRepository = emailOutboxRepository;
     }
 
     private boolean isEmailConfigured() {
         // For tests we may not set mailHost; rely on remetente presence to decide if email should be sent.
-        // Also ensure mailSender is present.
-        return mailSender != null
-            && remetente != null && !remetente.isEmpty()
+        return remetente != null && !remetente.isEmpty()
             && !remetente.equals("default@example.com");
     }
 
-    private void enviarEmail(SimpleMailMessage message) {
+    private void enfileirarEmail(EmailOutbox email) {
         if (!isEmailConfigured()) {
             log.warn("Serviço de email não está configurado corretamente. Pulando envio de email.");
             return;
         }
-
-        try {
-            retryTemplate.execute(context -> {
-                try {
-                    mailSender.send(message);
-                    return null;
-                } catch (MailException e) {
-                    log.warn("Tentativa {} de envio de email falhou. Tentando novamente...",
-                            context.getRetryCount(), e);
-                    throw e;
-                }
-            });
-        } catch (Exception e) {
-            log.error("Todas as tentativas de envio de email falharam", e);
-            throw new EmailSendException("Falha no envio de email após várias tentativas", e);
-        }
+        emailOutboxRepository.save(email);
     }
 
     public void notificarGastoAlto(Gasto gasto, String emailUsuario) {
@@ -79,9 +58,8 @@ public class NotificacaoService {
         }
 
         if (gasto.getValor().compareTo(limiteGasto) > 0) {
-            SimpleMailMessage message = criarMensagemGastoAlto(gasto, emailUsuario);
-            enviarEmail(message);
-            log.info("Notificação de gasto alto enviada para {}: {}", emailUsuario,
+            enfileirarEmail(criarMensagemGastoAlto(gasto, emailUsuario));
+            log.info("Notificação de gasto alto enfileirada para {}: {}", emailUsuario,
                     CURRENCY_FORMATTER.format(gasto.getValor()));
         } else {
             log.debug("Gasto não excedeu o limite de {}", CURRENCY_FORMATTER.format(limiteGasto));
@@ -94,17 +72,12 @@ public class NotificacaoService {
             throw new IllegalArgumentException("Email do usuário e conteúdo do relatório são obrigatórios");
         }
 
-        SimpleMailMessage message = criarMensagemRelatorioMensal(emailUsuario, conteudoRelatorio);
-        enviarEmail(message);
-        log.info("Relatório mensal enviado para {}", emailUsuario);
+        enfileirarEmail(criarMensagemRelatorioMensal(emailUsuario, conteudoRelatorio));
+        log.info("Relatório mensal enfileirado para {}", emailUsuario);
     }
 
-    private SimpleMailMessage criarMensagemGastoAlto(Gasto gasto, String emailUsuario) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(remetente);
-        message.setTo(emailUsuario);
-        message.setSubject("Alerta de Gasto Alto");
-        message.setText(String.format(
+    private EmailOutbox criarMensagemGastoAlto(Gasto gasto, String emailUsuario) {
+        return new EmailOutbox(emailUsuario, "Alerta de Gasto Alto", String.format(
             "Foi registrado um gasto de %s na categoria %s.\n" +
             "Descrição: %s\n" +
             "Data: %s\n\n" +
@@ -115,15 +88,9 @@ public class NotificacaoService {
             gasto.getDataGasto().format(DATE_FORMATTER),
             CURRENCY_FORMATTER.format(limiteGasto)
         ));
-        return message;
     }
 
-    private SimpleMailMessage criarMensagemRelatorioMensal(String emailUsuario, String conteudoRelatorio) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(remetente);
-        message.setTo(emailUsuario);
-        message.setSubject("Relatório Mensal de Gastos");
-        message.setText(conteudoRelatorio);
-        return message;
+    private EmailOutbox criarMensagemRelatorioMensal(String emailUsuario, String conteudoRelatorio) {
+        return new EmailOutbox(emailUsuario, "Relatório Mensal de Gastos", conteudoRelatorio);
     }
 }
@@ -13,6 +13,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class PlanejamentoService {
@@ -21,27 +22,72 @@ public class PlanejamentoService {
 
     private final PlanejamentoMensalRepository planejamentoRepo;
     private final GastoPlanejamentoRepository gastoRepo;
+    private final UsuarioService usuarioService;
+    private final VersaoDados versaoDados;
 
-    public PlanejamentoService(PlanejamentoMensalRepository planejamentoRepo, GastoPlanejamentoRepository gastoRepo) {
+    public PlanejamentoService(PlanejamentoMensalRepository planejamentoRepo, GastoPlanejamentoRepository gastoRepo,
+                               UsuarioService usuarioService, VersaoDados versaoDados) {
         this.planejamentoRepo = planejamentoRepo;
         this.gastoRepo = gastoRepo;
+        this.usuarioService = usuarioService;
+        this.versaoDados = versaoDados;
+    }
+
+    /**
+     * Lista os planejamentos do usuário logado
+     */
+    public List<PlanejamentoMensal> listar() {
+        return planejamentoRepo.findByUsuarioId(usuarioService.getIdUsuarioLogado());
+    }
+
+    /**
+     * Busca um planejamento do usuário logado por ID
+     */
+    public Optional<PlanejamentoMensal> buscarPorId(Long id) {
+        return planejamentoRepo.findByIdAndUsuarioId(id, usuarioService.getIdUsuarioLogado());
+    }
+
+    /**
+     * Salva o planejamento como pertencente ao usuário logado
+     */
+    public PlanejamentoMensal salvar(PlanejamentoMensal planejamento) {
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        planejamento.setUsuarioId(usuarioId);
+        PlanejamentoMensal salvo = planejamentoRepo.save(planejamento);
+        versaoDados.incrementar(usuarioId);
+        return salvo;
+    }
+
+    /**
+     * Exclui um planejamento do usuário logado; retorna false se não existir
+     */
+    public boolean excluir(Long id) {
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        if (!planejamentoRepo.existsByIdAndUsuarioId(id, usuarioId)) {
+            return false;
+        }
+        planejamentoRepo.deleteById(id);
+        versaoDados.incrementar(usuarioId);
+        return true;
     }
 
     public PlanejamentoResumoDTO getResumo(YearMonth mesAno) {
-        PlanejamentoMensal p = planejamentoRepo.findByMesAno(mesAno)
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        PlanejamentoMensal p = planejamentoRepo.findByUsuarioIdAndMesAno(usuarioId, mesAno)
                 .orElseThrow(() -> new RuntimeException("Planejamento não encontrado"));
 
         LocalDate inicio = mesAno.atDay(1);
         LocalDate fim = mesAno.atEndOfMonth();
 
-        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(inicio, fim);
+        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(usuarioId, inicio, fim);
         return new PlanejamentoResumoDTO(p, gastoTotal);
     }
 
     // Novo: retorna resumo para o mes solicitado ou, se não existir, tenta o planejamento mais recente como fallback
     public PlanejamentoResumoDTO getResumoOuUltimo(YearMonth mesAno) {
         // primeiro tente obter todos os planejamentos para o mesAno — evita NonUniqueResultException
-        List<PlanejamentoMensal> encontrados = planejamentoRepo.findAllByMesAno(mesAno);
+        Long usuarioId = usuarioService.getIdUsuarioLogado();
+        List<PlanejamentoMensal> encontrados = planejamentoRepo.findAllByUsuarioIdAndMesAno(usuarioId, mesAno);
 
         YearMonth periodoParaCalculo;
         PlanejamentoMensal pSelecionado;
@@ -57,7 +103,7 @@ public class PlanejamentoService {
             periodoParaCalculo = mesAno;
         } else {
             // fallback: pega ultimo planejamento cadastrado
-            var ult = planejamentoRepo.findTopByOrderByMesAnoDesc();
+            var ult = planejamentoRepo.findTopByUsuarioIdOrderByMesAnoDesc(usuarioId);
             if (ult.isPresent()) {
                 pSelecionado = ult.get();
                 periodoParaCalculo = pSelecionado.getMesAno();
@@ -69,7 +115,7 @@ public class PlanejamentoService {
         LocalDate inicio = periodoParaCalculo.atDay(1);
         LocalDate fim = periodoParaCalculo.atEndOfMonth();
 
-        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(inicio, fim);
+        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(usuarioId, inicio, fim);
         return new PlanejamentoResumoDTO(pSelecionado, gastoTotal);
     }
 
@@ -86,7 +132,7 @@ public class PlanejamentoService {
         LocalDate inicio = mesAno.atDay(1);
         LocalDate fim = mesAno.atEndOfMonth();
 
-        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(inicio, fim);
+        BigDecimal gastoTotal = gastoRepo.sumByPeriodo(planejamento.getUsuarioId(), inicio, fim);
         return new PlanejamentoResumoDTO(planejamento, gastoTotal);
     }
 
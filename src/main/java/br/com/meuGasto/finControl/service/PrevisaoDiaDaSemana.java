@@ -0,0 +1,55 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Projeção ponderada pelo dia da semana: cada dia restante recebe a média dos mesmos dias da semana já
+ * realizados no mês (ou a média diária geral, se aquele dia da semana ainda não ocorreu)
+ */
+@Component
+public class PrevisaoDiaDaSemana implements ModeloPrevisao {
+
+    @Override
+    public String nome() {
+        return "dia-da-semana";
+    }
+
+    @Override
+    public Projecao iniciar(YearMonth mes) {
+        // dia da semana (0 = segunda) do dia 1
+        int primeiroDiaDaSemana = mes.atDay(1).getDayOfWeek().getValue() - 1;
+        int diasNoMes = mes.lengthOfMonth();
+        return new Projecao() {
+            private final long[] somas = new long[7];
+            private final int[] quantidades = new int[7];
+            private long realizado;
+            private int dias;
+
+            @Override
+            public void observar(long centavos) {
+                int diaDaSemana = (primeiroDiaDaSemana + dias) % 7;
+                somas[diaDaSemana] += centavos;
+                quantidades[diaDaSemana]++;
+                realizado += centavos;
+                dias++;
+            }
+
+            @Override
+            public long projetarMes() {
+                if (dias == 0) {
+                    return 0;
+                }
+                double restante = 0;
+                for (int dia = dias; dia < diasNoMes; dia++) {
+                    int diaDaSemana = (primeiroDiaDaSemana + dia) % 7;
+                    restante += quantidades[diaDaSemana] > 0
+                            ? (double) somas[diaDaSemana] / quantidades[diaDaSemana]
+                            : (double) realizado / dias;
+                }
+                return realizado + Math.round(restante);
+            }
+        };
+    }
+}
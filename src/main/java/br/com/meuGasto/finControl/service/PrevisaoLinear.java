@@ -0,0 +1,39 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Projeção linear: a média diária do realizado estendida a todos os dias do mês
+ */
+@Component
+public class PrevisaoLinear implements ModeloPrevisao {
+
+    public static final String NOME = "linear";
+
+    @Override
+    public String nome() {
+        return NOME;
+    }
+
+    @Override
+    public Projecao iniciar(YearMonth mes) {
+        int diasNoMes = mes.lengthOfMonth();
+        return new Projecao() {
+            private long realizado;
+            private int dias;
+
+            @Override
+            public void observar(long centavos) {
+                realizado += centavos;
+                dias++;
+            }
+
+            @Override
+            public long projetarMes() {
+                return dias == 0 ? 0 : Math.round((double) realizado * diasNoMes / dias);
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.dto.FaixaSaldoDTO;
+import br.com.meuGasto.finControl.dto.PrevisaoMonteCarloDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Previsão probabilística do saldo ao fim do mês atual e dos seguintes: os últimos
+ * app.previsao.monte-carlo.dias-historico dias de cada categoria são reamostrados por
+ * {@link SimulacaoMonteCarlo} a partir do saldo realizado no mês até ontem. Hoje ainda está em curso, então
+ * é o primeiro dia simulado e os lançamentos dele ficam de fora. O custo cresce com caminhos x dias
+ * simulados x categorias; caminhos e meses são limitados pela configuração para manter a latência. Só a
+ * leitura do histórico acontece em transação: a simulação roda depois, sem prender a conexão.
+ */
+@Service
+public class PrevisaoMonteCarloService {
+
+    private final PrevisaoService previsaoService;
+    private final AnaliseGastos analiseGastos;
+    private final GastoRepository gastoRepository;
+    private final UsuarioService usuarioService;
+    private final TransactionTemplate leitura;
+    private final int caminhosPadrao;
+    private final int caminhosMaximo;
+    private final int mesesMaximo;
+    private final int diasHistorico;
+    private final int limiteParalelo;
+    private final Timer duracao;
+
+    public PrevisaoMonteCarloService(PrevisaoService previsaoService,
+                                     AnaliseGastos analiseGastos,
+                                     GastoRepository gastoRepository,
+                                     UsuarioService usuarioService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.previsao.monte-carlo.caminhos:10000}") int caminhosPadrao,
+                                     @Value("${app.previsao.monte-carlo.caminhos-maximo:50000}") int caminhosMaximo,
+                                     @Value("${app.previsao.monte-carlo.meses-maximo:12}") int mesesMaximo,
+                                     @Value("${app.previsao.monte-carlo.dias-historico:90}") int diasHistorico,
+                                     @Value("${app.previsao.monte-carlo.limite-paralelo:1000}") int limiteParalelo) {
+        this.previsaoService = previsaoService;
+        this.analiseGastos = analiseGastos;
+        this.gastoRepository = gastoRepository;
+        this.usuarioService = usuarioService;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.caminhosPadrao = caminhosPadrao;
+        this.caminhosMaximo = caminhosMaximo;
+        this.mesesMaximo = mesesMaximo;
+        this.diasHistorico = diasHistorico;
+        this.limiteParalelo = limiteParalelo;
+        this.duracao = Timer.builder("previsao.monte-carlo.duracao")
+                .description("Duração da simulação de Monte Carlo do saldo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Faixas P10/P50/P90 do saldo do usuário logado ao fim de cada um dos próximos meses (o atual incluído).
+     * Meses e caminhos são limitados a app.previsao.monte-carlo.meses-maximo e .caminhos-maximo; sem
+     * caminhos usa app.previsao.monte-carlo.caminhos e sem semente sorteia uma, devolvida na resposta.
+     */
+    public PrevisaoMonteCarloDTO prever(int meses, Integer caminhos, Long semente) {
+        return prever(usuarioService.getIdUsuarioLogado(), LocalDate.now(), meses, caminhos, semente);
+    }
+
+    PrevisaoMonteCarloDTO prever(Long usuarioId, LocalDate hoje, int meses, Integer caminhos, Long semente) {
+        int quantidadeMeses = Math.min(Math.max(meses, 1), mesesMaximo);
+        int quantidadeCaminhos = Math.min(Math.max(caminhos == null ? caminhosPadrao : caminhos, 1), caminhosMaximo);
+        long sementeUsada = semente != null ? semente : ThreadLocalRandom.current().nextLong();
+        YearMonth mesAtual = YearMonth.from(hoje);
+
+        Dados dados = leitura.execute(status -> carregar(usuarioId, hoje));
+        long saldoRealizado = dados.saldoRealizado();
+        SimulacaoMonteCarlo simulacao = new SimulacaoMonteCarlo(dados.historico());
+
+        // dias simulados (a partir de hoje, inclusive) até o fim de cada mês
+        int[] horizontes = new int[quantidadeMeses];
+        for (int i = 0; i < quantidadeMeses; i++) {
+            horizontes[i] = (int) ChronoUnit.DAYS.between(hoje, mesAtual.plusMonths(i).atEndOfMonth()) + 1;
+        }
+        long inicio = System.nanoTime();
+        SimulacaoMonteCarlo.Faixas faixas = simulacao.simular(saldoRealizado, horizontes, quantidadeCaminhos,
+                sementeUsada, limiteParalelo);
+        duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        List<FaixaSaldoDTO> porMes = new ArrayList<>(quantidadeMeses);
+        for (int i = 0; i < quantidadeMeses; i++) {
+            porMes.add(FaixaSaldoDTO.builder()
+                    .mes(mesAtual.plusMonths(i).toString())
+                    .p10(AgregadorCentavos.reais(faixas.p10()[i]))
+                    .p50(AgregadorCentavos.reais(faixas.p50()[i]))
+                    .p90(AgregadorCentavos.reais(faixas.p90()[i]))
+                    .build());
+        }
+        return PrevisaoMonteCarloDTO.builder()
+                .saldoRealizado(AgregadorCentavos.reais(saldoRealizado))
+                .faixas(porMes)
+                .caminhos(quantidadeCaminhos)
+                .semente(sementeUsada)
+                .diasHistorico(diasHistorico)
+                .periodo(mesAtual.toString())
+                .build();
+    }
+
+    private record Dados(long saldoRealizado, long[][] historico) {
+    }
+
+    private Dados carregar(long usuarioId, LocalDate hoje) {
+        long saldoRealizado = 0;
+        // no dia 1 ainda não há nada realizado no mês
+        if (hoje.getDayOfMonth() > 1) {
+            PrevisaoService.PrevisaoMensal realizado = previsaoService.prever(usuarioId, YearMonth.from(hoje), hoje.minusDays(1));
+            saldoRealizado = Arrays.stream(realizado.receitasPorDia()).sum() - Arrays.stream(realizado.despesasPorDia()).sum();
+        }
+        LocalDateTime inicioHistorico = hoje.minusDays(diasHistorico).atStartOfDay();
+        LocalDateTime fimHistorico = hoje.minusDays(1).atTime(LocalTime.MAX);
+        return new Dados(saldoRealizado, historico(usuarioId, inicioHistorico, fimHistorico));
+    }
+
+    private long[][] historico(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        if (analiseGastos.disponivel()) {
+            return analiseGastos.saldoPorCategoriaEDia(usuarioId, inicio, fim);
+        }
+        int dias = (int) ChronoUnit.DAYS.between(inicio.toLocalDate(), fim.toLocalDate()) + 1;
+        // categorias em ordem, para que a mesma semente reproduza as faixas
+        Map<String, long[]> porCategoria = new TreeMap<>();
+        for (Gasto gasto : gastoRepository.findByUsuarioIdAndDataGastoBetween(usuarioId, inicio, fim)) {
+            byte tipo = ColunasGastos.tipo(gasto.getTipo());
+            if (gasto.getValor() == null || tipo == ColunasGastos.OUTRO) {
+                continue;
+            }
+            long centavos = AgregadorCentavos.centavos(gasto.getValor());
+            int dia = (int) ChronoUnit.DAYS.between(inicio.toLocalDate(), gasto.getDataGasto().toLocalDate());
+            porCategoria.computeIfAbsent(String.valueOf(gasto.getCategoria()), categoria -> new long[dias])[dia]
+                    += tipo == ColunasGastos.RECEITA ? centavos : -centavos;
+        }
+        return porCategoria.values().toArray(new long[0][]);
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.config.RecalculoCache;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Previsão do mês de um usuário. Os gastos do início do mês até hoje são lidos uma única vez (das colunas
+ * em memória ou, quando desabilitadas, de uma única consulta) e separados numa passada em totais por dia
+ * e tipo; cada {@link ModeloPrevisao} registrado é então alimentado dia a dia. O resultado de todos os
+ * modelos fica em cache sob o período do mês até hoje e é descartado pelas escritas nesse período
+ * ({@link CacheRelatorios}).
+ */
+@Service
+@RequiredArgsConstructor
+public class PrevisaoService implements RecalculoCache {
+
+    static final String CACHE = "previsoes";
+
+    private final AnaliseGastos analiseGastos;
+    private final GastoRepository gastoRepository;
+    private final List<ModeloPrevisao> modelos;
+
+    /**
+     * Totais diários realizados (índice 0 = dia 1) e projeções do mês de cada modelo, em centavos
+     */
+    public record PrevisaoMensal(YearMonth mes, long[] receitasPorDia, long[] despesasPorDia,
+                                 Map<String, Projecao> projecoes) {
+    }
+
+    /**
+     * Receita e despesa projetadas para o mês inteiro, em centavos
+     */
+    public record Projecao(long receitaCentavos, long despesaCentavos) {
+    }
+
+    /**
+     * Previsão do mês com os gastos realizados até o dia informado (o mês inteiro, se já terminou)
+     */
+    @Cacheable(value = CACHE, key = "@cacheRelatorios.doMesAte(#usuarioId, #mes, #hoje)")
+    @Transactional(readOnly = true)
+    public PrevisaoMensal prever(Long usuarioId, YearMonth mes, LocalDate hoje) {
+        return calcular(usuarioId, mes, hoje);
+    }
+
+    /**
+     * Nomes dos modelos registrados, em ordem alfabética
+     */
+    public Set<String> nomesModelos() {
+        Set<String> nomes = new TreeSet<>();
+        modelos.forEach(modelo -> nomes.add(modelo.nome()));
+        return nomes;
+    }
+
+    @Override
+    public Set<String> caches() {
+        return Set.of(CACHE);
+    }
+
+    @Override
+    public Object recalcular(String cache, Object chave) {
+        CacheRelatorios.Periodo periodo = (CacheRelatorios.Periodo) chave;
+        return calcular(periodo.usuarioId(), YearMonth.from(periodo.inicio()), periodo.fim().toLocalDate());
+    }
+
+    private PrevisaoMensal calcular(long usuarioId, YearMonth mes, LocalDate hoje) {
+        LocalDate ultimoDia = hoje.isBefore(mes.atEndOfMonth()) ? hoje : mes.atEndOfMonth();
+        LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+        LocalDateTime fim = ultimoDia.atTime(LocalTime.MAX);
+        long[][] porTipoEDia = totaisPorTipoEDia(usuarioId, inicio, fim);
+        long[] receitas = porTipoEDia[ColunasGastos.RECEITA];
+        long[] despesas = porTipoEDia[ColunasGastos.DESPESA];
+
+        Map<String, Projecao> projecoes = new LinkedHashMap<>();
+        for (ModeloPrevisao modelo : modelos) {
+            ModeloPrevisao.Projecao receita = modelo.iniciar(mes);
+            ModeloPrevisao.Projecao despesa = modelo.iniciar(mes);
+            for (int dia = 0; dia < receitas.length; dia++) {
+                receita.observar(receitas[dia]);
+                despesa.observar(despesas[dia]);
+            }
+            projecoes.put(modelo.nome(), new Projecao(receita.projetarMes(), despesa.projetarMes()));
+        }
+        return new PrevisaoMensal(mes, receitas, despesas, projecoes);
+    }
+
+    private long[][] totaisPorTipoEDia(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        if (analiseGastos.disponivel()) {
+            return analiseGastos.centavosPorTipoEDia(usuarioId, inicio, fim);
+        }
+        long[][] porTipoEDia = new long[SomasDiarias.TIPOS][(int) (fim.toLocalDate().toEpochDay() - inicio.toLocalDate().toEpochDay()) + 1];
+        for (Gasto gasto : gastoRepository.findByUsuarioIdAndDataGastoBetween(usuarioId, inicio, fim)) {
+            if (gasto.getValor() != null) {
+                porTipoEDia[ColunasGastos.tipo(gasto.getTipo())][gasto.getDataGasto().getDayOfMonth() - 1]
+                        += AgregadorCentavos.centavos(gasto.getValor());
+            }
+        }
+        return porTipoEDia;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Projeção por suavização exponencial simples dos totais diários: o nível acompanha os dias mais recentes
+ * com peso alfa e cada dia restante do mês recebe o nível atual
+ */
+@Component
+public class PrevisaoSuavizacaoExponencial implements ModeloPrevisao {
+
+    private final double alfa;
+
+    public PrevisaoSuavizacaoExponencial(@Value("${app.previsao.suavizacao.alfa:0.3}") double alfa) {
+        if (alfa <= 0 || alfa > 1) {
+            throw new IllegalArgumentException("app.previsao.suavizacao.alfa deve estar em (0, 1]: " + alfa);
+        }
+        this.alfa = alfa;
+    }
+
+    @Override
+    public String nome() {
+        return "suavizacao-exponencial";
+    }
+
+    @Override
+    public Projecao iniciar(YearMonth mes) {
+        int diasNoMes = mes.lengthOfMonth();
+        return new Projecao() {
+            private double nivel;
+            private long realizado;
+            private int dias;
+
+            @Override
+            public void observar(long centavos) {
+                nivel = dias == 0 ? centavos : alfa * centavos + (1 - alfa) * nivel;
+                realizado += centavos;
+                dias++;
+            }
+
+            @Override
+            public long projetarMes() {
+                return dias == 0 ? 0 : realizado + Math.round(nivel * (diasNoMes - dias));
+            }
+        };
+    }
+}
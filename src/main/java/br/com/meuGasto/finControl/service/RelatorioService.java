@@ -1,47 +1,72 @@
 package br.com.meuGasto.finControl.service;
 
-import br.com.meuGasto.finControl.entity.Gasto;
-import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.config.RecalculoCache;
+import br.com.meuGasto.finControl.repository.LinhaResumo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
+import java.util.Set;
+
+/**
+ * Relatórios de um usuário somados sobre as colunas em memória ({@link AnaliseGastos}) ou, quando
+ * desabilitadas, a partir dos consolidados. Cada cache é chaveado pelo usuário e pelo período
+ * normalizado que o relatório cobre ({@link CacheRelatorios.Periodo}) e invalidado pelas escritas de
+ * gastos que caem nesse período; com refreshAfterWrite, as entradas são recalculadas em segundo plano
+ * a partir da chave ({@link #recalcular}).
+ */
 @Service
 @RequiredArgsConstructor
-public class RelatorioService {
-
-    private final GastoRepository gastoRepository;
-
-    @Cacheable("estatisticasPorCategoria")
-    public Map<String, BigDecimal> getGastosPorCategoria(LocalDateTime inicio, LocalDateTime fim) {
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, fim);
-        return gastos.stream()
-                .collect(Collectors.groupingBy(
-                        Gasto::getCategoria,
-                        Collectors.reducing(BigDecimal.ZERO,
-                                Gasto::getValor,
-                                BigDecimal::add)));
+public class RelatorioService implements RecalculoCache {
+
+    private final ResumoGastoService resumoGastoService;
+    private final AnaliseGastos analiseGastos;
+
+    @Cacheable(value = "estatisticasPorCategoria", key = "@cacheRelatorios.doIntervalo(#usuarioId, #inicio, #fim)")
+    public Map<String, BigDecimal> getGastosPorCategoria(Long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        return agregarPorCategoria(usuarioId, inicio, fim).totaisEmReais();
     }
 
-    @Cacheable("estatisticasMensais")
-    public Map<String, Object> getEstatisticasMensais(LocalDateTime mes) {
-        LocalDateTime inicioDeMes = mes.withDayOfMonth(1).withHour(0).withMinute(0);
-        LocalDateTime fimDeMes = mes.withDayOfMonth(mes.toLocalDate().lengthOfMonth()).withHour(23).withMinute(59);
+    @Cacheable(value = "estatisticasMensais", key = "@cacheRelatorios.doMes(#usuarioId, #mes)")
+    public Map<String, Object> getEstatisticasMensais(Long usuarioId, YearMonth mes) {
+        return calcularEstatisticas(usuarioId, mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(LocalTime.MAX));
+    }
 
-        List<Gasto> gastosDoMes = gastoRepository.findByDataGastoBetween(inicioDeMes, fimDeMes);
+    @Cacheable(value = "tendencias", key = "@cacheRelatorios.ultimosMeses(#usuarioId, #mesesAnteriores)")
+    public Map<String, Object> analisarTendencias(Long usuarioId, int mesesAnteriores) {
+        // dias inteiros, para que a chave (e o resultado) só mude na virada do dia
+        LocalDate hoje = LocalDate.now();
+        return calcularTendencias(usuarioId, hoje.minusMonths(mesesAnteriores).atStartOfDay(), hoje.atTime(LocalTime.MAX));
+    }
 
-        BigDecimal totalGasto = gastosDoMes.stream()
-                .map(Gasto::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public Set<String> caches() {
+        return Set.copyOf(CacheRelatorios.RELATORIOS);
+    }
+
+    @Override
+    public Object recalcular(String cache, Object chave) {
+        CacheRelatorios.Periodo periodo = (CacheRelatorios.Periodo) chave;
+        return switch (cache) {
+            case "estatisticasPorCategoria" ->
+                    agregarPorCategoria(periodo.usuarioId(), periodo.inicio(), periodo.fim()).totaisEmReais();
+            case "estatisticasMensais" -> calcularEstatisticas(periodo.usuarioId(), periodo.inicio(), periodo.fim());
+            case "tendencias" -> calcularTendencias(periodo.usuarioId(), periodo.inicio(), periodo.fim());
+            default -> throw new IllegalArgumentException("Cache sem recálculo: " + cache);
+        };
+    }
 
-        Map<String, BigDecimal> gastoPorCategoria = getGastosPorCategoria(inicioDeMes, fimDeMes);
+    private Map<String, Object> calcularEstatisticas(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        AgregadorCentavos porCategoria = agregarPorCategoria(usuarioId, inicio, fim);
+        Map<String, BigDecimal> gastoPorCategoria = porCategoria.totaisEmReais();
 
         String categoriaMaisCara = gastoPorCategoria.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
@@ -49,39 +74,50 @@ public class RelatorioService {
                 .orElse("Nenhuma");
 
         Map<String, Object> estatisticas = new HashMap<>();
-        estatisticas.put("totalGasto", totalGasto);
+        estatisticas.put("totalGasto", porCategoria.getTotal());
         estatisticas.put("gastoPorCategoria", gastoPorCategoria);
         estatisticas.put("categoriaMaisCara", categoriaMaisCara);
-        estatisticas.put("quantidadeGastos", gastosDoMes.size());
+        estatisticas.put("quantidadeGastos", (int) porCategoria.getQuantidade());
 
         return estatisticas;
     }
 
-    @Cacheable("tendencias")
-    public Map<String, Object> analisarTendencias(int mesesAnteriores) {
-        LocalDateTime agora = LocalDateTime.now();
-        LocalDateTime inicio = agora.minusMonths(mesesAnteriores);
-
-        List<Gasto> gastos = gastoRepository.findByDataGastoBetween(inicio, agora);
-
-        // Análise de tendência mensal
-        Map<String, BigDecimal> gastosPorMes = gastos.stream()
-                .collect(Collectors.groupingBy(
-                        gasto -> gasto.getDataGasto().getMonth().toString(),
-                        Collectors.reducing(BigDecimal.ZERO,
-                                Gasto::getValor,
-                                BigDecimal::add)));
-
-        // Categorias mais frequentes
-        Map<String, Long> categoriasMaisFrequentes = gastos.stream()
-                .collect(Collectors.groupingBy(
-                        Gasto::getCategoria,
-                        Collectors.counting()));
+    private Map<String, Object> calcularTendencias(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        AgregadorCentavos porMes;
+        AgregadorCentavos porCategoria;
+        if (analiseGastos.disponivel()) {
+            porMes = analiseGastos.porMesDoAno(usuarioId, inicio, fim);
+            porCategoria = analiseGastos.porCategoria(usuarioId, inicio, fim);
+        } else {
+            List<LinhaResumo> resumo = resumoGastoService.resumir(usuarioId, inicio, fim);
+            // Análise de tendência mensal
+            porMes = new AgregadorCentavos();
+            for (LinhaResumo linha : resumo) {
+                porMes.somar(linha.periodo().getMonth().toString(), linha.totalCentavos(), linha.quantidade());
+            }
+            porCategoria = agregarPorCategoria(resumo);
+        }
 
         Map<String, Object> tendencias = new HashMap<>();
-        tendencias.put("gastosPorMes", gastosPorMes);
-        tendencias.put("categoriasMaisFrequentes", categoriasMaisFrequentes);
+        tendencias.put("gastosPorMes", porMes.totaisEmReais());
+        // Categorias mais frequentes
+        tendencias.put("categoriasMaisFrequentes", porCategoria.quantidades());
 
         return tendencias;
     }
+
+    private AgregadorCentavos agregarPorCategoria(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        if (analiseGastos.disponivel()) {
+            return analiseGastos.porCategoria(usuarioId, inicio, fim);
+        }
+        return agregarPorCategoria(resumoGastoService.resumir(usuarioId, inicio, fim));
+    }
+
+    private static AgregadorCentavos agregarPorCategoria(List<LinhaResumo> resumo) {
+        AgregadorCentavos porCategoria = new AgregadorCentavos();
+        for (LinhaResumo linha : resumo) {
+            porCategoria.somar(linha.categoria(), linha.totalCentavos(), linha.quantidade());
+        }
+        return porCategoria;
+    }
 }
@@ -0,0 +1,257 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.LinhaResumo;
+import br.com.meuGasto.finControl.repository.ResumoGastoRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Consolidados diários e mensais de gastos por usuário, categoria e tipo.
+ *
+ * As escritas de GastoService e MovimentacaoService aplicam aqui o delta de cada alteração, na mesma
+ * transação, e os relatórios leem os consolidados em vez de percorrer os gastos do período. Os dias
+ * alterados invalidam, após o commit, os relatórios em cache que os incluem ({@link CacheRelatorios}),
+ * toda escrita avança a {@link VersaoDados} do dono do gasto e é repassada às colunas em memória
+ * ({@link AnaliseGastos}).
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumoGastoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoGastoService.class);
+    // último instante representável de um dia (data_gasto é gravado em milissegundos)
+    private static final LocalTime FIM_DO_DIA = LocalTime.of(23, 59, 59, 999_000_000);
+
+    private final ResumoGastoRepository resumoGastoRepository;
+    private final CacheRelatorios cacheRelatorios;
+    private final VersaoDados versaoDados;
+    private final AnaliseGastos analiseGastos;
+
+    /**
+     * Valores de um gasto que compõem os consolidados, capturados antes de uma alteração
+     */
+    public record Lancamento(Long id, long usuarioId, LocalDate dia, String categoria, String tipo, long centavos) {
+
+        public static Lancamento de(Gasto gasto) {
+            if (gasto == null || gasto.getUsuarioId() == null || gasto.getDataGasto() == null || gasto.getValor() == null) {
+                return null;
+            }
+            return new Lancamento(gasto.getId(), gasto.getUsuarioId(), gasto.getDataGasto().toLocalDate(), gasto.getCategoria(), gasto.getTipo(),
+                    ResumoGastoRepository.paraCentavos(gasto.getValor()));
+        }
+    }
+
+    private record Chave(long usuarioId, LocalDate dia, String categoria, String tipo) {
+    }
+
+    /**
+     * Inclui um gasto novo nos consolidados
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Gasto gasto) {
+        aplicar(Lancamento.de(gasto), 1);
+        analiseGastos.incluir(List.of(gasto));
+    }
+
+    /**
+     * Inclui vários gastos novos, aplicando um único delta por dia, categoria e tipo
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTodos(Collection<Gasto> gastos) {
+        Map<Chave, long[]> deltas = new HashMap<>();
+        Map<Long, Set<LocalDate>> diasPorUsuario = new HashMap<>();
+        for (Gasto gasto : gastos) {
+            Lancamento lancamento = Lancamento.de(gasto);
+            if (lancamento == null) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(
+                    new Chave(lancamento.usuarioId(), lancamento.dia(), lancamento.categoria(), lancamento.tipo()), k -> new long[2]);
+            delta[0] += lancamento.centavos();
+            delta[1]++;
+            diasPorUsuario.computeIfAbsent(lancamento.usuarioId(), k -> new HashSet<>()).add(lancamento.dia());
+        }
+        deltas.forEach((chave, delta) -> resumoGastoRepository.aplicar(chave.usuarioId(), chave.dia(), chave.categoria(), chave.tipo(),
+                delta[0], (int) delta[1]));
+        List<CacheRelatorios.Alteracao> alteracoes = new ArrayList<>();
+        diasPorUsuario.forEach((usuarioId, dias) -> {
+            alteracoes.add(new CacheRelatorios.Alteracao(usuarioId, dias));
+            versaoDados.incrementar(usuarioId);
+        });
+        cacheRelatorios.invalidar(alteracoes);
+        analiseGastos.incluir(gastos);
+    }
+
+    /**
+     * Retira dos consolidados os valores de um gasto excluído
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remover(Lancamento anterior) {
+        aplicar(anterior, -1);
+        analiseGastos.remover(anterior);
+    }
+
+    /**
+     * Troca os valores anteriores de um gasto pelos atuais
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void atualizar(Lancamento anterior, Gasto atual) {
+        Lancamento novo = Lancamento.de(atual);
+        // as colunas em memória guardam também a hora, que não entra na comparação abaixo
+        analiseGastos.substituir(anterior, atual);
+        if (Objects.equals(anterior, novo)) {
+            // consolidados intactos, mas outros campos (descrição, observações) mudaram
+            if (atual.getUsuarioId() != null) {
+                versaoDados.incrementar(atual.getUsuarioId());
+            }
+            return;
+        }
+        aplicar(anterior, -1);
+        aplicar(novo, 1);
+    }
+
+    /**
+     * Consolidado do usuário no intervalo [inicio, fim] por categoria e tipo.
+     *
+     * Meses inteiros vêm do consolidado mensal, dias inteiros do diário e apenas as frações de dia
+     * nas pontas são somadas a partir dos gastos, de modo que o custo depende da quantidade de
+     * dias e categorias do período e não da quantidade de lançamentos. O período de cada linha é
+     * o dia ou, para linhas mensais, o primeiro dia do mês.
+     */
+    @Transactional(readOnly = true)
+    public List<LinhaResumo> resumir(long usuarioId, LocalDateTime inicio, LocalDateTime fim) {
+        List<LinhaResumo> linhas = new ArrayList<>();
+        if (fim.isBefore(inicio)) {
+            return linhas;
+        }
+
+        LocalDate primeiroDiaInteiro = inicio.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? inicio.toLocalDate() : inicio.toLocalDate().plusDays(1);
+        LocalDate ultimoDiaInteiro = fim.toLocalTime().isBefore(FIM_DO_DIA)
+                ? fim.toLocalDate().minusDays(1) : fim.toLocalDate();
+
+        if (primeiroDiaInteiro.isAfter(ultimoDiaInteiro)) {
+            // menos de um dia inteiro no período
+            linhas.addAll(resumoGastoRepository.somarGastos(usuarioId, inicio, fim));
+            return linhas;
+        }
+
+        if (inicio.isBefore(primeiroDiaInteiro.atStartOfDay())) {
+            linhas.addAll(resumoGastoRepository.somarGastos(usuarioId, inicio, primeiroDiaInteiro.atStartOfDay().minusNanos(1)));
+        }
+        if (fim.toLocalDate().isAfter(ultimoDiaInteiro)) {
+            linhas.addAll(resumoGastoRepository.somarGastos(usuarioId, ultimoDiaInteiro.plusDays(1).atStartOfDay(), fim));
+        }
+
+        YearMonth primeiroMesInteiro = primeiroDiaInteiro.getDayOfMonth() == 1
+                ? YearMonth.from(primeiroDiaInteiro) : YearMonth.from(primeiroDiaInteiro).plusMonths(1);
+        YearMonth ultimoMesInteiro = ultimoDiaInteiro.equals(YearMonth.from(ultimoDiaInteiro).atEndOfMonth())
+                ? YearMonth.from(ultimoDiaInteiro) : YearMonth.from(ultimoDiaInteiro).minusMonths(1);
+
+        if (primeiroMesInteiro.isAfter(ultimoMesInteiro)) {
+            linhas.addAll(resumoGastoRepository.buscarDias(usuarioId, primeiroDiaInteiro, ultimoDiaInteiro));
+            return linhas;
+        }
+
+        if (primeiroDiaInteiro.isBefore(primeiroMesInteiro.atDay(1))) {
+            linhas.addAll(resumoGastoRepository.buscarDias(usuarioId, primeiroDiaInteiro, primeiroMesInteiro.atDay(1).minusDays(1)));
+        }
+        linhas.addAll(resumoGastoRepository.buscarMeses(usuarioId, primeiroMesInteiro, ultimoMesInteiro));
+        if (ultimoDiaInteiro.isAfter(ultimoMesInteiro.atEndOfMonth())) {
+            linhas.addAll(resumoGastoRepository.buscarDias(usuarioId, ultimoMesInteiro.plusMonths(1).atDay(1), ultimoDiaInteiro));
+        }
+        return linhas;
+    }
+
+    /**
+     * Recalcula os consolidados a partir de todos os gastos
+     */
+    @Transactional
+    public void reconstruir() {
+        resumoGastoRepository.reconstruir();
+        cacheRelatorios.limpar();
+        analiseGastos.recarregar();
+        log.info("Consolidados de gastos reconstruídos");
+    }
+
+    /**
+     * Compara os consolidados gravados com o recálculo a partir dos gastos e devolve as divergências
+     * encontradas (lista vazia quando consistentes)
+     */
+    @Transactional(readOnly = true)
+    public List<String> verificarConsistencia() {
+        List<LinhaResumo> esperadoDias = resumoGastoRepository.calcularDiasAPartirDosGastos();
+
+        Map<String, LinhaResumo> esperadoMeses = new HashMap<>();
+        for (LinhaResumo dia : esperadoDias) {
+            LocalDate mes = dia.periodo().withDayOfMonth(1);
+            esperadoMeses.merge(chave(mes, dia),
+                    new LinhaResumo(dia.usuarioId(), mes, dia.categoria(), dia.tipo(), dia.totalCentavos(), dia.quantidade()),
+                    (a, b) -> new LinhaResumo(a.usuarioId(), mes, a.categoria(), a.tipo(),
+                            a.totalCentavos() + b.totalCentavos(), a.quantidade() + b.quantidade()));
+        }
+
+        List<String> divergencias = new ArrayList<>();
+        comparar("diário", indexar(esperadoDias), indexar(resumoGastoRepository.buscarTodosDias()), divergencias);
+        comparar("mensal", esperadoMeses, indexar(resumoGastoRepository.buscarTodosMeses()), divergencias);
+
+        if (!divergencias.isEmpty()) {
+            log.warn("Consolidados de gastos com {} divergência(s)", divergencias.size());
+        }
+        return divergencias;
+    }
+
+    private void aplicar(Lancamento lancamento, int sinal) {
+        if (lancamento == null) {
+            return;
+        }
+        resumoGastoRepository.aplicar(lancamento.usuarioId(), lancamento.dia(), lancamento.categoria(), lancamento.tipo(),
+                sinal * lancamento.centavos(), sinal);
+        cacheRelatorios.invalidar(List.of(new CacheRelatorios.Alteracao(lancamento.usuarioId(), Set.of(lancamento.dia()))));
+        versaoDados.incrementar(lancamento.usuarioId());
+    }
+
+    private static void comparar(String consolidado, Map<String, LinhaResumo> esperado, Map<String, LinhaResumo> gravado,
+                                 List<String> divergencias) {
+        esperado.forEach((chave, linha) -> {
+            LinhaResumo atual = gravado.get(chave);
+            if (atual == null) {
+                divergencias.add(String.format("Consolidado %s ausente para %s: esperado %s (%d)", consolidado, chave, linha.total(), linha.quantidade()));
+            } else if (atual.totalCentavos() != linha.totalCentavos() || atual.quantidade() != linha.quantidade()) {
+                divergencias.add(String.format("Consolidado %s divergente para %s: gravado %s (%d), esperado %s (%d)",
+                        consolidado, chave, atual.total(), atual.quantidade(), linha.total(), linha.quantidade()));
+            }
+        });
+        gravado.keySet().stream()
+                .filter(chave -> !esperado.containsKey(chave))
+                .forEach(chave -> divergencias.add(String.format("Consolidado %s sem gastos correspondentes: %s", consolidado, chave)));
+    }
+
+    private static Map<String, LinhaResumo> indexar(List<LinhaResumo> linhas) {
+        Map<String, LinhaResumo> indice = new HashMap<>();
+        linhas.forEach(linha -> indice.put(chave(linha.periodo(), linha), linha));
+        return indice;
+    }
+
+    private static String chave(LocalDate periodo, LinhaResumo linha) {
+        return linha.usuarioId() + "/" + periodo + "/" + linha.categoria() + "/" + linha.tipo();
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.meuGasto.finControl.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulação de Monte Carlo do saldo futuro por reamostragem (bootstrap) do histórico diário por
+ * categoria: em cada dia simulado, cada categoria soma o saldo de um dia do histórico sorteado para ela.
+ *
+ * Os caminhos são divididos em blocos simulados em paralelo no pool comum de fork-join, cada bloco com o
+ * próprio {@link SplittableRandom}. Os geradores são derivados da semente pela divisão da árvore de
+ * tarefas, que depende só do número de caminhos e do tamanho do bloco, então a mesma semente dá as
+ * mesmas faixas em qualquer número de threads. Histórico e saldos ficam em arrays primitivos.
+ */
+public final class SimulacaoMonteCarlo {
+
+    private final int categorias;
+    private final int diasHistorico;
+    // amostras[categoria * diasHistorico + dia]: saldo da categoria naquele dia do histórico, em centavos
+    private final long[] amostras;
+
+    /**
+     * @param saldoPorCategoriaEDia saldo em centavos de cada categoria (linha) em cada dia do histórico
+     *                              (coluna); todas as linhas com o mesmo número de dias
+     */
+    public SimulacaoMonteCarlo(long[][] saldoPorCategoriaEDia) {
+        this.categorias = saldoPorCategoriaEDia.length;
+        this.diasHistorico = categorias == 0 ? 0 : saldoPorCategoriaEDia[0].length;
+        this.amostras = new long[categorias * diasHistorico];
+        for (int categoria = 0; categoria < categorias; categoria++) {
+            if (saldoPorCategoriaEDia[categoria].length != diasHistorico) {
+                throw new IllegalArgumentException("Histórico com número de dias diferente por categoria");
+            }
+            System.arraycopy(saldoPorCategoriaEDia[categoria], 0, amostras, categoria * diasHistorico, diasHistorico);
+        }
+    }
+
+    /**
+     * Percentis 10, 50 e 90 do saldo simulado em cada horizonte, em centavos
+     */
+    public record Faixas(long[] p10, long[] p50, long[] p90) {
+    }
+
+    /**
+     * Simula os caminhos partindo do saldo inicial e devolve as faixas do saldo ao fim de cada horizonte
+     *
+     * @param horizontes     dias simulados até cada ponto de interesse, em ordem não decrescente
+     * @param caminhos       número de caminhos (maior que zero)
+     * @param semente        semente dos sorteios
+     * @param limiteParalelo caminhos por bloco; acima disso os caminhos são divididos em tarefas
+     */
+    public Faixas simular(long saldoInicial, int[] horizontes, int caminhos, long semente, int limiteParalelo) {
+        if (caminhos <= 0) {
+            throw new IllegalArgumentException("Número de caminhos deve ser positivo: " + caminhos);
+        }
+        for (int i = 1; i < horizontes.length; i++) {
+            if (horizontes[i] < horizontes[i - 1]) {
+                throw new IllegalArgumentException("Horizontes devem estar em ordem: " + Arrays.toString(horizontes));
+            }
+        }
+        // saldos[horizonte * caminhos + caminho]
+        long[] saldos = new long[horizontes.length * caminhos];
+        ForkJoinPool.commonPool().invoke(new TarefaCaminhos(this, saldoInicial, horizontes, saldos, caminhos,
+                0, caminhos, new SplittableRandom(semente), Math.max(limiteParalelo, 1)));
+
+        long[] p10 = new long[horizontes.length];
+        long[] p50 = new long[horizontes.length];
+        long[] p90 = new long[horizontes.length];
+        for (int h = 0; h < horizontes.length; h++) {
+            int de = h * caminhos;
+            Arrays.sort(saldos, de, de + caminhos);
+            p10[h] = saldos[de + posicaoPercentil(10, caminhos)];
+            p50[h] = saldos[de + posicaoPercentil(50, caminhos)];
+            p90[h] = saldos[de + posicaoPercentil(90, caminhos)];
+        }
+        return new Faixas(p10, p50, p90);
+    }
+
+    /**
+     * Posição do percentil (pelo posto mais próximo) numa amostra ordenada de n valores
+     */
+    static int posicaoPercentil(int percentil, int n) {
+        return Math.max((int) Math.ceil(percentil / 100.0 * n) - 1, 0);
+    }
+
+    private void simularSequencial(long saldoInicial, int[] horizontes, long[] saldos, int caminhos,
+                                   int de, int ate, SplittableRandom random) {
+        for (int caminho = de; caminho < ate; caminho++) {
+            long saldo = saldoInicial;
+            int dia = 0;
+            for (int h = 0; h < horizontes.length; h++) {
+                for (; dia < horizontes[h]; dia++) {
+                    for (int inicio = 0; inicio < amostras.length; inicio += diasHistorico) {
+                        saldo += amostras[inicio + random.nextInt(diasHistorico)];
+                    }
+                }
+                saldos[h * caminhos + caminho] = saldo;
+            }
+        }
+    }
+
+    private static final class TarefaCaminhos extends RecursiveAction {
+
+        private final SimulacaoMonteCarlo simulacao;
+        private final long saldoInicial;
+        private final int[] horizontes;
+        private final long[] saldos;
+        private final int caminhos;
+        private final int de;
+        private final int ate;
+        private final SplittableRandom random;
+        private final int limite;
+
+        TarefaCaminhos(SimulacaoMonteCarlo simulacao, long saldoInicial, int[] horizontes, long[] saldos,
+                       int caminhos, int de, int ate, SplittableRandom random, int limite) {
+            this.simulacao = simulacao;
+            this.saldoInicial = saldoInicial;
+            this.horizontes = horizontes;
+            this.saldos = saldos;
+            this.caminhos = caminhos;
+            this.de = de;
+            this.ate = ate;
+            this.random = random;
+            this.limite = limite;
+        }
+
+        @Override
+        protected void compute() {
+            if (ate - de <= limite) {
+                simulacao.simularSequencial(saldoInicial, horizontes, saldos, caminhos, de, ate, random);
+                return;
+            }
+            int meio = (de + ate) >>> 1;
+            // a divisão acontece antes de qualquer fork: cada bloco recebe sempre o mesmo gerador
+            TarefaCaminhos direita = new TarefaCaminhos(simulacao, saldoInicial, horizontes, saldos, caminhos,
+                    meio, ate, random.split(), limite);
+            TarefaCaminhos esquerda = new TarefaCaminhos(simulacao, saldoInicial, horizontes, saldos, caminhos,
+                    de, meio, random, limite);
+            invokeAll(esquerda, direita);
+        }
+    }
+}
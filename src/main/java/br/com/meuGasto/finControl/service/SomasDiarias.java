@@ -0,0 +1,115 @@
+package br.com.meuGasto.finControl.service;
+
+/**
+ * Totais diários em centavos por tipo de gasto, guardados em árvores de Fenwick (uma por tipo) sobre os
+ * dias de [primeiroDia, primeiroDia + dias). O total de qualquer intervalo de dias sai de duas somas de
+ * prefixo em O(log d), sem percorrer os gastos.
+ *
+ * Imutável: {@link #com} devolve uma cópia com os deltas aplicados, no mesmo esquema de cópia na escrita
+ * das {@link ColunasGastos}. Tipos são índices em [0, {@link #TIPOS}); um tipo negativo soma todos.
+ */
+public final class SomasDiarias {
+
+    public static final int TIPOS = 3;
+
+    static final SomasDiarias VAZIA = new SomasDiarias(0, 0, new long[TIPOS][1]);
+
+    private final int primeiroDia;
+    private final int dias;
+    // arvores[tipo][i], 1 <= i <= dias: soma dos (i & -i) dias terminados no dia i - 1
+    private final long[][] arvores;
+
+    private SomasDiarias(int primeiroDia, int dias, long[][] arvores) {
+        this.primeiroDia = primeiroDia;
+        this.dias = dias;
+        this.arvores = arvores;
+    }
+
+    /**
+     * Constrói, em O(n + d), as somas dos lançamentos (dia em epoch day, centavos e tipo) cobrindo os dias
+     * de [primeiroDia, primeiroDia + dias); lançamentos fora dessa faixa são ignorados
+     */
+    public static SomasDiarias de(int primeiroDia, int dias, int[] diaDeCada, long[] centavos, byte[] tipos, int tamanho) {
+        long[][] arvores = new long[TIPOS][dias + 1];
+        for (int i = 0; i < tamanho; i++) {
+            int indice = diaDeCada[i] - primeiroDia;
+            if (indice >= 0 && indice < dias) {
+                arvores[tipos[i]][indice + 1] += centavos[i];
+            }
+        }
+        for (long[] arvore : arvores) {
+            for (int i = 1; i <= dias; i++) {
+                int pai = i + (i & -i);
+                if (pai <= dias) {
+                    arvore[pai] += arvore[i];
+                }
+            }
+        }
+        return new SomasDiarias(primeiroDia, dias, arvores);
+    }
+
+    public int primeiroDia() {
+        return primeiroDia;
+    }
+
+    public int dias() {
+        return dias;
+    }
+
+    public boolean cobre(int dia) {
+        return dia >= primeiroDia && dia - primeiroDia < dias;
+    }
+
+    long bytes() {
+        return (long) TIPOS * (dias + 1) * Long.BYTES;
+    }
+
+    /**
+     * Cópia com os deltas (dia, tipo e centavos de cada posição) aplicados, cada um em O(log d); todos os
+     * dias devem estar cobertos
+     */
+    public SomasDiarias com(int[] diaDeCada, byte[] tipos, long[] deltas, int tamanho) {
+        long[][] copias = new long[TIPOS][];
+        for (int tipo = 0; tipo < TIPOS; tipo++) {
+            copias[tipo] = arvores[tipo].clone();
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (!cobre(diaDeCada[i])) {
+                throw new IllegalArgumentException("Dia fora das somas diárias: " + diaDeCada[i]);
+            }
+            long[] arvore = copias[tipos[i]];
+            for (int j = diaDeCada[i] - primeiroDia + 1; j <= dias; j += j & -j) {
+                arvore[j] += deltas[i];
+            }
+        }
+        return new SomasDiarias(primeiroDia, dias, copias);
+    }
+
+    /**
+     * Centavos do tipo (ou de todos, se negativo) nos dias de [deDia, ateDia], em epoch day; dias fora da
+     * faixa coberta somam zero
+     */
+    public long total(int tipo, int deDia, int ateDia) {
+        int de = Math.max(deDia, primeiroDia) - primeiroDia;
+        int ate = Math.min(ateDia, primeiroDia + dias - 1) - primeiroDia;
+        if (de > ate) {
+            return 0;
+        }
+        if (tipo >= 0) {
+            return prefixo(arvores[tipo], ate + 1) - prefixo(arvores[tipo], de);
+        }
+        long total = 0;
+        for (long[] arvore : arvores) {
+            total += prefixo(arvore, ate + 1) - prefixo(arvore, de);
+        }
+        return total;
+    }
+
+    private static long prefixo(long[] arvore, int quantidade) {
+        long soma = 0;
+        for (int i = quantidade; i > 0; i -= i & -i) {
+            soma += arvore[i];
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Usuário da sessão: além do email, guarda o id usado para filtrar os dados do usuário
+ * sem consultar a tabela de usuários a cada operação.
+ */
+public class UsuarioAutenticado extends User {
+
+    private final Long id;
+
+    public UsuarioAutenticado(Long id, String email, String senha, Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, senha, true, authorities);
+    }
+
+    public UsuarioAutenticado(Long id, String email, String senha, boolean ativo,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(email, senha, ativo, true, true, true, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
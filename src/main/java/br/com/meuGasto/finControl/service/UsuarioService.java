@@ -3,9 +3,12 @@ package br.com.meuGasto.finControl.service;
 import br.com.meuGasto.finControl.entity.Usuario;
 import br.com.meuGasto.finControl.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -17,6 +20,9 @@ public class UsuarioService {
     
     @Autowired
     private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CacheUsuariosAutenticados usuariosAutenticados;
     
     /**
      * Salva um novo usuário (senha deve vir já criptografada)
@@ -33,6 +39,14 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
     
+    /**
+     * Lista até {@code tamanho} usuários ativos com id maior que {@code aposId}, em ordem de id
+     */
+    @Transactional(readOnly = true)
+    public List<Usuario> listarAtivosAposId(long aposId, int tamanho) {
+        return usuarioRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(aposId, PageRequest.of(0, tamanho));
+    }
+
     /**
      * Busca um usuário por ID
      */
@@ -63,6 +77,9 @@ public class UsuarioService {
     public Usuario atualizar(Long id, Usuario usuarioAtualizado) {
         return usuarioRepository.findById(id)
                 .map(usuarioExistente -> {
+                    // o email pode mudar: descarta a entrada do anterior e a do novo
+                    usuariosAutenticados.invalidar(usuarioExistente.getEmail());
+                    usuariosAutenticados.invalidar(usuarioAtualizado.getEmail());
                     usuarioExistente.setNome(usuarioAtualizado.getNome());
                     usuarioExistente.setEmail(usuarioAtualizado.getEmail());
                     if (usuarioAtualizado.getSenha() != null && !usuarioAtualizado.getSenha().isEmpty()) {
@@ -79,10 +96,10 @@ public class UsuarioService {
      * Exclui um usuário por ID
      */
     public void excluir(Long id) {
-        if (!usuarioRepository.existsById(id)) {
-            throw new RuntimeException("Usuário não encontrado com ID: " + id);
-        }
-        usuarioRepository.deleteById(id);
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com ID: " + id));
+        usuariosAutenticados.invalidar(usuario.getEmail());
+        usuarioRepository.delete(usuario);
     }
     
     /**
@@ -92,6 +109,7 @@ public class UsuarioService {
         usuarioRepository.findById(id)
                 .ifPresentOrElse(usuario -> {
                     usuario.setAtivo(false);
+                    usuariosAutenticados.invalidar(usuario.getEmail());
                     usuario.setDataAtualizacao(java.time.LocalDateTime.now());
                     usuarioRepository.save(usuario);
                 }, () -> {
@@ -106,6 +124,7 @@ public class UsuarioService {
         usuarioRepository.findById(id)
                 .ifPresentOrElse(usuario -> {
                     usuario.setAtivo(true);
+                    usuariosAutenticados.invalidar(usuario.getEmail());
                     usuario.setDataAtualizacao(java.time.LocalDateTime.now());
                     usuarioRepository.save(usuario);
                 }, () -> {
@@ -150,4 +169,22 @@ public class UsuarioService {
         }
         return null;
     }
+
+    /**
+     * Obtém o id do usuário logado, dono dos gastos, metas e planejamentos consultados
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Long getIdUsuarioLogado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = autenticacao != null ? autenticacao.getPrincipal() : null;
+        if (principal instanceof UsuarioAutenticado usuario) {
+            return usuario.getId();
+        }
+        if (principal instanceof UserDetails detalhes) {
+            return usuarioRepository.findByEmail(detalhes.getUsername())
+                    .map(Usuario::getId)
+                    .orElseThrow(() -> new IllegalStateException("Usuário logado não encontrado: " + detalhes.getUsername()));
+        }
+        throw new IllegalStateException("Nenhum usuário autenticado");
+    }
 }
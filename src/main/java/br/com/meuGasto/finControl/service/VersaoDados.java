@@ -0,0 +1,57 @@
+package br.com.meuGasto.finControl.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão dos dados de cada usuário: um contador crescente, incrementado após o commit de toda escrita
+ * de gastos, metas e planejamentos. Serve de ETag forte para as consultas de leitura, que respondem
+ * 304 sem consultar o banco enquanto a versão não muda.
+ */
+@Component
+public class VersaoDados {
+
+    // os contadores vivem em memória: a instância entra na ETag para que versões de antes de um
+    // reinício não coincidam com as novas
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    public long atual(long usuarioId) {
+        AtomicLong versao = versoes.get(usuarioId);
+        return versao == null ? 0 : versao.get();
+    }
+
+    /**
+     * Avança a versão do usuário; dentro de uma transação, só depois do commit, para que uma leitura
+     * concorrente não associe os dados anteriores à nova versão
+     */
+    public void incrementar(long usuarioId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    avancar(usuarioId);
+                }
+            });
+        } else {
+            avancar(usuarioId);
+        }
+    }
+
+    /**
+     * ETag dos dados do usuário; inclui o dia atual porque parte das consultas é relativa a hoje
+     */
+    public String etag(long usuarioId) {
+        return "\"" + usuarioId + "-" + instancia + "-" + atual(usuarioId) + "-" + LocalDate.now().toEpochDay() + "\"";
+    }
+
+    private void avancar(long usuarioId) {
+        versoes.computeIfAbsent(usuarioId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
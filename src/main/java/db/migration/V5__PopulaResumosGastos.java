@@ -0,0 +1,66 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preenche os consolidados a partir dos gastos já existentes. Feito em Java porque o dia de
+ * cada gasto depende do fuso da aplicação, o mesmo usado pelo Hibernate ao gravar data_gasto.
+ *
+ * Só JDBC sobre o esquema da versão 4 (consolidados sem usuario_id), sem classes da aplicação:
+ * o resultado desta versão não pode mudar quando o repositório ou o esquema evoluírem.
+ */
+public class V5__PopulaResumosGastos extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) {
+        // usa a conexão da própria migração: com SQLite há uma única conexão de escrita
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        Map<List<String>, long[]> dias = new HashMap<>();
+        jdbcTemplate.query("SELECT data_gasto, categoria, tipo, valor FROM gastos WHERE data_gasto IS NOT NULL", rs -> {
+            Timestamp data = rs.getTimestamp(1);
+            BigDecimal valor = rs.getBigDecimal(4);
+            if (data == null || valor == null) {
+                return;
+            }
+            long[] soma = dias.computeIfAbsent(
+                    List.of(data.toLocalDateTime().toLocalDate().toString(), rs.getString(2), rs.getString(3)), k -> new long[2]);
+            soma[0] += valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            soma[1]++;
+        });
+
+        Map<List<String>, long[]> meses = new HashMap<>();
+        dias.forEach((chave, soma) -> {
+            long[] mes = meses.computeIfAbsent(
+                    List.of(YearMonth.from(LocalDate.parse(chave.get(0))).toString(), chave.get(1), chave.get(2)), k -> new long[2]);
+            mes[0] += soma[0];
+            mes[1] += soma[1];
+        });
+
+        jdbcTemplate.update("DELETE FROM gastos_resumo_diario");
+        jdbcTemplate.update("DELETE FROM gastos_resumo_mensal");
+        jdbcTemplate.batchUpdate("INSERT INTO gastos_resumo_diario (dia, categoria, tipo, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?)",
+                linhas(dias));
+        jdbcTemplate.batchUpdate("INSERT INTO gastos_resumo_mensal (ano_mes, categoria, tipo, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?)",
+                linhas(meses));
+    }
+
+    private static List<Object[]> linhas(Map<List<String>, long[]> somas) {
+        List<Object[]> linhas = new ArrayList<>(somas.size());
+        somas.forEach((chave, soma) -> linhas.add(new Object[]{chave.get(0), chave.get(1), chave.get(2), soma[0], soma[1]}));
+        return linhas;
+    }
+}
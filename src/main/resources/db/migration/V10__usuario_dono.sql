@@ -0,0 +1,67 @@
+-- Cada gasto, meta e planejamento passa a pertencer a um usuario.
+-- Os registros anteriores a esta versao ficam com o primeiro usuario cadastrado
+-- (a aplicacao era de um usuario so); sem usuarios, permanecem sem dono e invisiveis.
+
+ALTER TABLE gastos ADD COLUMN usuario_id integer;
+ALTER TABLE metas ADD COLUMN usuario_id integer;
+ALTER TABLE planejamento_mensal ADD COLUMN usuario_id integer;
+ALTER TABLE gasto_planejamento ADD COLUMN usuario_id integer;
+
+UPDATE gastos SET usuario_id = (SELECT MIN(id) FROM usuarios) WHERE usuario_id IS NULL;
+UPDATE metas SET usuario_id = (SELECT MIN(id) FROM usuarios) WHERE usuario_id IS NULL;
+UPDATE planejamento_mensal SET usuario_id = (SELECT MIN(id) FROM usuarios) WHERE usuario_id IS NULL;
+UPDATE gasto_planejamento
+SET usuario_id = COALESCE((SELECT g.usuario_id FROM gastos g WHERE g.id = gasto_planejamento.gasto_id),
+                          (SELECT MIN(id) FROM usuarios))
+WHERE usuario_id IS NULL;
+
+-- indices por usuario: toda consulta filtra por usuario_id, entao ele e a primeira coluna
+DROP INDEX IF EXISTS ix_gastos_data_gasto;
+DROP INDEX IF EXISTS ix_gastos_categoria_data_gasto;
+CREATE INDEX IF NOT EXISTS ix_gastos_usuario_data_gasto ON gastos (usuario_id, data_gasto);
+CREATE INDEX IF NOT EXISTS ix_gastos_usuario_categoria_data_gasto ON gastos (usuario_id, categoria, data_gasto);
+
+CREATE INDEX IF NOT EXISTS ix_metas_usuario_data_inicio ON metas (usuario_id, data_inicio);
+
+DROP INDEX IF EXISTS ix_planejamento_mensal_mes_ano;
+CREATE INDEX IF NOT EXISTS ix_planejamento_mensal_usuario_mes_ano ON planejamento_mensal (usuario_id, mes_ano);
+
+DROP INDEX IF EXISTS ix_gasto_planejamento_data_valor;
+CREATE INDEX IF NOT EXISTS ix_gasto_planejamento_usuario_data_valor ON gasto_planejamento (usuario_id, data, valor);
+
+-- consolidados por usuario: como todos os gastos existentes foram para o mesmo usuario,
+-- as linhas atuais sao copiadas para ele sem recalculo
+CREATE TABLE gastos_resumo_diario_novo (
+    usuario_id     INTEGER      NOT NULL,
+    dia            TEXT         NOT NULL,
+    categoria      VARCHAR(100) NOT NULL,
+    tipo           VARCHAR(255) NOT NULL,
+    total_centavos INTEGER      NOT NULL,
+    quantidade     INTEGER      NOT NULL,
+    PRIMARY KEY (usuario_id, dia, categoria, tipo)
+) WITHOUT ROWID;
+
+CREATE TABLE gastos_resumo_mensal_novo (
+    usuario_id     INTEGER      NOT NULL,
+    ano_mes        TEXT         NOT NULL,
+    categoria      VARCHAR(100) NOT NULL,
+    tipo           VARCHAR(255) NOT NULL,
+    total_centavos INTEGER      NOT NULL,
+    quantidade     INTEGER      NOT NULL,
+    PRIMARY KEY (usuario_id, ano_mes, categoria, tipo)
+) WITHOUT ROWID;
+
+INSERT INTO gastos_resumo_diario_novo (usuario_id, dia, categoria, tipo, total_centavos, quantidade)
+SELECT (SELECT MIN(id) FROM usuarios), dia, categoria, tipo, total_centavos, quantidade
+FROM gastos_resumo_diario
+WHERE EXISTS (SELECT 1 FROM usuarios);
+
+INSERT INTO gastos_resumo_mensal_novo (usuario_id, ano_mes, categoria, tipo, total_centavos, quantidade)
+SELECT (SELECT MIN(id) FROM usuarios), ano_mes, categoria, tipo, total_centavos, quantidade
+FROM gastos_resumo_mensal
+WHERE EXISTS (SELECT 1 FROM usuarios);
+
+DROP TABLE gastos_resumo_diario;
+DROP TABLE gastos_resumo_mensal;
+ALTER TABLE gastos_resumo_diario_novo RENAME TO gastos_resumo_diario;
+ALTER TABLE gastos_resumo_mensal_novo RENAME TO gastos_resumo_mensal;
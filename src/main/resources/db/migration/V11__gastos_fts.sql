@@ -0,0 +1,40 @@
+-- Indice de texto completo (FTS5) de descricao e observacoes dos gastos.
+-- Tabela de conteudo externo: o texto fica apenas em gastos e o indice guarda so os tokens.
+-- usuario_id tambem e indexado para que a busca de um usuario cruze as listas de tokens
+-- (usuario_id : 7 AND ...) em vez de filtrar os resultados de todos os usuarios.
+-- remove_diacritics: "alimentacao" encontra "Alimentação"; prefix: consultas "ter*" servidas pelo indice.
+CREATE VIRTUAL TABLE IF NOT EXISTS gastos_fts USING fts5(
+    usuario_id,
+    descricao,
+    observacoes,
+    content = 'gastos',
+    content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS trg_gastos_fts_insere
+AFTER INSERT ON gastos
+BEGIN
+    INSERT INTO gastos_fts (rowid, usuario_id, descricao, observacoes)
+    VALUES (NEW.id, NEW.usuario_id, NEW.descricao, NEW.observacoes);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_gastos_fts_exclui
+AFTER DELETE ON gastos
+BEGIN
+    INSERT INTO gastos_fts (gastos_fts, rowid, usuario_id, descricao, observacoes)
+    VALUES ('delete', OLD.id, OLD.usuario_id, OLD.descricao, OLD.observacoes);
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_gastos_fts_atualiza
+AFTER UPDATE OF usuario_id, descricao, observacoes ON gastos
+BEGIN
+    INSERT INTO gastos_fts (gastos_fts, rowid, usuario_id, descricao, observacoes)
+    VALUES ('delete', OLD.id, OLD.usuario_id, OLD.descricao, OLD.observacoes);
+    INSERT INTO gastos_fts (rowid, usuario_id, descricao, observacoes)
+    VALUES (NEW.id, NEW.usuario_id, NEW.descricao, NEW.observacoes);
+END;
+
+-- gastos ja existentes
+INSERT INTO gastos_fts (gastos_fts) VALUES ('rebuild');
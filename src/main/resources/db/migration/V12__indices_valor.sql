@@ -0,0 +1,6 @@
+-- Maiores gastos (top-K e paginacao por valor): ORDER BY valor DESC, id DESC LIMIT k percorre o
+-- indice de tras para frente e para apos k linhas, sem ordenar a tabela (o id entra como rowid)
+CREATE INDEX IF NOT EXISTS ix_gastos_usuario_valor ON gastos (usuario_id, valor);
+
+-- o mesmo dentro de uma categoria
+CREATE INDEX IF NOT EXISTS ix_gastos_usuario_categoria_valor ON gastos (usuario_id, categoria, valor);
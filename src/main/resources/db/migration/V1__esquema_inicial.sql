@@ -0,0 +1,72 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update.
+-- Bancos que ja existiam antes das migracoes sao marcados nesta versao (baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id integer,
+    ativo boolean,
+    data_atualizacao timestamp,
+    data_criacao timestamp,
+    email varchar(100) not null unique,
+    nome varchar(100) not null,
+    senha varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS gastos (
+    id integer,
+    categoria varchar(100) not null,
+    data_atualizacao timestamp,
+    data_criacao timestamp,
+    data_gasto timestamp,
+    descricao varchar(255) not null,
+    observacoes varchar(500),
+    tipo varchar(255) not null,
+    valor numeric(10,2) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS metas (
+    id integer,
+    data_atualizacao timestamp,
+    data_criacao timestamp,
+    data_fim timestamp,
+    data_inicio timestamp,
+    descricao varchar(255) not null,
+    recorrente boolean not null,
+    tipo varchar(100),
+    valor_atual numeric(14,2) not null,
+    valor_objetivo numeric(14,2) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS planejamento_mensal (
+    id integer,
+    mes_ano varchar(255),
+    valor_planejado_total numeric(38,2),
+    primary key (id)
+);
+
+-- PlanejamentoMensal usa GenerationType.AUTO, que no SQLite e emulado por tabela
+CREATE TABLE IF NOT EXISTS planejamento_mensal_seq (
+    next_val bigint
+);
+INSERT INTO planejamento_mensal_seq (next_val)
+SELECT 1 WHERE NOT EXISTS (SELECT 1 FROM planejamento_mensal_seq);
+
+CREATE TABLE IF NOT EXISTS planejamento_categoria (
+    id integer,
+    categoria varchar(255),
+    valor_planejado numeric(38,2),
+    planejamento_id bigint,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS gasto_planejamento (
+    id integer,
+    categoria varchar(255),
+    data date,
+    descricao varchar(255),
+    gasto_id bigint,
+    valor numeric(38,2),
+    primary key (id)
+);
@@ -0,0 +1,21 @@
+-- Indices para as consultas por periodo, categoria e vinculo com o planejamento.
+
+-- findByDataGastoBetween e ordenacao por data (o id entra implicitamente como rowid)
+CREATE INDEX IF NOT EXISTS ix_gastos_data_gasto ON gastos (data_gasto);
+
+-- filtros por categoria, isolados ou dentro de um periodo
+CREATE INDEX IF NOT EXISTS ix_gastos_categoria_data_gasto ON gastos (categoria, data_gasto);
+
+-- um unico registro de planejamento por gasto: mantem o mais recente antes de criar o indice
+DELETE FROM gasto_planejamento
+WHERE gasto_id IS NOT NULL
+  AND id NOT IN (SELECT MAX(id) FROM gasto_planejamento WHERE gasto_id IS NOT NULL GROUP BY gasto_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_gasto_planejamento_gasto_id ON gasto_planejamento (gasto_id);
+
+-- soma do planejamento por periodo (sumByPeriodo) resolvida apenas pelo indice
+CREATE INDEX IF NOT EXISTS ix_gasto_planejamento_data_valor ON gasto_planejamento (data, valor);
+
+-- login e o NOT EXISTS do @SQLInsert de Usuario
+CREATE UNIQUE INDEX IF NOT EXISTS ux_usuarios_email ON usuarios (email);
+
+CREATE INDEX IF NOT EXISTS ix_planejamento_mensal_mes_ano ON planejamento_mensal (mes_ano);
@@ -0,0 +1,4 @@
+-- A paginação por cursor ordena por (data_gasto, id); registros antigos sem data
+-- recebem a data de criação para não ficarem fora da navegação.
+UPDATE gastos SET data_gasto = COALESCE(data_criacao, data_atualizacao, CAST(strftime('%s', 'now') AS INTEGER) * 1000)
+WHERE data_gasto IS NULL;
@@ -0,0 +1,19 @@
+-- Consolidados de gastos mantidos pela aplicação na mesma transação das escritas.
+-- Valores em centavos (inteiros) para que as somas sejam exatas.
+CREATE TABLE IF NOT EXISTS gastos_resumo_diario (
+    dia            TEXT         NOT NULL,
+    categoria      VARCHAR(100) NOT NULL,
+    tipo           VARCHAR(255) NOT NULL,
+    total_centavos INTEGER      NOT NULL,
+    quantidade     INTEGER      NOT NULL,
+    PRIMARY KEY (dia, categoria, tipo)
+) WITHOUT ROWID;
+
+CREATE TABLE IF NOT EXISTS gastos_resumo_mensal (
+    ano_mes        TEXT         NOT NULL,
+    categoria      VARCHAR(100) NOT NULL,
+    tipo           VARCHAR(255) NOT NULL,
+    total_centavos INTEGER      NOT NULL,
+    quantidade     INTEGER      NOT NULL,
+    PRIMARY KEY (ano_mes, categoria, tipo)
+) WITHOUT ROWID;
@@ -0,0 +1,9 @@
+-- Sequências emuladas em tabela para geração de ids em blocos (permite inserts em lote pelo Hibernate).
+-- proximo_valor é o primeiro id ainda não reservado por nenhuma instância da aplicação.
+CREATE TABLE IF NOT EXISTS sequencias_id (
+    nome          VARCHAR(100) NOT NULL PRIMARY KEY,
+    proximo_valor INTEGER      NOT NULL
+) WITHOUT ROWID;
+
+INSERT INTO sequencias_id (nome, proximo_valor)
+SELECT 'gastos', COALESCE(MAX(id), 0) + 1 FROM gastos;
@@ -0,0 +1,12 @@
+-- Excluir um gasto remove o GastoPlanejamento vinculado no mesmo DELETE
+-- (SQLite nao tem DELETE com JOIN e as chaves estrangeiras nao estao habilitadas).
+CREATE TRIGGER IF NOT EXISTS trg_gastos_remove_planejamento
+AFTER DELETE ON gastos
+BEGIN
+    DELETE FROM gasto_planejamento WHERE gasto_id = OLD.id;
+END;
+
+-- vinculos de gastos que ja foram excluidos (por exemplo, via /api/movimentacoes)
+DELETE FROM gasto_planejamento
+WHERE gasto_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM gastos g WHERE g.id = gasto_planejamento.gasto_id);
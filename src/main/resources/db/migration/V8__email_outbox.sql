@@ -0,0 +1,18 @@
+-- Fila de emails gravada na mesma transacao de quem os gera e enviada em segundo plano.
+-- status: PENDENTE (aguardando envio ou nova tentativa), ENVIADO, FALHOU (esgotou as tentativas).
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id                 integer,
+    destinatario       varchar(255) not null,
+    assunto            varchar(255) not null,
+    corpo              text         not null,
+    status             varchar(20)  not null,
+    tentativas         integer      not null default 0,
+    proxima_tentativa  timestamp    not null,
+    ultimo_erro        varchar(1000),
+    data_criacao       timestamp,
+    data_envio         timestamp,
+    primary key (id)
+);
+
+-- busca das mensagens vencidas pelo despachante
+CREATE INDEX IF NOT EXISTS ix_email_outbox_status_proxima ON email_outbox (status, proxima_tentativa);
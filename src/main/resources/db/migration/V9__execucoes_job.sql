@@ -0,0 +1,14 @@
+-- Progresso dos jobs agendados que percorrem usuarios em paginas (ex.: relatorio mensal).
+-- ultimo_id e gravado na mesma transacao do trabalho de cada pagina; uma execucao
+-- interrompida continua a partir dele em vez de repetir os usuarios ja atendidos.
+CREATE TABLE IF NOT EXISTS execucoes_job (
+    job          varchar(100) not null,
+    referencia   varchar(50)  not null,
+    status       varchar(20)  not null,
+    ultimo_id    integer      not null default 0,
+    processados  integer      not null default 0,
+    falhas       integer      not null default 0,
+    inicio       timestamp,
+    fim          timestamp,
+    primary key (job, referencia)
+) WITHOUT ROWID;
@@ -0,0 +1,74 @@
+package br.com.meuGasto.finControl.benchmark;
+
+import br.com.meuGasto.finControl.repository.LinhaResumo;
+import br.com.meuGasto.finControl.service.AgregadorCentavos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Soma por categoria das linhas de resumo: a redução anterior (groupingBy + reducing com BigDecimal::add,
+ * um BigDecimal por linha) e o {@link AgregadorCentavos} (long por categoria, BigDecimal só na saída).
+ * Com -prof gc, gc.alloc.rate.norm mostra os bytes alocados por operação.
+ *
+ * Execução:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main AgregacaoCentavosBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgregacaoCentavosBenchmark {
+
+    @Param({"1000", "100000"})
+    private int linhas;
+
+    private List<LinhaResumo> resumo;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(42);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        resumo = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            resumo.add(new LinhaResumo(1, inicio.plusDays(i % 365), "Categoria " + random.nextInt(20), "DESPESA",
+                    random.nextLong(100, 500_000), 1 + random.nextInt(5)));
+        }
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> reducingBigDecimal() {
+        return resumo.stream()
+                .collect(Collectors.groupingBy(LinhaResumo::categoria,
+                        Collectors.reducing(BigDecimal.ZERO, LinhaResumo::total, BigDecimal::add)));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> agregadorCentavos() {
+        AgregadorCentavos porCategoria = new AgregadorCentavos();
+        for (LinhaResumo linha : resumo) {
+            porCategoria.somar(linha.categoria(), linha.totalCentavos(), linha.quantidade());
+        }
+        return porCategoria.totaisEmReais();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.meuGasto.finControl.benchmark;
+
+import br.com.meuGasto.finControl.FinControlApplication;
+import br.com.meuGasto.finControl.dto.MovimentacaoDTO;
+import br.com.meuGasto.finControl.service.MovimentacaoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Linhas por segundo gravadas por POST /api/movimentacoes (uma transação por linha) e por
+ * POST /api/movimentacoes/batch (uma transação com inserts em lote), sobre um banco SQLite em
+ * arquivo no modo WAL, como em produção.
+ *
+ * Execução:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main InsercaoMovimentacoesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercaoMovimentacoesBenchmark {
+
+    private static final int LINHAS = 500;
+
+    private Path diretorio;
+    private ConfigurableApplicationContext contexto;
+    private MovimentacaoService movimentacaoService;
+    private List<MovimentacaoDTO> lote;
+
+    @Setup
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("fincontrol-benchmark");
+        contexto = new SpringApplicationBuilder(FinControlApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:sqlite:" + diretorio.resolve("benchmark.db"),
+                        "app.datasource.wal.enabled=true",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        movimentacaoService = contexto.getBean(MovimentacaoService.class);
+
+        lote = new ArrayList<>(LINHAS);
+        for (int i = 0; i < LINHAS; i++) {
+            MovimentacaoDTO dto = new MovimentacaoDTO();
+            dto.setDescricao("Compra " + i);
+            dto.setValor(BigDecimal.valueOf(1000 + i, 2));
+            dto.setCategoria("Categoria " + (i % 8));
+            dto.setTipo(i % 10 == 0 ? "RECEITA" : "DESPESA");
+            dto.setData(LocalDate.of(2025, 1, 1).plusDays(i % 31));
+            lote.add(dto);
+        }
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        contexto.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void umaPorRequisicao() {
+        for (MovimentacaoDTO dto : lote) {
+            movimentacaoService.criarMovimentacao(dto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public List<MovimentacaoDTO> emLote() {
+        return movimentacaoService.criarMovimentacoesEmLote(lote);
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.meuGasto.finControl.benchmark;
+
+import br.com.meuGasto.finControl.service.SimulacaoMonteCarlo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulação de Monte Carlo do saldo com 90 dias de histórico em 12 categorias e horizonte de 3 meses
+ * (como GET /api/movimentacoes/previsao/monte-carlo?meses=3): os caminhos num único bloco sequencial e
+ * divididos em blocos de app.previsao.monte-carlo.limite-paralelo no pool comum de fork-join. Serve para
+ * escolher app.previsao.monte-carlo.caminhos dentro da latência desejada.
+ *
+ * Execução:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SimulacaoMonteCarloBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulacaoMonteCarloBenchmark {
+
+    private static final int CATEGORIAS = 12;
+    private static final int DIAS_HISTORICO = 90;
+    private static final int[] HORIZONTES = {21, 51, 82};
+    private static final int LIMITE_PARALELO = 1_000;
+
+    @Param({"1000", "10000", "50000"})
+    private int caminhos;
+
+    private SimulacaoMonteCarlo simulacao;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(42);
+        long[][] historico = new long[CATEGORIAS][DIAS_HISTORICO];
+        for (int categoria = 0; categoria < CATEGORIAS; categoria++) {
+            for (int dia = 0; dia < DIAS_HISTORICO; dia++) {
+                historico[categoria][dia] = categoria == 0
+                        ? (dia % 30 == 5 ? 800_000 : 0)
+                        : (random.nextInt(3) == 0 ? -random.nextInt(20_000) : 0);
+            }
+        }
+        simulacao = new SimulacaoMonteCarlo(historico);
+    }
+
+    @Benchmark
+    public SimulacaoMonteCarlo.Faixas sequencial() {
+        return simulacao.simular(150_000, HORIZONTES, caminhos, 7, caminhos);
+    }
+
+    @Benchmark
+    public SimulacaoMonteCarlo.Faixas forkJoin() {
+        return simulacao.simular(150_000, HORIZONTES, caminhos, 7, LIMITE_PARALELO);
+    }
+}
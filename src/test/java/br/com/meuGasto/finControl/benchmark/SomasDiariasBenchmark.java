@@ -0,0 +1,129 @@
+package br.com.meuGasto.finControl.benchmark;
+
+import br.com.meuGasto.finControl.service.SomasDiarias;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totais por intervalo de dias sobre 1 a 10 anos de gastos (20 por dia): a varredura das colunas em
+ * memória (busca binária das pontas e soma das linhas do intervalo) e as {@link SomasDiarias} (duas somas
+ * de prefixo por consulta). Mede o total dos últimos 365 dias por tipo e a série diária de saldo
+ * acumulado dos últimos 90 dias, como em /api/movimentacoes/resumo e /evolucao.
+ *
+ * Execução:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SomasDiariasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SomasDiariasBenchmark {
+
+    private static final int GASTOS_POR_DIA = 20;
+    private static final int DIAS_RESUMO = 365;
+    private static final int DIAS_SERIE = 90;
+
+    @Param({"1", "5", "10"})
+    private int anos;
+
+    private int[] dias;
+    private long[] centavos;
+    private byte[] tipos;
+    private SomasDiarias somas;
+    private int ultimoDia;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(42);
+        int primeiroDia = (int) LocalDate.of(2015, 1, 1).toEpochDay();
+        int totalDias = anos * 365;
+        int n = totalDias * GASTOS_POR_DIA;
+        dias = new int[n];
+        centavos = new long[n];
+        tipos = new byte[n];
+        for (int i = 0; i < n; i++) {
+            dias[i] = primeiroDia + i / GASTOS_POR_DIA;
+            centavos[i] = random.nextLong(100, 500_000);
+            tipos[i] = (byte) (random.nextInt(10) == 0 ? 1 : 0);
+        }
+        ultimoDia = primeiroDia + totalDias - 1;
+        somas = SomasDiarias.de(primeiroDia, totalDias, dias, centavos, tipos, n);
+    }
+
+    @Benchmark
+    public long[] resumoVarredura() {
+        long[] porTipo = new long[SomasDiarias.TIPOS];
+        int ate = primeiroIndice(ultimoDia + 1);
+        for (int i = primeiroIndice(ultimoDia - DIAS_RESUMO + 1); i < ate; i++) {
+            porTipo[tipos[i]] += centavos[i];
+        }
+        return porTipo;
+    }
+
+    @Benchmark
+    public long[] resumoSomasDiarias() {
+        long[] porTipo = new long[SomasDiarias.TIPOS];
+        for (int tipo = 0; tipo < SomasDiarias.TIPOS; tipo++) {
+            porTipo[tipo] = somas.total(tipo, ultimoDia - DIAS_RESUMO + 1, ultimoDia);
+        }
+        return porTipo;
+    }
+
+    @Benchmark
+    public long[] serieSaldoVarredura() {
+        int primeiroDiaSerie = ultimoDia - DIAS_SERIE + 1;
+        long[] saldos = new long[DIAS_SERIE];
+        long saldo = 0;
+        // saldo acumulado desde o primeiro gasto: todas as linhas até o fim da série
+        int inicioSerie = primeiroIndice(primeiroDiaSerie);
+        for (int i = 0; i < inicioSerie; i++) {
+            saldo += tipos[i] == 1 ? centavos[i] : -centavos[i];
+        }
+        int i = inicioSerie;
+        for (int d = 0; d < DIAS_SERIE; d++) {
+            for (; i < dias.length && dias[i] == primeiroDiaSerie + d; i++) {
+                saldo += tipos[i] == 1 ? centavos[i] : -centavos[i];
+            }
+            saldos[d] = saldo;
+        }
+        return saldos;
+    }
+
+    @Benchmark
+    public long[] serieSaldoSomasDiarias() {
+        long[] saldos = new long[DIAS_SERIE];
+        for (int d = 0; d < DIAS_SERIE; d++) {
+            int dia = ultimoDia - DIAS_SERIE + 1 + d;
+            saldos[d] = somas.total(1, Integer.MIN_VALUE, dia) - somas.total(0, Integer.MIN_VALUE, dia);
+        }
+        return saldos;
+    }
+
+    private int primeiroIndice(int dia) {
+        int indice = Arrays.binarySearch(dias, dia);
+        if (indice < 0) {
+            return -indice - 1;
+        }
+        while (indice > 0 && dias[indice - 1] == dia) {
+            indice--;
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.meuGasto.finControl.benchmark;
+
+import br.com.meuGasto.finControl.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de autenticar uma requisição pelo JWT: o caminho anterior (parser recriado e token verificado
+ * duas vezes, em validateToken e getUsernameFromToken), a primeira verificação com o parser reutilizado
+ * (cache vazio) e as requisições seguintes com o mesmo token (acerto no cache de tokens verificados).
+ *
+ * Execução:
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ValidacaoJwtBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacaoJwtBenchmark {
+
+    private static final String SEGREDO = "J9uE4rXq1x2PpWm7TtKc8BvYl3Zr9Qw4Hf0Nd5Gs2Lt8Vc3Rb6Yp0Kj7Mq1Xs4DfA";
+
+    private Key key;
+    private JwtUtil jwtUtil;
+    private JwtUtil jwtUtilSemCache;
+    private String token;
+
+    @Setup
+    public void iniciar() {
+        key = Keys.hmacShaKeyFor(SEGREDO.getBytes());
+        jwtUtil = new JwtUtil(SEGREDO, 3_600_000, Duration.ofMinutes(10), 10_000, new SimpleMeterRegistry());
+        // TTL zero: todo token é verificado, isolando o ganho do parser único
+        jwtUtilSemCache = new JwtUtil(SEGREDO, 3_600_000, Duration.ZERO, 0, new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("benchmark@fincontrol.com");
+        jwtUtil.validarEObterUsuario(token);
+    }
+
+    @Benchmark
+    public String anterior() {
+        try {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        } catch (JwtException e) {
+            return null;
+        }
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public Optional<String> parserUnicoSemCache() {
+        return jwtUtilSemCache.validarEObterUsuario(token);
+    }
+
+    @Benchmark
+    public Optional<String> tokenEmCache() {
+        return jwtUtil.validarEObterUsuario(token);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.meuGasto.finControl.config;
+
+import br.com.meuGasto.finControl.exception.HashSenhaIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        encoder.close();
+    }
+
+    @Test
+    void encodeEMatches_DevemDelegarAoBCryptNoExecutor() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 2, meterRegistry);
+
+        String hash = encoder.encode("segredo123");
+
+        assertTrue(encoder.matches("segredo123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(3.0, meterRegistry.get("executor.completed").tag("name", "senhaHash").functionCounter().count());
+    }
+
+    @Test
+    void matches_ComExecutorEFilaOcupados_DeveFalharNaHoraComRetryAfter() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                iniciou.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(lento, 1, 1, 3, meterRegistry);
+
+        CompletableFuture<Boolean> emExecucao = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> naFila = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+        while (meterRegistry.get("executor.queued").tag("name", "senhaHash").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        HashSenhaIndisponivelException erro = assertThrows(HashSenhaIndisponivelException.class,
+                () -> encoder.matches("c", "c"));
+
+        assertEquals(3, erro.getRetryAfterSegundos());
+        assertEquals(1.0, meterRegistry.get("senha.hash.rejeicoes").counter().count());
+        liberar.countDown();
+        assertTrue(emExecucao.get(5, TimeUnit.SECONDS));
+        assertTrue(naFila.get(5, TimeUnit.SECONDS));
+    }
+}
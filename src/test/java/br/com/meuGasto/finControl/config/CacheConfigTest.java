@@ -0,0 +1,100 @@
+package br.com.meuGasto.finControl.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+
+    @Test
+    void cacheManager_DeveAplicarSpecDeCadaCacheEPublicarMetricas() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.specs.tendencias", "maximumSize=2,expireAfterWrite=1m");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        CacheConfig.ThreadsRecarga threadsRecarga = cacheConfig.threadsRecarga(1);
+        CacheManager cacheManager = cacheConfig.cacheManager(environment, meterRegistry, recalculos(), "maximumSize=1000,expireAfterWrite=10m", threadsRecarga);
+
+        assertEquals(2, nativo(cacheManager, "tendencias").policy().eviction().orElseThrow().getMaximum());
+        assertEquals(1000, nativo(cacheManager, "contagemGastos").policy().eviction().orElseThrow().getMaximum());
+        assertNull(cacheManager.getCache("inexistente"));
+        assertNull(cacheManager.getCache("gastos"));
+        cacheManager.getCache("contagemGastos").get("chave");
+        for (String nome : CacheConfig.CACHES) {
+            assertNotNull(meterRegistry.find("cache.gets").tag("cache", nome).functionCounter(), nome);
+        }
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "contagemGastos", "result", "miss").functionCounter().count());
+        threadsRecarga.encerrar();
+    }
+
+    @Test
+    void criar_ComMaximumWeight_DevePesarPeloNumeroDeElementos() {
+        Cache<Object, Object> cache = CacheConfig.criar("teste", "maximumWeight=10", recalculos(), Runnable::run);
+
+        cache.put("pequeno", Map.of("a", 1, "b", 2));
+        cache.put("grande", List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+        cache.cleanUp();
+
+        assertNotNull(cache.getIfPresent("pequeno"));
+        assertNull(cache.getIfPresent("grande"));
+        assertEquals(3, CacheConfig.peso(Map.of("a", 1, "b", 2)));
+    }
+
+    @Test
+    void criar_ComRefreshAfterWrite_DeveServirValorAnteriorERecalcular() throws InterruptedException {
+        AtomicInteger recalculos = new AtomicInteger();
+        RecalculoCache recalculo = new RecalculoCache() {
+            @Override
+            public Set<String> caches() {
+                return Set.of("relatorio");
+            }
+
+            @Override
+            public Object recalcular(String cache, Object chave) {
+                return chave + "-" + recalculos.incrementAndGet();
+            }
+        };
+        List<Runnable> pendentes = new ArrayList<>();
+        Cache<Object, Object> cache = CacheConfig.criar("relatorio", "refreshAfterWrite=PT0.05S", recalculos(recalculo), pendentes::add);
+        assertInstanceOf(LoadingCache.class, cache);
+
+        assertNull(((LoadingCache<Object, Object>) cache).get("k"));
+        cache.put("k", "original");
+        Thread.sleep(80);
+
+        // a leitura não espera o recálculo, que roda no executor de recarga
+        assertEquals("original", cache.getIfPresent("k"));
+        assertEquals(0, recalculos.get());
+        List.copyOf(pendentes).forEach(Runnable::run);
+        assertEquals("k-1", cache.getIfPresent("k"));
+    }
+
+    private static ObjectProvider<RecalculoCache> recalculos(RecalculoCache... beans) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < beans.length; i++) {
+            beanFactory.registerSingleton("recalculo" + i, beans[i]);
+        }
+        return beanFactory.getBeanProvider(RecalculoCache.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativo(CacheManager cacheManager, String nome) {
+        return ((CaffeineCache) cacheManager.getCache(nome)).getNativeCache();
+    }
+}
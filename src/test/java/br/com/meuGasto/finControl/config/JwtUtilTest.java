@@ -0,0 +1,70 @@
+package br.com.meuGasto.finControl.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SEGREDO = "J9uE4rXq1x2PpWm7TtKc8BvYl3Zr9Qw4Hf0Nd5Gs2Lt8Vc3Rb6Yp0Kj7Mq1Xs4DfA";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SEGREDO, 60_000, Duration.ofMinutes(10), 100, meterRegistry);
+    }
+
+    @Test
+    void validarEObterUsuario_TokenValido_DeveVerificarUmaVezERetornarUsuario() {
+        String token = jwtUtil.generateToken("user@example.com");
+
+        assertEquals(Optional.of("user@example.com"), jwtUtil.validarEObterUsuario(token));
+        assertEquals(Optional.of("user@example.com"), jwtUtil.validarEObterUsuario(token));
+
+        assertEquals(1.0, contagem("miss"));
+        assertEquals(1.0, contagem("hit"));
+    }
+
+    @Test
+    void validarEObterUsuario_AssinaturaAdulterada_DeveRetornarVazio() {
+        String token = jwtUtil.generateToken("user@example.com");
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtUtil.validarEObterUsuario(adulterado).isEmpty());
+        assertTrue(jwtUtil.validarEObterUsuario("lixo").isEmpty());
+    }
+
+    @Test
+    void validarEObterUsuario_TokenDeOutraChave_DeveRetornarVazio() {
+        JwtUtil outro = new JwtUtil(SEGREDO.replace('J', 'X'), 60_000, Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+
+        assertTrue(jwtUtil.validarEObterUsuario(outro.generateToken("user@example.com")).isEmpty());
+    }
+
+    @Test
+    void validarEObterUsuario_TokenExpirado_DeveRetornarVazio() {
+        String expirado = Jwts.builder()
+                .setSubject("user@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SEGREDO.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(jwtUtil.validarEObterUsuario(expirado).isEmpty());
+    }
+
+    private double contagem(String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", "tokensJwt").tag("result", resultado).functionCounter().count();
+    }
+}
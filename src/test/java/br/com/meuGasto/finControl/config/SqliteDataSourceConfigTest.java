@@ -0,0 +1,120 @@
+package br.com.meuGasto.finControl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqliteDataSourceConfigTest {
+
+    private static final int LEITORES = 4;
+    private static final int LINHAS_ESCRITA_LONGA = 5000;
+
+    @TempDir
+    Path diretorio;
+
+    private HikariDataSource escrita;
+    private HikariDataSource leitura;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transacaoEscrita;
+    private TransactionTemplate transacaoLeitura;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:sqlite:" + diretorio.resolve("fincontrol-wal.db");
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig(url, LEITORES, "NORMAL", 0L, -2000, 5000, 10000L);
+        escrita = config.writerDataSource();
+        leitura = config.readerDataSource();
+        DataSource dataSource = config.dataSource(escrita, leitura);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transacaoEscrita = new TransactionTemplate(transactionManager);
+        transacaoLeitura = new TransactionTemplate(transactionManager);
+        transacaoLeitura.setReadOnly(true);
+
+        jdbc.execute("CREATE TABLE gastos (id INTEGER PRIMARY KEY, descricao VARCHAR(255) NOT NULL, valor NUMERIC(10,2) NOT NULL)");
+        jdbc.update("INSERT INTO gastos (descricao, valor) VALUES ('Inicial', 10.00)");
+
+        executor = Executors.newFixedThreadPool(LEITORES + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        leitura.close();
+        escrita.close();
+    }
+
+    @Test
+    void escrita_DeveColocarBancoEmModoWal() {
+        String modo = jdbc.queryForObject("PRAGMA journal_mode", String.class);
+
+        assertEquals("wal", modo);
+    }
+
+    @Test
+    void transacaoSomenteLeitura_DeveUsarConexaoDeLeitura() {
+        assertThrows(DataAccessException.class, () -> transacaoLeitura.executeWithoutResult(status ->
+                jdbc.update("INSERT INTO gastos (descricao, valor) VALUES ('Proibido', 1.00)")));
+
+        Long total = transacaoLeitura.execute(status -> jdbc.queryForObject("SELECT COUNT(*) FROM gastos", Long.class));
+        assertEquals(1L, total);
+    }
+
+    @Test
+    void leituras_DevemProsseguirDuranteEscritaLonga() throws Exception {
+        CountDownLatch escritaEmAndamento = new CountDownLatch(1);
+        CountDownLatch liberarEscrita = new CountDownLatch(1);
+
+        Future<?> escritaLonga = executor.submit(() -> transacaoEscrita.executeWithoutResult(status -> {
+            for (int i = 0; i < LINHAS_ESCRITA_LONGA; i++) {
+                jdbc.update("INSERT INTO gastos (descricao, valor) VALUES (?, ?)", "Lote " + i, i);
+            }
+            escritaEmAndamento.countDown();
+            try {
+                liberarEscrita.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertTrue(escritaEmAndamento.await(30, TimeUnit.SECONDS));
+
+        List<Future<Long>> leituras = new ArrayList<>();
+        for (int i = 0; i < LEITORES; i++) {
+            leituras.add(executor.submit(() -> transacaoLeitura.execute(status ->
+                    jdbc.queryForObject("SELECT COUNT(*) FROM gastos", Long.class))));
+        }
+
+        // as leituras terminam enquanto a escrita ainda segura a transação aberta
+        for (Future<Long> leituraFutura : leituras) {
+            assertEquals(1L, leituraFutura.get(5, TimeUnit.SECONDS));
+        }
+        assertFalse(escritaLonga.isDone());
+
+        liberarEscrita.countDown();
+        escritaLonga.get(30, TimeUnit.SECONDS);
+
+        Long totalFinal = transacaoLeitura.execute(status -> jdbc.queryForObject("SELECT COUNT(*) FROM gastos", Long.class));
+        assertEquals(1L + LINHAS_ESCRITA_LONGA, totalFinal);
+    }
+}
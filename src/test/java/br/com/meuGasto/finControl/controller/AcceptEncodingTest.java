@@ -0,0 +1,26 @@
+package br.com.meuGasto.finControl.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcceptEncodingTest {
+
+    @Test
+    void aceitaGzip_ComValoresQ_DeveRespeitarARecusa() {
+        assertTrue(AcceptEncoding.aceitaGzip("gzip, deflate, br"));
+        assertTrue(AcceptEncoding.aceitaGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(AcceptEncoding.aceitaGzip("gzip;q=0"));
+        assertFalse(AcceptEncoding.aceitaGzip("deflate, gzip; q=0.0"));
+        assertFalse(AcceptEncoding.aceitaGzip("identity"));
+        assertFalse(AcceptEncoding.aceitaGzip(null));
+    }
+
+    @Test
+    void aceitaGzip_Curinga_DeveValerSoSemGzipExplicito() {
+        assertTrue(AcceptEncoding.aceitaGzip("*"));
+        assertFalse(AcceptEncoding.aceitaGzip("*;q=0"));
+        assertFalse(AcceptEncoding.aceitaGzip("gzip;q=0, *"));
+        assertTrue(AcceptEncoding.aceitaGzip("gzip;q=0.3, *;q=0"));
+    }
+}
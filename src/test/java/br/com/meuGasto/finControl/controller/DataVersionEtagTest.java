@@ -0,0 +1,139 @@
+package br.com.meuGasto.finControl.controller;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.service.GastoService;
+import br.com.meuGasto.finControl.service.RelatorioService;
+import br.com.meuGasto.finControl.service.ResumoGastoService;
+import br.com.meuGasto.finControl.service.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DataVersionEtagTest {
+
+    private static final String MENSAL = "/api/relatorios/mensal?mes=2025-01-01T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private RelatorioService relatorioService;
+
+    private UsuarioAutenticado usuario;
+
+    @BeforeEach
+    void setUp() {
+        // usuário gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Etag", "etag@teste.com", "etag@teste.com");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = ?", Long.class, "etag@teste.com");
+        usuario = new UsuarioAutenticado(id, "etag@teste.com", "senha", List.of());
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void get_ComIfNoneMatchDaVersaoAtual_DeveResponder304SemChamarOServico() throws Exception {
+        String etag = mockMvc.perform(get(MENSAL).with(logado()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        clearInvocations(relatorioService);
+
+        mockMvc.perform(get(MENSAL).with(logado()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(relatorioService, never()).getEstatisticasMensais(anyLong(), any());
+    }
+
+    @Test
+    void get_AposEscritaDeGasto_DeveResponderComNovaEtag() throws Exception {
+        String etag = mockMvc.perform(get(MENSAL).with(logado()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        SecurityContextHolder.getContext().setAuthentication(autenticacao());
+        Gasto gasto = new Gasto();
+        gasto.setDescricao("Etag");
+        gasto.setValor(new BigDecimal("10.00"));
+        gasto.setCategoria("Mercado");
+        gasto.setTipo("DESPESA");
+        gasto.setDataGasto(LocalDateTime.of(2025, 1, 10, 12, 0));
+        gastoService.salvar(gasto);
+
+        String novaEtag = mockMvc.perform(get(MENSAL).with(logado()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, novaEtag);
+    }
+
+    @Test
+    void get_DeOutroUsuario_NaoDeveCompartilharEtag() throws Exception {
+        String etag = mockMvc.perform(get(MENSAL).with(logado()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        UsuarioAutenticado outro = new UsuarioAutenticado(usuario.getId() + 1000, "outro@teste.com", "senha", List.of());
+
+        mockMvc.perform(get(MENSAL)
+                        .with(authentication(new UsernamePasswordAuthenticationToken(outro, null, outro.getAuthorities())))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private RequestPostProcessor logado() {
+        return authentication(autenticacao());
+    }
+
+    private UsernamePasswordAuthenticationToken autenticacao() {
+        return new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.meuGasto.finControl.controller;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.service.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"app.gastos.tamanho-maximo-pagina=5", "app.gastos.top-k.maximo=3"})
+class GastoControllerBuscaTest {
+
+    private static final Long USUARIO_ID = 1L;
+    private static final int TOTAL = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @BeforeEach
+    void setUp() {
+        gastoRepository.deleteAll();
+        List<Gasto> gastos = new ArrayList<>();
+        for (int i = 0; i < TOTAL; i++) {
+            Gasto gasto = new Gasto("Busca " + i, BigDecimal.valueOf(10 + i), i % 2 == 0 ? "Mercado" : "Lazer",
+                    i % 3 == 0 ? "RECEITA" : "DESPESA");
+            gasto.setDataGasto(LocalDateTime.of(2025, 4, 1, 12, 0).plusDays(i));
+            gasto.setUsuarioId(USUARIO_ID);
+            gastos.add(gasto);
+        }
+        gastoRepository.saveAll(gastos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+    }
+
+    @Test
+    void buscar_ComTamanhoAcimaDoMaximo_DeveLimitarAPagina() throws Exception {
+        mockMvc.perform(get("/api/gastos/search").param("size", "1000").with(logado()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageSize").value(5))
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void buscar_ComCriteriosCombinados_DeveFiltrarEOrdenar() throws Exception {
+        // Mercado (pares) e DESPESA (não múltiplos de 3): 2, 4, 8, 10; valor de 12 a 19 exclui o 10
+        mockMvc.perform(get("/api/gastos/search").with(logado())
+                        .param("categoria", "Mercado")
+                        .param("tipo", "DESPESA")
+                        .param("valorMinimo", "12")
+                        .param("valorMaximo", "19")
+                        .param("inicio", "2025-04-01T00:00:00")
+                        .param("ordem", "VALOR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].descricao").value(contains("Busca 8", "Busca 4", "Busca 2")))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void buscarEmFluxo_DeveEscreverTodosOsResultadosEmNdjson() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/gastos/search/stream").param("categoria", "Lazer").with(logado()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // 6 gastos de Lazer, lidos em fatias de 5
+        String[] linhas = corpo.strip().split("\n");
+        assertEquals(6, linhas.length);
+        assertTrue(linhas[0].contains("\"descricao\":\"Busca 11\""));
+    }
+
+    @Test
+    void buscarTexto_PorPrefixo_DeveLimitarAPaginaEMarcarOsTermos() throws Exception {
+        mockMvc.perform(get("/api/gastos/texto").param("q", "busc").param("size", "1000").with(logado()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].trechoDescricao").value(startsWith("<mark>Busca</mark> ")));
+    }
+
+    @Test
+    void buscar_ComTextoECategoria_DeveUsarOIndiceDeTexto() throws Exception {
+        mockMvc.perform(get("/api/gastos/search").with(logado())
+                        .param("texto", "BUSCA 1")
+                        .param("categoria", "Lazer")
+                        .param("ordem", "VALOR"))
+                .andExpect(status().isOk())
+                // palavras começando por "busca" e por "1": Busca 1 e Busca 11 (Busca 10 é Mercado)
+                .andExpect(jsonPath("$.content[*].descricao").value(contains("Busca 11", "Busca 1")));
+    }
+
+    @Test
+    void buscarMaisCaros_ComKAcimaDoMaximo_DeveLimitarEOrdenarPorValor() throws Exception {
+        mockMvc.perform(get("/api/gastos/estatisticas/top").param("k", "50").with(logado()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].descricao").value(contains("Busca 11", "Busca 10", "Busca 9")));
+    }
+
+    @Test
+    void buscarMaisCaros_PorCategoriaEPeriodo_DeveFiltrar() throws Exception {
+        // Lazer (ímpares) até 08/04: 1, 3, 5, 7
+        mockMvc.perform(get("/api/gastos/estatisticas/top").with(logado())
+                        .param("k", "2")
+                        .param("categoria", "Lazer")
+                        .param("fim", "2025-04-08T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].descricao").value(contains("Busca 7", "Busca 5")));
+    }
+
+    private RequestPostProcessor logado() {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(USUARIO_ID, "busca@teste.com", "senha", List.of());
+        return authentication(new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+}
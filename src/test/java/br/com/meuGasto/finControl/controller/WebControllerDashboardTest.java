@@ -0,0 +1,108 @@
+package br.com.meuGasto.finControl.controller;
+
+import br.com.meuGasto.finControl.dto.ResumoDashboardDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.service.GastoService;
+import br.com.meuGasto.finControl.service.UsuarioAutenticado;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WebControllerDashboardTest {
+
+    @Autowired
+    private WebController webController;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final Long USUARIO_ID = 1L;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        // principal com id, como na sessão real: o filtro por usuário não consulta a tabela de usuários
+        UsuarioAutenticado usuario = new UsuarioAutenticado(USUARIO_ID, "dashboard@teste.com", "senha", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+        gastoRepository.deleteAll();
+        Gasto alheio = gasto("Alheio", "999.00", "Outros", YearMonth.now().atDay(2).atStartOfDay());
+        alheio.setUsuarioId(USUARIO_ID + 1);
+        gastoRepository.save(alheio);
+        YearMonth mesAtual = YearMonth.now();
+        gastoRepository.saveAll(List.of(
+                // primeiro instante do mês conta como mês atual
+                gasto("Aluguel", "100.00", "Moradia", mesAtual.atDay(1).atStartOfDay()),
+                gasto("Mercado", "50.25", "Alimentação", mesAtual.atDay(1).atTime(18, 0)),
+                gasto("Restaurante", "20.00", "Alimentação", mesAtual.minusMonths(1).atEndOfMonth().atTime(23, 59)),
+                gasto("Cinema", "30.00", "Lazer", mesAtual.minusMonths(2).atDay(10).atStartOfDay())));
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void obterResumoDashboard_DeveCalcularTudoEmUmaConsulta() {
+        ResumoDashboardDTO resumo = gastoService.obterResumoDashboard();
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, new BigDecimal("200.25").compareTo(resumo.getTotalGastos()));
+        assertEquals(0, new BigDecimal("150.25").compareTo(resumo.getTotalGastosMes()));
+        assertEquals(3, resumo.getQuantidadeCategorias());
+        assertEquals(4, resumo.getQuantidadeGastos());
+    }
+
+    @Test
+    void dashboard_NaoDeveCarregarGastosNemRepetirConsultas() {
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        String view = webController.dashboard(model);
+
+        assertEquals("dashboard", view);
+        assertEquals(4L, model.get("quantidadeGastos"));
+        assertEquals(3L, model.get("quantidadeCategorias"));
+        assertEquals(0, estatisticas.getEntityStatistics(Gasto.class.getName()).getLoadCount());
+        // 1 consulta de agregados dos gastos + no máximo 2 do planejamento mensal (mês atual e fallback)
+        assertTrue(estatisticas.getPrepareStatementCount() <= 3, "consultas: " + estatisticas.getPrepareStatementCount());
+    }
+
+    private Gasto gasto(String descricao, String valor, String categoria, LocalDateTime data) {
+        Gasto gasto = new Gasto(descricao, new BigDecimal(valor), categoria, "DESPESA");
+        gasto.setDataGasto(data);
+        gasto.setUsuarioId(USUARIO_ID);
+        return gasto;
+    }
+}
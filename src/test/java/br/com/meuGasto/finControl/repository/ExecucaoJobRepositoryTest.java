@@ -0,0 +1,56 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExecucaoJobRepositoryTest {
+
+    private static final String JOB = "job-teste";
+
+    @Autowired
+    private ExecucaoJobRepository execucaoJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM execucoes_job WHERE job = ?", JOB);
+    }
+
+    @Test
+    void iniciar_ExecucaoExistente_DeveDevolverProgressoGravado() {
+        execucaoJobRepository.iniciar(JOB, "2025-01");
+        execucaoJobRepository.avancar(JOB, "2025-01", 40L, 38, 2);
+
+        ExecucaoJob execucao = execucaoJobRepository.iniciar(JOB, "2025-01");
+
+        assertEquals(ExecucaoJob.Status.EM_ANDAMENTO, execucao.status());
+        assertEquals(40L, execucao.ultimoId());
+        assertEquals(38L, execucao.processados());
+        assertEquals(2L, execucao.falhas());
+        assertEquals(1, execucaoJobRepository.buscarEmAndamento(JOB).size());
+    }
+
+    @Test
+    void concluir_DeveTirarExecucaoDasEmAndamento() {
+        execucaoJobRepository.iniciar(JOB, "2025-01");
+        execucaoJobRepository.iniciar(JOB, "2025-02");
+
+        execucaoJobRepository.concluir(JOB, "2025-01");
+
+        assertEquals(ExecucaoJob.Status.CONCLUIDO, execucaoJobRepository.buscar(JOB, "2025-01").orElseThrow().status());
+        assertEquals(1, execucaoJobRepository.buscarEmAndamento(JOB).size());
+        assertEquals("2025-02", execucaoJobRepository.buscarEmAndamento(JOB).get(0).referencia());
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.service.GastoService;
+import br.com.meuGasto.finControl.service.MovimentacaoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "planejamento@teste.com")
+class GastoPlanejamentoRepositoryTest {
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private GastoPlanejamentoRepository gastoPlanejamentoRepository;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Planejamento", "planejamento@teste.com", "planejamento@teste.com");
+        usuarioId = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = 'planejamento@teste.com'", Long.class);
+        gastoRepository.deleteAll();
+        gastoPlanejamentoRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        gastoPlanejamentoRepository.deleteAll();
+    }
+
+    @Test
+    void salvarEAtualizar_DevemManterUmUnicoPlanejamentoPorGasto() {
+        Gasto gasto = gastoService.salvar(gasto("Mercado", "50.00", LocalDateTime.of(2025, 5, 10, 9, 0)));
+        gastoService.atualizar(gasto.getId(), gasto("Mercado do mês", "75.50", LocalDateTime.of(2025, 5, 12, 9, 0)));
+        gastoService.atualizar(gasto.getId(), gasto("Mercado do mês", "80.00", LocalDateTime.of(2025, 5, 12, 9, 0)));
+
+        assertEquals(1, gastoPlanejamentoRepository.count());
+        var planejamento = gastoPlanejamentoRepository.findAll().get(0);
+        assertEquals(gasto.getId(), planejamento.getGastoId());
+        assertEquals(usuarioId, planejamento.getUsuarioId());
+        assertEquals("Mercado do mês", planejamento.getDescricao());
+        assertEquals(0, new BigDecimal("80.00").compareTo(planejamento.getValor()));
+        assertEquals(LocalDate.of(2025, 5, 12), planejamento.getData());
+        assertEquals(0, new BigDecimal("80.00").compareTo(
+                gastoPlanejamentoRepository.sumByPeriodo(usuarioId, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31))));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                gastoPlanejamentoRepository.sumByPeriodo(usuarioId + 1, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31))));
+    }
+
+    @Test
+    void sincronizarComGastos_EmLote_DeveInserirOuAtualizarPorGasto() {
+        List<Gasto> gastos = gastoRepository.saveAll(List.of(
+                gasto("A", "1.00", LocalDateTime.of(2025, 6, 1, 8, 0)),
+                gasto("B", "2.00", LocalDateTime.of(2025, 6, 2, 8, 0)),
+                gasto("C", "3.00", LocalDateTime.of(2025, 6, 3, 8, 0))));
+        gastos.forEach(g -> g.setUsuarioId(usuarioId));
+
+        transactionTemplate.executeWithoutResult(status -> gastoPlanejamentoRepository.sincronizarComGastos(gastos));
+        gastos.get(1).setValor(new BigDecimal("20.00"));
+        transactionTemplate.executeWithoutResult(status -> gastoPlanejamentoRepository.sincronizarComGastos(gastos));
+
+        assertEquals(3, gastoPlanejamentoRepository.count());
+        assertEquals(0, new BigDecimal("24.00").compareTo(
+                gastoPlanejamentoRepository.sumByPeriodo(usuarioId, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30))));
+    }
+
+    @Test
+    void planejamentoDuplicado_DeveSerRejeitadoPeloBanco() {
+        Gasto gasto = gastoService.salvar(gasto("Luz", "120.00", LocalDateTime.of(2025, 7, 5, 10, 0)));
+
+        DataAccessException erro = assertThrows(DataAccessException.class, () -> jdbcTemplate.update(
+                "INSERT INTO gasto_planejamento (gasto_id, descricao, valor) VALUES (?, 'duplicado', 1)", gasto.getId()));
+
+        assertTrue(erro.getMessage().contains("UNIQUE constraint failed"));
+        assertEquals(1, gastoPlanejamentoRepository.count());
+    }
+
+    @Test
+    void excluir_DeveRemoverPlanejamentoVinculado() {
+        Gasto primeiro = gastoService.salvar(gasto("Água", "40.00", LocalDateTime.of(2025, 8, 1, 10, 0)));
+        Gasto segundo = gastoService.salvar(gasto("Gás", "60.00", LocalDateTime.of(2025, 8, 2, 10, 0)));
+
+        gastoService.excluir(primeiro.getId());
+        movimentacaoService.excluirMovimentacao(segundo.getId());
+
+        assertEquals(0, gastoPlanejamentoRepository.count());
+    }
+
+    private static Gasto gasto(String descricao, String valor, LocalDateTime data) {
+        Gasto gasto = new Gasto(descricao, new BigDecimal(valor), "Casa", "DESPESA");
+        gasto.setDataGasto(data);
+        return gasto;
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GastoRepositoryBuscaTextoTest {
+
+    private static final Long USUARIO_ID = 1L;
+    private static final Long OUTRO_USUARIO_ID = 2L;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    private Gasto feira;
+    private Gasto farmacia;
+
+    @BeforeEach
+    void setUp() {
+        gastoRepository.deleteAll();
+        feira = gasto(USUARIO_ID, "Feira da semana", "frutas e verduras");
+        farmacia = gasto(USUARIO_ID, "Farmácia", "remédio <gripe> comprado na feira");
+        gasto(USUARIO_ID, "Cinema", null);
+        gasto(OUTRO_USUARIO_ID, "Feira do vizinho", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+    }
+
+    @Test
+    void buscarTexto_PorPrefixo_DeveOrdenarPelaRelevancia() {
+        List<ResultadoBuscaTexto> resultados = gastoRepository.buscarTexto(USUARIO_ID, "fei", 10, 0);
+
+        // o termo na descrição pesa mais que nas observações
+        assertEquals(List.of(feira.getId(), farmacia.getId()), ids(resultados));
+        assertTrue(resultados.get(0).relevancia() > resultados.get(1).relevancia());
+        assertEquals("<mark>Feira</mark> da semana", resultados.get(0).trechoDescricao());
+    }
+
+    @Test
+    void buscarTexto_SemAcento_DeveEncontrarEEscaparTrecho() {
+        List<ResultadoBuscaTexto> resultados = gastoRepository.buscarTexto(USUARIO_ID, "remedio gripe", 10, 0);
+
+        assertEquals(List.of(farmacia.getId()), ids(resultados));
+        assertEquals("<mark>remédio</mark> &lt;<mark>gripe</mark>&gt; comprado na feira",
+                resultados.get(0).trechoObservacoes());
+    }
+
+    @Test
+    void buscarTexto_OperadoresESemPalavras_NaoDevemFalhar() {
+        assertEquals(List.of(), gastoRepository.buscarTexto(USUARIO_ID, " \"*( ", 10, 0));
+        // "-" e aspas não viram operadores: as duas palavras continuam obrigatórias
+        assertEquals(List.of(feira.getId()), ids(gastoRepository.buscarTexto(USUARIO_ID, "feira -semana\"", 10, 0)));
+    }
+
+    @Test
+    void buscarTexto_AposAlterarEExcluir_DeveRefletirGatilhos() {
+        farmacia.setDescricao("Drogaria");
+        farmacia.setObservacoes(null);
+        gastoRepository.save(farmacia);
+        gastoRepository.delete(feira);
+
+        assertEquals(List.of(), gastoRepository.buscarTexto(USUARIO_ID, "feira", 10, 0));
+        assertEquals(List.of(farmacia.getId()), ids(gastoRepository.buscarTexto(USUARIO_ID, "drog", 10, 0)));
+    }
+
+    @Test
+    void buscarTexto_Paginado_DeveRespeitarLimiteEDeslocamento() {
+        assertEquals(List.of(farmacia.getId()), ids(gastoRepository.buscarTexto(USUARIO_ID, "feira", 1, 1)));
+    }
+
+    private Gasto gasto(Long usuarioId, String descricao, String observacoes) {
+        Gasto gasto = new Gasto(descricao, BigDecimal.TEN, "Geral", "DESPESA");
+        gasto.setObservacoes(observacoes);
+        gasto.setDataGasto(LocalDateTime.of(2025, 3, 10, 12, 0));
+        gasto.setUsuarioId(usuarioId);
+        return gastoRepository.save(gasto);
+    }
+
+    private static List<Long> ids(List<ResultadoBuscaTexto> resultados) {
+        return resultados.stream().map(ResultadoBuscaTexto::id).toList();
+    }
+}
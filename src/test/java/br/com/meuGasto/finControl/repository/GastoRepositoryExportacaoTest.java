@@ -0,0 +1,65 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GastoRepositoryExportacaoTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 8, 30);
+    private static final Long USUARIO_ID = 1L;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @BeforeEach
+    void setUp() {
+        gastoRepository.deleteAll();
+        List<Gasto> gastos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Gasto gasto = new Gasto("Gasto " + i, new BigDecimal("12.34").add(BigDecimal.valueOf(i)), "Mercado", "DESPESA");
+            gasto.setDataGasto(BASE.plusDays(9 - i));
+            gasto.setObservacoes(i == 0 ? null : "obs " + i);
+            gasto.setUsuarioId(USUARIO_ID);
+            gastos.add(gasto);
+        }
+        // gasto de outro usuário no mesmo período: não pode aparecer na exportação
+        Gasto alheio = new Gasto("Alheio", BigDecimal.TEN, "Mercado", "DESPESA");
+        alheio.setDataGasto(BASE.plusDays(4));
+        alheio.setUsuarioId(USUARIO_ID + 1);
+        gastos.add(alheio);
+        gastoRepository.saveAll(gastos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+    }
+
+    @Test
+    void percorrerPorPeriodo_DeveEntregarLinhasDoPeriodoEmOrdemDeData() {
+        List<LinhaExportacaoGasto> linhas = new ArrayList<>();
+
+        gastoRepository.percorrerPorPeriodo(USUARIO_ID, BASE.plusDays(2), BASE.plusDays(6), linhas::add);
+
+        assertEquals(5, linhas.size());
+        assertEquals(BASE.plusDays(2), linhas.get(0).dataGasto());
+        assertEquals(BASE.plusDays(6), linhas.get(4).dataGasto());
+        assertEquals("Gasto 7", linhas.get(0).descricao());
+        assertEquals(0, new BigDecimal("19.34").compareTo(linhas.get(0).valor()));
+        assertEquals("obs 7", linhas.get(0).observacoes());
+    }
+}
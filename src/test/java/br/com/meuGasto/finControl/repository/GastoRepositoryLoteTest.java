@@ -0,0 +1,144 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.dto.MovimentacaoDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.exception.LoteInvalidoException;
+import br.com.meuGasto.finControl.service.MovimentacaoService;
+import br.com.meuGasto.finControl.service.ResumoGastoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "lote@teste.com")
+class GastoRepositoryLoteTest {
+
+    private static final int QUANTIDADE = 120;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Lote", "lote@teste.com", "lote@teste.com");
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void criarMovimentacoesEmLote_DeveInserirEmLotesJdbc() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+
+        List<MovimentacaoDTO> criadas = movimentacaoService.criarMovimentacoesEmLote(movimentacoes(QUANTIDADE));
+
+        assertEquals(QUANTIDADE, criadas.size());
+        Set<Long> ids = new HashSet<>();
+        criadas.forEach(dto -> ids.add(dto.getId()));
+        assertFalse(ids.contains(null));
+        assertEquals(QUANTIDADE, ids.size());
+        assertEquals(QUANTIDADE, gastoRepository.count());
+        // os 120 inserts vão em lotes de hibernate.jdbc.batch_size, e não um statement por linha
+        assertTrue(estatisticas.getPrepareStatementCount() <= QUANTIDADE / 10,
+                "statements preparados: " + estatisticas.getPrepareStatementCount());
+        assertTrue(resumoGastoService.verificarConsistencia().isEmpty());
+        Long usuarioId = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = 'lote@teste.com'", Long.class);
+        assertEquals(QUANTIDADE, gastoRepository.countByUsuarioId(usuarioId));
+    }
+
+    @Test
+    void criarMovimentacoesEmLote_ComItemInvalido_NaoDeveGravarNada() {
+        List<MovimentacaoDTO> lote = movimentacoes(10);
+        lote.get(3).setValor(BigDecimal.ZERO);
+        lote.get(7).setDescricao(" ");
+
+        LoteInvalidoException erro = assertThrows(LoteInvalidoException.class,
+                () -> movimentacaoService.criarMovimentacoesEmLote(lote));
+
+        assertEquals(2, erro.getErros().size());
+        assertTrue(erro.getErros().get(0).startsWith("[3] valor"));
+        assertTrue(erro.getErros().get(1).startsWith("[7] descricao"));
+        assertEquals(0, gastoRepository.count());
+    }
+
+    @Test
+    void geradorDeIds_AposRollback_NaoDeveRepetirIds() {
+        // reserva um bloco numa transação desfeita e continua usando o gerador depois dela
+        transactionTemplate.executeWithoutResult(status -> {
+            gastoRepository.save(gasto("Desfeito"));
+            gastoRepository.flush();
+            status.setRollbackOnly();
+        });
+        List<Gasto> gastos = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            gastos.add(gastoRepository.save(gasto("Gasto " + i)));
+        }
+
+        assertEquals(60, gastoRepository.count());
+        assertEquals(60, gastos.stream().map(Gasto::getId).distinct().count());
+    }
+
+    private static List<MovimentacaoDTO> movimentacoes(int quantidade) {
+        List<MovimentacaoDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            MovimentacaoDTO dto = new MovimentacaoDTO();
+            dto.setDescricao("Compra " + i);
+            dto.setValor(new BigDecimal("12.34").add(BigDecimal.valueOf(i)));
+            dto.setCategoria(i % 3 == 0 ? "Mercado" : "Lazer");
+            dto.setTipo("DESPESA");
+            dto.setData(LocalDate.of(2025, 3, 1).plusDays(i % 40));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static Gasto gasto(String descricao) {
+        Gasto gasto = new Gasto(descricao, new BigDecimal("10.00"), "Teste", "DESPESA");
+        gasto.setDataGasto(LocalDateTime.of(2025, 3, 1, 10, 0));
+        return gasto;
+    }
+}
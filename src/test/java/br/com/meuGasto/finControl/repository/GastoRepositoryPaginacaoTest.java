@@ -0,0 +1,183 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.exception.CursorInvalidoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GastoRepositoryPaginacaoTest {
+
+    private static final int TOTAL = 25;
+    private static final Long USUARIO_ID = 1L;
+    private static final Long OUTRO_USUARIO_ID = 2L;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @BeforeEach
+    void setUp() {
+        gastoRepository.deleteAll();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 12, 0);
+        List<Gasto> gastos = new ArrayList<>();
+        for (int i = 0; i < TOTAL; i++) {
+            // datas e valores repetidos para exercitar o desempate por id
+            Gasto gasto = new Gasto("Gasto " + i, BigDecimal.valueOf(10 + i % 4), i % 2 == 0 ? "Mercado" : "Lazer", "DESPESA");
+            gasto.setDataGasto(base.minusDays(i / 3));
+            gasto.setUsuarioId(USUARIO_ID);
+            gastos.add(gasto);
+        }
+        for (int i = 0; i < 5; i++) {
+            Gasto alheio = new Gasto("Alheio " + i, BigDecimal.valueOf(11), "Mercado", "DESPESA");
+            alheio.setDataGasto(base.minusDays(i));
+            alheio.setUsuarioId(OUTRO_USUARIO_ID);
+            gastos.add(alheio);
+        }
+        gastoRepository.saveAll(gastos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+    }
+
+    @Test
+    void buscarFatia_PercorrendoPorData_DeveRetornarTodosUmaVezNaOrdem() {
+        List<Gasto> percorridos = percorrer(null, OrdenacaoGasto.DATA, 7);
+
+        assertEquals(TOTAL, percorridos.size());
+        assertEquals(TOTAL, idsDistintos(percorridos));
+        for (int i = 1; i < percorridos.size(); i++) {
+            Gasto anterior = percorridos.get(i - 1);
+            Gasto atual = percorridos.get(i);
+            int comparacao = atual.getDataGasto().compareTo(anterior.getDataGasto());
+            assertTrue(comparacao < 0 || (comparacao == 0 && atual.getId() < anterior.getId()));
+        }
+    }
+
+    @Test
+    void buscarFatia_PorValorComFiltro_DeveRespeitarFiltroENaoRepetir() {
+        List<Gasto> percorridos = percorrer(GastoSpecifications.categoria("Mercado"), OrdenacaoGasto.VALOR, 4);
+
+        assertEquals(13, percorridos.size());
+        assertEquals(13, idsDistintos(percorridos));
+        assertTrue(percorridos.stream().allMatch(g -> "Mercado".equals(g.getCategoria())));
+    }
+
+    @Test
+    void buscarFatia_PorCategoria_DeveRetornarTodos() {
+        List<Gasto> percorridos = percorrer(null, OrdenacaoGasto.CATEGORIA, 10);
+
+        assertEquals(TOTAL, idsDistintos(percorridos));
+        assertEquals("Lazer", percorridos.get(0).getCategoria());
+        assertEquals("Mercado", percorridos.get(TOTAL - 1).getCategoria());
+    }
+
+    @Test
+    void buscarFatia_DeveRetornarSomenteGastosDoUsuario() {
+        List<Gasto> proprios = percorrer(null, OrdenacaoGasto.DATA, 100);
+        List<Gasto> alheios = percorrer(OUTRO_USUARIO_ID, GastoSpecifications.categoria("Mercado"), OrdenacaoGasto.VALOR, 2);
+
+        assertTrue(proprios.stream().allMatch(g -> USUARIO_ID.equals(g.getUsuarioId())));
+        assertEquals(5, alheios.size());
+        assertTrue(alheios.stream().allMatch(g -> g.getDescricao().startsWith("Alheio")));
+    }
+
+    @Test
+    void buscarFatia_ComFiltroCombinado_DeveAplicarTodosOsCriterios() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 12, 0);
+        FiltroGasto filtro = new FiltroGasto("Mercado", "DESPESA", BigDecimal.valueOf(11), BigDecimal.valueOf(12),
+                base.minusDays(4), base, null);
+
+        List<Gasto> percorridos = percorrer(filtro.especificacao(), OrdenacaoGasto.VALOR, 2);
+
+        List<Gasto> esperados = gastoRepository.findByUsuarioId(USUARIO_ID).stream()
+                .filter(g -> "Mercado".equals(g.getCategoria()))
+                .filter(g -> g.getValor().compareTo(BigDecimal.valueOf(11)) >= 0 && g.getValor().compareTo(BigDecimal.valueOf(12)) <= 0)
+                .filter(g -> !g.getDataGasto().isBefore(base.minusDays(4)))
+                .toList();
+        assertFalse(esperados.isEmpty());
+        assertEquals(esperados.size(), idsDistintos(percorridos));
+        assertEquals(esperados.stream().map(Gasto::getId).collect(Collectors.toSet()),
+                percorridos.stream().map(Gasto::getId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void buscarFatia_ComTexto_DeveProcurarEmDescricaoEObservacoes() {
+        Gasto gasto = gastoRepository.findByUsuarioId(USUARIO_ID).get(0);
+        gasto.setObservacoes("Feira de domingo");
+        gastoRepository.save(gasto);
+
+        List<Gasto> porObservacao = percorrer(new FiltroGasto(null, null, null, null, null, null, "FEIRA").especificacao(),
+                OrdenacaoGasto.DATA, 10);
+        List<Gasto> porDescricao = percorrer(new FiltroGasto(null, null, null, null, null, null, "gasto 1").especificacao(),
+                OrdenacaoGasto.DATA, 10);
+
+        assertEquals(List.of(gasto.getId()), porObservacao.stream().map(Gasto::getId).toList());
+        // "Gasto 1" e "Gasto 10".."Gasto 19"
+        assertEquals(11, porDescricao.size());
+        assertNull(new FiltroGasto(null, " ", null, null, null, null, "").especificacao());
+    }
+
+    @Test
+    void percorrer_DeveEntregarTodosOsGastosEmFatias() {
+        List<Gasto> entregues = new ArrayList<>();
+
+        gastoRepository.percorrer(USUARIO_ID, GastoSpecifications.categoria("Lazer"), OrdenacaoGasto.DATA, 5, entregues::add);
+
+        assertEquals(12, entregues.size());
+        assertEquals(12, idsDistintos(entregues));
+    }
+
+    @Test
+    void decodificar_CursorDeOutraOrdenacao_DeveLancarExcecao() {
+        Gasto gasto = gastoRepository.findAll().get(0);
+        String token = CursorGasto.apos(gasto, OrdenacaoGasto.VALOR).codificar();
+
+        assertThrows(CursorInvalidoException.class, () -> CursorGasto.decodificar(token, OrdenacaoGasto.DATA));
+        assertThrows(CursorInvalidoException.class, () -> CursorGasto.decodificar("lixo", OrdenacaoGasto.DATA));
+    }
+
+    private List<Gasto> percorrer(Specification<Gasto> filtro, OrdenacaoGasto ordem, int tamanho) {
+        return percorrer(USUARIO_ID, filtro, ordem, tamanho);
+    }
+
+    private List<Gasto> percorrer(Long usuarioId, Specification<Gasto> filtro, OrdenacaoGasto ordem, int tamanho) {
+        List<Gasto> todos = new ArrayList<>();
+        CursorGasto cursor = null;
+        Slice<Gasto> fatia;
+        do {
+            fatia = gastoRepository.buscarFatia(usuarioId, filtro, ordem, cursor, tamanho);
+            todos.addAll(fatia.getContent());
+            if (fatia.hasNext()) {
+                // passa pelo token opaco, como faria o cliente
+                String token = CursorGasto.apos(todos.get(todos.size() - 1), ordem).codificar();
+                cursor = CursorGasto.decodificar(token, ordem);
+            }
+        } while (fatia.hasNext());
+        return todos;
+    }
+
+    private long idsDistintos(List<Gasto> gastos) {
+        Set<Long> ids = new HashSet<>();
+        gastos.forEach(g -> ids.add(g.getId()));
+        return ids.size();
+    }
+}
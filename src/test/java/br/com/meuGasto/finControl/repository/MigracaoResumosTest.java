@@ -0,0 +1,75 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrações versionadas sobre um banco novo: V5 preenche os consolidados só com o esquema da versão 4 e
+ * V10 os passa para o dono dos gastos; mudanças de esquema depois disso vão em migrações novas.
+ */
+class MigracaoResumosTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void migrar_GastosAnterioresAosConsolidados_DevePreencherELevarParaOUsuario() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + pasta.resolve("migracao.db"), true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            migrarAte(dataSource, "4");
+            jdbcTemplate.update("INSERT INTO usuarios (id, ativo, email, nome, senha) VALUES (7, 1, 'dono@teste.com', 'Dono', 'x')");
+            inserirGasto(jdbcTemplate, "10.01", "Mercado", LocalDateTime.of(2025, 1, 10, 9, 0));
+            inserirGasto(jdbcTemplate, "2.50", "Mercado", LocalDateTime.of(2025, 1, 10, 23, 59));
+            inserirGasto(jdbcTemplate, "4.00", "Mercado", LocalDateTime.of(2025, 1, 11, 0, 0));
+
+            migrarAte(dataSource, "5");
+
+            assertEquals(List.of(Map.of("dia", "2025-01-10", "total_centavos", 1251L, "quantidade", 2L),
+                            Map.of("dia", "2025-01-11", "total_centavos", 400L, "quantidade", 1L)),
+                    jdbcTemplate.queryForList("SELECT dia, total_centavos, quantidade FROM gastos_resumo_diario ORDER BY dia")
+                            .stream().map(MigracaoResumosTest::numerosComoLong).toList());
+
+            migrarAte(dataSource, null);
+
+            assertEquals(List.of(Map.of("usuario_id", 7L, "ano_mes", "2025-01", "total_centavos", 1651L, "quantidade", 3L)),
+                    jdbcTemplate.queryForList("SELECT usuario_id, ano_mes, total_centavos, quantidade FROM gastos_resumo_mensal")
+                            .stream().map(MigracaoResumosTest::numerosComoLong).toList());
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static void migrarAte(SingleConnectionDataSource dataSource, String versao) {
+        var configuracao = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+        if (versao != null) {
+            configuracao.target(versao);
+        }
+        configuracao.load().migrate();
+    }
+
+    private static void inserirGasto(JdbcTemplate jdbcTemplate, String valor, String categoria, LocalDateTime data) {
+        // o dialeto SQLite grava timestamps em milissegundos no fuso da JVM
+        jdbcTemplate.update("INSERT INTO gastos (categoria, data_gasto, descricao, tipo, valor) VALUES (?, ?, 'Migração', 'DESPESA', ?)",
+                categoria, data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), new BigDecimal(valor));
+    }
+
+    private static Map<String, Object> numerosComoLong(Map<String, Object> linha) {
+        Map<String, Object> convertida = new LinkedHashMap<>();
+        linha.forEach((coluna, valor) -> convertida.put(coluna, valor instanceof Number numero ? numero.longValue() : valor));
+        return convertida;
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.meuGasto.finControl.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MigracoesIndicesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void consultaPorPeriodo_DeveUsarIndiceDeUsuarioEDataGasto() {
+        String plano = planoDe("SELECT * FROM gastos WHERE usuario_id = 1 AND data_gasto BETWEEN 1 AND 2");
+
+        assertTrue(plano.contains("ix_gastos_usuario_data_gasto"), plano);
+    }
+
+    @Test
+    void consultaPorCategoriaEPeriodo_DeveUsarIndiceComposto() {
+        String plano = planoDe("SELECT * FROM gastos WHERE usuario_id = 1 AND categoria = 'X' AND data_gasto BETWEEN 1 AND 2");
+
+        assertTrue(plano.contains("ix_gastos_usuario_categoria_data_gasto"), plano);
+    }
+
+    @Test
+    void maioresGastos_DevemLerOIndiceDeValorSemOrdenar() {
+        String plano = planoDe("SELECT * FROM gastos WHERE usuario_id = 1 ORDER BY valor DESC, id DESC LIMIT 10");
+        String planoCategoria = planoDe("SELECT * FROM gastos WHERE usuario_id = 1 AND categoria = 'X' ORDER BY valor DESC, id DESC LIMIT 10");
+
+        assertTrue(plano.contains("ix_gastos_usuario_valor"), plano);
+        assertFalse(plano.contains("TEMP B-TREE"), plano);
+        assertTrue(planoCategoria.contains("ix_gastos_usuario_categoria_valor"), planoCategoria);
+        assertFalse(planoCategoria.contains("TEMP B-TREE"), planoCategoria);
+    }
+
+    @Test
+    void buscasPorChave_DevemUsarIndicesUnicos() {
+        assertTrue(planoDe("SELECT * FROM gasto_planejamento WHERE gasto_id = 1").contains("ux_gasto_planejamento_gasto_id"));
+        assertTrue(planoDe("SELECT * FROM usuarios WHERE email = 'a@b.com'").contains("INDEX"));
+        assertTrue(planoDe("SELECT * FROM planejamento_mensal WHERE usuario_id = 1 AND mes_ano = '2025-01'")
+                .contains("ix_planejamento_mensal_usuario_mes_ano"));
+        assertTrue(planoDe("SELECT * FROM metas WHERE usuario_id = 1 ORDER BY data_inicio DESC")
+                .contains("ix_metas_usuario_data_inicio"));
+        assertTrue(planoDe("SELECT SUM(valor) FROM gasto_planejamento WHERE usuario_id = 1 AND data BETWEEN '2025-01-01' AND '2025-01-31'")
+                .contains("ix_gasto_planejamento_usuario_data_valor"));
+    }
+
+    private String planoDe(String sql) {
+        List<String> linhas = jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, i) -> rs.getString("detail"));
+        return String.join("\n", linhas);
+    }
+}
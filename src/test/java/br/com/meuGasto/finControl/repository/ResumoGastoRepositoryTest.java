@@ -0,0 +1,150 @@
+package br.com.meuGasto.finControl.repository;
+
+import br.com.meuGasto.finControl.dto.MovimentacaoDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.service.GastoService;
+import br.com.meuGasto.finControl.service.MovimentacaoService;
+import br.com.meuGasto.finControl.service.ResumoGastoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "resumo@teste.com")
+class ResumoGastoRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 20, 10, 15);
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Resumo", "resumo@teste.com", "resumo@teste.com");
+        usuarioId = jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = 'resumo@teste.com'", Long.class);
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+        // 100 dias a partir de 20/01, com dois lançamentos por dia em horários distintos
+        for (int i = 0; i < 100; i++) {
+            gastoService.salvar(gasto("Mercado " + i, "10.05", i % 2 == 0 ? "Mercado" : "Lazer", "DESPESA", BASE.plusDays(i)));
+            gastoService.salvar(gasto("Extra " + i, "0.10", "Salario", "RECEITA", BASE.plusDays(i).plusHours(12)));
+        }
+        // lançamentos de outro usuário nos mesmos dias: não podem entrar no resumo
+        for (int i = 0; i < 100; i += 7) {
+            Gasto alheio = gasto("Alheio " + i, "1000.00", "Mercado", "DESPESA", BASE.plusDays(i));
+            alheio.setUsuarioId(usuarioId + 1);
+            transactionTemplate.executeWithoutResult(status -> resumoGastoService.registrar(gastoRepository.save(alheio)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void resumir_DeveCoincidirComSomaDosGastosEmPeriodosComDiasEMesesParciais() {
+        List<LocalDateTime[]> periodos = List.of(
+                new LocalDateTime[]{BASE.minusDays(30), BASE.plusDays(200)},
+                new LocalDateTime[]{LocalDateTime.of(2025, 1, 25, 13, 0), LocalDateTime.of(2025, 4, 3, 9, 0)},
+                new LocalDateTime[]{LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 3, 31, 23, 59, 59, 999_000_000)},
+                new LocalDateTime[]{LocalDateTime.of(2025, 2, 10, 0, 0), LocalDateTime.of(2025, 2, 20, 23, 59)},
+                new LocalDateTime[]{LocalDateTime.of(2025, 3, 5, 11, 0), LocalDateTime.of(2025, 3, 5, 23, 0)});
+
+        for (LocalDateTime[] periodo : periodos) {
+            assertEquals(somarGastos(periodo[0], periodo[1]), agrupar(resumoGastoService.resumir(usuarioId, periodo[0], periodo[1])),
+                    "período " + periodo[0] + " a " + periodo[1]);
+        }
+    }
+
+    @Test
+    void escritas_DevemManterConsolidadosConsistentes() {
+        Gasto primeiro = gastoRepository.findByUsuarioId(usuarioId).get(0);
+        Gasto alterado = gasto("Alterado", "99.99", "Viagem", "DESPESA", BASE.plusMonths(6));
+        gastoService.atualizar(primeiro.getId(), alterado);
+
+        MovimentacaoDTO dto = new MovimentacaoDTO();
+        dto.setDescricao("Movimentação");
+        dto.setValor(new BigDecimal("7.50"));
+        dto.setCategoria("Mercado");
+        dto.setTipo("DESPESA");
+        dto.setData(LocalDate.of(2025, 2, 14));
+        MovimentacaoDTO criada = movimentacaoService.criarMovimentacao(dto);
+        dto.setValor(new BigDecimal("8.25"));
+        movimentacaoService.atualizarMovimentacao(criada.getId(), dto);
+
+        Gasto segundo = gastoRepository.findByUsuarioId(usuarioId).get(1);
+        gastoService.excluir(segundo.getId());
+
+        assertTrue(resumoGastoService.verificarConsistencia().isEmpty());
+    }
+
+    @Test
+    void reconstruir_DeveCorrigirConsolidadosDivergentes() {
+        jdbcTemplate.update("UPDATE gastos_resumo_mensal SET total_centavos = total_centavos + 1");
+        jdbcTemplate.update("DELETE FROM gastos_resumo_diario WHERE dia = '2025-02-01'");
+        assertFalse(resumoGastoService.verificarConsistencia().isEmpty());
+
+        resumoGastoService.reconstruir();
+
+        assertTrue(resumoGastoService.verificarConsistencia().isEmpty());
+    }
+
+    private Map<String, BigDecimal> somarGastos(LocalDateTime inicio, LocalDateTime fim) {
+        Map<String, BigDecimal> totais = new HashMap<>();
+        for (Gasto gasto : gastoRepository.findAll()) {
+            if (gasto.getUsuarioId() == usuarioId && !gasto.getDataGasto().isBefore(inicio) && !gasto.getDataGasto().isAfter(fim)) {
+                totais.merge(gasto.getCategoria() + "/" + gasto.getTipo(), gasto.getValor().setScale(2), BigDecimal::add);
+            }
+        }
+        return totais;
+    }
+
+    private static Map<String, BigDecimal> agrupar(List<LinhaResumo> linhas) {
+        Map<String, BigDecimal> totais = new HashMap<>();
+        linhas.forEach(linha -> totais.merge(linha.categoria() + "/" + linha.tipo(), linha.total(), BigDecimal::add));
+        return totais;
+    }
+
+    private static Gasto gasto(String descricao, String valor, String categoria, String tipo, LocalDateTime data) {
+        Gasto gasto = new Gasto(descricao, new BigDecimal(valor), categoria, tipo);
+        gasto.setDataGasto(data);
+        return gasto;
+    }
+}
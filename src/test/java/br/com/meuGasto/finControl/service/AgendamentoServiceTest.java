@@ -1,26 +1,39 @@
 package br.com.meuGasto.finControl.service;
 
 import br.com.meuGasto.finControl.entity.Usuario;
+import br.com.meuGasto.finControl.repository.ExecucaoJob;
+import br.com.meuGasto.finControl.repository.ExecucaoJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class AgendamentoServiceTest {
 
+    private static final String JOB = AgendamentoService.JOB_RELATORIO_MENSAL;
+    private static final YearMonth MES = YearMonth.of(2025, 1);
+    private static final int TAMANHO_PAGINA = 2;
+
     @Mock
     private RelatorioService relatorioService;
 
@@ -30,7 +43,11 @@ public class AgendamentoServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
-    @InjectMocks
+    @Mock
+    private ExecucaoJobRepository execucaoJobRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private AgendamentoService agendamentoService;
 
     private Usuario usuario1;
@@ -39,6 +56,13 @@ public class AgendamentoServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        agendamentoService = new AgendamentoService(relatorioService, notificacaoService, usuarioService,
+                execucaoJobRepository, mock(PlatformTransactionManager.class), meterRegistry, TAMANHO_PAGINA);
+        lenient().when(execucaoJobRepository.iniciar(JOB, "2025-01"))
+                .thenReturn(new ExecucaoJob(JOB, "2025-01", ExecucaoJob.Status.EM_ANDAMENTO, 0L, 0L, 0L));
+        lenient().when(usuarioService.listarAtivosAposId(anyLong(), anyInt())).thenReturn(List.of());
+
         usuario1 = new Usuario();
         usuario1.setId(1L);
         usuario1.setEmail("user1@example.com");
@@ -64,35 +88,93 @@ public class AgendamentoServiceTest {
 
     @Test
     void enviarRelatorioMensal_DeveEnviarParaTodosUsuarios() {
-        when(usuarioService.listarTodos()).thenReturn(Arrays.asList(usuario1, usuario2));
-        when(relatorioService.getEstatisticasMensais(any(LocalDateTime.class))).thenReturn(estatisticasMock);
+        when(usuarioService.listarAtivosAposId(0L, TAMANHO_PAGINA)).thenReturn(Arrays.asList(usuario1, usuario2));
+        when(relatorioService.getEstatisticasMensais(anyLong(), any(YearMonth.class))).thenReturn(estatisticasMock);
         doNothing().when(notificacaoService).enviarRelatorioMensal(anyString(), anyString());
 
-        agendamentoService.enviarRelatorioMensal();
+        agendamentoService.enviarRelatorioMensal(MES);
 
-        verify(usuarioService).listarTodos();
-        verify(relatorioService, times(2)).getEstatisticasMensais(any(LocalDateTime.class));
+        verify(relatorioService).getEstatisticasMensais(1L, MES);
+        verify(relatorioService).getEstatisticasMensais(2L, MES);
         verify(notificacaoService, times(2)).enviarRelatorioMensal(anyString(), anyString());
+        verify(execucaoJobRepository).avancar(JOB, "2025-01", 2L, 2, 0);
+        verify(execucaoJobRepository).concluir(JOB, "2025-01");
+    }
+
+    @Test
+    void enviarRelatorioMensal_DevePercorrerUsuariosEmPaginas() {
+        Usuario usuario3 = new Usuario();
+        usuario3.setId(3L);
+        usuario3.setEmail("user3@example.com");
+        when(usuarioService.listarAtivosAposId(0L, TAMANHO_PAGINA)).thenReturn(Arrays.asList(usuario1, usuario2));
+        when(usuarioService.listarAtivosAposId(2L, TAMANHO_PAGINA)).thenReturn(List.of(usuario3));
+        when(relatorioService.getEstatisticasMensais(anyLong(), any(YearMonth.class))).thenReturn(estatisticasMock);
+
+        agendamentoService.enviarRelatorioMensal(MES);
+
+        verify(execucaoJobRepository).avancar(JOB, "2025-01", 2L, 2, 0);
+        verify(execucaoJobRepository).avancar(JOB, "2025-01", 3L, 1, 0);
+        verify(notificacaoService, times(3)).enviarRelatorioMensal(anyString(), anyString());
+        assertEquals(3.0, meterRegistry.get("relatorio.mensal.usuarios").tag("resultado", "enfileirado").counter().count());
+        assertEquals(1L, meterRegistry.get("relatorio.mensal.duracao").timer().count());
+    }
+
+    @Test
+    void enviarRelatorioMensal_ExecucaoInterrompida_DeveRetomarDoCheckpoint() {
+        when(execucaoJobRepository.iniciar(JOB, "2025-01"))
+                .thenReturn(new ExecucaoJob(JOB, "2025-01", ExecucaoJob.Status.EM_ANDAMENTO, 1L, 1L, 0L));
+        when(usuarioService.listarAtivosAposId(1L, TAMANHO_PAGINA)).thenReturn(List.of(usuario2));
+        when(relatorioService.getEstatisticasMensais(anyLong(), any(YearMonth.class))).thenReturn(estatisticasMock);
+
+        agendamentoService.enviarRelatorioMensal(MES);
+
+        verify(notificacaoService, never()).enviarRelatorioMensal(eq("user1@example.com"), anyString());
+        verify(notificacaoService).enviarRelatorioMensal(eq("user2@example.com"), anyString());
+    }
+
+    @Test
+    void enviarRelatorioMensal_MesJaConcluido_NaoDeveReenviar() {
+        when(execucaoJobRepository.iniciar(JOB, "2025-01"))
+                .thenReturn(new ExecucaoJob(JOB, "2025-01", ExecucaoJob.Status.CONCLUIDO, 2L, 2L, 0L));
+
+        agendamentoService.enviarRelatorioMensal(MES);
+
+        verifyNoInteractions(relatorioService, notificacaoService, usuarioService);
     }
 
     @Test
     void enviarRelatorioMensal_QuandoErroEmUsuario_DeveContinuarParaProximo() {
-        when(usuarioService.listarTodos()).thenReturn(Arrays.asList(usuario1, usuario2));
-        when(relatorioService.getEstatisticasMensais(any(LocalDateTime.class)))
-                .thenReturn(estatisticasMock)
-                .thenThrow(new RuntimeException("Erro ao gerar estatísticas"));
+        when(usuarioService.listarAtivosAposId(0L, TAMANHO_PAGINA)).thenReturn(Arrays.asList(usuario1, usuario2));
+        when(relatorioService.getEstatisticasMensais(1L, MES)).thenThrow(new RuntimeException("Erro ao calcular"));
+        when(relatorioService.getEstatisticasMensais(2L, MES)).thenReturn(estatisticasMock);
+
+        agendamentoService.enviarRelatorioMensal(MES);
+
+        verify(notificacaoService, never()).enviarRelatorioMensal(eq("user1@example.com"), anyString());
+        verify(notificacaoService).enviarRelatorioMensal(eq("user2@example.com"), anyString());
+        verify(execucaoJobRepository).avancar(JOB, "2025-01", 2L, 1, 1);
+        assertEquals(1.0, meterRegistry.get("relatorio.mensal.usuarios").tag("resultado", "falha").counter().count());
+    }
+
+    @Test
+    void enviarRelatorioMensal_QuandoGravacaoFalha_NaoDeveAvancarOCheckpoint() {
+        when(usuarioService.listarAtivosAposId(0L, TAMANHO_PAGINA)).thenReturn(Arrays.asList(usuario1, usuario2));
+        when(relatorioService.getEstatisticasMensais(anyLong(), any(YearMonth.class))).thenReturn(estatisticasMock);
+        doThrow(new RuntimeException("Erro ao enfileirar")).when(notificacaoService)
+                .enviarRelatorioMensal(eq("user1@example.com"), anyString());
 
-        agendamentoService.enviarRelatorioMensal();
+        assertThrows(RuntimeException.class, () -> agendamentoService.enviarRelatorioMensal(MES));
 
-        verify(notificacaoService, times(1)).enviarRelatorioMensal(anyString(), anyString());
+        verify(execucaoJobRepository, never()).avancar(anyString(), anyString(), anyLong(), anyInt(), anyInt());
+        verify(execucaoJobRepository, never()).concluir(anyString(), anyString());
     }
 
     @Test
     void enviarRelatorioMensal_ComConteudoRelatorioCorreto() {
-        when(usuarioService.listarTodos()).thenReturn(Arrays.asList(usuario1));
-        when(relatorioService.getEstatisticasMensais(any(LocalDateTime.class))).thenReturn(estatisticasMock);
+        when(usuarioService.listarAtivosAposId(0L, TAMANHO_PAGINA)).thenReturn(Arrays.asList(usuario1));
+        when(relatorioService.getEstatisticasMensais(anyLong(), any(YearMonth.class))).thenReturn(estatisticasMock);
 
-        agendamentoService.enviarRelatorioMensal();
+        agendamentoService.enviarRelatorioMensal(MES);
 
         verify(notificacaoService).enviarRelatorioMensal(
             eq("user1@example.com"),
@@ -0,0 +1,90 @@
+package br.com.meuGasto.finControl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paridade com as reduções em BigDecimal que o agregador substituiu: mesmos valores e mesma escala
+ */
+class AgregadorCentavosTest {
+
+    private record Lancamento(String categoria, BigDecimal valor) {
+    }
+
+    @Test
+    void totaisEmReais_DeveCoincidirComGroupingByReducing() {
+        List<Lancamento> lancamentos = lancamentos(20_000, 37);
+        AgregadorCentavos agregador = new AgregadorCentavos();
+        lancamentos.forEach(l -> agregador.somar(l.categoria(), l.valor()));
+
+        Map<String, BigDecimal> esperado = lancamentos.stream()
+                .collect(Collectors.groupingBy(Lancamento::categoria,
+                        Collectors.reducing(BigDecimal.ZERO, Lancamento::valor, BigDecimal::add)));
+        BigDecimal totalEsperado = lancamentos.stream().map(Lancamento::valor).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(esperado, agregador.totaisEmReais());
+        assertEquals(new TreeMap<>(esperado), agregador.totaisEmReais(TreeMap::new));
+        assertEquals(totalEsperado, agregador.getTotal());
+        assertEquals(lancamentos.size(), agregador.getQuantidade());
+        assertEquals(lancamentos.stream().filter(l -> l.categoria().equals("c0")).count(),
+                agregador.quantidades().get("c0"));
+    }
+
+    @Test
+    void dividir_DeveCoincidirComDivideHalfUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long centavos = random.nextLong(-10_000_000, 10_000_000);
+            long divisor = random.nextLong(1, 400);
+            BigDecimal esperado = BigDecimal.valueOf(centavos, 2).divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP);
+
+            assertEquals(esperado, AgregadorCentavos.dividir(centavos, divisor), centavos + " / " + divisor);
+        }
+    }
+
+    @Test
+    void percentual_DeveCoincidirComDivideEMultiplicaPorCem() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            long todo = random.nextLong(1, 100_000_000);
+            long parte = random.nextLong(0, todo + 1);
+            BigDecimal esperado = BigDecimal.valueOf(parte, 2)
+                    .divide(BigDecimal.valueOf(todo, 2), 2, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+
+            assertEquals(esperado, AgregadorCentavos.percentual(parte, todo), parte + " / " + todo);
+        }
+        // metades exatas arredondam para longe do zero
+        assertEquals(new BigDecimal("13.00"), AgregadorCentavos.percentual(1, 8));
+        assertEquals(new BigDecimal("-0.01"), AgregadorCentavos.dividir(-1, 2));
+    }
+
+    @Test
+    void centavos_ComMaisDeDuasCasas_DeveArredondarComoOsConsolidados() {
+        assertEquals(1235, AgregadorCentavos.centavos(new BigDecimal("12.345")));
+        assertEquals(1200, AgregadorCentavos.centavos(new BigDecimal("12")));
+        assertEquals(BigDecimal.ZERO, new AgregadorCentavos().getTotal());
+        assertEquals(0, new AgregadorCentavos().centavos("inexistente"));
+    }
+
+    private static List<Lancamento> lancamentos(int quantidade, int categorias) {
+        Random random = new Random(42);
+        List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            // valores com 2 casas, inclusive estornos negativos
+            lancamentos.add(new Lancamento("c" + random.nextInt(categorias),
+                    BigDecimal.valueOf(random.nextLong(-50_000, 5_000_000), 2)));
+        }
+        return lancamentos;
+    }
+}
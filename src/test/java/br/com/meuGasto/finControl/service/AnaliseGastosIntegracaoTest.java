@@ -0,0 +1,165 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.dto.EvolucaoFinanceiraDTO;
+import br.com.meuGasto.finControl.dto.MovimentacaoDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LinhaResumo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "analise@teste.com")
+class AnaliseGastosIntegracaoTest {
+
+    @Autowired
+    private AnaliseGastos analiseGastos;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Analise", "analise@teste.com", "analise@teste.com");
+        usuarioId = usuarioService.getIdUsuarioLogado();
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void escritasDosServicos_DevemManterAsColunasIguaisATabela() {
+        Gasto mercado = gastoService.salvar(gasto("10.00", "Mercado", LocalDateTime.of(2025, 1, 10, 12, 0)));
+        Gasto farmacia = gastoService.salvar(gasto("7.35", "Farmácia", LocalDateTime.of(2025, 1, 11, 9, 0)));
+        movimentacaoService.criarMovimentacoesEmLote(List.of(
+                movimentacao("100.00", "Salário", "RECEITA", LocalDate.of(2025, 1, 5)),
+                movimentacao("3.10", "Mercado", "DESPESA", LocalDate.of(2025, 1, 12))));
+
+        // só a hora muda: os consolidados diários ficam iguais, as colunas não
+        gastoService.atualizar(mercado.getId(), gasto("10.00", "Mercado", LocalDateTime.of(2025, 1, 10, 20, 30)));
+        gastoService.excluir(farmacia.getId());
+
+        assertTrue(analiseGastos.disponivel());
+        assertEquals(List.of(), analiseGastos.verificarConsistencia());
+        assertEquals(3, analiseGastos.linhas());
+        assertEquals(0, analiseGastos.porCategoria(usuarioId,
+                LocalDateTime.of(2025, 1, 10, 0, 0), LocalDateTime.of(2025, 1, 10, 20, 0)).getQuantidade());
+    }
+
+    @Test
+    void porCategoria_IntervaloComFracoesDeDia_DeveIgualarOsConsolidados() {
+        for (int dia = 1; dia <= 28; dia++) {
+            gastoService.salvar(gasto(dia + ".25", dia % 3 == 0 ? "Transporte" : "Mercado", LocalDateTime.of(2025, 2, dia, dia % 24, 0)));
+        }
+        LocalDateTime inicio = LocalDateTime.of(2025, 2, 3, 10, 0);
+        LocalDateTime fim = LocalDateTime.of(2025, 2, 20, 5, 0);
+
+        AgregadorCentavos esperado = new AgregadorCentavos();
+        for (LinhaResumo linha : resumoGastoService.resumir(usuarioId, inicio, fim)) {
+            esperado.somar(linha.categoria(), linha.totalCentavos(), linha.quantidade());
+        }
+        AgregadorCentavos colunas = analiseGastos.porCategoria(usuarioId, inicio, fim);
+
+        assertEquals(esperado.totaisEmReais(), colunas.totaisEmReais());
+        assertEquals(esperado.quantidades(), colunas.quantidades());
+    }
+
+    @Test
+    void verificarConsistencia_GravacaoForaDosServicos_DeveApontarDivergenciaAteRecarregar() {
+        gastoService.salvar(gasto("10.00", "Mercado", LocalDateTime.of(2025, 1, 10, 12, 0)));
+        Gasto direto = gasto("5.00", "Mercado", LocalDateTime.of(2025, 1, 11, 12, 0));
+        direto.setUsuarioId(usuarioId);
+        gastoRepository.save(direto);
+
+        assertEquals(1, analiseGastos.verificarConsistencia().size());
+
+        analiseGastos.recarregar();
+
+        assertEquals(List.of(), analiseGastos.verificarConsistencia());
+        assertEquals(2, analiseGastos.linhas());
+    }
+
+    @Test
+    void obterEvolucaoFinanceira_ReceitasEDespesas_DeveSepararPorTipoNasColunasENaTabela() {
+        LocalDate hoje = LocalDate.now();
+        movimentacaoService.criarMovimentacoesEmLote(List.of(
+                movimentacao("100.00", "Salário", "RECEITA", hoje.minusDays(1)),
+                movimentacao("30.00", "Mercado", "DESPESA", hoje.minusDays(1)),
+                movimentacao("5.50", "Farmácia", "DESPESA", hoje)));
+
+        List<EvolucaoFinanceiraDTO> colunas = movimentacaoService.obterEvolucaoFinanceira(2);
+        List<EvolucaoFinanceiraDTO> tabela;
+        ReflectionTestUtils.setField(analiseGastos, "carregada", false);
+        try {
+            tabela = movimentacaoService.obterEvolucaoFinanceira(2);
+        } finally {
+            ReflectionTestUtils.setField(analiseGastos, "carregada", true);
+        }
+
+        assertEquals(List.of(
+                new EvolucaoFinanceiraDTO(hoje.minusDays(2).toString(), new BigDecimal("0.00"), new BigDecimal("0.00"), new BigDecimal("0.00")),
+                new EvolucaoFinanceiraDTO(hoje.minusDays(1).toString(), new BigDecimal("100.00"), new BigDecimal("30.00"), new BigDecimal("70.00")),
+                new EvolucaoFinanceiraDTO(hoje.toString(), new BigDecimal("0.00"), new BigDecimal("5.50"), new BigDecimal("64.50"))),
+                colunas);
+        assertEquals(colunas, tabela);
+    }
+
+    private static Gasto gasto(String valor, String categoria, LocalDateTime data) {
+        Gasto gasto = new Gasto();
+        gasto.setDescricao("Análise");
+        gasto.setValor(new BigDecimal(valor));
+        gasto.setCategoria(categoria);
+        gasto.setTipo("DESPESA");
+        gasto.setDataGasto(data);
+        return gasto;
+    }
+
+    private static MovimentacaoDTO movimentacao(String valor, String categoria, String tipo, LocalDate data) {
+        return MovimentacaoDTO.builder()
+                .descricao("Análise")
+                .valor(new BigDecimal(valor))
+                .categoria(categoria)
+                .tipo(tipo)
+                .data(data)
+                .build();
+    }
+}
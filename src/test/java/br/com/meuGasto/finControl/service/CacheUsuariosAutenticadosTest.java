@@ -0,0 +1,98 @@
+package br.com.meuGasto.finControl.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheUsuariosAutenticadosTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheUsuariosAutenticados cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CacheUsuariosAutenticados(userDetailsService, meterRegistry, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void buscar_RepetidoParaMesmoEmail_DeveConsultarUmaVez() {
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(usuario(true));
+
+        UsuarioAutenticado primeiro = cache.buscar(EMAIL);
+        UsuarioAutenticado segundo = cache.buscar(EMAIL);
+
+        assertSame(primeiro, segundo);
+        assertEquals(7L, primeiro.getId());
+        assertEquals("", primeiro.getPassword());
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usuariosAutenticados").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "usuariosAutenticados").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void invalidar_ForaDeTransacao_DeveRecarregarNaProximaBusca() {
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(usuario(true), usuario(false));
+        cache.buscar(EMAIL);
+
+        cache.invalidar(EMAIL);
+
+        assertFalse(cache.buscar(EMAIL).isEnabled());
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void invalidar_DentroDeTransacao_DeveAguardarCommit() {
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(usuario(true));
+        cache.buscar(EMAIL);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidar(EMAIL);
+            cache.buscar(EMAIL);
+            verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+
+            List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+            sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.buscar(EMAIL);
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void buscar_EmailInexistente_DeveLancarExcecaoSemGuardar() {
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException(EMAIL));
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.buscar(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> cache.buscar(EMAIL));
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    private static UsuarioAutenticado usuario(boolean ativo) {
+        return new UsuarioAutenticado(7L, EMAIL, "$2a$10$hash", ativo, List.of());
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.meuGasto.finControl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColunasGastosTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Test
+    void de_LinhasForaDeOrdem_DeveOrdenarPorDataEId() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(
+                linha(3, DIA.plusHours(9), 300),
+                linha(2, DIA.plusHours(9), 200),
+                linha(1, DIA.minusDays(1), 100)));
+
+        assertArrayEquals(new long[]{1, 2, 3}, colunas.ids);
+        assertArrayEquals(new long[]{100, 200, 300}, colunas.centavos);
+    }
+
+    @Test
+    void alterar_IdRemovidoEIncluido_DeveSubstituirALinha() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(linha(1, DIA, 100), linha(2, DIA.plusDays(1), 200)));
+
+        ColunasGastos alteradas = colunas.alterar(new long[]{1}, List.of(linha(1, DIA.plusDays(2), 150)));
+
+        assertArrayEquals(new long[]{2, 1}, alteradas.ids);
+        assertArrayEquals(new long[]{200, 150}, alteradas.centavos);
+        assertArrayEquals(new long[]{1, 2}, colunas.ids);
+    }
+
+    @Test
+    void inicioEFim_DevemDelimitarOIntervaloFechadoComAHora() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(
+                linha(1, DIA.plusHours(8), 100),
+                linha(2, DIA.plusHours(12), 200),
+                linha(3, DIA.plusHours(18), 300)));
+
+        int de = colunas.inicio(DIA.plusHours(12));
+        int ate = colunas.fim(DIA.plusHours(18));
+
+        assertEquals(1, de);
+        assertEquals(3, ate);
+        assertEquals(2, colunas.fim(DIA.plusHours(17)));
+    }
+
+    @Test
+    void somar_AcimaDoLimiteParalelo_DeveIgualarASomaSequencial() {
+        Random random = new Random(42);
+        List<ColunasGastos.Linha> linhas = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            linhas.add(new ColunasGastos.Linha(i, random.nextInt(100_000), 19_000 + random.nextInt(3_650),
+                    random.nextInt(86_400_000), random.nextInt(20), (byte) random.nextInt(3)));
+        }
+        ColunasGastos colunas = ColunasGastos.de(linhas);
+        int[] categorias = colunas.categorias;
+
+        ColunasGastos.Somas sequencial = colunas.somar(0, colunas.tamanho(), ColunasGastos.DESPESA, 20, i -> categorias[i], Integer.MAX_VALUE);
+        ColunasGastos.Somas paralela = colunas.somar(0, colunas.tamanho(), ColunasGastos.DESPESA, 20, i -> categorias[i], 1_000);
+
+        assertArrayEquals(sequencial.centavos(), paralela.centavos());
+        assertArrayEquals(sequencial.quantidades(), paralela.quantidades());
+        long despesas = linhas.stream().filter(linha -> linha.tipo() == ColunasGastos.DESPESA).mapToLong(ColunasGastos.Linha::centavos).sum();
+        assertEquals(despesas, Arrays.stream(paralela.centavos()).sum());
+    }
+
+    @Test
+    void centavosPorTipoEPorDia_PontasComHora_DevemIgualarAVarredura() {
+        Random random = new Random(11);
+        List<ColunasGastos.Linha> linhas = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            linhas.add(ColunasGastos.Linha.de(i, DIA.plusMinutes(random.nextInt(60 * 24 * 365)), random.nextInt(10_000), 0,
+                    random.nextBoolean() ? "DESPESA" : "RECEITA"));
+        }
+        ColunasGastos colunas = ColunasGastos.de(linhas);
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            LocalDateTime inicio = DIA.plusMinutes(random.nextInt(60 * 24 * 365));
+            LocalDateTime fim = inicio.plusMinutes(random.nextInt(60 * 24 * 60));
+            long[] esperadoPorTipo = new long[SomasDiarias.TIPOS];
+            long[] esperadoPorDia = new long[(int) (fim.toLocalDate().toEpochDay() - inicio.toLocalDate().toEpochDay()) + 1];
+            for (ColunasGastos.Linha linha : linhas) {
+                LocalDateTime data = LocalDateTime.of(LocalDate.ofEpochDay(linha.dia()),
+                        LocalTime.ofNanoOfDay(linha.milissegundo() * 1_000_000L));
+                if (!data.isBefore(inicio) && !data.isAfter(fim)) {
+                    esperadoPorTipo[linha.tipo()] += linha.centavos();
+                    if (linha.tipo() == ColunasGastos.RECEITA) {
+                        esperadoPorDia[(int) (linha.dia() - inicio.toLocalDate().toEpochDay())] += linha.centavos();
+                    }
+                }
+            }
+
+            assertArrayEquals(esperadoPorTipo, colunas.centavosPorTipo(inicio, fim));
+            assertArrayEquals(esperadoPorDia, colunas.centavosPorDia(inicio, fim, ColunasGastos.RECEITA));
+        }
+    }
+
+    @Test
+    void alterar_DiaForaDasSomasDiarias_DeveReconstruirAsSomas() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(linha(1, DIA, 100), linha(2, DIA.plusDays(3), 200)));
+
+        ColunasGastos alteradas = colunas
+                .alterar(new long[]{2}, List.of(linha(3, DIA.minusYears(2), 50), linha(4, DIA.plusYears(1), 25)));
+
+        assertTrue(alteradas.somasConferem());
+        assertArrayEquals(new long[]{175, 0, 0}, alteradas.centavosPorTipo(DIA.minusYears(3), DIA.plusYears(2)));
+        assertArrayEquals(new long[]{300, 0, 0}, colunas.centavosPorTipo(DIA.minusYears(3), DIA.plusYears(2)));
+    }
+
+    @Test
+    void maiorEMenorPositivo_DevemIgnorarValoresNaoPositivosNoMenor() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(linha(1, DIA, 0), linha(2, DIA, 250), linha(3, DIA, 40)));
+
+        assertEquals(250L, colunas.maiorCentavos(0, 3));
+        assertEquals(40L, colunas.menorPositivoCentavos(0, 3));
+        assertNull(colunas.maiorCentavos(1, 1));
+        assertNull(colunas.menorPositivoCentavos(0, 1));
+    }
+
+    @Test
+    void saldoPorCategoriaEDia_ReceitasDespesasEOutros_DeveCompactarAsCategoriasPeloNome() {
+        ColunasGastos colunas = ColunasGastos.de(List.of(
+                ColunasGastos.Linha.de(1, DIA.plusHours(8), 10_000, 7, "RECEITA"),
+                ColunasGastos.Linha.de(2, DIA.plusHours(9), 2_500, 3, "DESPESA"),
+                ColunasGastos.Linha.de(3, DIA.plusDays(2), 1_000, 7, "DESPESA"),
+                ColunasGastos.Linha.de(4, DIA.plusDays(1), 999, 5, "TRANSFERENCIA"),
+                ColunasGastos.Linha.de(5, DIA.plusDays(3), 400, 3, "DESPESA")));
+
+        String[] nomes = {null, "", "", "Mercado", "", "Transferência", "", "Aluguel"};
+        long[][] saldos = colunas.saldoPorCategoriaEDia(DIA, DIA.plusDays(2).with(LocalTime.MAX), nomes);
+
+        // em ordem pelo nome: Aluguel (código 7) antes de Mercado (3); a 5 só tem tipo OUTRO e o dia 3 fica fora
+        assertEquals(2, saldos.length);
+        assertArrayEquals(new long[]{10_000, 0, -1_000}, saldos[0]);
+        assertArrayEquals(new long[]{-2_500, 0, 0}, saldos[1]);
+    }
+
+    private static ColunasGastos.Linha linha(long id, LocalDateTime data, long centavos) {
+        return ColunasGastos.Linha.de(id, data, centavos, 0, "DESPESA");
+    }
+}
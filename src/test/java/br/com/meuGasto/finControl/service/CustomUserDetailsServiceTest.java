@@ -59,4 +59,15 @@ public class CustomUserDetailsServiceTest {
         );
         verify(usuarioRepository).findByEmail("nonexistent@example.com");
     }
+
+    @Test
+    void loadUserByUsername_QuandoUsuarioDesativado_DeveRetornarDesabilitado() {
+        usuarioMock.setAtivo(false);
+        when(usuarioRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(usuarioMock));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("test@example.com");
+
+        assertFalse(userDetails.isEnabled());
+    }
 }
@@ -0,0 +1,119 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.EmailOutbox;
+import br.com.meuGasto.finControl.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    private static final int MAXIMO_TENTATIVAS = 3;
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    private EmailOutbox email;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, new SimpleMeterRegistry(),
+                "teste@teste.com", 50, MAXIMO_TENTATIVAS, 1000, 3000, 30, 2, 0);
+        email = new EmailOutbox("junbob@gmail.com", "Assunto", "Corpo");
+        email.setId(1L);
+    }
+
+    @Test
+    void despachar_ComEnvioBemSucedido_DeveMarcarComoEnviado() {
+        when(emailOutboxRepository.buscarVencidas(eq(EmailOutbox.Status.PENDENTE), any(), any())).thenReturn(List.of(email));
+
+        int enviadas = dispatcher.despachar();
+
+        assertEquals(1, enviadas);
+        assertEquals(EmailOutbox.Status.ENVIADO, email.getStatus());
+        assertEquals(1, email.getTentativas());
+        assertNotNull(email.getDataEnvio());
+        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(emailOutboxRepository).save(email);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.encerrar();
+    }
+
+    @Test
+    void despachar_ComLoteDeMensagens_DeveEnviarTodasPeloPool() {
+        List<EmailOutbox> lote = IntStream.rangeClosed(1, 10).mapToObj(i -> {
+            EmailOutbox mensagem = new EmailOutbox("usuario" + i + "@gmail.com", "Assunto", "Corpo");
+            mensagem.setId((long) i);
+            return mensagem;
+        }).toList();
+        when(emailOutboxRepository.buscarVencidas(eq(EmailOutbox.Status.PENDENTE), any(), any())).thenReturn(lote);
+
+        int enviadas = dispatcher.despachar();
+
+        assertEquals(10, enviadas);
+        assertTrue(lote.stream().allMatch(mensagem -> mensagem.getStatus() == EmailOutbox.Status.ENVIADO));
+        verify(mailSender, times(10)).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void despachar_ComFalhaNoEnvio_DeveReagendarComEsperaExponencial() {
+        when(emailOutboxRepository.buscarVencidas(eq(EmailOutbox.Status.PENDENTE), any(), any())).thenReturn(List.of(email));
+        doThrow(new MailSendException("SMTP indisponível")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        LocalDateTime antes = LocalDateTime.now();
+        int enviadas = dispatcher.despachar();
+
+        assertEquals(0, enviadas);
+        assertEquals(EmailOutbox.Status.PENDENTE, email.getStatus());
+        assertEquals(1, email.getTentativas());
+        assertEquals("SMTP indisponível", email.getUltimoErro());
+        assertFalse(email.getProximaTentativa().isBefore(antes.plusSeconds(1)));
+        verify(emailOutboxRepository).save(email);
+    }
+
+    @Test
+    void despachar_AposMaximoDeTentativas_DeveMoverParaFalhou() {
+        email.setTentativas(MAXIMO_TENTATIVAS - 1);
+        when(emailOutboxRepository.buscarVencidas(eq(EmailOutbox.Status.PENDENTE), any(), any())).thenReturn(List.of(email));
+        doThrow(new MailSendException("SMTP indisponível")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        dispatcher.despachar();
+
+        assertEquals(EmailOutbox.Status.FALHOU, email.getStatus());
+        assertEquals(MAXIMO_TENTATIVAS, email.getTentativas());
+    }
+
+    @Test
+    void intervaloAntesDaTentativa_DeveDobrarAteOLimite() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.intervaloAntesDaTentativa(1));
+        assertEquals(Duration.ofSeconds(2), dispatcher.intervaloAntesDaTentativa(2));
+        assertEquals(Duration.ofSeconds(3), dispatcher.intervaloAntesDaTentativa(3));
+        assertEquals(Duration.ofSeconds(3), dispatcher.intervaloAntesDaTentativa(40));
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.EmailOutbox;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.EmailOutboxRepository;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fila de emails de ponta a ponta contra um servidor SMTP local (GreenMail).
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "app.notificacao.outbox.intervalo-inicial-ms=0"
+})
+@ActiveProfiles("test")
+@WithMockUser(username = "junbob@gmail.com")
+class EmailOutboxIntegracaoTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Jun", "junbob@gmail.com", "junbob@gmail.com");
+        gastoRepository.deleteAll();
+        emailOutboxRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void salvarGastoAlto_DeveEnfileirarEEnviarSomenteNoDespacho() throws Exception {
+        gastoService.salvar(gastoAlto());
+
+        // a requisição termina sem falar com o servidor SMTP
+        assertEquals(0, smtp.getReceivedMessages().length);
+        List<EmailOutbox> fila = emailOutboxRepository.findAll();
+        assertEquals(1, fila.size());
+        assertEquals(EmailOutbox.Status.PENDENTE, fila.get(0).getStatus());
+
+        assertEquals(1, dispatcher.despachar());
+
+        MimeMessage[] recebidas = smtp.getReceivedMessages();
+        assertEquals(1, recebidas.length);
+        assertEquals("Alerta de Gasto Alto", recebidas[0].getSubject());
+        assertEquals("junbob@gmail.com", recebidas[0].getAllRecipients()[0].toString());
+        assertEquals(EmailOutbox.Status.ENVIADO, emailOutboxRepository.findAll().get(0).getStatus());
+        assertEquals(0, dispatcher.despachar());
+    }
+
+    @Test
+    void despachar_ComServidorIndisponivel_DeveManterNaFilaParaNovaTentativa() {
+        gastoService.salvar(gastoAlto());
+        smtp.stop();
+
+        assertEquals(0, dispatcher.despachar());
+
+        EmailOutbox email = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailOutbox.Status.PENDENTE, email.getStatus());
+        assertEquals(1, email.getTentativas());
+        assertNotNull(email.getUltimoErro());
+
+        smtp.start();
+        assertEquals(1, dispatcher.despachar());
+        assertEquals(1, smtp.getReceivedMessages().length);
+    }
+
+    private static Gasto gastoAlto() {
+        Gasto gasto = new Gasto("Notebook", new BigDecimal("4500.00"), "Eletrônicos", "DESPESA");
+        gasto.setDataGasto(LocalDateTime.of(2025, 9, 1, 10, 0));
+        return gasto;
+    }
+}
@@ -1,7 +1,7 @@
 package br.com.meuGasto.finControl.service;
 
-import br.com.meuGasto.finControl.entity.Gasto;
 import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LinhaExportacaoGasto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,14 +9,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 
 @ExtendWith(MockitoExtension.class)
 public class ExportacaoServiceTest {
@@ -27,19 +37,15 @@ public class ExportacaoServiceTest {
     @InjectMocks
     private ExportacaoService exportacaoService;
 
-    private Gasto gastoMock;
+    private static final Long USUARIO_ID = 3L;
+
+    private LinhaExportacaoGasto gastoMock;
     private LocalDateTime inicio;
     private LocalDateTime fim;
 
     @BeforeEach
     void setUp() {
-        gastoMock = new Gasto();
-        gastoMock.setId(1L);
-        gastoMock.setDescricao("Test Expense");
-        gastoMock.setValor(new BigDecimal("100.00"));
-        gastoMock.setCategoria("TEST");
-        gastoMock.setDataGasto(LocalDateTime.of(2025, 1, 1, 12, 0));
-        gastoMock.setObservacoes("Test observation");
+        gastoMock = linha("Test Expense", "TEST", "Test observation");
 
         inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
         fim = LocalDateTime.of(2025, 1, 31, 23, 59);
@@ -47,26 +53,22 @@ public class ExportacaoServiceTest {
 
 
     @Test
-    void exportarGastosCSV_SemGastos_DeveRetornarApenasHeader() {
-        when(gastoRepository.findByDataGastoBetween(any(), any()))
-                .thenReturn(Collections.emptyList());
+    void exportarGastosCSV_SemGastos_DeveRetornarApenasHeader() throws IOException {
+        repositorioRetorna(Collections.emptyList());
 
-        String csv = exportacaoService.exportarGastosCSV(inicio, fim);
+        String csv = exportar(false);
 
         assertNotNull(csv);
         assertTrue(csv.trim().endsWith("ID,Descrição,Valor,Categoria,Data,Observações"));
     }
 
     @Test
-    void exportarGastosCSV_ComCaracteresEspeciais_DeveEscaparCorretamente() {
-        gastoMock.setDescricao("Test \"quoted\" description");
-        gastoMock.setCategoria("Category \"with quotes\"");
-        gastoMock.setObservacoes("Notes \"with\" quotes");
+    void exportarGastosCSV_ComCaracteresEspeciais_DeveEscaparCorretamente() throws IOException {
+        gastoMock = linha("Test \"quoted\" description", "Category \"with quotes\"", "Notes \"with\" quotes");
 
-        when(gastoRepository.findByDataGastoBetween(any(), any()))
-                .thenReturn(Arrays.asList(gastoMock));
+        repositorioRetorna(Arrays.asList(gastoMock));
 
-        String csv = exportacaoService.exportarGastosCSV(inicio, fim);
+        String csv = exportar(false);
 
         assertNotNull(csv);
         assertTrue(csv.contains("\"Test \"\"quoted\"\" description\""));
@@ -74,4 +76,84 @@ public class ExportacaoServiceTest {
         assertTrue(csv.contains("\"Notes \"\"with\"\" quotes\""));
     }
 
+    @Test
+    void exportarGastosCSV_DeveFormatarLinhaComoAntes() throws IOException {
+        gastoMock = new LinhaExportacaoGasto(42L, "Almoço – café ☕ 😀", new BigDecimal("1234.5"), "Alimentação",
+                LocalDateTime.of(2025, 1, 5, 9, 7), null);
+        repositorioRetorna(List.of(gastoMock));
+
+        String csv = exportar(false);
+
+        assertEquals("ID,Descrição,Valor,Categoria,Data,Observações\n" +
+                "42,\"Almoço – café ☕ 😀\",1234.50,\"Alimentação\",05/01/2025 09:07,\"\"\n", csv);
+    }
+
+    @Test
+    void exportarGastosCSV_ComLocalePtBr_DeveManterPontoDecimal() throws IOException {
+        gastoMock = new LinhaExportacaoGasto(7L, "Mercado", new BigDecimal("10.5"), "Alimentação",
+                LocalDateTime.of(2025, 1, 5, 9, 7), null);
+        repositorioRetorna(List.of(gastoMock));
+        Locale padrao = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("pt-BR"));
+        String csv;
+        try {
+            csv = exportar(false);
+        } finally {
+            Locale.setDefault(padrao);
+        }
+
+        assertTrue(csv.endsWith("\n7,\"Mercado\",10.50,\"Alimentação\",05/01/2025 09:07,\"\"\n"));
+    }
+
+    @Test
+    void exportarGastosCSV_ComGzip_DeveProduzirMesmoConteudoComprimido() throws IOException {
+        repositorioRetorna(List.of(gastoMock, gastoMock));
+        String semCompressao = exportar(false);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long linhas = exportacaoService.exportarGastosCSV(USUARIO_ID, inicio, fim, saida, true);
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            assertEquals(semCompressao, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(2, linhas);
+    }
+
+    @Test
+    void exportarGastosCSV_QuandoClienteDesconecta_DevePropagarIOException() {
+        repositorioRetorna(Collections.nCopies(10_000, gastoMock));
+        OutputStream saidaFechada = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> exportacaoService.exportarGastosCSV(USUARIO_ID, inicio, fim, saidaFechada, false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void repositorioRetorna(List<LinhaExportacaoGasto> linhas) {
+        doAnswer(invocation -> {
+            Consumer<LinhaExportacaoGasto> consumidor = invocation.getArgument(3);
+            linhas.forEach(consumidor);
+            return null;
+        }).when(gastoRepository).percorrerPorPeriodo(eq(USUARIO_ID), any(), any(), any(Consumer.class));
+    }
+
+    private String exportar(boolean gzip) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportarGastosCSV(USUARIO_ID, inicio, fim, saida, gzip);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private LinhaExportacaoGasto linha(String descricao, String categoria, String observacoes) {
+        return new LinhaExportacaoGasto(1L, descricao, new BigDecimal("100.00"), categoria,
+                LocalDateTime.of(2025, 1, 1, 12, 0), observacoes);
     }
+}
@@ -13,13 +13,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +37,14 @@ public class GastoServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private ResumoGastoService resumoGastoService;
+
     @InjectMocks
     private GastoService gastoService;
 
+    private static final Long USUARIO_ID = 7L;
+
     private Gasto gastoMock;
 
     @BeforeEach
@@ -50,25 +55,25 @@ public class GastoServiceTest {
         gastoMock.setValor(new BigDecimal("100.00"));
         gastoMock.setDataGasto(LocalDateTime.now());
         gastoMock.setCategoria("TEST");
+        gastoMock.setUsuarioId(USUARIO_ID);
+        lenient().when(usuarioService.getIdUsuarioLogado()).thenReturn(USUARIO_ID);
     }
 
     @Test
     void salvar_ComDataGasto_DeveSalvarGasto() {
+        when(gastoRepository.findByIdAndUsuarioId(1L, USUARIO_ID)).thenReturn(Optional.of(gastoMock));
         when(gastoRepository.save(any(Gasto.class))).thenReturn(gastoMock);
         when(usuarioService.getEmailUsuarioLogado()).thenReturn("test@example.com");
         doNothing().when(notificacaoService).notificarGastoAlto(any(Gasto.class), anyString());
 
-        // preparar comportamento do repositório de planejamento
-        when(gastoPlanejamentoRepository.findByGastoId(anyLong())).thenReturn(Optional.empty());
-        when(gastoPlanejamentoRepository.save(any(GastoPlanejamento.class))).thenAnswer(i -> i.getArgument(0));
-
         Gasto resultado = gastoService.salvar(gastoMock);
 
         assertNotNull(resultado);
         assertEquals(gastoMock.getValor(), resultado.getValor());
         verify(gastoRepository).save(any(Gasto.class));
         verify(notificacaoService).notificarGastoAlto(any(Gasto.class), anyString());
-        verify(gastoPlanejamentoRepository).save(any(GastoPlanejamento.class));
+        verify(gastoPlanejamentoRepository).sincronizarComGastos(List.of(gastoMock));
+        verify(gastoPlanejamentoRepository, never()).save(any(GastoPlanejamento.class));
     }
 
     @Test
@@ -77,80 +82,107 @@ public class GastoServiceTest {
         when(gastoRepository.save(any(Gasto.class))).thenReturn(gastoMock);
         when(usuarioService.getEmailUsuarioLogado()).thenReturn("test@example.com");
 
-        // preparar comportamento do repositório de planejamento
-        when(gastoPlanejamentoRepository.findByGastoId(anyLong())).thenReturn(Optional.empty());
-        when(gastoPlanejamentoRepository.save(any(GastoPlanejamento.class))).thenAnswer(i -> i.getArgument(0));
-
         Gasto resultado = gastoService.salvar(gastoMock);
 
         assertNotNull(resultado);
         assertNotNull(resultado.getDataGasto());
         verify(gastoRepository).save(any(Gasto.class));
-        verify(gastoPlanejamentoRepository).save(any(GastoPlanejamento.class));
+        verify(gastoPlanejamentoRepository).sincronizarComGastos(List.of(gastoMock));
+        verify(gastoPlanejamentoRepository, never()).save(any(GastoPlanejamento.class));
     }
 
     @Test
     void listarTodos_DeveRetornarListaDeGastos() {
         List<Gasto> gastos = Arrays.asList(gastoMock);
-        when(gastoRepository.findAll()).thenReturn(gastos);
+        when(gastoRepository.findByUsuarioId(USUARIO_ID)).thenReturn(gastos);
 
         List<Gasto> resultado = gastoService.listarTodos();
 
         assertFalse(resultado.isEmpty());
         assertEquals(1, resultado.size());
-        verify(gastoRepository).findAll();
+        verify(gastoRepository).findByUsuarioId(USUARIO_ID);
+        verify(gastoRepository, never()).findAll();
     }
 
     @Test
     void buscarPorId_QuandoExiste_DeveRetornarGasto() {
-        when(gastoRepository.findById(1L)).thenReturn(Optional.of(gastoMock));
+        when(gastoRepository.findByIdAndUsuarioId(1L, USUARIO_ID)).thenReturn(Optional.of(gastoMock));
 
         Optional<Gasto> resultado = gastoService.buscarPorId(1L);
 
         assertTrue(resultado.isPresent());
         assertEquals(gastoMock.getId(), resultado.get().getId());
-        verify(gastoRepository).findById(1L);
+        verify(gastoRepository, never()).findById(any());
     }
 
     @Test
     void calcularTotalGastos_DeveRetornarSomaCorreta() {
-        Gasto gasto2 = new Gasto();
-        gasto2.setValor(new BigDecimal("200.00"));
-        List<Gasto> gastos = Arrays.asList(gastoMock, gasto2);
-        
-        when(gastoRepository.findAll()).thenReturn(gastos);
+        when(gastoRepository.sumTotalValor(USUARIO_ID)).thenReturn(new BigDecimal("300.00"));
 
         BigDecimal total = gastoService.calcularTotalGastos();
 
         assertEquals(new BigDecimal("300.00"), total);
-        verify(gastoRepository).findAll();
+        verify(gastoRepository).sumTotalValor(USUARIO_ID);
+        verify(gastoRepository, never()).findAll();
     }
 
     @Test
     void contarGastos_DeveRetornarQuantidadeCorreta() {
-        when(gastoRepository.count()).thenReturn(5L);
+        when(gastoRepository.countByUsuarioId(USUARIO_ID)).thenReturn(5L);
 
         long quantidade = gastoService.contarGastos();
 
         assertEquals(5L, quantidade);
-        verify(gastoRepository).count();
+        verify(gastoRepository).countByUsuarioId(USUARIO_ID);
+        verify(gastoRepository, never()).count();
     }
 
     @Test
     void calcularTotalGastosMes_DeveRetornarSomaDoMesAtual() {
-        LocalDateTime dataAtual = LocalDateTime.now();
-        gastoMock.setDataGasto(dataAtual);
-        
-        Gasto gastoMesPassado = new Gasto();
-        gastoMesPassado.setValor(new BigDecimal("200.00"));
-        gastoMesPassado.setDataGasto(dataAtual.minusMonths(1));
-        
-        List<Gasto> gastos = Arrays.asList(gastoMock, gastoMesPassado);
-        when(gastoRepository.findAll()).thenReturn(gastos);
+        YearMonth mesAtual = YearMonth.now();
+        when(gastoRepository.sumValorNoPeriodo(USUARIO_ID, mesAtual.atDay(1).atStartOfDay(), mesAtual.plusMonths(1).atDay(1).atStartOfDay()))
+                .thenReturn(new BigDecimal("100.00"));
 
         BigDecimal total = gastoService.calcularTotalGastosMes();
 
         assertEquals(new BigDecimal("100.00"), total);
-        verify(gastoRepository).findAll();
+        verify(gastoRepository, never()).findAll();
+    }
+
+    @Test
+    void calcularTotalGastosMes_SemGastos_DeveRetornarZero() {
+        when(gastoRepository.sumValorNoPeriodo(any(), any(), any())).thenReturn(null);
+
+        assertEquals(BigDecimal.ZERO, gastoService.calcularTotalGastosMes());
+    }
+
+    @Test
+    void salvar_ComIdDeOutroUsuario_DeveIncluirComoNovo() {
+        when(gastoRepository.findByIdAndUsuarioId(1L, USUARIO_ID)).thenReturn(Optional.empty());
+        when(gastoRepository.save(any(Gasto.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        Gasto resultado = gastoService.salvar(gastoMock);
+
+        assertNull(resultado.getId());
+        assertEquals(USUARIO_ID, resultado.getUsuarioId());
+        verify(resumoGastoService).registrar(resultado);
+        verify(resumoGastoService, never()).atualizar(any(), any());
+    }
+
+    @Test
+    void excluir_GastoDeOutroUsuario_DeveLancarExcecao() {
+        when(gastoRepository.findByIdAndUsuarioId(1L, USUARIO_ID)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> gastoService.excluir(1L));
+        verify(gastoRepository, never()).delete(any(Gasto.class));
+    }
+
+    @Test
+    void buscarTexto_AlemDaPaginaMaxima_NaoDeveConsultar() {
+        assertEquals(List.of(), gastoService.buscarTexto("feira", GastoService.PAGINA_MAXIMA_TEXTO + 1, 20));
+        verify(gastoRepository, never()).buscarTexto(anyLong(), anyString(), anyInt(), anyInt());
+
+        gastoService.buscarTexto("feira", GastoService.PAGINA_MAXIMA_TEXTO, 20);
+        verify(gastoRepository).buscarTexto(USUARIO_ID, "feira", 20, GastoService.PAGINA_MAXIMA_TEXTO * 20);
     }
 }
@@ -0,0 +1,50 @@
+package br.com.meuGasto.finControl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelosPrevisaoTest {
+
+    // junho de 2026: 30 dias, começa numa segunda-feira
+    private static final YearMonth JUNHO = YearMonth.of(2026, 6);
+
+    @Test
+    void linear_DezDiasRealizados_DeveProjetarAMediaDiariaNoMes() {
+        long projetado = projetar(new PrevisaoLinear(), 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000);
+
+        assertEquals(30_000, projetado);
+    }
+
+    @Test
+    void diaDaSemana_GastosSoNoFimDeSemana_DeveProjetarSoOsFinsDeSemanaRestantes() {
+        // duas semanas: nada de segunda a sexta, 5000 no sábado e no domingo
+        long[] dias = new long[14];
+        dias[5] = dias[6] = dias[12] = dias[13] = 5_000;
+
+        long projetado = projetar(new PrevisaoDiaDaSemana(), dias);
+
+        // restam 20, 21, 27 e 28 de junho como fins de semana
+        assertEquals(20_000 + 4 * 5_000, projetado);
+        assertEquals(Math.round(20_000 * 30 / 14.0), projetar(new PrevisaoLinear(), dias));
+    }
+
+    @Test
+    void suavizacaoExponencial_AlfaUm_DeveProjetarOUltimoDia() {
+        long projetado = projetar(new PrevisaoSuavizacaoExponencial(1), 100, 200, 300);
+
+        assertEquals(600 + 27 * 300, projetado);
+        assertEquals(0, projetar(new PrevisaoSuavizacaoExponencial(0.3)));
+        assertThrows(IllegalArgumentException.class, () -> new PrevisaoSuavizacaoExponencial(0));
+    }
+
+    private static long projetar(ModeloPrevisao modelo, long... centavosPorDia) {
+        ModeloPrevisao.Projecao projecao = modelo.iniciar(JUNHO);
+        for (long centavos : centavosPorDia) {
+            projecao.observar(centavos);
+        }
+        return projecao.projetarMes();
+    }
+}
@@ -1,17 +1,15 @@
 package br.com.meuGasto.finControl.service;
 
+import br.com.meuGasto.finControl.entity.EmailOutbox;
 import br.com.meuGasto.finControl.entity.Gasto;
-import br.com.meuGasto.finControl.exception.EmailSendException;
+import br.com.meuGasto.finControl.repository.EmailOutboxRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -28,7 +26,7 @@ import static org.mockito.Mockito.*;
 class NotificacaoServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
     private NotificacaoService notificacaoService;
 
@@ -37,12 +35,7 @@ class NotificacaoServiceTest {
 
     @BeforeEach
     void setUp() {
-        RetryTemplate retryTemplate = RetryTemplate.builder()
-                .maxAttempts(3)
-                .fixedBackoff(100)
-                .build();
-
-        notificacaoService = new NotificacaoService(mailSender, retryTemplate);
+        notificacaoService = new NotificacaoService(emailOutboxRepository);
 
         ReflectionTestUtils.setField(notificacaoService, "limiteGasto", new BigDecimal("1000.00"));
         ReflectionTestUtils.setField(notificacaoService, "remetente", "teste@teste.com");
@@ -62,19 +55,22 @@ class NotificacaoServiceTest {
 
     @Test
     void deveNotificarQuandoGastoExcederLimite() {
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
-
         assertDoesNotThrow(() ->
             notificacaoService.notificarGastoAlto(gastoAlto, "junbob@gmail.com")
         );
 
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        ArgumentCaptor<EmailOutbox> email = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository, times(1)).save(email.capture());
+        assertEquals("junbob@gmail.com", email.getValue().getDestinatario());
+        assertEquals("Alerta de Gasto Alto", email.getValue().getAssunto());
+        assertEquals(EmailOutbox.Status.PENDENTE, email.getValue().getStatus());
+        assertTrue(email.getValue().getCorpo().contains("Gasto Alto Teste"));
     }
 
     @Test
     void naoDeveNotificarQuandoGastoAbaixoDoLimite() {
         notificacaoService.notificarGastoAlto(gastoBaixo, "junbob@gmail.com");
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(emailOutboxRepository, never()).save(any(EmailOutbox.class));
     }
 
     @Test
@@ -92,23 +88,21 @@ class NotificacaoServiceTest {
     }
 
     @Test
-    void deveLancarEmailSendExceptionQuandoErroNoEnvio() {
-        doThrow(new MailSendException("Erro ao enviar email")).when(mailSender).send(any(SimpleMailMessage.class));
+    void naoDeveEnfileirarQuandoRemetenteNaoConfigurado() {
+        ReflectionTestUtils.setField(notificacaoService, "remetente", "");
 
-        assertThrows(EmailSendException.class, () ->
-            notificacaoService.notificarGastoAlto(gastoAlto, "junbob@gmail.com")
-        );
+        notificacaoService.notificarGastoAlto(gastoAlto, "junbob@gmail.com");
+
+        verify(emailOutboxRepository, never()).save(any(EmailOutbox.class));
     }
 
     @Test
     void deveEnviarRelatorioMensalComSucesso() {
-        doNothing().when(mailSender).send(any(SimpleMailMessage.class));
-
         assertDoesNotThrow(() ->
             notificacaoService.enviarRelatorioMensal("junbob@gmail.com", "Conteúdo do relatório")
         );
 
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        verify(emailOutboxRepository, times(1)).save(any(EmailOutbox.class));
     }
 
     @Test
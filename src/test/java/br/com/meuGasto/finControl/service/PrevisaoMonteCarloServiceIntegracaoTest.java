@@ -0,0 +1,150 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.dto.FaixaSaldoDTO;
+import br.com.meuGasto.finControl.dto.PrevisaoMonteCarloDTO;
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "montecarlo@teste.com")
+class PrevisaoMonteCarloServiceIntegracaoTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private PrevisaoMonteCarloService previsaoMonteCarloService;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private AnaliseGastos analiseGastos;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Monte Carlo", "montecarlo@teste.com", "montecarlo@teste.com");
+        usuarioId = usuarioService.getIdUsuarioLogado();
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void prever_DespesaDiariaConstante_DeveProjetarOSaldoSemDispersao() {
+        // 10,00 por dia nos 90 dias anteriores a hoje; 9 deles já no mês atual
+        for (LocalDate dia = HOJE.minusDays(90); dia.isBefore(HOJE); dia = dia.plusDays(1)) {
+            gastoService.salvar(gasto("10.00", dia));
+        }
+        // hoje ainda está em curso: é simulado, não realizado
+        gastoService.salvar(gasto("500.00", HOJE));
+
+        PrevisaoMonteCarloDTO previsao = previsaoMonteCarloService.prever(usuarioId, HOJE, 2, 1_000, 7L);
+
+        // 9 dias realizados + 22 simulados (10 a 31 de março); abril soma mais 30
+        assertEquals(new BigDecimal("-90.00"), previsao.getSaldoRealizado());
+        assertEquals(List.of(
+                new FaixaSaldoDTO("2025-03", new BigDecimal("-310.00"), new BigDecimal("-310.00"), new BigDecimal("-310.00")),
+                new FaixaSaldoDTO("2025-04", new BigDecimal("-610.00"), new BigDecimal("-610.00"), new BigDecimal("-610.00"))),
+                previsao.getFaixas());
+        assertEquals(7L, previsao.getSemente());
+    }
+
+    @Test
+    void prever_PrimeiroDiaDoMes_DeveSimularOMesInteiro() {
+        LocalDate primeiro = LocalDate.of(2025, 4, 1);
+        for (LocalDate dia = primeiro.minusDays(90); dia.isBefore(primeiro); dia = dia.plusDays(1)) {
+            gastoService.salvar(gasto("10.00", dia));
+        }
+
+        PrevisaoMonteCarloDTO previsao = previsaoMonteCarloService.prever(usuarioId, primeiro, 1, 100, 3L);
+
+        assertEquals(new BigDecimal("0.00"), previsao.getSaldoRealizado());
+        assertEquals(List.of(new FaixaSaldoDTO("2025-04", new BigDecimal("-300.00"), new BigDecimal("-300.00"), new BigDecimal("-300.00"))),
+                previsao.getFaixas());
+    }
+
+    @Test
+    void prever_MesmaSemente_DeveReproduzirAsFaixas() {
+        for (int i = 1; i <= 30; i++) {
+            gastoService.salvar(gasto(i % 7 + "." + i, HOJE.minusDays(i * 2)));
+        }
+
+        PrevisaoMonteCarloDTO primeira = previsaoMonteCarloService.prever(usuarioId, HOJE, 3, 5_000, 11L);
+        PrevisaoMonteCarloDTO segunda = previsaoMonteCarloService.prever(usuarioId, HOJE, 3, 5_000, 11L);
+
+        assertEquals(primeira.getFaixas(), segunda.getFaixas());
+        assertEquals(3, primeira.getFaixas().size());
+        assertEquals(5_000, primeira.getCaminhos());
+    }
+
+    @Test
+    void prever_ColunasOuTabela_DevemDarAsMesmasFaixas() {
+        // categorias gravadas fora da ordem alfabética: os códigos do dicionário não seguem o nome
+        for (int i = 1; i <= 40; i++) {
+            gastoService.salvar(gasto(i % 5 + 1 + "." + i, "Zeta Monte Carlo", "DESPESA", HOJE.minusDays(i)));
+            gastoService.salvar(gasto(i % 3 + 1 + ".0" + i % 10, "Alfa Monte Carlo", i % 4 == 0 ? "RECEITA" : "DESPESA", HOJE.minusDays(i * 2)));
+        }
+
+        PrevisaoMonteCarloDTO colunas = previsaoMonteCarloService.prever(usuarioId, HOJE, 2, 2_000, 13L);
+        PrevisaoMonteCarloDTO tabela;
+        ReflectionTestUtils.setField(analiseGastos, "carregada", false);
+        try {
+            tabela = previsaoMonteCarloService.prever(usuarioId, HOJE, 2, 2_000, 13L);
+        } finally {
+            ReflectionTestUtils.setField(analiseGastos, "carregada", true);
+        }
+
+        assertEquals(colunas.getFaixas(), tabela.getFaixas());
+        assertEquals(colunas.getSaldoRealizado(), tabela.getSaldoRealizado());
+    }
+
+    private static Gasto gasto(String valor, LocalDate dia) {
+        return gasto(valor, "Mercado", "DESPESA", dia);
+    }
+
+    private static Gasto gasto(String valor, String categoria, String tipo, LocalDate dia) {
+        Gasto gasto = new Gasto();
+        gasto.setDescricao("Monte Carlo");
+        gasto.setValor(new BigDecimal(valor));
+        gasto.setCategoria(categoria);
+        gasto.setTipo(tipo);
+        gasto.setDataGasto(dia.atTime(12, 0));
+        return gasto;
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "previsao@teste.com")
+class PrevisaoServiceIntegracaoTest {
+
+    private static final YearMonth MES = YearMonth.of(2025, 3);
+    private static final LocalDate HOJE = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private PrevisaoService previsaoService;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Previsao", "previsao@teste.com", "previsao@teste.com");
+        usuarioId = usuarioService.getIdUsuarioLogado();
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+        cacheManager.getCache(PrevisaoService.CACHE).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void prever_ReceitasEDespesas_DeveSepararPorTipoEDiaAteHoje() {
+        gastoService.salvar(gasto("1000.00", "RECEITA", LocalDateTime.of(2025, 3, 1, 9, 0)));
+        gastoService.salvar(gasto("12.50", "DESPESA", LocalDateTime.of(2025, 3, 2, 12, 0)));
+        gastoService.salvar(gasto("7.50", "DESPESA", LocalDateTime.of(2025, 3, 10, 23, 0)));
+        // fora do período: depois de hoje e no mês anterior
+        gastoService.salvar(gasto("99.00", "DESPESA", LocalDateTime.of(2025, 3, 11, 8, 0)));
+        gastoService.salvar(gasto("99.00", "DESPESA", LocalDateTime.of(2025, 2, 28, 8, 0)));
+
+        PrevisaoService.PrevisaoMensal previsao = previsaoService.prever(usuarioId, MES, HOJE);
+
+        assertEquals(10, previsao.receitasPorDia().length);
+        assertEquals(100_000, previsao.receitasPorDia()[0]);
+        assertEquals(1_250, previsao.despesasPorDia()[1]);
+        assertEquals(750, previsao.despesasPorDia()[9]);
+        assertEquals(0, previsao.receitasPorDia()[1]);
+        assertEquals(new PrevisaoService.Projecao(310_000, 6_200), previsao.projecoes().get(PrevisaoLinear.NOME));
+        assertEquals(previsaoService.nomesModelos(), previsao.projecoes().keySet().stream()
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    @Test
+    void prever_GastoNovoNoPeriodo_DeveDescartarAPrevisaoEmCache() {
+        gastoService.salvar(gasto("10.00", "DESPESA", LocalDateTime.of(2025, 3, 5, 12, 0)));
+        PrevisaoService.PrevisaoMensal anterior = previsaoService.prever(usuarioId, MES, HOJE);
+        assertSame(anterior, previsaoService.prever(usuarioId, MES, HOJE));
+
+        gastoService.salvar(gasto("5.00", "DESPESA", LocalDateTime.of(2025, 3, 6, 12, 0)));
+
+        PrevisaoService.PrevisaoMensal atual = previsaoService.prever(usuarioId, MES, HOJE);
+        assertNotSame(anterior, atual);
+        assertEquals(500, atual.despesasPorDia()[5]);
+    }
+
+    private static Gasto gasto(String valor, String tipo, LocalDateTime data) {
+        Gasto gasto = new Gasto();
+        gasto.setDescricao("Previsão");
+        gasto.setValor(new BigDecimal(valor));
+        gasto.setCategoria("Geral");
+        gasto.setTipo(tipo);
+        gasto.setDataGasto(data);
+        return gasto;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.meuGasto.finControl.service;
+
+import br.com.meuGasto.finControl.entity.Gasto;
+import br.com.meuGasto.finControl.repository.GastoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "relatorio@teste.com")
+class RelatorioCacheIntegracaoTest {
+
+    private static final YearMonth JANEIRO = YearMonth.of(2025, 1);
+    private static final YearMonth FEVEREIRO = YearMonth.of(2025, 2);
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private GastoService gastoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ResumoGastoService resumoGastoService;
+
+    @Autowired
+    private GastoRepository gastoRepository;
+
+    @Autowired
+    private CacheRelatorios cacheRelatorios;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        // usuário do @WithMockUser, gravado via SQL (o @SQLInsert de Usuario não liga as colunas na ordem do INSERT)
+        jdbcTemplate.update("INSERT INTO usuarios (nome, email, senha, ativo) SELECT ?, ?, 'senha123', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM usuarios WHERE email = ?)", "Relatorio", "relatorio@teste.com", "relatorio@teste.com");
+        usuarioId = usuarioService.getIdUsuarioLogado();
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gastoRepository.deleteAll();
+        resumoGastoService.reconstruir();
+    }
+
+    @Test
+    void getEstatisticasMensais_MesmoMesEmInstantesDiferentes_DeveUsarUmaEntrada() {
+        gastoService.salvar(gasto("10.00", LocalDateTime.of(2025, 1, 10, 12, 0)));
+
+        Map<String, Object> primeira = relatorioService.getEstatisticasMensais(usuarioId, YearMonth.from(LocalDateTime.of(2025, 1, 3, 8, 15)));
+        Map<String, Object> segunda = relatorioService.getEstatisticasMensais(usuarioId, YearMonth.from(LocalDateTime.of(2025, 1, 28, 22, 40)));
+
+        assertSame(primeira, segunda);
+        assertEquals(1, cacheNativo("estatisticasMensais").estimatedSize());
+    }
+
+    @Test
+    void salvar_GastoNoMes_DeveInvalidarSoOsRelatoriosDoPeriodo() {
+        Gasto gasto = gastoService.salvar(gasto("10.00", LocalDateTime.of(2025, 1, 10, 12, 0)));
+        gastoService.salvar(gasto("5.00", LocalDateTime.of(2025, 2, 10, 12, 0)));
+        relatorioService.getEstatisticasMensais(usuarioId, JANEIRO);
+        Map<String, Object> fevereiro = relatorioService.getEstatisticasMensais(usuarioId, FEVEREIRO);
+        relatorioService.getGastosPorCategoria(usuarioId, LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 2, 28, 23, 59));
+
+        gastoService.salvar(gasto("2.50", LocalDateTime.of(2025, 1, 20, 9, 0)));
+
+        assertNull(cacheNativo("estatisticasMensais").getIfPresent(cacheRelatorios.doMes(usuarioId, JANEIRO)));
+        assertSame(fevereiro, relatorioService.getEstatisticasMensais(usuarioId, FEVEREIRO));
+        assertEquals(1, cacheNativo("estatisticasPorCategoria").estimatedSize());
+        assertEquals(new BigDecimal("12.50"), relatorioService.getEstatisticasMensais(usuarioId, JANEIRO).get("totalGasto"));
+
+        gastoService.excluir(gasto.getId());
+
+        assertEquals(new BigDecimal("2.50"), relatorioService.getEstatisticasMensais(usuarioId, JANEIRO).get("totalGasto"));
+    }
+
+    @Test
+    void salvar_MovendoGastoDeMes_DeveInvalidarOsDoisMeses() {
+        Gasto gasto = gastoService.salvar(gasto("10.00", LocalDateTime.of(2025, 1, 10, 12, 0)));
+        relatorioService.getEstatisticasMensais(usuarioId, JANEIRO);
+        relatorioService.getEstatisticasMensais(usuarioId, FEVEREIRO);
+
+        gasto.setDataGasto(LocalDateTime.of(2025, 2, 3, 12, 0));
+        gastoService.salvar(gasto);
+
+        assertEquals(BigDecimal.ZERO, relatorioService.getEstatisticasMensais(usuarioId, JANEIRO).get("totalGasto"));
+        assertEquals(new BigDecimal("10.00"), relatorioService.getEstatisticasMensais(usuarioId, FEVEREIRO).get("totalGasto"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> cacheNativo(String nome) {
+        Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache(nome)).getNativeCache();
+        cache.cleanUp();
+        return cache;
+    }
+
+    private static Gasto gasto(String valor, LocalDateTime data) {
+        Gasto gasto = new Gasto();
+        gasto.setDescricao("Relatório");
+        gasto.setValor(new BigDecimal(valor));
+        gasto.setCategoria("Mercado");
+        gasto.setTipo("DESPESA");
+        gasto.setDataGasto(data);
+        return gasto;
+    }
+}
@@ -1,7 +1,6 @@
 package br.com.meuGasto.finControl.service;
 
-import br.com.meuGasto.finControl.entity.Gasto;
-import br.com.meuGasto.finControl.repository.GastoRepository;
+import br.com.meuGasto.finControl.repository.LinhaResumo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,26 +9,33 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class RelatorioServiceTest {
 
     @Mock
-    private GastoRepository gastoRepository;
+    private ResumoGastoService resumoGastoService;
+
+    // colunas em memória indisponíveis: os relatórios leem os consolidados
+    @Mock
+    private AnaliseGastos analiseGastos;
 
     @InjectMocks
     private RelatorioService relatorioService;
 
-    private Gasto gasto1;
-    private Gasto gasto2;
+    private LinhaResumo linha1;
+    private LinhaResumo linha2;
     private LocalDateTime inicio;
     private LocalDateTime fim;
 
@@ -38,27 +44,16 @@ public class RelatorioServiceTest {
         inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
         fim = LocalDateTime.of(2025, 1, 31, 23, 59);
 
-        gasto1 = new Gasto();
-        gasto1.setId(1L);
-        gasto1.setDescricao("Alimentação");
-        gasto1.setValor(new BigDecimal("100.00"));
-        gasto1.setCategoria("ALIMENTACAO");
-        gasto1.setDataGasto(LocalDateTime.of(2025, 1, 15, 12, 0));
-
-        gasto2 = new Gasto();
-        gasto2.setId(2L);
-        gasto2.setDescricao("Transporte");
-        gasto2.setValor(new BigDecimal("50.00"));
-        gasto2.setCategoria("TRANSPORTE");
-        gasto2.setDataGasto(LocalDateTime.of(2025, 1, 15, 14, 0));
+        linha1 = new LinhaResumo(1L, LocalDate.of(2025, 1, 15), "ALIMENTACAO", "DESPESA", 10000L, 1L);
+        linha2 = new LinhaResumo(1L, LocalDate.of(2025, 1, 15), "TRANSPORTE", "DESPESA", 5000L, 1L);
     }
 
     @Test
     void getGastosPorCategoria_DeveRetornarMapaCorreto() {
-        List<Gasto> gastos = Arrays.asList(gasto1, gasto2);
-        when(gastoRepository.findByDataGastoBetween(any(), any())).thenReturn(gastos);
+        List<LinhaResumo> resumo = Arrays.asList(linha1, linha2);
+        when(resumoGastoService.resumir(eq(1L), any(), any())).thenReturn(resumo);
 
-        Map<String, BigDecimal> resultado = relatorioService.getGastosPorCategoria(inicio, fim);
+        Map<String, BigDecimal> resultado = relatorioService.getGastosPorCategoria(1L, inicio, fim);
 
         assertNotNull(resultado);
         assertEquals(2, resultado.size());
@@ -68,10 +63,10 @@ public class RelatorioServiceTest {
 
     @Test
     void getEstatisticasMensais_DeveRetornarEstatisticasCorretas() {
-        List<Gasto> gastos = Arrays.asList(gasto1, gasto2);
-        when(gastoRepository.findByDataGastoBetween(any(), any())).thenReturn(gastos);
+        List<LinhaResumo> resumo = Arrays.asList(linha1, linha2);
+        when(resumoGastoService.resumir(eq(1L), any(), any())).thenReturn(resumo);
 
-        Map<String, Object> estatisticas = relatorioService.getEstatisticasMensais(inicio);
+        Map<String, Object> estatisticas = relatorioService.getEstatisticasMensais(1L, YearMonth.from(inicio));
 
         assertNotNull(estatisticas);
         assertTrue(estatisticas.containsKey("totalGasto"));
@@ -90,9 +85,9 @@ public class RelatorioServiceTest {
 
     @Test
     void getGastosPorCategoria_SemGastos_DeveRetornarMapaVazio() {
-        when(gastoRepository.findByDataGastoBetween(any(), any())).thenReturn(Arrays.asList());
+        when(resumoGastoService.resumir(eq(1L), any(), any())).thenReturn(Arrays.asList());
 
-        Map<String, BigDecimal> resultado = relatorioService.getGastosPorCategoria(inicio, fim);
+        Map<String, BigDecimal> resultado = relatorioService.getGastosPorCategoria(1L, inicio, fim);
 
         assertNotNull(resultado);
         assertTrue(resultado.isEmpty());
@@ -100,9 +95,9 @@ public class RelatorioServiceTest {
 
     @Test
     void getEstatisticasMensais_SemGastos_DeveRetornarEstatisticasZeradas() {
-        when(gastoRepository.findByDataGastoBetween(any(), any())).thenReturn(Arrays.asList());
+        when(resumoGastoService.resumir(eq(1L), any(), any())).thenReturn(Arrays.asList());
 
-        Map<String, Object> estatisticas = relatorioService.getEstatisticasMensais(inicio);
+        Map<String, Object> estatisticas = relatorioService.getEstatisticasMensais(1L, YearMonth.from(inicio));
 
         assertNotNull(estatisticas);
         assertEquals(BigDecimal.ZERO, estatisticas.get("totalGasto"));
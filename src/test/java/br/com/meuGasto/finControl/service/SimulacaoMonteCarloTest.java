@@ -0,0 +1,79 @@
+package br.com.meuGasto.finControl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulacaoMonteCarloTest {
+
+    private static final int[] HORIZONTES = {20, 50, 81};
+
+    @Test
+    void simular_MesmaSemente_DeveReproduzirAsFaixasComTarefasEmParalelo() {
+        SimulacaoMonteCarlo simulacao = new SimulacaoMonteCarlo(historico(new Random(3), 8, 90));
+
+        SimulacaoMonteCarlo.Faixas primeira = simulacao.simular(50_000, HORIZONTES, 20_000, 42, 100);
+        SimulacaoMonteCarlo.Faixas segunda = simulacao.simular(50_000, HORIZONTES, 20_000, 42, 100);
+        SimulacaoMonteCarlo.Faixas outraSemente = simulacao.simular(50_000, HORIZONTES, 20_000, 43, 100);
+
+        assertArrayEquals(primeira.p10(), segunda.p10());
+        assertArrayEquals(primeira.p50(), segunda.p50());
+        assertArrayEquals(primeira.p90(), segunda.p90());
+        assertNotEquals(primeira.p50()[2], outraSemente.p50()[2]);
+        for (int h = 0; h < HORIZONTES.length; h++) {
+            assertTrue(primeira.p10()[h] <= primeira.p50()[h] && primeira.p50()[h] <= primeira.p90()[h]);
+        }
+    }
+
+    @Test
+    void simular_HistoricoConstante_DeveDarFaixasSemDispersao() {
+        long[][] historico = {{-1_000, -1_000, -1_000}, {300, 300, 300}};
+
+        SimulacaoMonteCarlo.Faixas faixas = new SimulacaoMonteCarlo(historico).simular(10_000, new int[]{0, 10}, 500, 1, 64);
+
+        assertArrayEquals(new long[]{10_000, 3_000}, faixas.p10());
+        assertArrayEquals(new long[]{10_000, 3_000}, faixas.p50());
+        assertArrayEquals(new long[]{10_000, 3_000}, faixas.p90());
+    }
+
+    @Test
+    void simular_MuitosCaminhos_MedianaDeveFicarPertoDoSaldoEsperado() {
+        long[][] historico = historico(new Random(9), 5, 60);
+        long mediaDiaria = 0;
+        for (long[] categoria : historico) {
+            for (long centavos : categoria) {
+                mediaDiaria += centavos;
+            }
+        }
+        mediaDiaria /= 60;
+
+        SimulacaoMonteCarlo.Faixas faixas = new SimulacaoMonteCarlo(historico).simular(0, new int[]{30}, 20_000, 5, 1_000);
+
+        // soma de 30 dias x 5 categorias independentes: a mediana fica perto da média
+        assertEquals(30 * mediaDiaria, faixas.p50()[0], Math.abs(30 * mediaDiaria) * 0.05 + 2_000);
+        assertTrue(faixas.p10()[0] < faixas.p90()[0]);
+    }
+
+    @Test
+    void posicaoPercentil_DeveUsarOPostoMaisProximo() {
+        assertEquals(0, SimulacaoMonteCarlo.posicaoPercentil(10, 1));
+        assertEquals(0, SimulacaoMonteCarlo.posicaoPercentil(10, 10));
+        assertEquals(4, SimulacaoMonteCarlo.posicaoPercentil(50, 10));
+        assertEquals(8, SimulacaoMonteCarlo.posicaoPercentil(90, 10));
+    }
+
+    private static long[][] historico(Random random, int categorias, int dias) {
+        long[][] historico = new long[categorias][dias];
+        for (int categoria = 0; categoria < categorias; categoria++) {
+            for (int dia = 0; dia < dias; dia++) {
+                // receita rara e alta na categoria 0, despesas espalhadas nas demais
+                historico[categoria][dia] = categoria == 0
+                        ? (random.nextInt(15) == 0 ? 300_000 : 0)
+                        : -random.nextInt(5_000);
+            }
+        }
+        return historico;
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.meuGasto.finControl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SomasDiariasTest {
+
+    private static final int PRIMEIRO_DIA = 20_000;
+    private static final int DIAS = 1_000;
+
+    @Test
+    void total_IntervalosAleatorios_DeveIgualarAVarredura() {
+        Random random = new Random(7);
+        int n = 5_000;
+        int[] dias = new int[n];
+        long[] centavos = new long[n];
+        byte[] tipos = new byte[n];
+        for (int i = 0; i < n; i++) {
+            dias[i] = PRIMEIRO_DIA + random.nextInt(DIAS);
+            centavos[i] = random.nextInt(50_000) - 10_000;
+            tipos[i] = (byte) random.nextInt(SomasDiarias.TIPOS);
+        }
+        SomasDiarias somas = SomasDiarias.de(PRIMEIRO_DIA, DIAS, dias, centavos, tipos, n);
+
+        for (int consulta = 0; consulta < 500; consulta++) {
+            int de = PRIMEIRO_DIA + random.nextInt(DIAS);
+            int ate = de + random.nextInt(DIAS);
+            int tipo = random.nextInt(SomasDiarias.TIPOS + 1) - 1;
+            long esperado = 0;
+            for (int i = 0; i < n; i++) {
+                if (dias[i] >= de && dias[i] <= ate && (tipo < 0 || tipos[i] == tipo)) {
+                    esperado += centavos[i];
+                }
+            }
+            assertEquals(esperado, somas.total(tipo, de, ate));
+        }
+    }
+
+    @Test
+    void com_Deltas_DeveIgualarAReconstrucaoSemAlterarOriginal() {
+        int[] dias = {PRIMEIRO_DIA, PRIMEIRO_DIA + 10, PRIMEIRO_DIA + 500};
+        long[] centavos = {100, 250, 75};
+        byte[] tipos = {0, 1, 0};
+        SomasDiarias somas = SomasDiarias.de(PRIMEIRO_DIA, DIAS, dias, centavos, tipos, 3);
+
+        SomasDiarias alteradas = somas.com(new int[]{PRIMEIRO_DIA + 10, PRIMEIRO_DIA + 999}, new byte[]{1, 2}, new long[]{-250, 40}, 2);
+
+        SomasDiarias esperadas = SomasDiarias.de(PRIMEIRO_DIA, DIAS, new int[]{PRIMEIRO_DIA, PRIMEIRO_DIA + 500, PRIMEIRO_DIA + 999},
+                new long[]{100, 75, 40}, new byte[]{0, 0, 2}, 3);
+        for (int dia = PRIMEIRO_DIA; dia < PRIMEIRO_DIA + DIAS; dia += 37) {
+            assertEquals(esperadas.total(-1, PRIMEIRO_DIA, dia), alteradas.total(-1, PRIMEIRO_DIA, dia));
+        }
+        assertEquals(250, somas.total(1, PRIMEIRO_DIA, PRIMEIRO_DIA + DIAS));
+        assertEquals(0, alteradas.total(1, PRIMEIRO_DIA, PRIMEIRO_DIA + DIAS));
+    }
+
+    @Test
+    void totalECom_ForaDaFaixa_DevemSomarZeroOuRejeitar() {
+        SomasDiarias somas = SomasDiarias.de(PRIMEIRO_DIA, 10, new int[]{PRIMEIRO_DIA + 5}, new long[]{100}, new byte[]{0}, 1);
+
+        assertEquals(0, somas.total(0, PRIMEIRO_DIA - 100, PRIMEIRO_DIA - 1));
+        assertEquals(100, somas.total(0, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class,
+                () -> somas.com(new int[]{PRIMEIRO_DIA + 10}, new byte[]{0}, new long[]{1}, 1));
+    }
+}
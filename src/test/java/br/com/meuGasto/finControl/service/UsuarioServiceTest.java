@@ -27,6 +27,9 @@ public class UsuarioServiceTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private CacheUsuariosAutenticados usuariosAutenticados;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -119,6 +122,8 @@ public class UsuarioServiceTest {
         assertNotNull(resultado);
         verify(usuarioRepository).findById(1L);
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(usuariosAutenticados).invalidar("test@example.com");
+        verify(usuariosAutenticados).invalidar("updated@example.com");
     }
 
     @Test
@@ -140,6 +145,7 @@ public class UsuarioServiceTest {
 
         verify(usuarioRepository).findById(1L);
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(usuariosAutenticados).invalidar("test@example.com");
     }
 
     @Test
@@ -151,6 +157,7 @@ public class UsuarioServiceTest {
 
         verify(usuarioRepository).findById(1L);
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(usuariosAutenticados).invalidar("test@example.com");
     }
 
     @Test
@@ -196,23 +203,23 @@ public class UsuarioServiceTest {
 
     @Test
     void excluir_QuandoExiste_DeveExcluirUsuario() {
-        when(usuarioRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(usuarioRepository).deleteById(1L);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioMock));
 
         usuarioService.excluir(1L);
 
-        verify(usuarioRepository).existsById(1L);
-        verify(usuarioRepository).deleteById(1L);
+        verify(usuarioRepository).delete(usuarioMock);
+        verify(usuariosAutenticados).invalidar("test@example.com");
     }
 
     @Test
     void excluir_QuandoNaoExiste_DeveLancarException() {
-        when(usuarioRepository.existsById(1L)).thenReturn(false);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> 
             usuarioService.excluir(1L)
         );
-        verify(usuarioRepository).existsById(1L);
-        verify(usuarioRepository, never()).deleteById(any());
+        verify(usuarioRepository).findById(1L);
+        verify(usuarioRepository, never()).delete(any(Usuario.class));
+        verifyNoInteractions(usuariosAutenticados);
     }
 }